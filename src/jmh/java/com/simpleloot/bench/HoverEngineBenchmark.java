@@ -0,0 +1,91 @@
+package com.simpleloot.bench;
+
+import com.simpleloot.engine.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole engine ticks: a swipe across a double chest followed by queue processing, with
+ * clicks going to a counting sink. Covers path resolution, queueing and dispatch together.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HoverEngineBenchmark {
+    // 0 = instant (batch per tick), 20 = default delay (one per tick)
+    @Param({"0", "20"})
+    public int transferDelayMs;
+
+    private RectSlotLayout layout;
+    private HoverEngine engine;
+    private HoverInput input;
+    private HoverSettings settings;
+    private final boolean[] filled = new boolean[90];
+    private int clicks;
+
+    private final ItemFacts facts = new ItemFacts() {
+        @Override public boolean hasItem(int slotId) { return slotId >= 0 && slotId < filled.length && filled[slotId]; }
+        @Override public boolean isEquippableArmor(int slotId) { return false; }
+        @Override public int armorType(int slotId) { return -1; }
+        @Override public boolean isEnchantingInput(int slotId) { return true; }
+        @Override public boolean isBeaconPayment(int slotId) { return true; }
+        @Override public boolean passesFilter(int slotId, boolean dropMode) { return true; }
+        @Override public int itemKey(int slotId) { return hasItem(slotId) ? slotId + 1 : 0; }
+    };
+
+    // Moving a stack empties its slot, like the client-side prediction does
+    private final ClickSink sink = (slotId, button, action) -> {
+        clicks++;
+        if (slotId >= 0) filled[slotId] = false;
+    };
+
+    @Setup
+    public void setup() {
+        layout = RectSlotLayout.containerGrid(6);
+        engine = new HoverEngine();
+        input = new HoverInput();
+        input.screenType = ScreenType.DOUBLE_CHEST;
+        settings = new HoverSettings() {
+            @Override public boolean enabled() { return true; }
+            @Override public boolean hotbarProtection() { return true; }
+            @Override public int transferDelayMs() { return transferDelayMs; }
+            @Override public boolean allowHoverDrop() { return true; }
+            @Override public boolean allowCraftingGrid() { return true; }
+            @Override public boolean allowArmorEquip() { return true; }
+            @Override public int armorSwapDelayMs() { return 70; }
+        };
+    }
+
+    /**
+     * One session: swipe every container row left to right over 12 ticks, then run ticks
+     * until the queue drains.
+     */
+    @Benchmark
+    public int swipeAndDrain() {
+        java.util.Arrays.fill(filled, 0, 54, true);
+        engine.reset();
+        clicks = 0;
+        long time = 0;
+        input.hoverActive = true;
+        for (int row = 0; row < 6; row++) {
+            int y = layout.slotY(row * 9) + 8;
+            input.mouseX = layout.slotX(row * 9) + 8;
+            input.mouseY = y;
+            input.timeMs = time += 50;
+            engine.tick(input, settings, layout, facts, sink);
+            input.mouseX = layout.slotX(row * 9 + 8) + 8;
+            input.timeMs = time += 50;
+            engine.tick(input, settings, layout, facts, sink);
+        }
+        input.hoverActive = false;
+        while (engine.pendingCount() > 0) {
+            input.timeMs = time += 50;
+            engine.tick(input, settings, layout, facts, sink);
+        }
+        return clicks;
+    }
+}
@@ -0,0 +1,77 @@
+package com.simpleloot.bench;
+
+import com.simpleloot.loot.ItemPredicateCache;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item predicate checks the handler runs on every queued and dispatched stack.
+ *
+ * Bootstraps the vanilla registries once per fork. The stack mix covers plain items,
+ * armor and beacon payments, a damaged tool (patched, but not in a component the predicates
+ * read, so still cached) and armor with a patched max damage, which takes the uncached path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemPredicateBenchmark {
+    private ItemStack[] stacks;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+
+        ItemStack damaged = new ItemStack(Items.DIAMOND_SWORD);
+        damaged.setDamageValue(100);
+        ItemStack reinforced = new ItemStack(Items.IRON_HELMET);
+        reinforced.set(DataComponents.MAX_DAMAGE, 1000);
+        stacks = new ItemStack[] {
+                new ItemStack(Items.DIRT, 64),
+                new ItemStack(Items.DIAMOND_CHESTPLATE),
+                new ItemStack(Items.ELYTRA),
+                new ItemStack(Items.IRON_INGOT, 32),
+                new ItemStack(Items.BOOK),
+                damaged,
+                reinforced,
+        };
+    }
+
+    @Benchmark
+    public void isEquippableArmor(Blackhole blackhole) {
+        for (ItemStack stack : stacks) {
+            blackhole.consume(ItemPredicateCache.isEquippableArmor(stack));
+        }
+    }
+
+    @Benchmark
+    public void getArmorSlotType(Blackhole blackhole) {
+        for (ItemStack stack : stacks) {
+            blackhole.consume(ItemPredicateCache.getArmorSlotType(stack));
+        }
+    }
+
+    @Benchmark
+    public void isEnchantableItem(Blackhole blackhole) {
+        for (ItemStack stack : stacks) {
+            blackhole.consume(ItemPredicateCache.isEnchantableItem(stack));
+        }
+    }
+
+    @Benchmark
+    public void isBeaconPaymentItem(Blackhole blackhole) {
+        for (ItemStack stack : stacks) {
+            blackhole.consume(ItemPredicateCache.isBeaconPaymentItem(stack));
+        }
+    }
+}
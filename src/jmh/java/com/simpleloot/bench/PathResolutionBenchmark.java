@@ -0,0 +1,58 @@
+package com.simpleloot.bench;
+
+import com.simpleloot.engine.PathResolver;
+import com.simpleloot.engine.RectSlotLayout;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Path-to-slot resolution for one tick of mouse movement.
+ *
+ * {@code swipeLength} is the distance the cursor travelled in physical pixels during the
+ * tick; at higher GUI scales the same physical swipe covers fewer GUI pixels and needs
+ * fewer samples. The layout is a double chest (54 container + 36 player slots), the
+ * largest vanilla grid, hit-tested the same way vanilla does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathResolutionBenchmark {
+    @Param({"0", "16", "64", "256", "1024"})
+    public int swipeLength;
+
+    @Param({"1", "2", "3", "4"})
+    public int guiScale;
+
+    private RectSlotLayout layout;
+    private PathResolver resolver;
+    private double fromX, fromY, toX, toY;
+
+    @Setup
+    public void setup() {
+        layout = RectSlotLayout.containerGrid(6);
+        resolver = new PathResolver();
+
+        // Diagonal swipe from the top-left container slot, clamped to the screen area
+        double guiLength = (double) swipeLength / guiScale;
+        double step = guiLength / Math.sqrt(2);
+        fromX = 9;
+        fromY = 19;
+        toX = Math.min(fromX + step, 170);
+        toY = Math.min(fromY + step, 220);
+    }
+
+    @Benchmark
+    public int resolve() {
+        return resolver.resolve(layout, fromX, fromY, toX, toY);
+    }
+
+    @Benchmark
+    public int resolveFirstTick() {
+        // No previous position - a single hit test
+        return resolver.resolve(layout, -1, -1, toX, toY);
+    }
+}
@@ -0,0 +1,45 @@
+package com.simpleloot.bench;
+
+import com.simpleloot.loot.ScreenClassifier;
+import net.minecraft.client.gui.screens.inventory.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Screen classification, as done once per tick for the open screen.
+ *
+ * Uses screen classes rather than instances, so no client is needed. The class list mixes
+ * early and late entries of the classification order; {@code UNSUPPORTED} covers screens
+ * that fall through every check.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScreenClassificationBenchmark {
+    private Class<?>[] screenClasses;
+
+    @Setup
+    public void setup() {
+        screenClasses = new Class<?>[] {
+                InventoryScreen.class,
+                ContainerScreen.class,
+                ShulkerBoxScreen.class,
+                FurnaceScreen.class,
+                BeaconScreen.class,
+                CartographyTableScreen.class,
+                MerchantScreen.class, // unsupported
+        };
+    }
+
+    @Benchmark
+    public void ofClass(Blackhole blackhole) {
+        for (Class<?> screenClass : screenClasses) {
+            blackhole.consume(ScreenClassifier.ofClass(screenClass));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.simpleloot.bench;
+
+import com.simpleloot.engine.SlotQueue;
+import com.simpleloot.engine.SlotSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transfer queue operations: enqueue a swipe's worth of slots with the "already queued"
+ * check, then drain it the way the dispatcher does.
+ *
+ * The boxed {@code LinkedList}/{@code HashSet} pair is the structure the handler used
+ * before {@link SlotQueue}/{@link SlotSet}; it is kept here as the baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotQueueBenchmark {
+    // 9 = a hotbar swipe, 54 = a double chest, 270 = a large modded storage screen
+    @Param({"9", "54", "270"})
+    public int slots;
+
+    private final SlotQueue queue = new SlotQueue();
+    private final SlotSet queued = new SlotSet();
+    private final Queue<Integer> boxedQueue = new LinkedList<>();
+    private final Set<Integer> boxedQueued = new HashSet<>();
+
+    @Benchmark
+    public int enqueueDrain() {
+        for (int id = 0; id < slots; id++) {
+            if (queued.add(id)) {
+                queue.add(id);
+            }
+        }
+        int sum = 0;
+        while (!queue.isEmpty()) {
+            int id = queue.poll();
+            queued.remove(id);
+            sum += id;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int enqueueDrainBoxed() {
+        for (int id = 0; id < slots; id++) {
+            if (!boxedQueued.contains(id)) {
+                boxedQueue.add(id);
+                boxedQueued.add(id);
+            }
+        }
+        int sum = 0;
+        while (!boxedQueue.isEmpty()) {
+            Integer id = boxedQueue.poll();
+            boxedQueued.remove(id);
+            sum += id;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int contains() {
+        // Re-hovering an already queued swipe: every check hits
+        queued.clear();
+        for (int id = 0; id < slots; id++) queued.add(id);
+        int hits = 0;
+        for (int id = 0; id < slots; id++) {
+            if (queued.contains(id)) hits++;
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int containsBoxed() {
+        boxedQueued.clear();
+        for (int id = 0; id < slots; id++) boxedQueued.add(id);
+        int hits = 0;
+        for (int id = 0; id < slots; id++) {
+            if (boxedQueued.contains(id)) hits++;
+        }
+        return hits;
+    }
+}
@@ -3,10 +3,16 @@ package com.simpleloot;
 //? if <26.1 {
 /*import com.simpleloot.config.ModConfigScreen;*/
 //?}
+import com.simpleloot.command.SimpleLootCommands;
 import com.simpleloot.config.SimpleLootConfig;
 import com.simpleloot.config.SimpleLootConfigScreen;
+import com.simpleloot.loot.ContainerTracker;
+import com.simpleloot.loot.DebugDump;
 import com.simpleloot.loot.HoverLootHandler;
+import com.simpleloot.loot.Loadouts;
+import com.simpleloot.mixin.KeyMappingMixin;
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 //? if >=26.1 {
 import net.fabricmc.fabric.api.client.keymapping.v1.KeyMappingHelper;
@@ -50,16 +56,30 @@ public class SimpleLootClient implements ClientModInitializer {
     // Keybindings - all unbound by default to prevent conflicts
     public static KeyMapping hoverLootKeyBinding;  // Hold to hover loot
     public static KeyMapping hoverDropKeyBinding;  // Hold to hover drop (alternative to Ctrl+HoverLoot)
+    public static KeyMapping hoverTakeKeyBinding;  // Hold to hover loot from the container only
+    public static KeyMapping hoverDepositKeyBinding; // Hold to hover loot from the player inventory only
     public static KeyMapping toggleKeyBinding;     // Enable/disable the mod
     public static KeyMapping configKeyBinding;     // Open config screen
     public static KeyMapping reloadConfigKeyBinding; // Reload config from file
+    public static KeyMapping dumpDebugLogKeyBinding; // Write the debug ring buffer to a file
+    public static KeyMapping searchKeyBinding;     // Open the container search field
+    public static KeyMapping depositMatchingKeyBinding; // Deposit stacks the open container already holds
+    public static KeyMapping restockLoadoutKeyBinding; // Restock the selected loadout from the open container
+    public static KeyMapping undoSessionKeyBinding; // Move the last hover session's stacks back
 
     @Override
     public void onInitializeClient() {
         LOGGER.info("Initializing SimpleLoot Client");
 
-        // Load configuration
-        SimpleLootConfig.load();
+        // Load configuration in the background; the first client tick waits for it
+        SimpleLootConfig.loadAsync();
+        
+        // Write any pending config save and container index changes before the client exits
+        ClientLifecycleEvents.CLIENT_STOPPING.register(client -> {
+            SimpleLootConfig.flush();
+            ContainerTracker.flush();
+            Loadouts.flush();
+        });
 
         // Register keybindings with no default key assigned
         
@@ -87,6 +107,30 @@ public class SimpleLootClient implements ClientModInitializer {
                 KEYBIND_CATEGORY
         ));
 
+        // Hover take key - hover loot that only moves container slots into the inventory
+        //? if >=26.1 {
+        hoverTakeKeyBinding = KeyMappingHelper.registerKeyMapping(new KeyMapping(
+        //?} else {
+        /*hoverTakeKeyBinding = KeyBindingHelper.registerKeyBinding(new KeyMapping(*/
+        //?}
+                "key.simpleloot.hover_take",
+                InputConstants.Type.KEYSYM,
+                GLFW.GLFW_KEY_UNKNOWN,
+                KEYBIND_CATEGORY
+        ));
+
+        // Hover deposit key - hover loot that only moves inventory slots into the container
+        //? if >=26.1 {
+        hoverDepositKeyBinding = KeyMappingHelper.registerKeyMapping(new KeyMapping(
+        //?} else {
+        /*hoverDepositKeyBinding = KeyBindingHelper.registerKeyBinding(new KeyMapping(*/
+        //?}
+                "key.simpleloot.hover_deposit",
+                InputConstants.Type.KEYSYM,
+                GLFW.GLFW_KEY_UNKNOWN,
+                KEYBIND_CATEGORY
+        ));
+
         // Enable/Disable the mod entirely
         //? if >=26.1 {
         toggleKeyBinding = KeyMappingHelper.registerKeyMapping(new KeyMapping(
@@ -123,19 +167,95 @@ public class SimpleLootClient implements ClientModInitializer {
                 KEYBIND_CATEGORY
         ));
 
-        // Register tick event for keybinding handling
-        ClientTickEvents.END_CLIENT_TICK.register(this::handleKeybinds);
+        // Dump debug log to a file
+        //? if >=26.1 {
+        dumpDebugLogKeyBinding = KeyMappingHelper.registerKeyMapping(new KeyMapping(
+        //?} else {
+        /*dumpDebugLogKeyBinding = KeyBindingHelper.registerKeyBinding(new KeyMapping(*/
+        //?}
+                "key.simpleloot.dump_debug_log",
+                InputConstants.Type.KEYSYM,
+                GLFW.GLFW_KEY_UNKNOWN,
+                KEYBIND_CATEGORY
+        ));
+
+        // Search the open container (handled by the container screen, not per tick)
+        //? if >=26.1 {
+        searchKeyBinding = KeyMappingHelper.registerKeyMapping(new KeyMapping(
+        //?} else {
+        /*searchKeyBinding = KeyBindingHelper.registerKeyBinding(new KeyMapping(*/
+        //?}
+                "key.simpleloot.search",
+                InputConstants.Type.KEYSYM,
+                GLFW.GLFW_KEY_UNKNOWN,
+                KEYBIND_CATEGORY
+        ));
+
+        // Deposit matching items into the open container (handled by the container screen)
+        //? if >=26.1 {
+        depositMatchingKeyBinding = KeyMappingHelper.registerKeyMapping(new KeyMapping(
+        //?} else {
+        /*depositMatchingKeyBinding = KeyBindingHelper.registerKeyBinding(new KeyMapping(*/
+        //?}
+                "key.simpleloot.deposit_matching",
+                InputConstants.Type.KEYSYM,
+                GLFW.GLFW_KEY_UNKNOWN,
+                KEYBIND_CATEGORY
+        ));
+
+        // Restock the selected loadout from the open container (handled by the container screen)
+        //? if >=26.1 {
+        restockLoadoutKeyBinding = KeyMappingHelper.registerKeyMapping(new KeyMapping(
+        //?} else {
+        /*restockLoadoutKeyBinding = KeyBindingHelper.registerKeyBinding(new KeyMapping(*/
+        //?}
+                "key.simpleloot.restock_loadout",
+                InputConstants.Type.KEYSYM,
+                GLFW.GLFW_KEY_UNKNOWN,
+                KEYBIND_CATEGORY
+        ));
+
+        // Undo the last hover session on the open container (handled by the container screen)
+        //? if >=26.1 {
+        undoSessionKeyBinding = KeyMappingHelper.registerKeyMapping(new KeyMapping(
+        //?} else {
+        /*undoSessionKeyBinding = KeyBindingHelper.registerKeyBinding(new KeyMapping(*/
+        //?}
+                "key.simpleloot.undo_session",
+                InputConstants.Type.KEYSYM,
+                GLFW.GLFW_KEY_UNKNOWN,
+                KEYBIND_CATEGORY
+        ));
 
         // Initialize the hover loot handler
         HoverLootHandler.init();
+        
+        // One tick listener for keybinds and hover loot
+        // (a named method rather than a lambda, so it is recognizable in profiles)
+        ClientTickEvents.END_CLIENT_TICK.register(SimpleLootClient::onEndTick);
+        
+        // Client commands (/simpleloot ...)
+        SimpleLootCommands.register();
 
         LOGGER.info("SimpleLoot Client initialized successfully!");
     }
     
+    /**
+     * Per-tick entry point: keybinds first, so a toggle or reload applies to this tick's
+     * hover loot, then the hover handler.
+     */
+    private static void onEndTick(Minecraft client) {
+        // The config is read in the background at startup; nothing below may see defaults
+        // the load is about to replace (the load is usually done long before the first tick)
+        SimpleLootConfig.awaitInitialLoad();
+        handleKeybinds(client);
+        HoverLootHandler.tick(client);
+    }
+    
     /**
      * Handles all keybind processing each tick.
      */
-    private void handleKeybinds(Minecraft client) {
+    private static void handleKeybinds(Minecraft client) {
         SimpleLootConfig config = SimpleLootConfig.getInstance();
         
         // Handle enable/disable mod keybind
@@ -154,20 +274,42 @@ public class SimpleLootClient implements ClientModInitializer {
         
         // Handle reload config keybind
         while (reloadConfigKeyBinding.consumeClick()) {
-            SimpleLootConfig.reload();
-            LOGGER.info("SimpleLoot config reloaded from file");
-            if (client.player != null) {
-                //? if >=26.1 {
-                client.player.sendOverlayMessage(
-                    Component.literal("SimpleLoot config reloaded")
-                );
-                //?} else {
-                /*client.player.displayClientMessage(
-                    Component.literal("SimpleLoot config reloaded"),
-                    true
-                );*/
-                //?}
-            }
+            // File is read off-thread; report back on the client thread once done
+            SimpleLootConfig.reload().whenComplete((ignored, error) -> client.execute(() -> {
+                // A file that cannot be read or parsed keeps the current config
+                String text = error == null ? "SimpleLoot config reloaded"
+                        : "SimpleLoot config file is invalid, keeping current settings";
+                if (error == null) {
+                    LOGGER.info("SimpleLoot config reloaded from file");
+                }
+                if (client.player != null) {
+                    //? if >=26.1 {
+                    client.player.sendOverlayMessage(
+                        Component.literal(text)
+                    );
+                    //?} else {
+                    /*client.player.displayClientMessage(
+                        Component.literal(text),
+                        true
+                    );*/
+                    //?}
+                }
+            }));
+        }
+        
+        // Handle dump debug log keybind
+        while (dumpDebugLogKeyBinding.consumeClick()) {
+            DebugDump.dump("manual").thenAccept(file -> client.execute(() -> {
+                if (client.player != null) {
+                    String message = file != null ? "SimpleLoot debug log written to " + file.getFileName()
+                            : "SimpleLoot debug log is empty - enable Debug Mode first";
+                    //? if >=26.1 {
+                    client.player.sendOverlayMessage(Component.literal(message));
+                    //?} else {
+                    /*client.player.displayClientMessage(Component.literal(message), true);*/
+                    //?}
+                }
+            }));
         }
     }
     
@@ -189,28 +331,7 @@ public class SimpleLootClient implements ClientModInitializer {
      * Checks if the hover loot key is currently being held down.
      */
     public static boolean isHoverLootKeyHeld() {
-        Minecraft client = Minecraft.getInstance();
-        if (client == null || client.getWindow() == null) {
-            return false;
-        }
-        
-        InputConstants.Key boundKey = InputConstants.getKey(hoverLootKeyBinding.saveString());
-        
-        if (boundKey.equals(InputConstants.UNKNOWN)) {
-            return false;
-        }
-        
-        long windowHandle = client.getWindow().handle();
-        
-        if (boundKey.getType() == InputConstants.Type.KEYSYM) {
-            return GLFW.glfwGetKey(windowHandle, boundKey.getValue()) == GLFW.GLFW_PRESS;
-        }
-        
-        if (boundKey.getType() == InputConstants.Type.MOUSE) {
-            return GLFW.glfwGetMouseButton(windowHandle, boundKey.getValue()) == GLFW.GLFW_PRESS;
-        }
-        
-        return false;
+        return isKeyHeld(hoverLootKeyBinding);
     }
     
     /**
@@ -227,14 +348,36 @@ public class SimpleLootClient implements ClientModInitializer {
      * Checks if the hover drop key is currently being held down.
      */
     public static boolean isHoverDropKeyHeld() {
-        Minecraft client = Minecraft.getInstance();
-        if (client == null || client.getWindow() == null) {
+        return isKeyHeld(hoverDropKeyBinding);
+    }
+    
+    /**
+     * Checks if the hover take (container to inventory only) key is currently being held down.
+     */
+    public static boolean isHoverTakeKeyHeld() {
+        return isKeyHeld(hoverTakeKeyBinding);
+    }
+    
+    /**
+     * Checks if the hover deposit (inventory to container only) key is currently being held down.
+     */
+    public static boolean isHoverDepositKeyHeld() {
+        return isKeyHeld(hoverDepositKeyBinding);
+    }
+    
+    /**
+     * Polls the physical state of a keybinding's key. Vanilla only tracks key state while no
+     * screen is open, so this asks GLFW directly. The bound key is read from the mapping
+     * (no string parsing), and unbound keys return before touching the window.
+     */
+    private static boolean isKeyHeld(KeyMapping mapping) {
+        InputConstants.Key boundKey = ((KeyMappingMixin) mapping).getBoundKey();
+        if (boundKey.equals(InputConstants.UNKNOWN)) {
             return false;
         }
         
-        InputConstants.Key boundKey = InputConstants.getKey(hoverDropKeyBinding.saveString());
-        
-        if (boundKey.equals(InputConstants.UNKNOWN)) {
+        Minecraft client = Minecraft.getInstance();
+        if (client == null || client.getWindow() == null) {
             return false;
         }
         
@@ -0,0 +1,160 @@
+package com.simpleloot.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.simpleloot.engine.index.ContainerIndex;
+import com.simpleloot.loot.ContainerTracker;
+import com.simpleloot.loot.DebugDump;
+import com.simpleloot.loot.Loadouts;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.player.LocalPlayer;
+import net.minecraft.commands.CommandBuildContext;
+import net.minecraft.commands.arguments.item.ItemArgument;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.item.Item;
+
+import java.util.List;
+
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.argument;
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
+
+/**
+ * Client-side {@code /simpleloot} commands.
+ *
+ * - {@code /simpleloot debug dump} - write the debug ring buffer to a file
+ * - {@code /simpleloot find <item>} - list indexed containers holding an item
+ * - {@code /simpleloot loadout save|select|delete <name>}, {@code /simpleloot loadout list} -
+ *   manage loadout templates for the Restock Loadout key
+ */
+public final class SimpleLootCommands {
+    private SimpleLootCommands() {}
+
+    // Containers listed by /simpleloot find
+    private static final int FIND_LIMIT = 8;
+
+    /**
+     * Registers the command tree.
+     */
+    public static void register() {
+        ClientCommandRegistrationCallback.EVENT.register(SimpleLootCommands::register);
+    }
+
+    private static void register(CommandDispatcher<FabricClientCommandSource> dispatcher, CommandBuildContext registryAccess) {
+        dispatcher.register(literal("simpleloot")
+                .then(literal("debug")
+                        .then(literal("dump").executes(context -> {
+                            dumpDebugLog(context.getSource());
+                            return 1;
+                        })))
+                .then(literal("find")
+                        .then(argument("item", ItemArgument.item(registryAccess)).executes(context -> {
+                            Item item = ItemArgument.getItem(context, "item").createItemStack(1, false).getItem();
+                            return find(context.getSource(), item);
+                        })))
+                .then(literal("loadout")
+                        .then(literal("save").then(argument("name", StringArgumentType.word()).executes(context ->
+                                saveLoadout(context.getSource(), StringArgumentType.getString(context, "name")))))
+                        .then(literal("select").then(argument("name", StringArgumentType.word()).executes(context ->
+                                selectLoadout(context.getSource(), StringArgumentType.getString(context, "name")))))
+                        .then(literal("delete").then(argument("name", StringArgumentType.word()).executes(context ->
+                                deleteLoadout(context.getSource(), StringArgumentType.getString(context, "name")))))
+                        .then(literal("list").executes(context -> listLoadouts(context.getSource())))));
+    }
+
+    /**
+     * Saves the current inventory as a loadout template and selects it.
+     */
+    public static int saveLoadout(FabricClientCommandSource source, String name) {
+        LocalPlayer player = Minecraft.getInstance().player;
+        if (player == null) return 0;
+        int slots = Loadouts.save(name, player);
+        source.sendFeedback(Component.literal("Loadout " + name + " saved (" + slots + " slots) and selected"));
+        return slots;
+    }
+
+    /**
+     * Selects the loadout the Restock Loadout key uses.
+     */
+    public static int selectLoadout(FabricClientCommandSource source, String name) {
+        if (!Loadouts.select(name)) {
+            source.sendError(Component.literal("No loadout named " + name));
+            return 0;
+        }
+        source.sendFeedback(Component.literal("Loadout " + name + " selected"));
+        return 1;
+    }
+
+    /**
+     * Deletes a loadout template.
+     */
+    public static int deleteLoadout(FabricClientCommandSource source, String name) {
+        if (!Loadouts.delete(name)) {
+            source.sendError(Component.literal("No loadout named " + name));
+            return 0;
+        }
+        source.sendFeedback(Component.literal("Loadout " + name + " deleted"));
+        return 1;
+    }
+
+    /**
+     * Lists the saved loadouts, marking the selected one.
+     */
+    public static int listLoadouts(FabricClientCommandSource source) {
+        List<String> names = Loadouts.names();
+        if (names.isEmpty()) {
+            source.sendError(Component.literal("No loadouts saved - use /simpleloot loadout save <name>"));
+            return 0;
+        }
+        String selected = Loadouts.selected();
+        for (String name : names) {
+            source.sendFeedback(Component.literal((name.equals(selected) ? "* " : "  ") + name));
+        }
+        return names.size();
+    }
+
+    /**
+     * Lists the indexed containers holding the given item, with their distance from the player.
+     */
+    public static int find(FabricClientCommandSource source, Item item) {
+        Component name = item.getDefaultInstance().getHoverName();
+        List<ContainerIndex.Match> matches = ContainerTracker.find(item, FIND_LIMIT);
+        if (matches.isEmpty()) {
+            source.sendError(Component.literal("No indexed container holds ").append(name)
+                    .append(" (" + ContainerTracker.size() + " containers indexed)"));
+            return 0;
+        }
+
+        source.sendFeedback(Component.literal(ContainerTracker.totalCount(item) + " ").append(name)
+                .append(" in " + matches.size() + (matches.size() == FIND_LIMIT ? "+" : "") + " containers:"));
+        LocalPlayer player = Minecraft.getInstance().player;
+        String playerDimension = player != null ? ContainerTracker.dimensionId(player.level()) : "";
+        for (ContainerIndex.Match match : matches) {
+            BlockPos pos = BlockPos.of(match.key().pos());
+            StringBuilder line = new StringBuilder("  ").append(match.count()).append(" at ")
+                    .append(pos.getX()).append(", ").append(pos.getY()).append(", ").append(pos.getZ());
+            if (player != null && match.key().dimension().equals(playerDimension)) {
+                line.append(" (").append((int) Math.sqrt(player.blockPosition().distSqr(pos))).append(" blocks)");
+            } else {
+                line.append(" (").append(match.key().dimension()).append(')');
+            }
+            source.sendFeedback(Component.literal(line.toString()));
+        }
+        return matches.size();
+    }
+
+    /**
+     * Dumps the debug log and reports the file in chat once it is written.
+     */
+    public static void dumpDebugLog(FabricClientCommandSource source) {
+        DebugDump.dump("manual").thenAccept(file -> Minecraft.getInstance().execute(() -> {
+            if (file != null) {
+                source.sendFeedback(Component.literal("SimpleLoot debug log written to " + file.getFileName()));
+            } else {
+                source.sendError(Component.literal("SimpleLoot debug log is empty - enable Debug Mode first"));
+            }
+        }));
+    }
+}
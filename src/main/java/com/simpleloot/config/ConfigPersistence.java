@@ -0,0 +1,118 @@
+package com.simpleloot.config;
+
+import com.simpleloot.SimpleLootClient;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Background writer for the config file (and other small JSON files, like loadouts).
+ *
+ * Save requests only record the latest serialized JSON; a virtual thread picks it up after
+ * a short debounce window, so a burst of saves (e.g. spamming the toggle key) collapses
+ * into one write. Files are written to a temp file next to the target and moved into
+ * place atomically, so a crash mid-write never leaves a truncated config behind.
+ *
+ * {@link #flush()} writes any pending content synchronously and is called on client shutdown.
+ */
+public final class ConfigPersistence {
+    // How long to wait for more save requests before writing
+    private static final long DEBOUNCE_MS = 250;
+
+    private final Path path;
+    private final Path tempPath;
+
+    // Latest JSON waiting to be written, or null if nothing is pending
+    private final AtomicReference<String> pending = new AtomicReference<>();
+    // True while a writer thread is scheduled or running
+    private final AtomicBoolean writerScheduled = new AtomicBoolean(false);
+    // Held while taking the pending content and writing it, so writes land in the order
+    // their content was taken (an older write can never overwrite a newer one)
+    private final Object writeLock = new Object();
+
+    // Last content written by us (lets the file watcher ignore our own writes)
+    private volatile String lastWritten = null;
+
+    public ConfigPersistence(Path path) {
+        this.path = path;
+        this.tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+    }
+
+    /**
+     * Queues the given JSON to be written. Returns immediately.
+     */
+    public void requestSave(String json) {
+        pending.set(json);
+        if (writerScheduled.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("SimpleLoot config writer").start(this::runWriter);
+        }
+    }
+
+    /**
+     * Writes any pending content on the calling thread. Safe to call at any time.
+     */
+    public void flush() {
+        writePending();
+    }
+
+    /**
+     * Returns the content of the most recent successful write, or null if none.
+     */
+    String lastWritten() {
+        return lastWritten;
+    }
+
+    /**
+     * Writer loop: wait out the debounce window, write the latest content, and exit once
+     * nothing new arrived during the write.
+     */
+    private void runWriter() {
+        try {
+            while (true) {
+                Thread.sleep(DEBOUNCE_MS);
+                writePending();
+                writerScheduled.set(false);
+                // A request may have arrived after getAndSet but before the flag was cleared
+                if (pending.get() == null || !writerScheduled.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            writerScheduled.set(false);
+            flush();
+        }
+    }
+
+    /**
+     * Takes the pending content and writes it, both under the write lock.
+     */
+    private void writePending() {
+        synchronized (writeLock) {
+            String json = pending.getAndSet(null);
+            if (json != null) {
+                write(json);
+            }
+        }
+    }
+
+    private void write(String json) {
+        try {
+            Files.createDirectories(path.getParent());
+            Files.writeString(tempPath, json);
+            try {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            lastWritten = json;
+            SimpleLootClient.LOGGER.debug("SimpleLoot saved {}", path);
+        } catch (IOException e) {
+            SimpleLootClient.LOGGER.error("Failed to save SimpleLoot {}", path.getFileName(), e);
+        }
+    }
+}
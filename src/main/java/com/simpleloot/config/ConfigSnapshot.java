@@ -0,0 +1,173 @@
+package com.simpleloot.config;
+
+import com.simpleloot.engine.HoverSettings;
+import com.simpleloot.engine.ScreenType;
+import com.simpleloot.loot.ItemFilter;
+
+import java.util.List;
+
+/**
+ * Immutable, flattened view of {@link SimpleLootConfig} for the per-tick hot path.
+ *
+ * A new snapshot is built whenever the config is loaded, saved or reloaded and published
+ * through a single volatile reference ({@link SimpleLootConfig#snapshot()}). The hover
+ * handler reads that reference once per tick and passes the snapshot down, so a reload
+ * can never be observed half-applied.
+ *
+ * Per-container toggles are folded into a bitmask over {@link ScreenType} ordinals and the
+ * item filter rules are compiled up front. The snapshot doubles as the engine's
+ * {@link HoverSettings}.
+ */
+public final class ConfigSnapshot implements HoverSettings {
+    // General
+    public final boolean enabled;
+    public final boolean debugMode;
+    public final boolean recordTraces;
+    public final boolean showHud;
+    public final boolean logSessionStats;
+    public final boolean hotbarProtection;
+    public final int transferDelayMs;
+    public final int tickBudgetMicros;
+
+    // Features
+    public final boolean allowHoverDrop;
+    public final boolean allowCraftingGrid;
+    public final boolean allowArmorEquip;
+    public final int armorSwapDelayMs;
+    public final int containerIndexKb;
+    public final boolean persistContainerIndex;
+
+    // Item filter (PASS_ALL-equivalent when disabled)
+    public final ItemFilter lootFilter;
+    public final ItemFilter dropFilter;
+
+    // Bit per ScreenType ordinal: set if hover loot may run on that screen type
+    private final int screenMask;
+
+    private ConfigSnapshot(SimpleLootConfig config) {
+        this.enabled = config.enabled;
+        this.debugMode = config.debugMode;
+        this.recordTraces = config.recordTraces;
+        this.showHud = config.showHud;
+        this.logSessionStats = config.logSessionStats;
+        this.hotbarProtection = config.hotbarProtection;
+        this.transferDelayMs = config.transferDelayMs;
+        this.tickBudgetMicros = config.tickBudgetMicros;
+        this.allowHoverDrop = config.allowHoverDrop;
+        this.allowCraftingGrid = config.allowCraftingGrid;
+        this.allowArmorEquip = config.allowArmorEquip;
+        this.armorSwapDelayMs = config.armorSwapDelayMs;
+        this.containerIndexKb = config.containerIndexKb;
+        this.persistContainerIndex = config.persistContainerIndex;
+
+        this.lootFilter = ItemFilter.compile(config.itemFilterEnabled ? config.lootAllow : List.of(),
+                config.itemFilterEnabled ? config.lootDeny : List.of());
+        this.dropFilter = ItemFilter.compile(config.itemFilterEnabled ? config.dropAllow : List.of(),
+                config.itemFilterEnabled ? config.dropDeny : List.of());
+
+        this.screenMask = buildScreenMask(config);
+    }
+
+    /**
+     * Builds a snapshot of the given config.
+     */
+    public static ConfigSnapshot of(SimpleLootConfig config) {
+        return new ConfigSnapshot(config);
+    }
+
+    // HoverSettings
+
+    @Override
+    public boolean enabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean hotbarProtection() {
+        return hotbarProtection;
+    }
+
+    @Override
+    public int transferDelayMs() {
+        return transferDelayMs;
+    }
+
+    @Override
+    public int tickBudgetMicros() {
+        return tickBudgetMicros;
+    }
+
+    @Override
+    public boolean allowHoverDrop() {
+        return allowHoverDrop;
+    }
+
+    @Override
+    public boolean allowCraftingGrid() {
+        return allowCraftingGrid;
+    }
+
+    @Override
+    public boolean allowArmorEquip() {
+        return allowArmorEquip;
+    }
+
+    @Override
+    public int armorSwapDelayMs() {
+        return armorSwapDelayMs;
+    }
+
+    /**
+     * Checks if hover loot is enabled for the given screen type.
+     */
+    public boolean allows(ScreenType type) {
+        return (screenMask & (1 << type.ordinal())) != 0;
+    }
+
+    /**
+     * Returns the item filter for the given operation mode.
+     */
+    public ItemFilter filter(boolean dropMode) {
+        return dropMode ? dropFilter : lootFilter;
+    }
+
+    /**
+     * Folds the per-container toggles into a screen type bitmask.
+     * Inventory and creative screens depend on feature toggles rather than container toggles.
+     */
+    private static int buildScreenMask(SimpleLootConfig config) {
+        int mask = 0;
+        // InventoryScreen - crafting grid transfers or drop mode
+        mask |= bit(ScreenType.INVENTORY, config.allowHoverDrop || config.allowCraftingGrid);
+        // CreativeModeInventoryScreen - only for drop mode
+        mask |= bit(ScreenType.CREATIVE_INVENTORY, config.allowHoverDrop);
+        // CraftingScreen (crafting table) - crafting grid transfers
+        mask |= bit(ScreenType.CRAFTING_TABLE, config.allowCraftingGrid);
+        // Storage
+        mask |= bit(ScreenType.CHEST, config.allowChests);
+        mask |= bit(ScreenType.DOUBLE_CHEST, config.allowDoubleChests);
+        mask |= bit(ScreenType.SHULKER_BOX, config.allowShulkerBoxes);
+        mask |= bit(ScreenType.DISPENSER, config.allowDispensers || config.allowDroppers);
+        mask |= bit(ScreenType.HOPPER, config.allowHoppers);
+        // Processing
+        mask |= bit(ScreenType.FURNACE, config.allowFurnaces);
+        mask |= bit(ScreenType.BLAST_FURNACE, config.allowBlastFurnaces);
+        mask |= bit(ScreenType.SMOKER, config.allowSmokers);
+        mask |= bit(ScreenType.BREWING_STAND, config.allowBrewingStands);
+        // Workstations
+        mask |= bit(ScreenType.ANVIL, config.allowAnvils);
+        mask |= bit(ScreenType.SMITHING_TABLE, config.allowSmithingTables);
+        mask |= bit(ScreenType.GRINDSTONE, config.allowGrindstones);
+        mask |= bit(ScreenType.STONECUTTER, config.allowStonecutters);
+        mask |= bit(ScreenType.LOOM, config.allowLooms);
+        mask |= bit(ScreenType.ENCHANTING_TABLE, config.allowEnchantingTables);
+        mask |= bit(ScreenType.BEACON, config.allowBeacons);
+        mask |= bit(ScreenType.CRAFTER, config.allowCrafters);
+        mask |= bit(ScreenType.CARTOGRAPHY_TABLE, config.allowCartographyTables);
+        return mask;
+    }
+
+    private static int bit(ScreenType type, boolean allowed) {
+        return allowed ? 1 << type.ordinal() : 0;
+    }
+}
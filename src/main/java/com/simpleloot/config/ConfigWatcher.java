@@ -0,0 +1,104 @@
+package com.simpleloot.config;
+
+import com.simpleloot.SimpleLootClient;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * Optional live reload of the config file.
+ *
+ * When {@code watchConfigFile} is enabled, a background thread watches the Fabric config
+ * directory and re-reads {@code simpleloot.json} whenever it changes on disk. Parsing and
+ * validation happen on the watcher thread; the result is published as a new config
+ * snapshot, so the hover handler picks it up on its next tick without any client-thread
+ * work. Our own saves are recognized and ignored.
+ */
+final class ConfigWatcher {
+    private ConfigWatcher() {}
+
+    // Editors often write a file in several steps; wait for them to settle
+    private static final long SETTLE_MS = 100;
+
+    private static WatchService service = null;
+
+    /**
+     * Starts or stops the watcher to match the current config.
+     */
+    static synchronized void sync(boolean enabled, Path configPath) {
+        if (enabled && service == null) {
+            start(configPath);
+        } else if (!enabled && service != null) {
+            stop();
+        }
+    }
+
+    /**
+     * Stops the watcher if it is running.
+     */
+    static synchronized void stop() {
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                SimpleLootClient.LOGGER.debug("Failed to close config watcher", e);
+            }
+            service = null;
+        }
+    }
+
+    private static void start(Path configPath) {
+        try {
+            WatchService watchService = FileSystems.getDefault().newWatchService();
+            configPath.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            service = watchService;
+            Thread.ofVirtual().name("SimpleLoot config watcher")
+                    .start(() -> run(watchService, configPath.getFileName()));
+            SimpleLootClient.LOGGER.info("Watching {} for changes", configPath);
+        } catch (IOException e) {
+            SimpleLootClient.LOGGER.error("Failed to start SimpleLoot config watcher", e);
+        }
+    }
+
+    private static void run(WatchService watchService, Path fileName) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = drain(key, fileName);
+
+                if (changed) {
+                    // Let the writer finish, then swallow the follow-up events it produced
+                    Thread.sleep(SETTLE_MS);
+                    WatchKey more;
+                    while ((more = watchService.poll()) != null) {
+                        drain(more, fileName);
+                    }
+                    SimpleLootConfig.reloadFromWatcher();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watcher stopped
+        }
+    }
+
+    /**
+     * Consumes a key's events and resets it. Returns true if any event concerns the config file.
+     */
+    private static boolean drain(WatchKey key, Path fileName) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+}
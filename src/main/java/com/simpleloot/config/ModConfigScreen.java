@@ -9,6 +9,8 @@ import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.network.chat.Component;
 import net.minecraft.ChatFormatting;
 
+import java.util.ArrayList;
+
 // Configuration screen for SimpleLoot using Cloth Config API.
 // Only available for pre-26.1 versions where Cloth Config exists.
 public class ModConfigScreen {
@@ -41,6 +43,13 @@ public class ModConfigScreen {
                 .setSaveConsumer(value -> config.hotbarProtection = value)
                 .build());
         
+        general.addEntry(entryBuilder
+                .startBooleanToggle(Component.translatable("config.simpleloot.watchConfigFile"), config.watchConfigFile)
+                .setDefaultValue(false)
+                .setTooltip(Component.translatable("config.simpleloot.watchConfigFile.tooltip"))
+                .setSaveConsumer(value -> config.watchConfigFile = value)
+                .build());
+        
         general.addEntry(entryBuilder
                 .startIntField(Component.translatable("config.simpleloot.transferDelayMs"), config.transferDelayMs)
                 .setDefaultValue(20)
@@ -50,6 +59,15 @@ public class ModConfigScreen {
                 .setSaveConsumer(value -> config.transferDelayMs = value)
                 .build());
         
+        general.addEntry(entryBuilder
+                .startIntField(Component.translatable("config.simpleloot.tickBudgetMicros"), config.tickBudgetMicros)
+                .setDefaultValue(1000)
+                .setMin(0)
+                .setMax(10000)
+                .setTooltip(Component.translatable("config.simpleloot.tickBudgetMicros.tooltip"))
+                .setSaveConsumer(value -> config.tickBudgetMicros = value)
+                .build());
+        
         general.addEntry(entryBuilder
                 .startBooleanToggle(Component.translatable("config.simpleloot.debugMode"), config.debugMode)
                 .setDefaultValue(false)
@@ -57,6 +75,27 @@ public class ModConfigScreen {
                 .setSaveConsumer(value -> config.debugMode = value)
                 .build());
         
+        general.addEntry(entryBuilder
+                .startBooleanToggle(Component.translatable("config.simpleloot.recordTraces"), config.recordTraces)
+                .setDefaultValue(false)
+                .setTooltip(Component.translatable("config.simpleloot.recordTraces.tooltip"))
+                .setSaveConsumer(value -> config.recordTraces = value)
+                .build());
+        
+        general.addEntry(entryBuilder
+                .startBooleanToggle(Component.translatable("config.simpleloot.showHud"), config.showHud)
+                .setDefaultValue(false)
+                .setTooltip(Component.translatable("config.simpleloot.showHud.tooltip"))
+                .setSaveConsumer(value -> config.showHud = value)
+                .build());
+        
+        general.addEntry(entryBuilder
+                .startBooleanToggle(Component.translatable("config.simpleloot.logSessionStats"), config.logSessionStats)
+                .setDefaultValue(false)
+                .setTooltip(Component.translatable("config.simpleloot.logSessionStats.tooltip"))
+                .setSaveConsumer(value -> config.logSessionStats = value)
+                .build());
+        
         general.addEntry(entryBuilder
                 .startBooleanToggle(Component.translatable("config.simpleloot.allowHoverDrop"), config.allowHoverDrop)
                 .setDefaultValue(true)
@@ -87,6 +126,61 @@ public class ModConfigScreen {
                 .setSaveConsumer(value -> config.armorSwapDelayMs = value)
                 .build());
         
+        general.addEntry(entryBuilder
+                .startIntField(Component.translatable("config.simpleloot.containerIndexKb"), config.containerIndexKb)
+                .setDefaultValue(1024)
+                .setMin(0)
+                .setMax(65536)
+                .setTooltip(Component.translatable("config.simpleloot.containerIndexKb.tooltip"))
+                .setSaveConsumer(value -> config.containerIndexKb = value)
+                .build());
+        
+        general.addEntry(entryBuilder
+                .startBooleanToggle(Component.translatable("config.simpleloot.persistContainerIndex"), config.persistContainerIndex)
+                .setDefaultValue(true)
+                .setTooltip(Component.translatable("config.simpleloot.persistContainerIndex.tooltip"))
+                .setSaveConsumer(value -> config.persistContainerIndex = value)
+                .build());
+        
+        // Item Filter Category
+        ConfigCategory filter = builder.getOrCreateCategory(
+                Component.translatable("config.simpleloot.category.itemFilter"));
+        
+        filter.addEntry(entryBuilder
+                .startBooleanToggle(Component.translatable("config.simpleloot.itemFilterEnabled"), config.itemFilterEnabled)
+                .setDefaultValue(false)
+                .setTooltip(Component.translatable("config.simpleloot.itemFilterEnabled.tooltip"))
+                .setSaveConsumer(value -> config.itemFilterEnabled = value)
+                .build());
+        
+        filter.addEntry(entryBuilder
+                .startStrList(Component.translatable("config.simpleloot.lootAllow"), config.lootAllow)
+                .setDefaultValue(new ArrayList<>())
+                .setTooltip(Component.translatable("config.simpleloot.lootAllow.tooltip"))
+                .setSaveConsumer(value -> config.lootAllow = new ArrayList<>(value))
+                .build());
+        
+        filter.addEntry(entryBuilder
+                .startStrList(Component.translatable("config.simpleloot.lootDeny"), config.lootDeny)
+                .setDefaultValue(new ArrayList<>())
+                .setTooltip(Component.translatable("config.simpleloot.lootDeny.tooltip"))
+                .setSaveConsumer(value -> config.lootDeny = new ArrayList<>(value))
+                .build());
+        
+        filter.addEntry(entryBuilder
+                .startStrList(Component.translatable("config.simpleloot.dropAllow"), config.dropAllow)
+                .setDefaultValue(new ArrayList<>())
+                .setTooltip(Component.translatable("config.simpleloot.dropAllow.tooltip"))
+                .setSaveConsumer(value -> config.dropAllow = new ArrayList<>(value))
+                .build());
+        
+        filter.addEntry(entryBuilder
+                .startStrList(Component.translatable("config.simpleloot.dropDeny"), config.dropDeny)
+                .setDefaultValue(new ArrayList<>())
+                .setTooltip(Component.translatable("config.simpleloot.dropDeny.tooltip"))
+                .setSaveConsumer(value -> config.dropDeny = new ArrayList<>(value))
+                .build());
+        
         // Container Settings Category
         ConfigCategory containers = builder.getOrCreateCategory(
                 Component.translatable("config.simpleloot.category.containers"));
@@ -244,6 +338,16 @@ public class ModConfigScreen {
                 SimpleLootClient.hoverDropKeyBinding)
                 .build());
         
+        keybinds.addEntry(entryBuilder.fillKeybindingField(
+                Component.translatable("key.simpleloot.hover_take"),
+                SimpleLootClient.hoverTakeKeyBinding)
+                .build());
+        
+        keybinds.addEntry(entryBuilder.fillKeybindingField(
+                Component.translatable("key.simpleloot.hover_deposit"),
+                SimpleLootClient.hoverDepositKeyBinding)
+                .build());
+        
         keybinds.addEntry(entryBuilder.fillKeybindingField(
                 Component.translatable("key.simpleloot.toggle"),
                 SimpleLootClient.toggleKeyBinding)
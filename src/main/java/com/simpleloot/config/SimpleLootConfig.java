@@ -2,12 +2,17 @@ package com.simpleloot.config;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 import com.simpleloot.SimpleLootClient;
 import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.Minecraft;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Configuration class for SimpleLoot mod.
@@ -17,15 +22,35 @@ public class SimpleLootConfig {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
     private static final Path CONFIG_PATH = FabricLoader.getInstance().getConfigDir().resolve("simpleloot.json");
     
-    private static SimpleLootConfig INSTANCE;
+    private static final ConfigPersistence PERSISTENCE = new ConfigPersistence(CONFIG_PATH);
+    
+    // Defaults are in effect until the initial (asynchronous) load completes
+    private static volatile SimpleLootConfig INSTANCE = new SimpleLootConfig();
+    
+    // Immutable view of INSTANCE for the hot path, replaced as a whole on load/save/reload
+    private static volatile ConfigSnapshot SNAPSHOT = ConfigSnapshot.of(INSTANCE);
+    
+    // Set once the config file has been read (or created); saves before that are not written
+    private static volatile boolean loaded = false;
+    
+    // Completes with the config the initial load read, or defaults if the file was unreadable
+    private static final CompletableFuture<SimpleLootConfig> INITIAL_LOAD = new CompletableFuture<>();
+    
+    // Last config read from disk that was published (client thread only)
+    private static SimpleLootConfig lastApplied = null;
     
     // General Settings
     public boolean enabled = true;
     public boolean debugMode = false; // Enable debug logging for troubleshooting
+    public boolean recordTraces = false; // Record hover sessions to simpleloot/traces for offline replay
+    public boolean showHud = false; // Show the performance HUD over container screens
+    public boolean logSessionStats = false; // Append a click/network summary of each container session to simpleloot/metrics/sessions.csv
     public boolean hotbarProtection = false; // Protect hotbar slots from being transferred
+    public boolean watchConfigFile = false; // Reload automatically when simpleloot.json changes on disk
     
     // Transfer Settings
     public int transferDelayMs = 20; // Delay between transfers in milliseconds (0 = instant)
+    public int tickBudgetMicros = 1000; // Time SimpleLoot may spend per tick in microseconds (0 = unlimited)
     
     // Container Settings - Storage
     public boolean allowChests = true;
@@ -59,55 +84,238 @@ public class SimpleLootConfig {
     public boolean allowCraftingGrid = true; // Enable hover loot to/from crafting grids (2x2 and 3x3)
     public boolean allowArmorEquip = true; // Enable hover loot on armor in inventory to equip/swap
     public int armorSwapDelayMs = 70; // Delay between armor swaps in milliseconds (prevents issues with fast swapping)
+    public int containerIndexKb = 1024; // Memory budget of the container index in KB (0 = off)
+    public boolean persistContainerIndex = true; // Keep the container index on disk per world/server
+    
+    // Item Filter Settings (rules: "minecraft:dirt", "#minecraft:logs", "+minecraft:custom_name",
+    // "enchantments>=1", "durability<=25%"). Empty allow list = allow everything not denied.
+    public boolean itemFilterEnabled = false;
+    public List<String> lootAllow = new ArrayList<>(); // Hover loot only moves matching items
+    public List<String> lootDeny = new ArrayList<>(); // Hover loot never moves matching items
+    public List<String> dropAllow = new ArrayList<>(); // Hover drop only drops matching items
+    public List<String> dropDeny = new ArrayList<>(); // Hover drop never drops matching items
     
     /**
      * Gets the singleton config instance.
      */
     public static SimpleLootConfig getInstance() {
-        if (INSTANCE == null) {
-            load();
-        }
         return INSTANCE;
     }
     
     /**
-     * Loads the configuration from disk, or creates default if not present.
+     * Blocks until the initial load has published the file's config. Called by the client
+     * thread before the first tick that reads or changes the config, so a change made that
+     * early (e.g. the toggle key) is applied to the loaded config instead of to defaults
+     * that the load then replaces. Returns right away once loaded.
+     */
+    public static void awaitInitialLoad() {
+        if (loaded) return;
+        // Publish here rather than wait for the loader's queued task: that task runs on
+        // this thread, after this tick
+        apply(INITIAL_LOAD.join());
+    }
+    
+    /**
+     * Gets the current immutable config snapshot.
+     * Read this once per tick rather than reading fields off {@link #getInstance()}.
+     */
+    public static ConfigSnapshot snapshot() {
+        return SNAPSHOT;
+    }
+    
+    /**
+     * Rebuilds and publishes the snapshot from the current instance.
+     * Used when something the snapshot derives from (e.g. item tags) changes.
+     */
+    public static void republish() {
+        SNAPSHOT = ConfigSnapshot.of(INSTANCE);
+    }
+    
+    /**
+     * Makes the given config the current instance and publishes its snapshot.
+     * The config is fully built before either reference is swapped. Client thread only:
+     * building the snapshot compiles item filters against the current tags.
+     */
+    private static void publish(SimpleLootConfig config) {
+        INSTANCE = config;
+        SNAPSHOT = ConfigSnapshot.of(config);
+        ConfigWatcher.sync(config.watchConfigFile, CONFIG_PATH);
+    }
+    
+    /**
+     * Parses and validates config JSON. Returns null if the content is not a valid config.
+     */
+    private static SimpleLootConfig parse(String json) {
+        try {
+            SimpleLootConfig config = GSON.fromJson(json, SimpleLootConfig.class);
+            if (config != null) {
+                config.validate();
+            }
+            return config;
+        } catch (JsonParseException e) {
+            SimpleLootClient.LOGGER.error("Invalid SimpleLoot config: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Clamps values into their supported ranges and replaces missing lists.
+     */
+    private void validate() {
+        transferDelayMs = Math.max(0, Math.min(500, transferDelayMs));
+        tickBudgetMicros = Math.max(0, Math.min(10000, tickBudgetMicros));
+        armorSwapDelayMs = Math.max(0, Math.min(500, armorSwapDelayMs));
+        containerIndexKb = Math.max(0, Math.min(65536, containerIndexKb));
+        if (lootAllow == null) lootAllow = new ArrayList<>();
+        if (lootDeny == null) lootDeny = new ArrayList<>();
+        if (dropAllow == null) dropAllow = new ArrayList<>();
+        if (dropDeny == null) dropDeny = new ArrayList<>();
+    }
+    
+    /**
+     * Re-reads the config file after the watcher saw it change.
+     * Runs on the watcher thread; invalid content keeps the current config. The parsed
+     * config is published on the client thread, since compiling its item filters reads
+     * tag membership that the client thread may be rebinding.
+     */
+    static void reloadFromWatcher() {
+        try {
+            String json = Files.readString(CONFIG_PATH);
+            if (json.equals(PERSISTENCE.lastWritten())) {
+                return; // Our own save
+            }
+            SimpleLootConfig config = parse(json);
+            if (config == null) {
+                SimpleLootClient.LOGGER.warn("Ignoring change to {}, keeping current config", CONFIG_PATH);
+                return;
+            }
+            Minecraft.getInstance().execute(() -> {
+                publish(config);
+                SimpleLootClient.LOGGER.info("SimpleLoot config reloaded from {} (file changed)", CONFIG_PATH);
+            });
+        } catch (IOException e) {
+            SimpleLootClient.LOGGER.error("Failed to reload SimpleLoot config", e);
+        }
+    }
+    
+    /**
+     * Loads the configuration from disk on a background thread and publishes it on the
+     * client thread. Defaults stay in effect until the returned future completes; if the
+     * file cannot be read or parsed, they stay in effect for the session (and saving works).
+     */
+    public static CompletableFuture<Void> loadAsync() {
+        return load(true);
+    }
+    
+    /**
+     * Reloads the configuration from disk without blocking the caller. Unlike the initial
+     * load, a file that cannot be read or parsed keeps the current config, so a typo in a
+     * hand edit does not reset everything (and get written back on the next save); the
+     * returned future then completes exceptionally.
      */
-    public static void load() {
+    public static CompletableFuture<Void> reload() {
+        return load(false);
+    }
+    
+    private static CompletableFuture<Void> load(boolean initial) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        Thread.ofVirtual().name("SimpleLoot config loader").start(() -> {
+            SimpleLootConfig config = null;
+            try {
+                config = read();
+            } catch (Throwable e) {
+                SimpleLootClient.LOGGER.error("Failed to load SimpleLoot config", e);
+            }
+            if (initial) {
+                if (config == null) {
+                    // Run with defaults; applying them marks the config loaded, so saves are
+                    // written instead of dropped for the rest of the session
+                    SimpleLootClient.LOGGER.warn("Using default SimpleLoot config for this session");
+                    config = new SimpleLootConfig();
+                }
+                // Never leave the client thread waiting
+                INITIAL_LOAD.complete(config);
+            }
+            if (config == null) {
+                SimpleLootClient.LOGGER.warn("Keeping current SimpleLoot config, {} could not be read", CONFIG_PATH);
+                future.completeExceptionally(new IOException("Could not read " + CONFIG_PATH));
+                return;
+            }
+            SimpleLootConfig read = config;
+            Minecraft.getInstance().execute(() -> {
+                apply(read);
+                future.complete(null);
+            });
+        });
+        return future;
+    }
+    
+    /**
+     * Reads the configuration from disk, or creates and writes the defaults if there is no
+     * file. Returns null if the file cannot be read or parsed. Runs on the loader thread
+     * and publishes nothing.
+     */
+    private static SimpleLootConfig read() {
         if (Files.exists(CONFIG_PATH)) {
             try {
                 String json = Files.readString(CONFIG_PATH);
-                INSTANCE = GSON.fromJson(json, SimpleLootConfig.class);
-                SimpleLootClient.LOGGER.info("SimpleLoot config loaded from {}", CONFIG_PATH);
+                SimpleLootConfig config = parse(json);
+                if (config != null) {
+                    SimpleLootClient.LOGGER.info("SimpleLoot config loaded from {}", CONFIG_PATH);
+                }
+                return config;
             } catch (IOException e) {
-                SimpleLootClient.LOGGER.error("Failed to load SimpleLoot config", e);
-                INSTANCE = new SimpleLootConfig();
+                SimpleLootClient.LOGGER.error("Failed to read SimpleLoot config {}", CONFIG_PATH, e);
+                return null;
             }
-        } else {
-            INSTANCE = new SimpleLootConfig();
-            INSTANCE.save();
-            SimpleLootClient.LOGGER.info("SimpleLoot config created with defaults at {}", CONFIG_PATH);
         }
+        SimpleLootConfig defaults = new SimpleLootConfig();
+        PERSISTENCE.requestSave(GSON.toJson(defaults));
+        SimpleLootClient.LOGGER.info("SimpleLoot config created with defaults at {}", CONFIG_PATH);
+        return defaults;
     }
     
     /**
-     * Reloads the configuration from disk.
+     * Publishes a config read from disk. Client thread only; the initial load may reach
+     * here twice (from {@link #awaitInitialLoad()} and from its queued task), so a config
+     * that was already applied is not published again.
      */
-    public static void reload() {
-        load();
+    private static void apply(SimpleLootConfig config) {
+        if (config == lastApplied) return;
+        lastApplied = config;
+        publish(config);
+        loaded = true;
     }
     
     /**
-     * Saves the current configuration to disk.
+     * Returns a detached copy of this config (used by config screens as a working copy).
+     */
+    public SimpleLootConfig copy() {
+        return GSON.fromJson(GSON.toJson(this), SimpleLootConfig.class);
+    }
+
+    /**
+     * Publishes a fresh snapshot and schedules a write to disk.
+     * The write happens on a background thread; bursts of saves are coalesced.
      */
     public void save() {
-        try {
-            Files.createDirectories(CONFIG_PATH.getParent());
-            Files.writeString(CONFIG_PATH, GSON.toJson(this));
-            SimpleLootClient.LOGGER.debug("SimpleLoot config saved to {}", CONFIG_PATH);
-        } catch (IOException e) {
-            SimpleLootClient.LOGGER.error("Failed to save SimpleLoot config", e);
+        if (!loaded) {
+            // Neither publish nor write defaults before the file has been read: the load
+            // would replace them anyway (the client thread waits for it before its first tick)
+            SimpleLootClient.LOGGER.debug("SimpleLoot config save skipped, initial load still pending");
+            return;
         }
+        // The instance being saved becomes current (a file reload may have replaced INSTANCE)
+        publish(this);
+        PERSISTENCE.requestSave(GSON.toJson(this));
+    }
+    
+    /**
+     * Writes any pending save synchronously. Called on client shutdown.
+     */
+    public static void flush() {
+        ConfigWatcher.stop();
+        PERSISTENCE.flush();
     }
     
     /**
@@ -117,8 +325,13 @@ public class SimpleLootConfig {
         SimpleLootConfig defaults = new SimpleLootConfig();
         this.enabled = defaults.enabled;
         this.debugMode = defaults.debugMode;
+        this.recordTraces = defaults.recordTraces;
+        this.showHud = defaults.showHud;
+        this.logSessionStats = defaults.logSessionStats;
         this.hotbarProtection = defaults.hotbarProtection;
+        this.watchConfigFile = defaults.watchConfigFile;
         this.transferDelayMs = defaults.transferDelayMs;
+        this.tickBudgetMicros = defaults.tickBudgetMicros;
         // Storage containers
         this.allowChests = defaults.allowChests;
         this.allowDoubleChests = defaults.allowDoubleChests;
@@ -148,6 +361,14 @@ public class SimpleLootConfig {
         this.allowCraftingGrid = defaults.allowCraftingGrid;
         this.allowArmorEquip = defaults.allowArmorEquip;
         this.armorSwapDelayMs = defaults.armorSwapDelayMs;
+        this.containerIndexKb = defaults.containerIndexKb;
+        this.persistContainerIndex = defaults.persistContainerIndex;
+        // Item filter
+        this.itemFilterEnabled = defaults.itemFilterEnabled;
+        this.lootAllow = defaults.lootAllow;
+        this.lootDeny = defaults.lootDeny;
+        this.dropAllow = defaults.dropAllow;
+        this.dropDeny = defaults.dropDeny;
         save();
     }
 }
@@ -16,10 +16,23 @@ import com.simpleloot.compat.ScreenCompat;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
+/**
+ * Fallback config screen used when Cloth Config is unavailable.
+ *
+ * Options are described once in {@link #OPTIONS}; the screen only creates widgets for the
+ * rows that fit in the scroll window and rebinds that small pool as the user scrolls.
+ * Opening and scrolling therefore cost the same no matter how many options exist.
+ * Edits go to a working copy of the config that replaces the live config on save.
+ */
 public class SimpleLootConfigScreen extends Screen {
     private final Screen parent;
-    private final SimpleLootConfig config;
+    // Working copy - edits land here and only become live on Save & Close
+    private final SimpleLootConfig working;
     
     // Layout constants
     private static final int HEADER_HEIGHT = 35;
@@ -31,6 +44,93 @@ public class SimpleLootConfigScreen extends Screen {
     private static final int SCROLL_SPEED = 10;
     private static final int SCROLLBAR_WIDTH = 6;
     
+    // Option rows, in display order
+    private interface Option {
+        String key();
+        String tooltip();
+    }
+    private record ToggleOption(String key, String tooltip, Predicate<SimpleLootConfig> getter,
+            BiConsumer<SimpleLootConfig, Boolean> setter, boolean defaultValue) implements Option {}
+    private record SliderOption(String key, String tooltip, ToIntFunction<SimpleLootConfig> getter,
+            ObjIntConsumer<SimpleLootConfig> setter, int min, int max, int defaultValue, String unit) implements Option {}
+    
+    private static final List<Option> OPTIONS = List.of(
+            toggle("config.simpleloot.enabled", "Enable or disable SimpleLoot completely. Default: ON",
+                    c -> c.enabled, (c, v) -> c.enabled = v, true),
+            toggle("config.simpleloot.debugMode", "Record hover loot activity into a debug log that can be dumped to a file. Default: OFF",
+                    c -> c.debugMode, (c, v) -> c.debugMode = v, false),
+            toggle("config.simpleloot.recordTraces", "Record hover sessions to simpleloot/traces in the game directory so they can be replayed offline. Default: OFF",
+                    c -> c.recordTraces, (c, v) -> c.recordTraces = v, false),
+            toggle("config.simpleloot.showHud", "Show live hover loot stats (queue depth, transfers/s, clicks/s, in-flight clicks, handler time) in the corner of container screens. Default: OFF",
+                    c -> c.showHud, (c, v) -> c.showHud = v, false),
+            toggle("config.simpleloot.logSessionStats", "Append a summary of each container session (clicks by type, estimated bytes, resyncs, clicks that did nothing) to simpleloot/metrics/sessions.csv. Default: OFF",
+                    c -> c.logSessionStats, (c, v) -> c.logSessionStats = v, false),
+            toggle("config.simpleloot.hotbarProtection", "Prevent items in hotbar slots from being transferred. Default: ON",
+                    c -> c.hotbarProtection, (c, v) -> c.hotbarProtection = v, true),
+            toggle("config.simpleloot.watchConfigFile", "Reload automatically when simpleloot.json is edited outside the game. Default: OFF",
+                    c -> c.watchConfigFile, (c, v) -> c.watchConfigFile = v, false),
+            slider("config.simpleloot.transferDelayMs", "Delay between item transfers in milliseconds. 0 = instant. Default: 20ms",
+                    c -> c.transferDelayMs, (c, v) -> c.transferDelayMs = v, 0, 500, 20, "ms"),
+            slider("config.simpleloot.tickBudgetMicros", "Time hover loot may spend per tick in microseconds. Leftover work continues next tick. 0 = unlimited. Default: 1000µs",
+                    c -> c.tickBudgetMicros, (c, v) -> c.tickBudgetMicros = v, 0, 10000, 1000, "µs"),
+            toggle("config.simpleloot.allowHoverDrop", "Enable Ctrl + Hover Loot to drop entire stacks on the ground. Default: ON",
+                    c -> c.allowHoverDrop, (c, v) -> c.allowHoverDrop = v, true),
+            toggle("config.simpleloot.allowCraftingGrid", "Enable hover loot to send items to/from crafting grids. Default: ON",
+                    c -> c.allowCraftingGrid, (c, v) -> c.allowCraftingGrid = v, true),
+            toggle("config.simpleloot.allowArmorEquip", "Enable hover loot on armor in inventory to equip/unequip. Default: ON",
+                    c -> c.allowArmorEquip, (c, v) -> c.allowArmorEquip = v, true),
+            slider("config.simpleloot.armorSwapDelayMs", "Delay between armor swaps in milliseconds. Lower = faster but may cause issues. Default: 70ms",
+                    c -> c.armorSwapDelayMs, (c, v) -> c.armorSwapDelayMs = v, 0, 500, 70, "ms"),
+            slider("config.simpleloot.containerIndexKb", "Memory for remembering the contents of opened containers (for /simpleloot find). Least recently seen containers are forgotten first. 0 = off. Default: 1024KB",
+                    c -> c.containerIndexKb, (c, v) -> c.containerIndexKb = v, 0, 65536, 1024, "KB"),
+            toggle("config.simpleloot.persistContainerIndex", "Remember indexed containers across restarts, in one file per world or server under simpleloot/index. Default: ON",
+                    c -> c.persistContainerIndex, (c, v) -> c.persistContainerIndex = v, true),
+            toggle("config.simpleloot.itemFilterEnabled", "Apply the allow/deny item rules from simpleloot.json to hover loot and hover drop. Default: OFF",
+                    c -> c.itemFilterEnabled, (c, v) -> c.itemFilterEnabled = v, false),
+            toggle("config.simpleloot.allowChests", "Allow hover-looting from single chests. Default: ON",
+                    c -> c.allowChests, (c, v) -> c.allowChests = v, true),
+            toggle("config.simpleloot.allowDoubleChests", "Allow hover-looting from double (large) chests. Default: ON",
+                    c -> c.allowDoubleChests, (c, v) -> c.allowDoubleChests = v, true),
+            toggle("config.simpleloot.allowBarrels", "Allow hover-looting from barrels. Default: ON",
+                    c -> c.allowBarrels, (c, v) -> c.allowBarrels = v, true),
+            toggle("config.simpleloot.allowShulkerBoxes", "Allow hover-looting from shulker boxes. Default: ON",
+                    c -> c.allowShulkerBoxes, (c, v) -> c.allowShulkerBoxes = v, true),
+            toggle("config.simpleloot.allowEnderChests", "Allow hover-looting from ender chests. Default: ON",
+                    c -> c.allowEnderChests, (c, v) -> c.allowEnderChests = v, true),
+            toggle("config.simpleloot.allowHoppers", "Allow hover-looting from hoppers. Default: ON",
+                    c -> c.allowHoppers, (c, v) -> c.allowHoppers = v, true),
+            toggle("config.simpleloot.allowDroppers", "Allow hover-looting from droppers. Default: ON",
+                    c -> c.allowDroppers, (c, v) -> c.allowDroppers = v, true),
+            toggle("config.simpleloot.allowDispensers", "Allow hover-looting from dispensers. Default: ON",
+                    c -> c.allowDispensers, (c, v) -> c.allowDispensers = v, true),
+            toggle("config.simpleloot.allowFurnaces", "Allow hover-looting from furnaces. Default: ON",
+                    c -> c.allowFurnaces, (c, v) -> c.allowFurnaces = v, true),
+            toggle("config.simpleloot.allowBlastFurnaces", "Allow hover-looting from blast furnaces. Default: ON",
+                    c -> c.allowBlastFurnaces, (c, v) -> c.allowBlastFurnaces = v, true),
+            toggle("config.simpleloot.allowSmokers", "Allow hover-looting from smokers. Default: ON",
+                    c -> c.allowSmokers, (c, v) -> c.allowSmokers = v, true),
+            toggle("config.simpleloot.allowBrewingStands", "Allow hover-looting from brewing stands. Default: ON",
+                    c -> c.allowBrewingStands, (c, v) -> c.allowBrewingStands = v, true),
+            toggle("config.simpleloot.allowAnvils", "Allow hover-looting from anvils. Default: ON",
+                    c -> c.allowAnvils, (c, v) -> c.allowAnvils = v, true),
+            toggle("config.simpleloot.allowSmithingTables", "Allow hover-looting from smithing tables. Default: ON",
+                    c -> c.allowSmithingTables, (c, v) -> c.allowSmithingTables = v, true),
+            toggle("config.simpleloot.allowGrindstones", "Allow hover-looting from grindstones. Default: ON",
+                    c -> c.allowGrindstones, (c, v) -> c.allowGrindstones = v, true),
+            toggle("config.simpleloot.allowStonecutters", "Allow hover-looting from stonecutters. Default: ON",
+                    c -> c.allowStonecutters, (c, v) -> c.allowStonecutters = v, true),
+            toggle("config.simpleloot.allowLooms", "Allow hover-looting from looms. Default: ON",
+                    c -> c.allowLooms, (c, v) -> c.allowLooms = v, true),
+            toggle("config.simpleloot.allowEnchantingTables", "Allow hover-looting from enchanting tables. Default: ON",
+                    c -> c.allowEnchantingTables, (c, v) -> c.allowEnchantingTables = v, true),
+            toggle("config.simpleloot.allowBeacons", "Allow hover-looting from beacons. Default: ON",
+                    c -> c.allowBeacons, (c, v) -> c.allowBeacons = v, true),
+            toggle("config.simpleloot.allowCrafters", "Allow hover-looting from crafters. Default: ON",
+                    c -> c.allowCrafters, (c, v) -> c.allowCrafters = v, true),
+            toggle("config.simpleloot.allowCartographyTables", "Allow hover-looting from cartography tables. Default: ON",
+                    c -> c.allowCartographyTables, (c, v) -> c.allowCartographyTables = v, true)
+    );
+    
     // Scroll state
     private int scrollOffset = 0;
     private int maxScrollOffset = 0;
@@ -38,279 +138,44 @@ public class SimpleLootConfigScreen extends Screen {
     private boolean isDraggingScrollbar = false;
     private int scrollbarDragOffset = 0;
     
-    // Tooltip system
-    private record TooltipEntry(int x, int y, int width, int height, String tooltip) {}
-    private final List<TooltipEntry> tooltips = new ArrayList<>();
+    // Row layout (computed in init)
+    private int widgetX;
+    private int resetX;
+    private int rowWidth;
     
-    // Track scrollable widgets with their original Y positions
-    private record WidgetEntry(AbstractWidget widget, int originalY) {}
-    private final List<WidgetEntry> scrollableWidgets = new ArrayList<>();
+    // Widget pool for the visible rows, rebound while scrolling
+    private final List<Row> rows = new ArrayList<>();
     
     // Track footer buttons (non-scrollable)
     private final List<AbstractWidget> footerButtons = new ArrayList<>();
-    
-    // Store current values (we modify these, then save on Done)
-    private boolean enabled;
-    private boolean debugMode;
-    private boolean hotbarProtection;
-    private int transferDelayMs;
-    private boolean allowHoverDrop;
-    private boolean allowCraftingGrid;
-    private boolean allowArmorEquip;
-    private int armorSwapDelayMs;
-    // Storage containers
-    private boolean allowChests;
-    private boolean allowDoubleChests;
-    private boolean allowBarrels;
-    private boolean allowShulkerBoxes;
-    private boolean allowEnderChests;
-    private boolean allowHoppers;
-    private boolean allowDroppers;
-    private boolean allowDispensers;
-    // Processing containers
-    private boolean allowFurnaces;
-    private boolean allowBlastFurnaces;
-    private boolean allowSmokers;
-    private boolean allowBrewingStands;
-    // Workstations
-    private boolean allowAnvils;
-    private boolean allowSmithingTables;
-    private boolean allowGrindstones;
-    private boolean allowStonecutters;
-    private boolean allowLooms;
-    private boolean allowEnchantingTables;
-    private boolean allowBeacons;
-    private boolean allowCrafters;
-    private boolean allowCartographyTables;
-
-    // Reference to transfer delay slider for reset
-    private TransferDelaySlider transferDelaySlider;
-    private ArmorSwapDelaySlider armorSwapDelaySlider;
 
     public SimpleLootConfigScreen(Screen parent) {
         super(Component.translatable("config.simpleloot.title"));
         this.parent = parent;
-        this.config = SimpleLootConfig.getInstance();
-        
-        // Load current values
-        this.enabled = config.enabled;
-        this.debugMode = config.debugMode;
-        this.hotbarProtection = config.hotbarProtection;
-        this.transferDelayMs = config.transferDelayMs;
-        this.allowHoverDrop = config.allowHoverDrop;
-        this.allowCraftingGrid = config.allowCraftingGrid;
-        this.allowArmorEquip = config.allowArmorEquip;
-        this.armorSwapDelayMs = config.armorSwapDelayMs;
-        // Storage containers
-        this.allowChests = config.allowChests;
-        this.allowDoubleChests = config.allowDoubleChests;
-        this.allowBarrels = config.allowBarrels;
-        this.allowShulkerBoxes = config.allowShulkerBoxes;
-        this.allowEnderChests = config.allowEnderChests;
-        this.allowHoppers = config.allowHoppers;
-        this.allowDroppers = config.allowDroppers;
-        this.allowDispensers = config.allowDispensers;
-        // Processing containers
-        this.allowFurnaces = config.allowFurnaces;
-        this.allowBlastFurnaces = config.allowBlastFurnaces;
-        this.allowSmokers = config.allowSmokers;
-        this.allowBrewingStands = config.allowBrewingStands;
-        // Workstations
-        this.allowAnvils = config.allowAnvils;
-        this.allowSmithingTables = config.allowSmithingTables;
-        this.allowGrindstones = config.allowGrindstones;
-        this.allowStonecutters = config.allowStonecutters;
-        this.allowLooms = config.allowLooms;
-        this.allowEnchantingTables = config.allowEnchantingTables;
-        this.allowBeacons = config.allowBeacons;
-        this.allowCrafters = config.allowCrafters;
-        this.allowCartographyTables = config.allowCartographyTables;
+        this.working = SimpleLootConfig.getInstance().copy();
     }
 
     @Override
     protected void init() {
         super.init();
-        tooltips.clear();
-        scrollableWidgets.clear();
+        rows.clear();
         footerButtons.clear();
         
         int centerX = this.width / 2;
-        int totalWidth = WIDGET_WIDTH + SPACING + RESET_BTN_WIDTH;
-        int widgetX = centerX - totalWidth / 2;
-        int resetX = widgetX + WIDGET_WIDTH + SPACING;
-        int y = HEADER_HEIGHT;
-        
-        // Count options for scroll calculation (29 options total)
-        int numberOfOptions = 29;
-        contentHeight = numberOfOptions * ROW_HEIGHT;
+        rowWidth = WIDGET_WIDTH + SPACING + RESET_BTN_WIDTH;
+        widgetX = centerX - rowWidth / 2;
+        resetX = widgetX + WIDGET_WIDTH + SPACING;
+        
+        contentHeight = OPTIONS.size() * ROW_HEIGHT;
         int contentAreaHeight = this.height - HEADER_HEIGHT - FOOTER_HEIGHT;
         maxScrollOffset = Math.max(0, contentHeight - contentAreaHeight);
         scrollOffset = Math.min(scrollOffset, maxScrollOffset);
         
-        // Enable SimpleLoot
-        addTooltip(widgetX, y, totalWidth, 20, "Enable or disable SimpleLoot completely. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.enabled", 
-            () -> enabled, v -> enabled = v, true);
-        y += ROW_HEIGHT;
-        
-        // Debug Mode
-        addTooltip(widgetX, y, totalWidth, 20, "Enable debug logging for troubleshooting issues. Default: OFF");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.debugMode", 
-            () -> debugMode, v -> debugMode = v, false);
-        y += ROW_HEIGHT;
-        
-        // Hotbar Protection
-        addTooltip(widgetX, y, totalWidth, 20, "Prevent items in hotbar slots from being transferred. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.hotbarProtection", 
-            () -> hotbarProtection, v -> hotbarProtection = v, true);
-        y += ROW_HEIGHT;
-        
-        // Transfer Delay Slider
-        addTooltip(widgetX, y, totalWidth, 20, "Delay between item transfers in milliseconds. 0 = instant. Default: 20ms");
-        transferDelaySlider = new TransferDelaySlider(widgetX, y, WIDGET_WIDTH, 20, transferDelayMs);
-        addScrollableWidget(transferDelaySlider, y);
-        Button delayReset = Button.builder(Component.literal("↺"), button -> {
-            transferDelaySlider.setValue(20);
-            transferDelayMs = 20;
-        }).bounds(resetX, y, RESET_BTN_WIDTH, 20).build();
-        addScrollableWidget(delayReset, y);
-        y += ROW_HEIGHT;
-        
-        // Allow Hover Drop
-        addTooltip(widgetX, y, totalWidth, 20, "Enable Ctrl + Hover Loot to drop entire stacks on the ground. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowHoverDrop", 
-            () -> allowHoverDrop, v -> allowHoverDrop = v, true);
-        y += ROW_HEIGHT;
-        
-        // Allow Crafting Grid
-        addTooltip(widgetX, y, totalWidth, 20, "Enable hover loot to send items to/from crafting grids. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowCraftingGrid", 
-            () -> allowCraftingGrid, v -> allowCraftingGrid = v, true);
-        y += ROW_HEIGHT;
-        
-        // Allow Armor Equip
-        addTooltip(widgetX, y, totalWidth, 20, "Enable hover loot on armor in inventory to equip/unequip. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowArmorEquip", 
-            () -> allowArmorEquip, v -> allowArmorEquip = v, true);
-        y += ROW_HEIGHT;
-        
-        // Armor Swap Delay Slider
-        addTooltip(widgetX, y, totalWidth, 20, "Delay between armor swaps in milliseconds. Lower = faster but may cause issues. Default: 70ms");
-        armorSwapDelaySlider = new ArmorSwapDelaySlider(widgetX, y, WIDGET_WIDTH, 20, armorSwapDelayMs);
-        addScrollableWidget(armorSwapDelaySlider, y);
-        Button armorDelayReset = Button.builder(Component.literal("↺"), button -> {
-            armorSwapDelaySlider.setValue(70);
-            armorSwapDelayMs = 70;
-        }).bounds(resetX, y, RESET_BTN_WIDTH, 20).build();
-        addScrollableWidget(armorDelayReset, y);
-        y += ROW_HEIGHT;
-        
-        // Container type toggles
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from single chests. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowChests", 
-            () -> allowChests, v -> allowChests = v, true);
-        y += ROW_HEIGHT;
-        
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from double (large) chests. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowDoubleChests", 
-            () -> allowDoubleChests, v -> allowDoubleChests = v, true);
-        y += ROW_HEIGHT;
-        
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from barrels. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowBarrels", 
-            () -> allowBarrels, v -> allowBarrels = v, true);
-        y += ROW_HEIGHT;
-        
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from shulker boxes. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowShulkerBoxes", 
-            () -> allowShulkerBoxes, v -> allowShulkerBoxes = v, true);
-        y += ROW_HEIGHT;
-        
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from ender chests. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowEnderChests", 
-            () -> allowEnderChests, v -> allowEnderChests = v, true);
-        y += ROW_HEIGHT;
-        
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from hoppers. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowHoppers", 
-            () -> allowHoppers, v -> allowHoppers = v, true);
-        y += ROW_HEIGHT;
-        
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from droppers. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowDroppers", 
-            () -> allowDroppers, v -> allowDroppers = v, true);
-        y += ROW_HEIGHT;
-        
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from dispensers. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowDispensers", 
-            () -> allowDispensers, v -> allowDispensers = v, true);
-        y += ROW_HEIGHT;
-        
-        // Processing containers
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from furnaces. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowFurnaces", 
-            () -> allowFurnaces, v -> allowFurnaces = v, true);
-        y += ROW_HEIGHT;
-        
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from blast furnaces. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowBlastFurnaces", 
-            () -> allowBlastFurnaces, v -> allowBlastFurnaces = v, true);
-        y += ROW_HEIGHT;
-        
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from smokers. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowSmokers", 
-            () -> allowSmokers, v -> allowSmokers = v, true);
-        y += ROW_HEIGHT;
-        
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from brewing stands. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowBrewingStands", 
-            () -> allowBrewingStands, v -> allowBrewingStands = v, true);
-        y += ROW_HEIGHT;
-        
-        // Workstations
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from anvils. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowAnvils", 
-            () -> allowAnvils, v -> allowAnvils = v, true);
-        y += ROW_HEIGHT;
-        
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from smithing tables. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowSmithingTables", 
-            () -> allowSmithingTables, v -> allowSmithingTables = v, true);
-        y += ROW_HEIGHT;
-        
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from grindstones. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowGrindstones", 
-            () -> allowGrindstones, v -> allowGrindstones = v, true);
-        y += ROW_HEIGHT;
-        
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from stonecutters. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowStonecutters", 
-            () -> allowStonecutters, v -> allowStonecutters = v, true);
-        y += ROW_HEIGHT;
-        
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from looms. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowLooms", 
-            () -> allowLooms, v -> allowLooms = v, true);
-        y += ROW_HEIGHT;
-        
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from enchanting tables. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowEnchantingTables", 
-            () -> allowEnchantingTables, v -> allowEnchantingTables = v, true);
-        y += ROW_HEIGHT;
-        
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from beacons. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowBeacons", 
-            () -> allowBeacons, v -> allowBeacons = v, true);
-        y += ROW_HEIGHT;
-        
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from crafters. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowCrafters", 
-            () -> allowCrafters, v -> allowCrafters = v, true);
-        y += ROW_HEIGHT;
-        
-        addTooltip(widgetX, y, totalWidth, 20, "Allow hover-looting from cartography tables. Default: ON");
-        addScrollableToggleWithReset(widgetX, y, resetX, "config.simpleloot.allowCartographyTables", 
-            () -> allowCartographyTables, v -> allowCartographyTables = v, true);
+        // Enough rows to cover the scroll window plus a partial row at either edge
+        int poolSize = Math.min(OPTIONS.size(), Math.max(0, contentAreaHeight) / ROW_HEIGHT + 2);
+        for (int i = 0; i < poolSize; i++) {
+            rows.add(new Row());
+        }
         
         // Bottom buttons (fixed, not scrollable)
         int bottomY = this.height - FOOTER_HEIGHT + 7;
@@ -320,8 +185,7 @@ public class SimpleLootConfigScreen extends Screen {
         
         // Save & Close button
         Button saveBtn = Button.builder(Component.literal("Save & Close"), button -> {
-            transferDelayMs = transferDelaySlider.getIntValue();
-            saveConfig();
+            working.save();
             ScreenCompat.open(this.minecraft, parent);
         }).bounds(bottomStartX, bottomY, bottomButtonWidth, 20).build();
         this.addRenderableWidget(saveBtn);
@@ -341,34 +205,80 @@ public class SimpleLootConfigScreen extends Screen {
         this.addRenderableWidget(cancelBtn);
         footerButtons.add(cancelBtn);
         
-        // Update widget positions based on initial scroll
-        updateWidgetPositions();
+        // Bind the pool to the initial scroll position
+        layoutRows();
     }
     
-    private void addScrollableWidget(AbstractWidget widget, int originalY) {
-        this.addRenderableWidget(widget);
-        scrollableWidgets.add(new WidgetEntry(widget, originalY));
+    private static ToggleOption toggle(String key, String tooltip, Predicate<SimpleLootConfig> getter,
+            BiConsumer<SimpleLootConfig, Boolean> setter, boolean defaultValue) {
+        return new ToggleOption(key, tooltip, getter, setter, defaultValue);
     }
     
-    private void addScrollableToggleWithReset(int x, int y, int resetX, String translationKey,
-            java.util.function.Supplier<Boolean> getter, java.util.function.Consumer<Boolean> setter, boolean defaultValue) {
-        Button toggleBtn = Button.builder(getBooleanText(translationKey, getter.get()), button -> {
-            boolean newValue = !getter.get();
-            setter.accept(newValue);
-            button.setMessage(getBooleanText(translationKey, newValue));
-        }).bounds(x, y, WIDGET_WIDTH, 20).build();
-        addScrollableWidget(toggleBtn, y);
-        
-        // Reset button
-        Button resetBtn = Button.builder(Component.literal("↺"), button -> {
-            setter.accept(defaultValue);
-            toggleBtn.setMessage(getBooleanText(translationKey, defaultValue));
-        }).bounds(resetX, y, RESET_BTN_WIDTH, 20).build();
-        addScrollableWidget(resetBtn, y);
+    private static SliderOption slider(String key, String tooltip, ToIntFunction<SimpleLootConfig> getter,
+            ObjIntConsumer<SimpleLootConfig> setter, int min, int max, int defaultValue, String unit) {
+        return new SliderOption(key, tooltip, getter, setter, min, max, defaultValue, unit);
     }
     
-    private void addTooltip(int x, int y, int width, int height, String tooltip) {
-        tooltips.add(new TooltipEntry(x, y, width, height, tooltip));
+    /**
+     * One pooled row: a toggle or slider plus a reset button.
+     * Only the widget matching the bound option's type is shown.
+     */
+    private final class Row {
+        private final Button toggle;
+        private final OptionSlider slider;
+        private final Button reset;
+        private int boundIndex = -1;
+        
+        Row() {
+            toggle = Button.builder(Component.empty(), button -> {
+                if (OPTIONS.get(boundIndex) instanceof ToggleOption option) {
+                    boolean newValue = !option.getter().test(working);
+                    option.setter().accept(working, newValue);
+                    button.setMessage(getBooleanText(option.key(), newValue));
+                }
+            }).bounds(widgetX, 0, WIDGET_WIDTH, 20).build();
+            slider = new OptionSlider(widgetX, WIDGET_WIDTH);
+            reset = Button.builder(Component.literal("↺"), button -> {
+                Option option = OPTIONS.get(boundIndex);
+                if (option instanceof ToggleOption toggleOption) {
+                    toggleOption.setter().accept(working, toggleOption.defaultValue());
+                    toggle.setMessage(getBooleanText(toggleOption.key(), toggleOption.defaultValue()));
+                } else if (option instanceof SliderOption sliderOption) {
+                    sliderOption.setter().accept(working, sliderOption.defaultValue());
+                    slider.setIntValue(sliderOption.defaultValue());
+                }
+            }).bounds(resetX, 0, RESET_BTN_WIDTH, 20).build();
+            
+            addRenderableWidget(toggle);
+            addRenderableWidget(slider);
+            addRenderableWidget(reset);
+        }
+        
+        void bind(int index) {
+            boundIndex = index;
+            Option option = OPTIONS.get(index);
+            if (option instanceof ToggleOption toggleOption) {
+                toggle.setMessage(getBooleanText(toggleOption.key(), toggleOption.getter().test(working)));
+            } else if (option instanceof SliderOption sliderOption) {
+                slider.bind(sliderOption);
+            }
+        }
+        
+        void place(int y, boolean visible) {
+            boolean isToggle = OPTIONS.get(boundIndex) instanceof ToggleOption;
+            toggle.setY(y);
+            slider.setY(y);
+            reset.setY(y);
+            toggle.visible = toggle.active = visible && isToggle;
+            slider.visible = slider.active = visible && !isToggle;
+            reset.visible = reset.active = visible;
+        }
+        
+        void hide() {
+            toggle.visible = toggle.active = false;
+            slider.visible = slider.active = false;
+            reset.visible = reset.active = false;
+        }
     }
     
     private Component getBooleanText(String translationKey, boolean value) {
@@ -378,118 +288,85 @@ public class SimpleLootConfigScreen extends Screen {
                               : Component.literal("OFF").withStyle(s -> s.withColor(0xFF5555)));
     }
     
-    private void updateWidgetPositions() {
+    /**
+     * Positions the row pool for the current scroll offset. Rows are only rebound when the
+     * option they show changes, so this costs O(visible rows).
+     */
+    private void layoutRows() {
         int scrollAreaTop = HEADER_HEIGHT;
         int scrollAreaBottom = this.height - FOOTER_HEIGHT;
-        
-        for (WidgetEntry entry : scrollableWidgets) {
-            int adjustedY = entry.originalY - scrollOffset;
-            entry.widget.setY(adjustedY);
+        int firstIndex = scrollOffset / ROW_HEIGHT;
+        
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            int index = firstIndex + i;
+            if (index >= OPTIONS.size()) {
+                row.hide();
+                continue;
+            }
+            if (row.boundIndex != index) {
+                row.bind(index);
+            }
             
+            int adjustedY = scrollAreaTop + index * ROW_HEIGHT - scrollOffset;
             // Hide widgets outside visible scroll area
             boolean visible = adjustedY >= scrollAreaTop - 20 && adjustedY < scrollAreaBottom;
-            entry.widget.visible = visible;
-            entry.widget.active = visible;
+            row.place(adjustedY, visible);
         }
     }
     
-    private void saveConfig() {
-        config.enabled = this.enabled;
-        config.debugMode = this.debugMode;
-        config.hotbarProtection = this.hotbarProtection;
-        config.transferDelayMs = this.transferDelayMs;
-        config.allowHoverDrop = this.allowHoverDrop;
-        config.allowCraftingGrid = this.allowCraftingGrid;
-        config.allowArmorEquip = this.allowArmorEquip;
-        config.armorSwapDelayMs = this.armorSwapDelayMs;
-        // Storage containers
-        config.allowChests = this.allowChests;
-        config.allowDoubleChests = this.allowDoubleChests;
-        config.allowBarrels = this.allowBarrels;
-        config.allowShulkerBoxes = this.allowShulkerBoxes;
-        config.allowEnderChests = this.allowEnderChests;
-        config.allowHoppers = this.allowHoppers;
-        config.allowDroppers = this.allowDroppers;
-        config.allowDispensers = this.allowDispensers;
-        // Processing containers
-        config.allowFurnaces = this.allowFurnaces;
-        config.allowBlastFurnaces = this.allowBlastFurnaces;
-        config.allowSmokers = this.allowSmokers;
-        config.allowBrewingStands = this.allowBrewingStands;
-        // Workstations
-        config.allowAnvils = this.allowAnvils;
-        config.allowSmithingTables = this.allowSmithingTables;
-        config.allowGrindstones = this.allowGrindstones;
-        config.allowStonecutters = this.allowStonecutters;
-        config.allowLooms = this.allowLooms;
-        config.allowEnchantingTables = this.allowEnchantingTables;
-        config.allowBeacons = this.allowBeacons;
-        config.allowCrafters = this.allowCrafters;
-        config.allowCartographyTables = this.allowCartographyTables;
-        config.save();
+    /**
+     * Returns the option whose row is under the mouse, or null.
+     */
+    private Option optionAt(int mouseX, int mouseY) {
+        if (mouseY <= HEADER_HEIGHT || mouseY >= this.height - FOOTER_HEIGHT) return null;
+        if (mouseX < widgetX || mouseX >= widgetX + rowWidth) return null;
+        
+        int contentY = mouseY - HEADER_HEIGHT + scrollOffset;
+        int index = contentY / ROW_HEIGHT;
+        if (index < 0 || index >= OPTIONS.size() || contentY - index * ROW_HEIGHT >= 20) return null;
+        return OPTIONS.get(index);
     }
     
-    private class TransferDelaySlider extends AbstractSliderButton {
-        private static final int MIN = 0;
-        private static final int MAX = 500;
-        
-        public TransferDelaySlider(int x, int y, int width, int height, int initialValue) {
-            super(x, y, width, height, Component.empty(), (double)(initialValue - MIN) / (MAX - MIN));
-            updateMessage();
-        }
-        
-        public int getIntValue() {
-            return (int) Math.round(this.value * (MAX - MIN) + MIN);
-        }
-        
-        public void setValue(int newValue) {
-            this.value = (double)(Math.max(MIN, Math.min(MAX, newValue)) - MIN) / (MAX - MIN);
-            updateMessage();
-        }
-        
-        @Override
-        protected void updateMessage() {
-            int val = getIntValue();
-            setMessage(Component.translatable("config.simpleloot.transferDelayMs")
-                    .append(Component.literal(": "))
-                    .append(Component.literal(val + " ms").withStyle(s -> s.withColor(0xFFFF55))));
-        }
-        
-        @Override
-        protected void applyValue() {
-            transferDelayMs = getIntValue();
+    /**
+     * Integer slider that can be rebound to any {@link SliderOption}.
+     */
+    private class OptionSlider extends AbstractSliderButton {
+        private SliderOption option;
+        
+        OptionSlider(int x, int width) {
+            super(x, 0, width, 20, Component.empty(), 0);
         }
-    }
-    
-    private class ArmorSwapDelaySlider extends AbstractSliderButton {
-        private static final int MIN = 0;
-        private static final int MAX = 500;
         
-        public ArmorSwapDelaySlider(int x, int y, int width, int height, int initialValue) {
-            super(x, y, width, height, Component.empty(), (double)(initialValue - MIN) / (MAX - MIN));
-            updateMessage();
+        void bind(SliderOption option) {
+            this.option = option;
+            setIntValue(option.getter().applyAsInt(working));
         }
         
-        public int getIntValue() {
-            return (int) Math.round(this.value * (MAX - MIN) + MIN);
+        int getIntValue() {
+            return (int) Math.round(this.value * (option.max() - option.min()) + option.min());
         }
         
-        public void setValue(int newValue) {
-            this.value = (double)(Math.max(MIN, Math.min(MAX, newValue)) - MIN) / (MAX - MIN);
+        void setIntValue(int newValue) {
+            int clamped = Math.max(option.min(), Math.min(option.max(), newValue));
+            this.value = (double)(clamped - option.min()) / (option.max() - option.min());
             updateMessage();
         }
         
         @Override
         protected void updateMessage() {
+            if (option == null) return;
             int val = getIntValue();
-            setMessage(Component.translatable("config.simpleloot.armorSwapDelayMs")
+            setMessage(Component.translatable(option.key())
                     .append(Component.literal(": "))
-                    .append(Component.literal(val + " ms").withStyle(s -> s.withColor(0xFFFF55))));
+                    .append(Component.literal(val + " " + option.unit()).withStyle(s -> s.withColor(0xFFFF55))));
         }
         
         @Override
         protected void applyValue() {
-            armorSwapDelayMs = getIntValue();
+            if (option != null) {
+                option.setter().accept(working, getIntValue());
+            }
         }
     }
     
@@ -501,7 +378,7 @@ public class SimpleLootConfigScreen extends Screen {
         if (mouseY > HEADER_HEIGHT && mouseY < this.height - FOOTER_HEIGHT) {
             scrollOffset -= (int)(verticalAmount * SCROLL_SPEED);
             scrollOffset = Math.max(0, Math.min(scrollOffset, maxScrollOffset));
-            updateWidgetPositions();
+            layoutRows();
             return true;
         }
         return super.mouseScrolled(mouseX, mouseY, horizontalAmount, verticalAmount);
@@ -537,7 +414,7 @@ public class SimpleLootConfigScreen extends Screen {
                     scrollOffset = Math.max(0, Math.min(maxScrollOffset, scrollOffset));
                     isDraggingScrollbar = true;
                     scrollbarDragOffset = thumbHeight / 2;
-                    updateWidgetPositions();
+                    layoutRows();
                 }
                 return true;
             }
@@ -567,7 +444,7 @@ public class SimpleLootConfigScreen extends Screen {
             float scrollPercent = (float)thumbY / (trackHeight - thumbHeight);
             scrollOffset = (int)(scrollPercent * maxScrollOffset);
             scrollOffset = Math.max(0, Math.min(maxScrollOffset, scrollOffset));
-            updateWidgetPositions();
+            layoutRows();
             return true;
         }
         return super.mouseDragged(event, deltaX, deltaY);
@@ -590,9 +467,11 @@ public class SimpleLootConfigScreen extends Screen {
         int scissorBottom = this.height - FOOTER_HEIGHT;
         context.enableScissor(0, scissorTop, this.width, scissorBottom);
         
-        // Render ONLY scrollable widgets (not footer buttons)
-        for (WidgetEntry entry : scrollableWidgets) {
-            entry.widget.extractRenderState(context, mouseX, mouseY, delta);
+        // Render ONLY the pooled row widgets (not footer buttons)
+        for (Row row : rows) {
+            row.toggle.extractRenderState(context, mouseX, mouseY, delta);
+            row.slider.extractRenderState(context, mouseX, mouseY, delta);
+            row.reset.extractRenderState(context, mouseX, mouseY, delta);
         }
         
         // Disable scissor
@@ -625,15 +504,10 @@ public class SimpleLootConfigScreen extends Screen {
         }
         
         // Draw tooltips LAST (after scissor disabled, so they render on top)
-        if (mouseY > HEADER_HEIGHT && mouseY < this.height - FOOTER_HEIGHT) {
-            for (TooltipEntry entry : tooltips) {
-                int adjustedY = entry.y - scrollOffset;
-                if (mouseX >= entry.x && mouseX < entry.x + entry.width &&
-                    mouseY >= adjustedY && mouseY < adjustedY + 20) {
-                    context.setTooltipForNextFrame(this.font, Component.literal(entry.tooltip), mouseX, mouseY);
-                    break;
-                }
-            }
+        // Tooltip text is looked up for the hovered row only
+        Option hovered = optionAt(mouseX, mouseY);
+        if (hovered != null) {
+            context.setTooltipForNextFrame(this.font, Component.literal(hovered.tooltip()), mouseX, mouseY);
         }
     }
     //?} else {
@@ -650,9 +524,11 @@ public class SimpleLootConfigScreen extends Screen {
         int scissorBottom = this.height - FOOTER_HEIGHT;
         context.enableScissor(0, scissorTop, this.width, scissorBottom);
         
-        // Render ONLY scrollable widgets (not footer buttons)
-        for (WidgetEntry entry : scrollableWidgets) {
-            entry.widget.render(context, mouseX, mouseY, delta);
+        // Render ONLY the pooled row widgets (not footer buttons)
+        for (Row row : rows) {
+            row.toggle.render(context, mouseX, mouseY, delta);
+            row.slider.render(context, mouseX, mouseY, delta);
+            row.reset.render(context, mouseX, mouseY, delta);
         }
         
         // Disable scissor
@@ -685,15 +561,10 @@ public class SimpleLootConfigScreen extends Screen {
         }
         
         // Draw tooltips LAST (after scissor disabled, so they render on top)
-        if (mouseY > HEADER_HEIGHT && mouseY < this.height - FOOTER_HEIGHT) {
-            for (TooltipEntry entry : tooltips) {
-                int adjustedY = entry.y - scrollOffset;
-                if (mouseX >= entry.x && mouseX < entry.x + entry.width &&
-                    mouseY >= adjustedY && mouseY < adjustedY + 20) {
-                    context.setTooltipForNextFrame(this.font, Component.literal(entry.tooltip), mouseX, mouseY);
-                    break;
-                }
-            }
+        // Tooltip text is looked up for the hovered row only
+        Option hovered = optionAt(mouseX, mouseY);
+        if (hovered != null) {
+            context.setTooltipForNextFrame(this.font, Component.literal(hovered.tooltip()), mouseX, mouseY);
         }
     }*/
     //?}
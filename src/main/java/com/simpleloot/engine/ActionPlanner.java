@@ -0,0 +1,154 @@
+package com.simpleloot.engine;
+
+/**
+ * Decides which clicks move a queued slot, and sends them.
+ *
+ * Handles the different modes:
+ * - Drop mode: Drop items on ground
+ * - Armor equip: Equip armor from inventory, swap with worn armor, or unequip
+ * - Crafting mode: Send items to/from crafting grid
+ * - Normal mode: Quick move items between containers
+ */
+public final class ActionPlanner {
+    // First armor slot in the player inventory menu (5=helmet, 6=chest, 7=legs, 8=boots)
+    private static final int FIRST_ARMOR_SLOT = 5;
+
+    /**
+     * Result of dispatching one queued slot.
+     */
+    public enum Outcome {
+        // Clicks sent (or nothing to send); the slot is done
+        SENT,
+        // Armor equip/swap/unequip sent; the slot stays marked as queued until hover loot is released
+        SENT_ARMOR,
+        // Armor swap delay for this slot has not passed yet; retry next tick
+        WAIT
+    }
+
+    private final TransferScheduler scheduler;
+
+    // Bound once per tick by the engine
+    private ItemFacts facts;
+    private HoverSettings settings;
+    private ClickSink sink;
+    private HoverListener listener;
+
+    public ActionPlanner(TransferScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    void bind(ItemFacts facts, HoverSettings settings, ClickSink sink, HoverListener listener) {
+        this.facts = facts;
+        this.settings = settings;
+        this.sink = sink;
+        this.listener = listener;
+    }
+
+    /**
+     * Plans and sends the clicks for one queued slot. The slot must hold an item.
+     */
+    public Outcome dispatch(int slotId, ScreenType type, SlotRole[] roles, boolean dropMode, long nowMs) {
+        SlotRole role = roles[slotId];
+
+        if (dropMode) {
+            // Drop mode: Drop items on ground
+            dropStack(slotId, type == ScreenType.CREATIVE_INVENTORY);
+            return Outcome.SENT;
+        }
+
+        if (type == ScreenType.INVENTORY && settings.allowArmorEquip() && facts.isEquippableArmor(slotId)) {
+            // Check armor swap delay for this specific slot
+            if (scheduler.isArmorSwapCoolingDown(slotId, nowMs, settings.armorSwapDelayMs())) {
+                return Outcome.WAIT;
+            }
+
+            if (role.isPlayerInventory()) {
+                // Hovering over armor in player inventory - try to equip/swap it
+                int armorType = facts.armorType(slotId);
+                if (armorType >= 0) {
+                    int armorSlotId = FIRST_ARMOR_SLOT + armorType;
+                    if (facts.hasItem(armorSlotId)) {
+                        // Armor slot has something - need to SWAP
+                        // Pick up the new armor, click the armor slot (swaps), put the old armor back
+                        listener.onTransfer(slotId, TransferKind.ARMOR_SWAP, armorSlotId);
+                        sink.click(slotId, 0, ClickAction.PICKUP);
+                        sink.click(armorSlotId, 0, ClickAction.PICKUP);
+                        sink.click(slotId, 0, ClickAction.PICKUP);
+                    } else {
+                        // Armor slot is empty - use quick move (shift-click) to equip
+                        listener.onTransfer(slotId, TransferKind.ARMOR_EQUIP, armorSlotId);
+                        sink.click(slotId, 0, ClickAction.QUICK_MOVE);
+                    }
+                    scheduler.recordArmorSwap(slotId, nowMs);
+                    return Outcome.SENT_ARMOR;
+                }
+            } else if (role == SlotRole.ARMOR) {
+                // Hovering over worn armor - unequip it
+                listener.onTransfer(slotId, TransferKind.ARMOR_UNEQUIP, -1);
+                sink.click(slotId, 0, ClickAction.QUICK_MOVE);
+                scheduler.recordArmorSwap(slotId, nowMs);
+                return Outcome.SENT_ARMOR;
+            }
+        } else if (type.hasCraftingGrid() && settings.allowCraftingGrid()) {
+            if (role == SlotRole.CRAFTING_OUTPUT) {
+                // Output slot: Quick move the result to inventory
+                listener.onTransfer(slotId, TransferKind.CRAFT_OUTPUT, -1);
+                sink.click(slotId, 0, ClickAction.QUICK_MOVE);
+                return Outcome.SENT;
+            }
+            if (role == SlotRole.CRAFTING_INPUT) {
+                // Crafting input slot: Move back to inventory
+                listener.onTransfer(slotId, TransferKind.CRAFT_RETURN, -1);
+                sink.click(slotId, 0, ClickAction.QUICK_MOVE);
+                return Outcome.SENT;
+            }
+            if (role.isPlayerInventory()) {
+                // Player inventory slot: Try to send to crafting grid
+                int targetSlotId = freeCraftingSlot(roles);
+                if (targetSlotId >= 0) {
+                    // Pick up the entire stack, then place it in the crafting slot
+                    listener.onTransfer(slotId, TransferKind.CRAFT_INSERT, targetSlotId);
+                    sink.click(slotId, 0, ClickAction.PICKUP);
+                    sink.click(targetSlotId, 0, ClickAction.PICKUP);
+                } else {
+                    // Still counts as handled so we don't retry
+                    listener.onTransfer(slotId, TransferKind.CRAFT_FULL, -1);
+                }
+                return Outcome.SENT;
+            }
+        }
+
+        // Fallback to normal quick move (shift-click) - bidirectional between container and inventory
+        listener.onTransfer(slotId, TransferKind.QUICK_MOVE, -1);
+        sink.click(slotId, 0, ClickAction.QUICK_MOVE);
+        return Outcome.SENT;
+    }
+
+    /**
+     * Drops the whole stack in a slot.
+     * The creative inventory menu ignores THROW, so there the stack is picked up and
+     * dropped by clicking outside the window instead.
+     */
+    public void dropStack(int slotId, boolean creativeInventory) {
+        listener.onTransfer(slotId, TransferKind.DROP, -1);
+        if (creativeInventory) {
+            sink.click(slotId, 0, ClickAction.PICKUP);
+            sink.click(ClickSink.OUTSIDE, 0, ClickAction.PICKUP);
+        } else {
+            // Button 1 = Ctrl modifier for THROW action = throw entire stack
+            sink.click(slotId, 1, ClickAction.THROW);
+        }
+    }
+
+    /**
+     * Returns the first empty crafting input slot, or -1 if the grid is full.
+     */
+    private int freeCraftingSlot(SlotRole[] roles) {
+        for (int i = 0; i < roles.length; i++) {
+            if (roles[i] == SlotRole.CRAFTING_INPUT && !facts.hasItem(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,133 @@
+package com.simpleloot.engine;
+
+import java.util.Arrays;
+
+/**
+ * Network cost of one container session: clicks by action type, an estimate of the bytes
+ * they took on the wire, server resyncs and clicks that changed nothing. Also counts the
+ * ticks in which the engine ran out of time budget, so slow sessions show up next to their
+ * click counts.
+ *
+ * Byte counts are estimates of the serverbound container click packet (packet id,
+ * container id, state id, slot, button, action, the changed-slot map and the carried
+ * stack, plus length framing) for a typical click of each action type. They are meant
+ * for comparing settings and sessions, not for exact bandwidth figures.
+ */
+public final class ClickAccounting {
+    // Fixed part of a click packet: length, packet id, container id, state id, slot, button, action,
+    // changed-slot count and carried stack
+    private static final int PACKET_BASE_BYTES = 14;
+    // One entry in the changed-slot map (slot index + hashed stack)
+    private static final int CHANGED_SLOT_BYTES = 8;
+
+    private final int[] clicks = new int[ClickAction.values().length];
+    private ScreenType screenType = null;
+    private int containerId = -1;
+    private long startMs = 0;
+    private long bytes = 0;
+    private int resyncs = 0;
+    private int noOps = 0;
+    private int overBudgetTicks = 0;
+
+    /**
+     * Starts a new session, discarding the previous counts.
+     */
+    public void begin(ScreenType screenType, int containerId, long nowMs) {
+        Arrays.fill(clicks, 0);
+        this.screenType = screenType;
+        this.containerId = containerId;
+        this.startMs = nowMs;
+        this.bytes = 0;
+        this.resyncs = 0;
+        this.noOps = 0;
+        this.overBudgetTicks = 0;
+    }
+
+    /**
+     * Records one click sent to the server. {@code noOp} is true if the client saw the
+     * click change neither the slot nor the cursor.
+     */
+    public void recordClick(ClickAction action, boolean noOp) {
+        clicks[action.ordinal()]++;
+        bytes += estimateBytes(action);
+        if (noOp) noOps++;
+    }
+
+    /**
+     * Records a full container resync from the server. Ignored for other containers and
+     * before this session sent anything (the initial contents are not a resync).
+     */
+    public void recordResync(int containerId) {
+        if (containerId == this.containerId && totalClicks() > 0) {
+            resyncs++;
+        }
+    }
+
+    /**
+     * Records a tick in which the engine deferred work because its time budget ran out.
+     */
+    public void recordOverBudgetTick() {
+        overBudgetTicks++;
+    }
+
+    /**
+     * Estimated wire size of one click of the given type.
+     */
+    public static int estimateBytes(ClickAction action) {
+        int changedSlots = switch (action) {
+            // Source and destination slot
+            case QUICK_MOVE -> 2;
+            // The clicked slot (the cursor is sent separately)
+            case PICKUP, THROW -> 1;
+            // The clicked slot and the hotbar/offhand slot it swaps with
+            case SWAP -> 2;
+        };
+        return PACKET_BASE_BYTES + changedSlots * CHANGED_SLOT_BYTES;
+    }
+
+    public boolean isActive() {
+        return screenType != null;
+    }
+
+    public ScreenType screenType() {
+        return screenType;
+    }
+
+    public long startMs() {
+        return startMs;
+    }
+
+    public int clicks(ClickAction action) {
+        return clicks[action.ordinal()];
+    }
+
+    public int totalClicks() {
+        int total = 0;
+        for (int count : clicks) total += count;
+        return total;
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+
+    public int resyncs() {
+        return resyncs;
+    }
+
+    public int noOps() {
+        return noOps;
+    }
+
+    public int overBudgetTicks() {
+        return overBudgetTicks;
+    }
+
+    /**
+     * Ends the session. Read the counts first; resyncs are no longer attributed to it.
+     */
+    public void end() {
+        screenType = null;
+        containerId = -1;
+    }
+}
@@ -0,0 +1,13 @@
+package com.simpleloot.engine;
+
+/**
+ * Container click types the engine sends. Mirrors the subset of vanilla's
+ * {@code ContainerInput} (26.1+) / {@code ClickType} (earlier) that SimpleLoot uses.
+ */
+public enum ClickAction {
+    PICKUP,
+    QUICK_MOVE,
+    THROW,
+    // Swap a slot with a hotbar slot (button 0-8) or the offhand (button 40)
+    SWAP
+}
@@ -0,0 +1,119 @@
+package com.simpleloot.engine;
+
+import java.util.Arrays;
+
+/**
+ * A precomputed sequence of clicks, split into steps.
+ *
+ * A step is the group of clicks that moves one stack (e.g. pick up, place, put the rest
+ * back) and is always sent as a whole, so the cursor is empty between steps. Steps are
+ * what the engine rate-limits: one step counts as one transfer. Stored as parallel
+ * primitive arrays; the plan is reused between fills.
+ */
+public final class ClickPlan {
+    private int[] clickSlots = new int[64];
+    private int[] clickButtons = new int[64];
+    private ClickAction[] clickActions = new ClickAction[64];
+    private int clickCount = 0;
+
+    // Per step: index one past its last click, source slot and target slot (for listeners)
+    private int[] stepEnds = new int[32];
+    private int[] stepSources = new int[32];
+    private int[] stepTargets = new int[32];
+    private int stepCount = 0;
+
+    // Next step to send
+    private int nextStep = 0;
+
+    /**
+     * Removes all steps.
+     */
+    public void clear() {
+        clickCount = 0;
+        stepCount = 0;
+        nextStep = 0;
+    }
+
+    /**
+     * Appends a click to the step being built.
+     */
+    public void click(int slotId, int button, ClickAction action) {
+        if (clickCount == clickSlots.length) {
+            clickSlots = Arrays.copyOf(clickSlots, clickCount * 2);
+            clickButtons = Arrays.copyOf(clickButtons, clickCount * 2);
+            clickActions = Arrays.copyOf(clickActions, clickCount * 2);
+        }
+        clickSlots[clickCount] = slotId;
+        clickButtons[clickCount] = button;
+        clickActions[clickCount] = action;
+        clickCount++;
+    }
+
+    /**
+     * Closes the step being built: the clicks since the previous step move a stack from
+     * {@code sourceSlot} to {@code targetSlot}.
+     */
+    public void endStep(int sourceSlot, int targetSlot) {
+        if (stepCount == stepEnds.length) {
+            stepEnds = Arrays.copyOf(stepEnds, stepCount * 2);
+            stepSources = Arrays.copyOf(stepSources, stepCount * 2);
+            stepTargets = Arrays.copyOf(stepTargets, stepCount * 2);
+        }
+        stepEnds[stepCount] = clickCount;
+        stepSources[stepCount] = sourceSlot;
+        stepTargets[stepCount] = targetSlot;
+        stepCount++;
+    }
+
+    /**
+     * Replaces this plan with the unsent steps of another plan.
+     */
+    public void copyFrom(ClickPlan other) {
+        clear();
+        for (int step = other.nextStep; step < other.stepCount; step++) {
+            for (int i = other.stepStart(step); i < other.stepEnds[step]; i++) {
+                click(other.clickSlots[i], other.clickButtons[i], other.clickActions[i]);
+            }
+            endStep(other.stepSources[step], other.stepTargets[step]);
+        }
+    }
+
+    /**
+     * Sends the clicks of the next step and reports it as a transfer. Returns false if
+     * there was no step left.
+     */
+    boolean sendNext(ClickSink sink, HoverListener listener, TransferKind kind) {
+        if (nextStep >= stepCount) return false;
+        int step = nextStep++;
+        listener.onTransfer(stepSources[step], kind, stepTargets[step]);
+        for (int i = stepStart(step); i < stepEnds[step]; i++) {
+            sink.click(clickSlots[i], clickButtons[i], clickActions[i]);
+        }
+        if (nextStep == stepCount) {
+            clear();
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return nextStep >= stepCount;
+    }
+
+    /**
+     * Number of steps not sent yet.
+     */
+    public int remainingSteps() {
+        return stepCount - nextStep;
+    }
+
+    /**
+     * Total number of clicks in the unsent steps.
+     */
+    public int remainingClicks() {
+        return isEmpty() ? 0 : clickCount - stepStart(nextStep);
+    }
+
+    private int stepStart(int step) {
+        return step == 0 ? 0 : stepEnds[step - 1];
+    }
+}
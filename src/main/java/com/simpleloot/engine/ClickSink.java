@@ -0,0 +1,17 @@
+package com.simpleloot.engine;
+
+/**
+ * Receives the container clicks planned by the engine.
+ *
+ * In the mod this sends the click to the server through the game mode; headless runs
+ * record or count the clicks instead.
+ */
+public interface ClickSink {
+    // Slot id vanilla uses for "clicked outside the window" (drops the carried stack)
+    int OUTSIDE = -999;
+
+    /**
+     * Sends one click on the given slot of the open menu.
+     */
+    void click(int slotId, int button, ClickAction action);
+}
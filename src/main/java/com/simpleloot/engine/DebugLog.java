@@ -0,0 +1,132 @@
+package com.simpleloot.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size, lock-free ring buffer of structured debug events.
+ *
+ * Each event is a type code and three int arguments, stored with a sequence number and a
+ * {@link System#nanoTime()} timestamp in one flat {@code long[]}. Writers claim a position
+ * with a single atomic increment and publish it by writing the sequence number last, so
+ * recording never allocates, formats or blocks, and any thread may write. Once the buffer
+ * is full the oldest events are overwritten.
+ *
+ * Readers take a consistent copy with {@link #forEach}; events overwritten or still being
+ * written while the copy is taken are skipped. Turning the text into something readable
+ * (item names, screen names) is left to the dump, off the hot path.
+ */
+public final class DebugLog {
+    // Event types; the meaning of a/b/c is given per type
+    public static final int SCREEN_OPEN = 1;       // a = ScreenType ordinal, b = slot count, c = container id
+    public static final int SCREEN_CLOSE = 2;      // -
+    public static final int DEACTIVATED = 3;       // -
+    public static final int DROP_MODE = 4;         // -
+    public static final int PATH = 5;              // a = distance in 1/10 px, b = samples, c = slots found
+    public static final int SKIPPED = 6;           // a = slot, b = SkipReason ordinal, c = item id
+    public static final int QUEUED = 7;            // a = slot, b = item id, c = count
+    public static final int TRANSFER = 8;          // a = slot, b = TransferKind ordinal, c = target slot
+    public static final int CLICK = 9;             // a = slot, b = button, c = ClickAction ordinal
+    public static final int QUEUE_PROCESSED = 10;  // a = processed, b = remaining
+    public static final int CREATIVE_TAB = 11;     // a = 1 if survival inventory tab
+    public static final int NO_GAME_MODE = 12;     // a = slot of the dropped click
+    public static final int ANOMALY = 13;          // a = anomaly code, b/c = details
+    public static final int BUDGET = 14;           // a = WorkPhase ordinal, b = deferred work
+
+    // Longs per event: sequence, time, (type << 32 | a), (b << 32 | c)
+    private static final int STRIDE = 4;
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] slots;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+
+    /**
+     * Creates a log holding the given number of events (rounded up to a power of two).
+     */
+    public DebugLog(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new long[size * STRIDE];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Records one event. Safe to call from any thread.
+     */
+    public void record(int type, int a, int b, int c) {
+        long seq = cursor.getAndIncrement();
+        int base = (int) (seq & mask) * STRIDE;
+        // Invalidate the slot first so a concurrent reader cannot mix old and new fields
+        SLOTS.setOpaque(slots, base, 0L);
+        VarHandle.storeStoreFence();
+        slots[base + 1] = System.nanoTime();
+        slots[base + 2] = ((long) type << 32) | (a & 0xFFFFFFFFL);
+        slots[base + 3] = ((long) b << 32) | (c & 0xFFFFFFFFL);
+        // Publish: sequence numbers are stored +1 so 0 means "empty or being written"
+        SLOTS.setRelease(slots, base, seq + 1);
+    }
+
+    public void record(int type, int a, int b) {
+        record(type, a, b, 0);
+    }
+
+    public void record(int type, int a) {
+        record(type, a, 0, 0);
+    }
+
+    public void record(int type) {
+        record(type, 0, 0, 0);
+    }
+
+    /**
+     * Total number of events recorded so far (including overwritten ones).
+     */
+    public long recorded() {
+        return cursor.get();
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Receives events in recording order.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(long seq, long nanoTime, int type, int a, int b, int c);
+    }
+
+    /**
+     * Copies the buffer and visits the events it holds, oldest first.
+     * Returns the number of events visited.
+     */
+    public int forEach(Visitor visitor) {
+        long end = cursor.get();
+        long start = Math.max(0, end - capacity());
+        long[] copy = new long[slots.length];
+        for (int i = 0; i < slots.length; i += STRIDE) {
+            copy[i] = (long) SLOTS.getAcquire(slots, i);
+            copy[i + 1] = slots[i + 1];
+            copy[i + 2] = slots[i + 2];
+            copy[i + 3] = slots[i + 3];
+            // A writer may have replaced the slot while we copied it
+            VarHandle.loadLoadFence();
+            if ((long) SLOTS.getAcquire(slots, i) != copy[i]) {
+                copy[i] = 0;
+            }
+        }
+
+        int visited = 0;
+        for (long seq = start; seq < end; seq++) {
+            int base = (int) (seq & mask) * STRIDE;
+            if (copy[base] != seq + 1) continue;
+            long typeAndA = copy[base + 2];
+            long bc = copy[base + 3];
+            visitor.visit(seq, copy[base + 1], (int) (typeAndA >>> 32), (int) typeAndA, (int) (bc >>> 32), (int) bc);
+            visited++;
+        }
+        return visited;
+    }
+}
@@ -0,0 +1,574 @@
+package com.simpleloot.engine;
+
+/**
+ * Minecraft-independent core of hover loot: path resolution, slot queueing, rate
+ * limiting and action planning.
+ *
+ * The engine owns all per-screen session state. The caller feeds it one {@link HoverInput}
+ * per tick together with views of the open screen ({@link SlotLayout}, {@link ItemFacts})
+ * and a {@link ClickSink} that receives the resulting clicks, so it can run inside the
+ * client or headless (benchmarks, trace replay).
+ *
+ * Work per tick is bounded by {@link HoverSettings#tickBudgetMicros()}: when the budget
+ * runs out, the unresolved part of the mouse path and the undispatched queue carry over
+ * to the next tick.
+ *
+ * Key behavior (like Rust):
+ * - Hold key OR toggle mode active + hover over slots = add to queue
+ * - Queue keeps processing even after releasing key
+ * - Releasing and re-pressing key allows re-selecting slots
+ * - Only closing the container clears the queue completely
+ * - The take/deposit keys work the same but only queue container / player inventory slots
+ * - An item moved one way in a key-hold session is not queued back the other way
+ */
+public final class HoverEngine {
+    // Track which slots are currently in the pending queue
+    // This prevents adding the same slot multiple times during one key-hold session
+    private final SlotSet currentlyQueued = new SlotSet();
+
+    // Anti-bounce: item keys moved out of the container / out of the player inventory during
+    // this key-hold session. Item keys are small dense ints, so a bitset works here too
+    private final SlotSet takenKeys = new SlotSet();
+    private final SlotSet depositedKeys = new SlotSet();
+
+    // Queue of slots waiting to be transferred, by priority lane
+    private final LaneQueue pendingSlots = new LaneQueue();
+
+    // Creative inventory has its own queue: drops there take two clicks and run one per tick
+    private final SlotSet creativeQueued = new SlotSet();
+    private final SlotQueue creativePending = new SlotQueue();
+
+    private final PathResolver pathResolver = new PathResolver();
+    private final TransferScheduler scheduler = new TransferScheduler();
+    private final ActionPlanner planner = new ActionPlanner(scheduler);
+    private final TickBudget budget = new TickBudget();
+
+    // Precomputed clicks (loadout restock), sent step by step once the slot queue is empty
+    private final ClickPlan plan = new ClickPlan();
+    private ClickSink sink = null;
+
+    // Mouse positions whose path is still unresolved after running out of budget, oldest
+    // first; lastMouseX/Y is then where resolving stopped
+    private static final int MAX_WAYPOINTS = 32;
+    private final double[] waypointX = new double[MAX_WAYPOINTS];
+    private final double[] waypointY = new double[MAX_WAYPOINTS];
+    private int waypointCount = 0;
+    private boolean pathDeferred = false;
+
+    // Whether the last tick left work for the next one because of the budget
+    private boolean budgetExhausted = false;
+
+    // Area select (hover key + Alt): corner where the drag started, queued on release
+    private boolean areaSelecting = false;
+    private double areaX;
+    private double areaY;
+    private int[] areaSlots = new int[64];
+
+    // Slot roles of the current screen, recomputed when the layout changes
+    private SlotRole[] roles = new SlotRole[0];
+    private ScreenType rolesType = null;
+
+    private HoverListener listener = HoverListener.NONE;
+
+    // Track last mouse position for interpolation
+    private double lastMouseX = -1;
+    private double lastMouseY = -1;
+
+    // Track if key was pressed last tick (for detecting release)
+    private boolean wasKeyPressed = false;
+
+    // Track if we're in drop mode (Ctrl held when hover loot started)
+    private boolean dropMode = false;
+
+    // Direction lock of the current (or last) key-hold session
+    private boolean takeOnly = false;
+    private boolean depositOnly = false;
+
+    public void setListener(HoverListener listener) {
+        this.listener = listener == null ? HoverListener.NONE : listener;
+    }
+
+    /**
+     * Clears all session state. Call when a new screen opens or the screen closes.
+     */
+    public void reset() {
+        currentlyQueued.clear();
+        takenKeys.clear();
+        depositedKeys.clear();
+        pendingSlots.clear();
+        creativeQueued.clear();
+        creativePending.clear();
+        plan.clear();
+        scheduler.clearArmorSwaps();
+        rolesType = null;
+        areaSelecting = false;
+        waypointCount = 0;
+        lastMouseX = -1;
+        lastMouseY = -1;
+        wasKeyPressed = false;
+        dropMode = false;
+        takeOnly = false;
+        depositOnly = false;
+    }
+
+    /**
+     * Runs one tick: detects hovered slots, queues them and dispatches queued transfers.
+     */
+    public void tick(HoverInput input, HoverSettings settings, SlotLayout layout, ItemFacts facts, ClickSink sink) {
+        budget.start(settings.tickBudgetMicros());
+        budgetExhausted = false;
+        pathDeferred = false;
+        planner.bind(facts, settings, sink, listener);
+        this.sink = sink;
+        updateRoles(input.screenType, layout.slotCount());
+
+        handleHover(input, settings, layout, facts);
+
+        // Update last mouse position, unless part of the path is left for the next tick
+        if (!pathDeferred) {
+            waypointCount = 0;
+            lastMouseX = input.mouseX;
+            lastMouseY = input.mouseY;
+        }
+    }
+
+    private void handleHover(HoverInput input, HoverSettings settings, SlotLayout layout, ItemFacts facts) {
+        // Check if mod is enabled
+        if (!settings.enabled()) {
+            return;
+        }
+
+        // The take-only and deposit-only keys are hover loot keys with a direction lock
+        boolean hoverActive = input.hoverActive || input.takeKeyHeld || input.depositKeyHeld;
+
+        // A batch queued between sessions (search pull, deposit matching) fills the
+        // anti-bounce sets too; it must not block the next session
+        if (!wasKeyPressed && hoverActive) {
+            takenKeys.clear();
+            depositedKeys.clear();
+        }
+
+        // Detect deactivation - clear the "currently queued" set so slots can be re-selected
+        if (wasKeyPressed && !hoverActive) {
+            currentlyQueued.clear();
+            takenKeys.clear();
+            depositedKeys.clear();
+            creativeQueued.clear();
+            scheduler.clearArmorSwaps();
+            dropMode = false;
+            listener.onDeactivated();
+        }
+
+        // Drop mode: Ctrl + hover OR dedicated hover drop key
+        boolean shouldBeDropMode = (input.ctrlHeld || input.dropKeyHeld) && settings.allowHoverDrop();
+        if (!dropMode && shouldBeDropMode && hoverActive) {
+            listener.onDropModeEntered();
+        }
+        dropMode = shouldBeDropMode;
+
+        // Also activate hover loot if hover drop key is held (can be pressed anytime)
+        if (input.dropKeyHeld && settings.allowHoverDrop()) {
+            hoverActive = true;
+        }
+        wasKeyPressed = hoverActive;
+
+        // Latched while the keys are down, so an area selection released together with
+        // them keeps its direction
+        if (hoverActive) {
+            takeOnly = input.takeKeyHeld && !input.depositKeyHeld && !input.hoverActive;
+            depositOnly = input.depositKeyHeld && !input.takeKeyHeld && !input.hoverActive;
+        }
+
+        ScreenType type = input.screenType;
+        boolean creative = type == ScreenType.CREATIVE_INVENTORY;
+
+        // For creative inventory, only drop mode is allowed AND only on the survival inventory tab
+        // But always process pending queue items even if drop mode was turned off
+        if (creative && (!dropMode || !input.creativeSurvivalTab) && creativePending.isEmpty()) {
+            return;
+        }
+
+        // Plain hover in the player inventory only sends to the crafting grid (handled when dispatching)
+        if (type == ScreenType.INVENTORY && !dropMode && !input.shiftHeld && !settings.allowCraftingGrid()) {
+            return;
+        }
+
+        if (areaSelecting || hoverActive && input.altHeld && !dropMode && !creative) {
+            selectArea(input, hoverActive, settings, layout, facts);
+        } else if (hoverActive && (dropMode || !creative)) {
+            queuePath(input, settings, layout, facts);
+        }
+
+        // ALWAYS process the queue (even if key is released - like Rust!)
+        // Only closing the container stops the queue
+        if (!pendingSlots.isEmpty() || !creativePending.isEmpty() || !plan.isEmpty()) {
+            processQueue(input, settings, facts);
+        }
+    }
+
+    /**
+     * Queues every eligible slot the mouse crossed since the last tick.
+     */
+    private void queuePath(HoverInput input, HoverSettings settings, SlotLayout layout, ItemFacts facts) {
+        // The path still to resolve runs through any waypoints left over from earlier ticks
+        // to the current mouse position
+        addWaypoint(input.mouseX, input.mouseY);
+
+        double fromX = lastMouseX;
+        double fromY = lastMouseY;
+        int done = 0;
+        while (done < waypointCount) {
+            // Always resolve at least part of one segment, so a tight budget still makes progress
+            if (done > 0 && budget.exhausted()) break;
+
+            // Use interpolation to catch slots we moved over quickly
+            int count = pathResolver.resolve(layout, fromX, fromY, waypointX[done], waypointY[done], budget);
+            listener.onPathResolved(pathResolver.lastDistance(), pathResolver.lastSamples(), count);
+            queueSlots(count, input, settings, facts);
+
+            if (!pathResolver.isComplete()) {
+                fromX = pathResolver.resumeX();
+                fromY = pathResolver.resumeY();
+                break;
+            }
+            fromX = waypointX[done];
+            fromY = waypointY[done];
+            done++;
+        }
+
+        // Drop the resolved waypoints
+        waypointCount -= done;
+        System.arraycopy(waypointX, done, waypointX, 0, waypointCount);
+        System.arraycopy(waypointY, done, waypointY, 0, waypointCount);
+
+        if (waypointCount > 0) {
+            pathDeferred = true;
+            budgetExhausted = true;
+            lastMouseX = fromX;
+            lastMouseY = fromY;
+            listener.onBudgetExhausted(HoverListener.WorkPhase.PATH, waypointCount);
+        }
+    }
+
+    /**
+     * Appends a mouse position to the unresolved path. When the path is full, the newest
+     * waypoint is replaced, which shortcuts the path between the last two positions.
+     */
+    private void addWaypoint(double x, double y) {
+        if (waypointCount == MAX_WAYPOINTS) {
+            waypointCount--;
+        }
+        waypointX[waypointCount] = x;
+        waypointY[waypointCount] = y;
+        waypointCount++;
+    }
+
+    /**
+     * Area select: the first tick with hover key + Alt anchors a rectangle at the mouse, and
+     * first tick with either released queues every eligible slot between the anchor and the
+     * mouse at once. Slots are found from the layout's slot positions, not by sampling.
+     */
+    private void selectArea(HoverInput input, boolean hoverActive, HoverSettings settings, SlotLayout layout, ItemFacts facts) {
+        if (!areaSelecting) {
+            areaSelecting = true;
+            areaX = input.mouseX;
+            areaY = input.mouseY;
+            return;
+        }
+        if (hoverActive && input.altHeld) return;
+
+        areaSelecting = false;
+        if (areaSlots.length < layout.slotCount()) {
+            areaSlots = new int[layout.slotCount()];
+        }
+        int count = layout.slotsIn(areaX, areaY, input.mouseX, input.mouseY, areaSlots);
+        for (int i = 0; i < count; i++) {
+            queueSlot(areaSlots[i], false, LaneQueue.Lane.BULK, input, settings, facts);
+        }
+    }
+
+    /**
+     * Queues the eligible slots among the {@code count} slots the path resolver just found.
+     */
+    private void queueSlots(int count, HoverInput input, HoverSettings settings, ItemFacts facts) {
+        boolean creative = input.screenType == ScreenType.CREATIVE_INVENTORY;
+        for (int i = 0; i < count; i++) {
+            queueSlot(pathResolver.slot(i), creative, LaneQueue.Lane.NORMAL, input, settings, facts);
+        }
+    }
+
+    /**
+     * Queues one slot if it is eligible, in the given lane unless it is an interactive action.
+     */
+    private void queueSlot(int slotId, boolean creative, LaneQueue.Lane lane, HoverInput input, HoverSettings settings, ItemFacts facts) {
+        if (slotId >= roles.length || !facts.hasItem(slotId)) return;
+
+        // A plan (loadout restock, undo) was made against the contents as they were; slots
+        // queued now would go out before its remaining steps and change them under it
+        if (!plan.isEmpty()) {
+            listener.onSkipped(slotId, HoverListener.SkipReason.PLAN_RUNNING);
+            return;
+        }
+
+        // Check hotbar protection (crafting slots are never hotbar slots)
+        if (settings.hotbarProtection() && roles[slotId] == SlotRole.HOTBAR) {
+            return;
+        }
+
+        // Check item filter rules - filtered slots never reach the queue
+        if (!facts.passesFilter(slotId, dropMode)) {
+            listener.onSkipped(slotId, HoverListener.SkipReason.FILTERED);
+            return;
+        }
+
+        if (creative) {
+            // Creative queue: processed one at a time to ensure proper game state updates
+            if (creativeQueued.add(slotId)) {
+                creativePending.add(slotId);
+                listener.onQueued(slotId);
+            }
+            return;
+        }
+
+        // Add to queue if not already queued in THIS session
+        if (currentlyQueued.contains(slotId)) return;
+
+        boolean fromPlayer = roles[slotId].isPlayerInventory();
+        if (takeOnly && fromPlayer || depositOnly && !fromPlayer) {
+            listener.onSkipped(slotId, HoverListener.SkipReason.WRONG_DIRECTION);
+            return;
+        }
+
+        // For armor, skip slots that were just part of a swap
+        // This prevents rapid re-swapping when the cursor stays on the same slot
+        if (facts.isEquippableArmor(slotId) && scheduler.lastArmorSwap(slotId) != 0) {
+            if (scheduler.isArmorSwapCoolingDown(slotId, input.timeMs, settings.armorSwapDelayMs())) {
+                return;
+            }
+            // Delay has passed, remove from tracking
+            scheduler.clearArmorSwap(slotId);
+        }
+
+        // Validate item for specific screen types
+        if (!isValidTransfer(input.screenType, slotId, facts)) {
+            listener.onSkipped(slotId, HoverListener.SkipReason.INVALID_FOR_SCREEN);
+            return;
+        }
+
+        // Anti-bounce: a stack moved into the inventory lands in a new slot the mouse may
+        // cross next, and hovering it would send it straight back (and the other way round)
+        if (!dropMode) {
+            int key = facts.itemKey(slotId);
+            if (key > 0) {
+                if ((fromPlayer ? takenKeys : depositedKeys).contains(key)) {
+                    listener.onSkipped(slotId, HoverListener.SkipReason.BOUNCE);
+                    return;
+                }
+                (fromPlayer ? depositedKeys : takenKeys).add(key);
+            }
+        }
+
+        pendingSlots.add(slotId, isInteractive(input.screenType, slotId, facts) ? LaneQueue.Lane.INTERACTIVE : lane);
+        currentlyQueued.add(slotId);
+        listener.onQueued(slotId);
+    }
+
+    /**
+     * Checks if a slot's transfer is one the player waits on: equipping or unequipping armor,
+     * or taking a crafting result.
+     */
+    private boolean isInteractive(ScreenType type, int slotId, ItemFacts facts) {
+        if (dropMode) return false;
+        SlotRole role = roles[slotId];
+        return role == SlotRole.CRAFTING_OUTPUT || role == SlotRole.ARMOR
+                || type == ScreenType.INVENTORY && facts.isEquippableArmor(slotId);
+    }
+
+    /**
+     * Queues slots picked by something other than the mouse path (e.g. a search), in the
+     * given order. Each slot goes through the same checks as a hovered one (hotbar
+     * protection, filter, screen rules, anti-bounce) and then the same rate limit and
+     * dispatch, in the bulk lane. {@code input} only needs the screen type and time of the
+     * last tick. Returns the number of slots added.
+     */
+    public int enqueue(int[] slotIds, int count, HoverInput input, HoverSettings settings, ItemFacts facts) {
+        if (!settings.enabled() || input.screenType == ScreenType.CREATIVE_INVENTORY) return 0;
+        int before = pendingSlots.size();
+        for (int i = 0; i < count; i++) {
+            int slotId = slotIds[i];
+            if (slotId < 0) continue;
+            queueSlot(slotId, false, LaneQueue.Lane.BULK, input, settings, facts);
+        }
+        return pendingSlots.size() - before;
+    }
+
+    /**
+     * Queues a precomputed click plan (replacing any unsent one). Its steps are sent after
+     * the queued slots, one step per transfer, under the same delay and tick budget; no
+     * new slots are queued until it is done. Callers should plan against an idle engine
+     * ({@link #pendingCount()} of 0). Returns the number of steps queued.
+     */
+    public int enqueue(ClickPlan steps) {
+        plan.copyFrom(steps);
+        return plan.remainingSteps();
+    }
+
+    /**
+     * Processes the pending transfer queue, respecting the transfer delay.
+     */
+    private void processQueue(HoverInput input, HoverSettings settings, ItemFacts facts) {
+        long now = input.timeMs;
+        int transferDelayMs = settings.transferDelayMs();
+        if (!scheduler.isReady(now, transferDelayMs)) {
+            return;
+        }
+
+        // Creative drops take two clicks (pickup + click outside), so only ONE item per tick
+        if (input.screenType == ScreenType.CREATIVE_INVENTORY) {
+            int processed = 0;
+            int slotId = creativePending.poll();
+            if (slotId >= 0) {
+                if (facts.hasItem(slotId)) {
+                    // Creative mode only supports drop for now
+                    if (dropMode) {
+                        planner.dropStack(slotId, true);
+                    }
+                    processed = 1;
+                    scheduler.recordTransfer(now);
+                }
+                creativeQueued.remove(slotId);
+            }
+            if (processed > 0) {
+                listener.onQueueProcessed(processed, creativePending.size());
+            }
+            return;
+        }
+
+        int maxPerTick = scheduler.transfersPerTick(transferDelayMs);
+        int processed = 0;
+        while (!pendingSlots.isEmpty() && processed < maxPerTick) {
+            // Out of time: leave the rest queued for the next tick (at least one transfer always goes out)
+            if (processed > 0 && budget.exhausted()) {
+                budgetExhausted = true;
+                listener.onBudgetExhausted(HoverListener.WorkPhase.DISPATCH, pendingSlots.size());
+                break;
+            }
+
+            // The lanes pick the slot: interactive first, then normal and bulk by their share
+            int slotId = pendingSlots.peek();
+
+            if (slotId < roles.length && facts.hasItem(slotId)) {
+                ActionPlanner.Outcome outcome = planner.dispatch(slotId, input.screenType, roles, dropMode, now);
+                if (outcome == ActionPlanner.Outcome.WAIT) {
+                    // Still waiting for armor swap delay, keep it at the head of the queue
+                    break;
+                }
+
+                processed++;
+                scheduler.recordTransfer(now);
+
+                // Armor stays in currentlyQueued until hover loot is released, so the armor that
+                // comes back from a swap is not immediately swapped again
+                if (outcome != ActionPlanner.Outcome.SENT_ARMOR) {
+                    currentlyQueued.remove(slotId);
+                }
+
+                // If using delay, stop after one item to respect the delay
+                if (transferDelayMs > 0) {
+                    pendingSlots.poll();
+                    break;
+                }
+            }
+
+            pendingSlots.poll();
+        }
+
+        // Plan steps go after the slot queue; with a delay, only if no slot went out this tick
+        while (pendingSlots.isEmpty() && !plan.isEmpty() && processed < maxPerTick
+                && (transferDelayMs <= 0 || processed == 0)) {
+            if (processed > 0 && budget.exhausted()) {
+                budgetExhausted = true;
+                listener.onBudgetExhausted(HoverListener.WorkPhase.DISPATCH, plan.remainingSteps());
+                break;
+            }
+            plan.sendNext(sink, listener, TransferKind.RESTOCK);
+            processed++;
+            scheduler.recordTransfer(now);
+        }
+
+        if (processed > 0) {
+            listener.onQueueProcessed(processed, pendingCount());
+        }
+    }
+
+    /**
+     * Checks if a slot transfer should be allowed based on the screen type and slot position.
+     * Furnaces and most other screens rely on vanilla's quick-move to route items; enchanting
+     * tables and beacons only accept specific items from the player inventory.
+     */
+    private boolean isValidTransfer(ScreenType type, int slotId, ItemFacts facts) {
+        boolean fromPlayerInventory = roles[slotId].isPlayerInventory();
+        if (type == ScreenType.ENCHANTING_TABLE && fromPlayerInventory) {
+            return facts.isEnchantingInput(slotId);
+        }
+        if (type == ScreenType.BEACON && fromPlayerInventory) {
+            return facts.isBeaconPayment(slotId);
+        }
+        return true;
+    }
+
+    private void updateRoles(ScreenType type, int slotCount) {
+        if (rolesType != type || roles.length != slotCount) {
+            roles = new SlotRole[slotCount];
+            SlotRole.assign(type, slotCount, roles);
+            rolesType = type;
+        }
+    }
+
+    /**
+     * Returns the role of a slot in the current screen.
+     */
+    public SlotRole roleOf(int slotId) {
+        return slotId >= 0 && slotId < roles.length ? roles[slotId] : SlotRole.CONTAINER;
+    }
+
+    /**
+     * Returns the number of queued slots and unsent plan steps.
+     */
+    public int pendingCount() {
+        return pendingSlots.size() + creativePending.size() + plan.remainingSteps();
+    }
+
+    /**
+     * Returns whether the last tick ran out of time budget and left work for the next one.
+     */
+    public boolean isBudgetExhausted() {
+        return budgetExhausted;
+    }
+
+    public boolean isDropMode() {
+        return dropMode;
+    }
+
+    /**
+     * Checks if an area selection is being dragged (its anchor is {@link #areaX()}, {@link #areaY()}).
+     */
+    public boolean isAreaSelecting() {
+        return areaSelecting;
+    }
+
+    public double areaX() {
+        return areaX;
+    }
+
+    public double areaY() {
+        return areaY;
+    }
+
+    /**
+     * Checks if hover loot was active on the last tick.
+     */
+    public boolean isActive() {
+        return wasKeyPressed;
+    }
+}
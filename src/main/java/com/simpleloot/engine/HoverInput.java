@@ -0,0 +1,36 @@
+package com.simpleloot.engine;
+
+/**
+ * Input state for one engine tick.
+ *
+ * A single instance is filled in place by the caller every tick (no allocation). Mouse
+ * coordinates are in GUI pixels.
+ */
+public final class HoverInput {
+    // Type of the open screen
+    public ScreenType screenType = ScreenType.UNSUPPORTED;
+
+    // Current mouse position
+    public double mouseX;
+    public double mouseY;
+
+    // Hover loot key held (or toggle mode active)
+    public boolean hoverActive;
+    // Dedicated hover drop key held
+    public boolean dropKeyHeld;
+    // Direction-locked hover keys held: take only moves container slots, deposit only
+    // player inventory slots
+    public boolean takeKeyHeld;
+    public boolean depositKeyHeld;
+    // Modifier keys
+    public boolean ctrlHeld;
+    public boolean shiftHeld;
+    // Area select modifier (Alt)
+    public boolean altHeld;
+
+    // Creative inventory only: true if the survival inventory tab is selected
+    public boolean creativeSurvivalTab;
+
+    // Wall clock time of this tick in milliseconds
+    public long timeMs;
+}
@@ -0,0 +1,81 @@
+package com.simpleloot.engine;
+
+/**
+ * Observer for engine activity (debug output, metrics, tracing).
+ *
+ * All methods default to no-ops, so implementations only override what they need.
+ * Callbacks run on the engine's thread in the middle of a tick and should be cheap.
+ */
+public interface HoverListener {
+    HoverListener NONE = new HoverListener() {};
+
+    /**
+     * Why a slot on the path was not queued.
+     */
+    enum SkipReason {
+        // Item filter rule
+        FILTERED,
+        // Item not valid for this screen (e.g. non-enchantable item into an enchanting table)
+        INVALID_FOR_SCREEN,
+        // Slot is on the side the held take/deposit key does not move from
+        WRONG_DIRECTION,
+        // Item already moved the other way this session
+        BOUNCE,
+        // A click plan is still being sent
+        PLAN_RUNNING
+    }
+
+    /**
+     * Part of a tick that can run out of time budget.
+     */
+    enum WorkPhase {
+        // Resolving the mouse path into slots
+        PATH,
+        // Dispatching queued transfers
+        DISPATCH
+    }
+
+    /**
+     * Hover loot was released; slots can be selected again.
+     */
+    default void onDeactivated() {}
+
+    /**
+     * Drop mode was entered while hover loot was already active.
+     */
+    default void onDropModeEntered() {}
+
+    /**
+     * The mouse path for this tick was resolved.
+     */
+    default void onPathResolved(double distance, int samples, int slotsFound) {}
+
+    /**
+     * A slot on the path was skipped.
+     */
+    default void onSkipped(int slotId, SkipReason reason) {}
+
+    /**
+     * A slot was added to the transfer queue.
+     */
+    default void onQueued(int slotId) {}
+
+    /**
+     * A queued slot is being dispatched; called right before its clicks are sent, so the
+     * slot still holds the item. {@code targetSlotId} is the armor or crafting slot
+     * involved, or -1.
+     */
+    default void onTransfer(int slotId, TransferKind kind, int targetSlotId) {}
+
+    /**
+     * The queue was processed this tick.
+     */
+    default void onQueueProcessed(int processed, int remaining) {}
+
+    /**
+     * The tick budget ran out during the given phase. {@code deferred} is the work left for
+     * the next tick: mouse path waypoints for {@link WorkPhase#PATH}, queued slots (or
+     * click plan steps) for {@link WorkPhase#DISPATCH}.
+     */
+    default void onBudgetExhausted(WorkPhase phase, int deferred) {}
+}
@@ -0,0 +1,71 @@
+package com.simpleloot.engine;
+
+import java.util.Arrays;
+
+/**
+ * Forwards engine callbacks to several listeners in order.
+ *
+ * Build one when the set of active listeners changes, not per tick.
+ */
+public final class HoverListenerChain implements HoverListener {
+    private final HoverListener[] listeners;
+
+    private HoverListenerChain(HoverListener[] listeners) {
+        this.listeners = listeners;
+    }
+
+    /**
+     * Combines the given listeners, skipping {@link HoverListener#NONE}. Returns NONE or the
+     * single listener itself when there is nothing to chain.
+     */
+    public static HoverListener of(HoverListener... listeners) {
+        HoverListener[] active = Arrays.stream(listeners)
+                .filter(listener -> listener != null && listener != HoverListener.NONE)
+                .toArray(HoverListener[]::new);
+        return switch (active.length) {
+            case 0 -> HoverListener.NONE;
+            case 1 -> active[0];
+            default -> new HoverListenerChain(active);
+        };
+    }
+
+    @Override
+    public void onDeactivated() {
+        for (HoverListener listener : listeners) listener.onDeactivated();
+    }
+
+    @Override
+    public void onDropModeEntered() {
+        for (HoverListener listener : listeners) listener.onDropModeEntered();
+    }
+
+    @Override
+    public void onPathResolved(double distance, int samples, int slotsFound) {
+        for (HoverListener listener : listeners) listener.onPathResolved(distance, samples, slotsFound);
+    }
+
+    @Override
+    public void onSkipped(int slotId, SkipReason reason) {
+        for (HoverListener listener : listeners) listener.onSkipped(slotId, reason);
+    }
+
+    @Override
+    public void onQueued(int slotId) {
+        for (HoverListener listener : listeners) listener.onQueued(slotId);
+    }
+
+    @Override
+    public void onTransfer(int slotId, TransferKind kind, int targetSlotId) {
+        for (HoverListener listener : listeners) listener.onTransfer(slotId, kind, targetSlotId);
+    }
+
+    @Override
+    public void onQueueProcessed(int processed, int remaining) {
+        for (HoverListener listener : listeners) listener.onQueueProcessed(processed, remaining);
+    }
+
+    @Override
+    public void onBudgetExhausted(WorkPhase phase, int deferred) {
+        for (HoverListener listener : listeners) listener.onBudgetExhausted(phase, deferred);
+    }
+}
@@ -0,0 +1,28 @@
+package com.simpleloot.engine;
+
+/**
+ * Config values the engine reads. Implemented by the mod's config snapshot, so one tick
+ * always sees one consistent set of values.
+ */
+public interface HoverSettings {
+    boolean enabled();
+
+    boolean hotbarProtection();
+
+    int transferDelayMs();
+
+    boolean allowHoverDrop();
+
+    boolean allowCraftingGrid();
+
+    boolean allowArmorEquip();
+
+    int armorSwapDelayMs();
+
+    /**
+     * Time the engine may spend per tick, in microseconds; 0 means unlimited.
+     */
+    default int tickBudgetMicros() {
+        return 0;
+    }
+}
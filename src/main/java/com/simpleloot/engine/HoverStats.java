@@ -0,0 +1,181 @@
+package com.simpleloot.engine;
+
+/**
+ * Rolling per-tick statistics of a hover loot session, for the performance HUD.
+ *
+ * Each tick gets one entry in a fixed-size ring buffer of primitive arrays (transfers,
+ * clicks, handler time, wall time). Rates are sums over the entries of the last second,
+ * so recording is a few array writes per tick and nothing is allocated.
+ *
+ * Transfers and queue depth arrive through the {@link HoverListener} callbacks; clicks and
+ * handler time are reported by the caller, which knows what actually went out.
+ */
+public final class HoverStats implements HoverListener {
+    // Ticks kept in the ring (3.2 s at 20 TPS); must be a power of two
+    private static final int WINDOW = 64;
+    private static final int MASK = WINDOW - 1;
+
+    private final long[] timeMs = new long[WINDOW];
+    private final int[] transfers = new int[WINDOW];
+    private final int[] clicks = new int[WINDOW];
+    private final long[] tickNanos = new long[WINDOW];
+    // 1 if the engine ran out of tick budget in that tick
+    private final int[] overBudget = new int[WINDOW];
+
+    // Index of the current tick's entry, and the number of valid entries
+    private int head = 0;
+    private int filled = 0;
+
+    private int queueDepth = 0;
+    private long sessionTransfers = 0;
+    private long sessionClicks = 0;
+    private long sessionOverBudgetTicks = 0;
+
+    // Bumped on every recorded tick so readers can tell when to refresh
+    private int version = 0;
+
+    /**
+     * Starts a new tick entry. Call before the engine runs.
+     */
+    public void beginTick(long nowMs) {
+        head = (head + 1) & MASK;
+        timeMs[head] = nowMs;
+        transfers[head] = 0;
+        clicks[head] = 0;
+        tickNanos[head] = 0;
+        overBudget[head] = 0;
+        if (filled < WINDOW) filled++;
+    }
+
+    /**
+     * Finishes the current tick with the clicks sent and the time the handler took.
+     */
+    public void endTick(int clicksSent, long nanos, int pendingCount) {
+        clicks[head] += clicksSent;
+        tickNanos[head] = nanos;
+        sessionClicks += clicksSent;
+        queueDepth = pendingCount;
+        version++;
+    }
+
+    /**
+     * Clears the session totals and the window. Call when a new screen opens.
+     */
+    public void resetSession() {
+        filled = 0;
+        queueDepth = 0;
+        sessionTransfers = 0;
+        sessionClicks = 0;
+        sessionOverBudgetTicks = 0;
+        version++;
+    }
+
+    @Override
+    public void onTransfer(int slotId, TransferKind kind, int targetSlotId) {
+        transfers[head]++;
+        sessionTransfers++;
+    }
+
+    @Override
+    public void onQueueProcessed(int processed, int remaining) {
+        queueDepth = remaining;
+    }
+
+    @Override
+    public void onBudgetExhausted(WorkPhase phase, int deferred) {
+        // Both phases can run out in one tick; count the tick once
+        if (overBudget[head] == 0) {
+            overBudget[head] = 1;
+            sessionOverBudgetTicks++;
+        }
+    }
+
+    public int version() {
+        return version;
+    }
+
+    public int queueDepth() {
+        return queueDepth;
+    }
+
+    public long sessionTransfers() {
+        return sessionTransfers;
+    }
+
+    public long sessionClicks() {
+        return sessionClicks;
+    }
+
+    public long sessionOverBudgetTicks() {
+        return sessionOverBudgetTicks;
+    }
+
+    /**
+     * Ticks within the last second before {@code nowMs} that ran out of time budget.
+     */
+    public int overBudgetTicksPerSecond(long nowMs) {
+        return sumSince(overBudget, nowMs - 1000);
+    }
+
+    /**
+     * Transfers started within the last second before {@code nowMs}.
+     */
+    public int transfersPerSecond(long nowMs) {
+        return sumSince(transfers, nowMs - 1000);
+    }
+
+    /**
+     * Clicks sent within the last second before {@code nowMs}.
+     */
+    public int clicksPerSecond(long nowMs) {
+        return sumSince(clicks, nowMs - 1000);
+    }
+
+    /**
+     * Estimated clicks still awaiting the server: those sent within one round trip.
+     */
+    public int inFlightClicks(long nowMs, int roundTripMs) {
+        return sumSince(clicks, nowMs - Math.max(0, roundTripMs));
+    }
+
+    /**
+     * Handler time of the most recent tick, in microseconds.
+     */
+    public long lastTickMicros() {
+        return filled == 0 ? 0 : tickNanos[head] / 1000;
+    }
+
+    /**
+     * Largest handler time in the window, in microseconds.
+     */
+    public long maxTickMicros() {
+        long max = 0;
+        for (int i = 0; i < filled; i++) {
+            max = Math.max(max, tickNanos[(head - i) & MASK]);
+        }
+        return max / 1000;
+    }
+
+    /**
+     * Mean handler time over the window, in microseconds.
+     */
+    public long avgTickMicros() {
+        if (filled == 0) return 0;
+        long total = 0;
+        for (int i = 0; i < filled; i++) {
+            total += tickNanos[(head - i) & MASK];
+        }
+        return total / filled / 1000;
+    }
+
+    private int sumSince(int[] values, long sinceMs) {
+        int sum = 0;
+        // Walk back from the newest entry until the entries are too old
+        for (int i = 0; i < filled; i++) {
+            int index = (head - i) & MASK;
+            if (timeMs[index] <= sinceMs) break;
+            sum += values[index];
+        }
+        return sum;
+    }
+}
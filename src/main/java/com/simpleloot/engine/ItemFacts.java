@@ -0,0 +1,46 @@
+package com.simpleloot.engine;
+
+/**
+ * What the engine needs to know about the item in a slot.
+ *
+ * Implementations read the live menu, so answers reflect the current slot contents.
+ * All methods must return false / -1 for empty or out-of-range slots.
+ */
+public interface ItemFacts {
+    /**
+     * Checks if the slot holds an item.
+     */
+    boolean hasItem(int slotId);
+
+    /**
+     * Checks if the slot holds equippable armor (helmet, chestplate, leggings, boots, or elytra).
+     */
+    boolean isEquippableArmor(int slotId);
+
+    /**
+     * Returns the armor slot the item equips to: 0 = head, 1 = chest, 2 = legs, 3 = feet,
+     * or -1 if it is not armor.
+     */
+    int armorType(int slotId);
+
+    /**
+     * Checks if the item may go into an enchanting table (enchantable items and lapis).
+     */
+    boolean isEnchantingInput(int slotId);
+
+    /**
+     * Checks if the item is a valid beacon payment.
+     */
+    boolean isBeaconPayment(int slotId);
+
+    /**
+     * Checks if the item passes the configured item filter for the given mode.
+     */
+    boolean passesFilter(int slotId, boolean dropMode);
+
+    /**
+     * Returns a small non-negative int identifying the item (with components), equal for
+     * stacks that would merge, or 0 for an empty slot or when unknown.
+     */
+    int itemKey(int slotId);
+}
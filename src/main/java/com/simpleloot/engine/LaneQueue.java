@@ -0,0 +1,114 @@
+package com.simpleloot.engine;
+
+/**
+ * The transfer queue, split into priority lanes so the actions a player waits on are not
+ * stuck behind a batch.
+ *
+ * - {@link Lane#INTERACTIVE}: armor equip/unequip and crafting output. Strict priority:
+ *   its head always goes next.
+ * - {@link Lane#NORMAL}: slots hovered along the mouse path.
+ * - {@link Lane#BULK}: batches (area select, search pull, deposit matching).
+ *
+ * Whatever the interactive lane leaves of a tick's transfers is shared between normal and
+ * bulk {@link #NORMAL_SHARE}:1 while both have work, so a swipe stays responsive during a
+ * big batch without starving it; a lane with no work gives its share to the other. The
+ * share is counted per transfer rather than per tick, so it also holds when a transfer
+ * delay allows only one transfer per tick. Each lane is a {@link SlotQueue} (an int ring),
+ * and picking the next lane is a few size checks.
+ */
+public final class LaneQueue {
+    public enum Lane {
+        INTERACTIVE,
+        NORMAL,
+        BULK
+    }
+
+    // Normal transfers per bulk transfer while both lanes have work
+    public static final int NORMAL_SHARE = 3;
+
+    private static final Lane[] LANES = Lane.values();
+
+    private final SlotQueue[] lanes = new SlotQueue[LANES.length];
+    // Normal transfers sent since the last bulk one, while bulk had work
+    private int normalRun = 0;
+
+    public LaneQueue() {
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new SlotQueue();
+        }
+    }
+
+    /**
+     * Appends a slot id to the tail of a lane.
+     */
+    public void add(int slotId, Lane lane) {
+        lanes[lane.ordinal()].add(slotId);
+    }
+
+    /**
+     * Returns the lane the next transfer comes from, or null if all lanes are empty.
+     * Does not change the queue, so it can be asked again after a transfer had to wait.
+     */
+    public Lane next() {
+        if (!lanes[Lane.INTERACTIVE.ordinal()].isEmpty()) return Lane.INTERACTIVE;
+        boolean normal = !lanes[Lane.NORMAL.ordinal()].isEmpty();
+        boolean bulk = !lanes[Lane.BULK.ordinal()].isEmpty();
+        if (normal && bulk) return normalRun < NORMAL_SHARE ? Lane.NORMAL : Lane.BULK;
+        if (normal) return Lane.NORMAL;
+        return bulk ? Lane.BULK : null;
+    }
+
+    /**
+     * Returns the slot id the next transfer is for, or -1 if all lanes are empty.
+     */
+    public int peek() {
+        Lane lane = next();
+        return lane == null ? -1 : lanes[lane.ordinal()].peek();
+    }
+
+    /**
+     * Removes and returns the slot id the next transfer is for, or -1 if all lanes are empty.
+     */
+    public int poll() {
+        Lane lane = next();
+        if (lane == null) return -1;
+        if (lane == Lane.BULK) {
+            normalRun = 0;
+        } else if (lane == Lane.NORMAL && !lanes[Lane.BULK.ordinal()].isEmpty()) {
+            normalRun++;
+        }
+        return lanes[lane.ordinal()].poll();
+    }
+
+    /**
+     * Returns the number of slots queued in one lane.
+     */
+    public int size(Lane lane) {
+        return lanes[lane.ordinal()].size();
+    }
+
+    /**
+     * Returns the number of slots queued in all lanes.
+     */
+    public int size() {
+        int size = 0;
+        for (SlotQueue lane : lanes) {
+            size += lane.size();
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        for (SlotQueue lane : lanes) {
+            if (!lane.isEmpty()) return false;
+        }
+        return true;
+    }
+
+    public void clear() {
+        for (SlotQueue lane : lanes) {
+            lane.clear();
+        }
+        normalRun = 0;
+    }
+}
@@ -0,0 +1,199 @@
+package com.simpleloot.engine;
+
+import java.util.Arrays;
+
+/**
+ * Plans the clicks that restock the player inventory from an open container to match a
+ * loadout template.
+ *
+ * Stacks are identified by item key (an int per item + components, 0 = empty), so the
+ * planner runs on plain arrays and never sees an item. It simulates the menu while
+ * planning, so later steps see the effect of earlier ones, and picks the cheapest click
+ * pattern per move:
+ * - {@code SWAP} (1 click) moves a whole container stack into an empty hotbar or offhand slot
+ * - {@code QUICK_MOVE} (1 click) tops up a partial stack when vanilla's shift-click is known
+ *   to land there: the stack fits, and no other inventory stack of that item has room
+ * - {@code PICKUP} on source and target (2 clicks), plus one more to put back what did not fit
+ *
+ * For each target the container stack that covers the missing count with the least left
+ * over is taken, else the largest. A slot holding a different item than the template is
+ * left alone, and armor slots are skipped (container menus have none). Planning is greedy,
+ * one target at a time in hotbar, offhand, main inventory order; for a full 41-slot
+ * template against a 54-slot chest that is a few thousand array reads.
+ *
+ * Only storage screens ({@link ScreenType#isStorage()}) are planned: elsewhere a container
+ * slot can be a result slot, and taking from it would perform the craft.
+ */
+public final class LoadoutPlanner {
+    // Player inventory indices used by templates (vanilla Inventory order)
+    public static final int INVENTORY_SIZE = 41;
+    public static final int HOTBAR_SIZE = 9;
+    public static final int FIRST_ARMOR = 36;
+    public static final int OFFHAND = 40;
+
+    // SWAP button that targets the offhand instead of a hotbar slot
+    private static final int OFFHAND_BUTTON = 40;
+
+    // Simulated menu contents: item key, count and max stack size per slot
+    private int[] keys = new int[0];
+    private int[] counts = new int[0];
+    private int[] maxCounts = new int[0];
+    private SlotRole[] roles = new SlotRole[0];
+    private int offhandKey;
+
+    private ClickPlan out;
+
+    /**
+     * Plans the restock into {@code out} (cleared first) and returns the number of steps.
+     *
+     * @param slotKeys      item key per menu slot, 0 for empty
+     * @param slotCounts    stack size per menu slot
+     * @param slotMaxCounts max stack size of the stack in each menu slot
+     * @param offhandKey    item key in the offhand (not a menu slot in container menus), 0 for empty
+     * @param targetKeys    template item key per inventory index ({@link #INVENTORY_SIZE}), 0 = no target
+     * @param targetCounts  template stack size per inventory index
+     */
+    public int plan(ScreenType type, int slotCount, int[] slotKeys, int[] slotCounts, int[] slotMaxCounts,
+                    int offhandKey, int[] targetKeys, int[] targetCounts, ClickPlan out) {
+        out.clear();
+        if (!type.isStorage()) return 0;
+        this.out = out;
+        if (keys.length < slotCount) {
+            keys = new int[slotCount];
+            counts = new int[slotCount];
+            maxCounts = new int[slotCount];
+            roles = new SlotRole[slotCount];
+        }
+        System.arraycopy(slotKeys, 0, keys, 0, slotCount);
+        System.arraycopy(slotCounts, 0, counts, 0, slotCount);
+        System.arraycopy(slotMaxCounts, 0, maxCounts, 0, slotCount);
+        Arrays.fill(roles, null);
+        SlotRole.assign(type, slotCount, roles);
+        this.offhandKey = offhandKey;
+
+        int hotbarStart = first(SlotRole.HOTBAR, slotCount);
+        int mainStart = first(SlotRole.INVENTORY, slotCount);
+        int steps = 0;
+
+        if (hotbarStart >= 0) {
+            for (int i = 0; i < HOTBAR_SIZE; i++) {
+                steps += restock(hotbarStart + i, i, targetKeys[i], targetCounts[i], slotCount);
+            }
+        }
+        steps += restockOffhand(targetKeys[OFFHAND], slotCount);
+        if (mainStart >= 0) {
+            for (int i = HOTBAR_SIZE; i < FIRST_ARMOR; i++) {
+                steps += restock(mainStart + i - HOTBAR_SIZE, -1, targetKeys[i], targetCounts[i], slotCount);
+            }
+        }
+
+        this.out = null;
+        return steps;
+    }
+
+    /**
+     * Fills one player slot up to its target count. {@code swapButton} is the hotbar index
+     * for hotbar slots, -1 otherwise. Returns the number of steps planned.
+     */
+    private int restock(int slotId, int swapButton, int targetKey, int targetCount, int slotCount) {
+        if (targetKey == 0 || targetCount <= 0) return 0;
+        int steps = 0;
+        // Each step empties a container slot, so this ends after at most slotCount steps
+        while (keys[slotId] == 0 || keys[slotId] == targetKey && counts[slotId] < Math.min(targetCount, maxCounts[slotId])) {
+            int need = targetCount - counts[slotId];
+            int source = bestSource(targetKey, need, slotCount);
+            if (source < 0) break;
+
+            if (keys[slotId] == 0) {
+                if (swapButton >= 0) {
+                    out.click(source, swapButton, ClickAction.SWAP);
+                } else {
+                    out.click(source, 0, ClickAction.PICKUP);
+                    out.click(slotId, 0, ClickAction.PICKUP);
+                }
+                move(source, slotId, counts[source]);
+            } else {
+                int room = maxCounts[slotId] - counts[slotId];
+                int moved = Math.min(counts[source], room);
+                if (moved == counts[source] && isOnlyRoomFor(targetKey, slotId, slotCount)) {
+                    out.click(source, 0, ClickAction.QUICK_MOVE);
+                } else {
+                    out.click(source, 0, ClickAction.PICKUP);
+                    out.click(slotId, 0, ClickAction.PICKUP);
+                    if (moved < counts[source]) {
+                        // Put the rest back where it came from
+                        out.click(source, 0, ClickAction.PICKUP);
+                    }
+                }
+                move(source, slotId, moved);
+            }
+            out.endStep(source, slotId);
+            steps++;
+        }
+        return steps;
+    }
+
+    /**
+     * Swaps a container stack into an empty offhand. A partially filled offhand is left
+     * as it is: topping it up would need the cursor and an offhand slot the menu lacks.
+     */
+    private int restockOffhand(int targetKey, int slotCount) {
+        if (targetKey == 0 || offhandKey != 0) return 0;
+        int source = bestSource(targetKey, Integer.MAX_VALUE, slotCount);
+        if (source < 0) return 0;
+        out.click(source, OFFHAND_BUTTON, ClickAction.SWAP);
+        out.endStep(source, -1);
+        offhandKey = targetKey;
+        keys[source] = 0;
+        counts[source] = 0;
+        return 1;
+    }
+
+    /**
+     * Returns the container slot holding {@code key} whose count covers {@code need} with
+     * the least left over, else the one with the largest count, or -1 if there is none.
+     */
+    private int bestSource(int key, int need, int slotCount) {
+        int covering = -1;
+        int largest = -1;
+        for (int slotId = 0; slotId < slotCount; slotId++) {
+            if (roles[slotId] != SlotRole.CONTAINER || keys[slotId] != key || counts[slotId] <= 0) continue;
+            int count = counts[slotId];
+            if (count >= need && (covering < 0 || count < counts[covering])) covering = slotId;
+            if (largest < 0 || count > counts[largest]) largest = slotId;
+        }
+        return covering >= 0 ? covering : largest;
+    }
+
+    /**
+     * Checks that {@code slotId} is the only player slot a shift-click of {@code key} from
+     * the container would merge into (vanilla fills existing stacks before empty slots).
+     */
+    private boolean isOnlyRoomFor(int key, int slotId, int slotCount) {
+        for (int i = 0; i < slotCount; i++) {
+            if (i != slotId && roles[i].isPlayerInventory() && keys[i] == key && counts[i] < maxCounts[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void move(int source, int target, int amount) {
+        if (keys[target] == 0) {
+            keys[target] = keys[source];
+            maxCounts[target] = maxCounts[source];
+        }
+        counts[target] += amount;
+        counts[source] -= amount;
+        if (counts[source] == 0) {
+            keys[source] = 0;
+        }
+    }
+
+    private int first(SlotRole role, int slotCount) {
+        for (int i = 0; i < slotCount; i++) {
+            if (roles[i] == role) return i;
+        }
+        return -1;
+    }
+}
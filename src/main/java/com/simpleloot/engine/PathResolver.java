@@ -0,0 +1,134 @@
+package com.simpleloot.engine;
+
+import java.util.Arrays;
+
+/**
+ * Resolves the mouse path between two ticks into the slots it crossed.
+ *
+ * The segment from the previous to the current mouse position is sampled every
+ * {@link #SAMPLE_SPACING} GUI pixels, so fast swipes still catch every slot they pass over.
+ * Results are deduplicated and kept in path order. A resolver is reused across ticks and
+ * does not allocate once its result buffer has grown to the largest path seen.
+ *
+ * With a {@link TickBudget}, sampling stops early once the budget is used up; the caller
+ * continues the segment from {@link #resumeX()}/{@link #resumeY()} on a later tick.
+ */
+public final class PathResolver {
+    // Sample every ~2 pixels along the path (slot size is ~16-18 pixels)
+    public static final double SAMPLE_SPACING = 2.0;
+    // Samples taken between budget checks (a check is a nanoTime call, a sample a few compares)
+    private static final int BUDGET_CHECK_INTERVAL = 8;
+
+    private int[] slots = new int[16];
+    private int count = 0;
+    private final SlotSet seen = new SlotSet();
+
+    // Stats of the last resolve, for debug output and benchmarks
+    private double lastDistance = 0;
+    private int lastSamples = 0;
+
+    // Where sampling stopped if the last resolve ran out of budget
+    private boolean complete = true;
+    private double resumeX = 0;
+    private double resumeY = 0;
+
+    /**
+     * Resolves the slots along the path. A negative {@code fromX} or {@code fromY} means
+     * there is no previous position, in which case only the current position is checked.
+     *
+     * @return the number of slots found; read them with {@link #slot(int)}
+     */
+    public int resolve(SlotLayout layout, double fromX, double fromY, double toX, double toY) {
+        return resolve(layout, fromX, fromY, toX, toY, null);
+    }
+
+    /**
+     * Resolves the slots along the path until the given budget is used up (null for no
+     * limit). At least {@link #BUDGET_CHECK_INTERVAL} samples are taken, so every call
+     * makes progress. If the path was cut short, {@link #isComplete()} returns false.
+     *
+     * @return the number of slots found; read them with {@link #slot(int)}
+     */
+    public int resolve(SlotLayout layout, double fromX, double fromY, double toX, double toY, TickBudget budget) {
+        count = 0;
+        seen.clear();
+        complete = true;
+
+        // If no previous position, just get current slot
+        if (fromX < 0 || fromY < 0) {
+            lastDistance = 0;
+            lastSamples = 1;
+            addSlot(layout.slotAt(toX, toY));
+            return count;
+        }
+
+        double dx = toX - fromX;
+        double dy = toY - fromY;
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        int samples = Math.max(1, (int) (distance / SAMPLE_SPACING));
+        lastDistance = distance;
+        lastSamples = samples;
+
+        for (int i = 0; i <= samples; i++) {
+            double t = (double) i / samples;
+            double x = fromX + dx * t;
+            double y = fromY + dy * t;
+            addSlot(layout.slotAt(x, y));
+
+            if (budget != null && i < samples && (i + 1) % BUDGET_CHECK_INTERVAL == 0 && budget.exhausted()) {
+                // Out of time: the rest of the segment starts at this sample
+                complete = false;
+                resumeX = x;
+                resumeY = y;
+                lastSamples = i + 1;
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the i-th slot id found by the last {@link #resolve} call.
+     */
+    public int slot(int index) {
+        return slots[index];
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public double lastDistance() {
+        return lastDistance;
+    }
+
+    public int lastSamples() {
+        return lastSamples;
+    }
+
+    /**
+     * Returns whether the last resolve sampled the whole path.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Position to continue from if the last resolve was cut short.
+     */
+    public double resumeX() {
+        return resumeX;
+    }
+
+    public double resumeY() {
+        return resumeY;
+    }
+
+    private void addSlot(int slotId) {
+        if (slotId < 0 || !seen.add(slotId)) return;
+        if (count == slots.length) {
+            slots = Arrays.copyOf(slots, count << 1);
+        }
+        slots[count++] = slotId;
+    }
+}
@@ -0,0 +1,91 @@
+package com.simpleloot.engine;
+
+import java.util.Arrays;
+
+/**
+ * {@link SlotLayout} backed by plain slot positions.
+ *
+ * Hit testing mirrors vanilla's hovered-slot lookup: a linear scan over every slot with a
+ * one pixel margin around the 16x16 item area. Used for headless runs (benchmarks, trace
+ * replay) and anywhere a snapshot of a screen's slot geometry is needed.
+ */
+public final class RectSlotLayout implements SlotLayout {
+    // Distance between slot origins in a grid (item area plus a one pixel border each side)
+    public static final int SLOT_PITCH = 18;
+
+    private final int[] xs;
+    private final int[] ys;
+
+    public RectSlotLayout(int[] xs, int[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Slot coordinate arrays differ in length");
+        }
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    /**
+     * Builds the layout of a generic container screen: {@code containerRows} rows of nine
+     * container slots, followed by the 27 main inventory slots and the 9 hotbar slots,
+     * positioned the way vanilla positions them relative to the container origin.
+     */
+    public static RectSlotLayout containerGrid(int containerRows) {
+        int total = containerRows * 9 + 36;
+        int[] xs = new int[total];
+        int[] ys = new int[total];
+        int id = 0;
+        for (int row = 0; row < containerRows; row++) {
+            for (int col = 0; col < 9; col++, id++) {
+                xs[id] = 8 + col * SLOT_PITCH;
+                ys[id] = 18 + row * SLOT_PITCH;
+            }
+        }
+        int inventoryTop = 18 + containerRows * SLOT_PITCH + 13;
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 9; col++, id++) {
+                xs[id] = 8 + col * SLOT_PITCH;
+                ys[id] = inventoryTop + row * SLOT_PITCH;
+            }
+        }
+        for (int col = 0; col < 9; col++, id++) {
+            xs[id] = 8 + col * SLOT_PITCH;
+            ys[id] = inventoryTop + 3 * SLOT_PITCH + 4;
+        }
+        return new RectSlotLayout(xs, ys);
+    }
+
+    @Override
+    public int slotCount() {
+        return xs.length;
+    }
+
+    @Override
+    public int slotAt(double x, double y) {
+        for (int i = 0; i < xs.length; i++) {
+            if (x >= xs[i] - 1 && x < xs[i] + SLOT_SIZE + 1 && y >= ys[i] - 1 && y < ys[i] + SLOT_SIZE + 1) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int slotX(int slotId) {
+        return xs[slotId];
+    }
+
+    @Override
+    public int slotY(int slotId) {
+        return ys[slotId];
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof RectSlotLayout layout && Arrays.equals(xs, layout.xs) && Arrays.equals(ys, layout.ys);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(xs) + Arrays.hashCode(ys);
+    }
+}
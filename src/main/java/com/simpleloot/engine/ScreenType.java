@@ -0,0 +1,46 @@
+package com.simpleloot.engine;
+
+/**
+ * Classification of the container screens SimpleLoot knows about.
+ *
+ * The engine only sees this enum; mapping a live screen to a type is done by
+ * {@code com.simpleloot.loot.ScreenClassifier} in the mod.
+ */
+public enum ScreenType {
+    INVENTORY,
+    CREATIVE_INVENTORY,
+    CRAFTING_TABLE,
+    CHEST,
+    DOUBLE_CHEST,
+    SHULKER_BOX,
+    DISPENSER,
+    HOPPER,
+    FURNACE,
+    BLAST_FURNACE,
+    SMOKER,
+    BREWING_STAND,
+    ANVIL,
+    SMITHING_TABLE,
+    GRINDSTONE,
+    STONECUTTER,
+    LOOM,
+    ENCHANTING_TABLE,
+    BEACON,
+    CRAFTER,
+    CARTOGRAPHY_TABLE,
+    UNSUPPORTED;
+
+    /**
+     * Checks if this screen has a crafting grid (player inventory 2x2 or crafting table 3x3).
+     */
+    public boolean hasCraftingGrid() {
+        return this == INVENTORY || this == CRAFTING_TABLE;
+    }
+
+    /**
+     * Checks if this screen belongs to a storage block whose contents are worth indexing.
+     */
+    public boolean isStorage() {
+        return this == CHEST || this == DOUBLE_CHEST || this == SHULKER_BOX || this == DISPENSER || this == HOPPER;
+    }
+}
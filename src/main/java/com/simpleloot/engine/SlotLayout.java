@@ -0,0 +1,55 @@
+package com.simpleloot.engine;
+
+/**
+ * Read-only view of where slots sit on a container screen.
+ *
+ * Slot ids are positions in the menu's slot list, the same ids the container click
+ * protocol uses. Implementations must not allocate in {@link #slotAt}, since it is called
+ * for every path sample while the hover key is held.
+ */
+public interface SlotLayout {
+    // Width and height of a slot's item area in GUI pixels
+    int SLOT_SIZE = 16;
+
+    /**
+     * Returns the number of slots in the menu.
+     */
+    int slotCount();
+
+    /**
+     * Returns the id of the slot at the given GUI coordinates, or -1 if there is none.
+     */
+    int slotAt(double x, double y);
+
+    /**
+     * Returns the left edge of a slot's item area ({@link #SLOT_SIZE} square) in GUI pixels.
+     */
+    int slotX(int slotId);
+
+    /**
+     * Returns the top edge of a slot's item area ({@link #SLOT_SIZE} square) in GUI pixels.
+     */
+    int slotY(int slotId);
+
+    /**
+     * Writes the ids of the slots whose item area overlaps the rectangle spanned by two
+     * corners into {@code out}, in slot order, and returns how many were written. Checks
+     * each slot's position once instead of sampling the rectangle.
+     */
+    default int slotsIn(double x0, double y0, double x1, double y1, int[] out) {
+        double left = Math.min(x0, x1);
+        double right = Math.max(x0, x1);
+        double top = Math.min(y0, y1);
+        double bottom = Math.max(y0, y1);
+        int count = 0;
+        int slotCount = slotCount();
+        for (int slotId = 0; slotId < slotCount && count < out.length; slotId++) {
+            int x = slotX(slotId);
+            int y = slotY(slotId);
+            if (x <= right && x + SLOT_SIZE >= left && y <= bottom && y + SLOT_SIZE >= top) {
+                out[count++] = slotId;
+            }
+        }
+        return count;
+    }
+}
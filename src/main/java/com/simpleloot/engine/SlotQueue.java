@@ -0,0 +1,88 @@
+package com.simpleloot.engine;
+
+import java.util.Arrays;
+
+/**
+ * FIFO queue of slot ids backed by a growable int ring buffer.
+ *
+ * Replaces {@code LinkedList<Integer>} for the transfer queue: no node or boxing allocation
+ * per enqueued slot, and peek/poll are a single array read.
+ */
+public final class SlotQueue {
+    private int[] ring;
+    private int head = 0;
+    private int size = 0;
+
+    public SlotQueue() {
+        this(64);
+    }
+
+    public SlotQueue(int initialCapacity) {
+        ring = new int[Math.max(4, Integer.highestOneBit(Math.max(1, initialCapacity - 1)) << 1)];
+    }
+
+    /**
+     * Appends a slot id to the tail of the queue.
+     */
+    public void add(int slotId) {
+        if (size == ring.length) {
+            grow();
+        }
+        ring[(head + size) & (ring.length - 1)] = slotId;
+        size++;
+    }
+
+    /**
+     * Returns the slot id at the head of the queue, or -1 if empty.
+     */
+    public int peek() {
+        return size == 0 ? -1 : ring[head];
+    }
+
+    /**
+     * Removes and returns the slot id at the head of the queue, or -1 if empty.
+     */
+    public int poll() {
+        if (size == 0) return -1;
+        int slotId = ring[head];
+        head = (head + 1) & (ring.length - 1);
+        size--;
+        return slotId;
+    }
+
+    /**
+     * Returns the slot id at the given position from the head (0 = head).
+     */
+    public int get(int index) {
+        return ring[(head + index) & (ring.length - 1)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private void grow() {
+        int[] grown = new int[ring.length << 1];
+        for (int i = 0; i < size; i++) {
+            grown[i] = ring[(head + i) & (ring.length - 1)];
+        }
+        ring = grown;
+        head = 0;
+    }
+
+    @Override
+    public String toString() {
+        int[] contents = new int[size];
+        for (int i = 0; i < size; i++) contents[i] = get(i);
+        return Arrays.toString(contents);
+    }
+}
@@ -0,0 +1,72 @@
+package com.simpleloot.engine;
+
+/**
+ * Role of a slot within a menu, derived from the screen type and slot count.
+ *
+ * Vanilla menus put their own slots first and the player inventory (27 main + 9 hotbar)
+ * last. The player inventory and crafting table screens have a fixed layout with a
+ * crafting grid in front:
+ * - Inventory: 0 = output, 1-4 = crafting, 5-8 = armor, 9-35 = main, 36-44 = hotbar, 45 = offhand
+ * - Crafting table: 0 = output, 1-9 = crafting, 10-36 = main, 37-45 = hotbar
+ */
+public enum SlotRole {
+    // Slot belonging to the container (chest, furnace, ...)
+    CONTAINER,
+    // Crafting result slot
+    CRAFTING_OUTPUT,
+    // Crafting grid input slot
+    CRAFTING_INPUT,
+    // Worn armor slot
+    ARMOR,
+    // Offhand slot
+    OFFHAND,
+    // Player main inventory (3 rows)
+    INVENTORY,
+    // Player hotbar
+    HOTBAR;
+
+    /**
+     * Checks if this is a player inventory slot (main inventory or hotbar).
+     */
+    public boolean isPlayerInventory() {
+        return this == INVENTORY || this == HOTBAR;
+    }
+
+    /**
+     * Assigns roles to every slot of a menu.
+     *
+     * @param roles output array; must hold at least {@code slotCount} entries
+     */
+    public static void assign(ScreenType type, int slotCount, SlotRole[] roles) {
+        if (type == ScreenType.INVENTORY && slotCount >= 46) {
+            fill(roles, 0, 1, CRAFTING_OUTPUT);
+            fill(roles, 1, 5, CRAFTING_INPUT);
+            fill(roles, 5, 9, ARMOR);
+            fill(roles, 9, 36, INVENTORY);
+            fill(roles, 36, 45, HOTBAR);
+            fill(roles, 45, slotCount, OFFHAND);
+            return;
+        }
+        if (type == ScreenType.CRAFTING_TABLE && slotCount >= 46) {
+            fill(roles, 0, 1, CRAFTING_OUTPUT);
+            fill(roles, 1, 10, CRAFTING_INPUT);
+            fill(roles, 10, 37, INVENTORY);
+            fill(roles, 37, 46, HOTBAR);
+            fill(roles, 46, slotCount, CONTAINER);
+            return;
+        }
+
+        // Generic layout: container slots, then the last 36 slots are the player inventory
+        int playerStart = Math.max(0, slotCount - 36);
+        int hotbarStart = Math.max(0, slotCount - 9);
+        fill(roles, 0, playerStart, CONTAINER);
+        fill(roles, playerStart, hotbarStart, INVENTORY);
+        fill(roles, hotbarStart, slotCount, HOTBAR);
+    }
+
+    private static void fill(SlotRole[] roles, int from, int to, SlotRole role) {
+        for (int i = from; i < to; i++) {
+            roles[i] = role;
+        }
+    }
+}
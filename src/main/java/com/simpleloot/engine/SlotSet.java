@@ -0,0 +1,60 @@
+package com.simpleloot.engine;
+
+import java.util.Arrays;
+
+/**
+ * Set of slot ids backed by a growable bitset.
+ *
+ * Replaces {@code HashSet<Integer>} for "already queued this session" tracking. Slot ids
+ * are small and dense (a menu rarely has more than a few hundred slots), so membership is
+ * a single bit test.
+ */
+public final class SlotSet {
+    private long[] bits = new long[2];
+    private int size = 0;
+
+    /**
+     * Adds a slot id. Returns false if it was already present or is negative.
+     */
+    public boolean add(int slotId) {
+        if (slotId < 0) return false;
+        int word = slotId >>> 6;
+        if (word >= bits.length) {
+            bits = Arrays.copyOf(bits, Math.max(bits.length << 1, word + 1));
+        }
+        long mask = 1L << slotId;
+        if ((bits[word] & mask) != 0) return false;
+        bits[word] |= mask;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes a slot id. Returns false if it was not present.
+     */
+    public boolean remove(int slotId) {
+        if (!contains(slotId)) return false;
+        bits[slotId >>> 6] &= ~(1L << slotId);
+        size--;
+        return true;
+    }
+
+    public boolean contains(int slotId) {
+        int word = slotId >>> 6;
+        return slotId >= 0 && word < bits.length && (bits[word] & (1L << slotId)) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(bits, 0L);
+        size = 0;
+    }
+}
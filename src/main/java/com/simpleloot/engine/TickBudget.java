@@ -0,0 +1,35 @@
+package com.simpleloot.engine;
+
+/**
+ * Time allowed for the engine's work in one tick, measured with {@link System#nanoTime()}.
+ *
+ * Path resolution and queue dispatch check the budget between units of work and stop once
+ * it is used up, leaving the rest for the next tick. A budget of zero or less never runs out.
+ * Once exhausted, a budget stays exhausted until the next {@link #start}, so the remaining
+ * checks in that tick cost a field read.
+ */
+public final class TickBudget {
+    private long deadlineNanos = 0;
+    private boolean limited = false;
+    private boolean exhausted = false;
+
+    /**
+     * Starts the budget for a new tick.
+     */
+    public void start(int budgetMicros) {
+        limited = budgetMicros > 0;
+        exhausted = false;
+        if (limited) {
+            deadlineNanos = System.nanoTime() + budgetMicros * 1000L;
+        }
+    }
+
+    /**
+     * Returns whether the budget for this tick is used up.
+     */
+    public boolean exhausted() {
+        if (!limited || exhausted) return exhausted;
+        exhausted = System.nanoTime() - deadlineNanos >= 0;
+        return exhausted;
+    }
+}
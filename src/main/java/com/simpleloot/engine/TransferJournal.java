@@ -0,0 +1,194 @@
+package com.simpleloot.engine;
+
+import java.util.Arrays;
+
+/**
+ * Journal of the stacks moved in the last hover session, so the session can be undone.
+ *
+ * One entry per stack that landed somewhere: source slot, destination slot, item key and
+ * count (a shift-click that spreads over several stacks adds one entry per destination).
+ * Entries live in fixed-size parallel int arrays, so recording is four array stores and
+ * never allocates; a session that moves more than {@link #CAPACITY} stacks keeps its first
+ * entries and is marked truncated.
+ *
+ * {@link #beginSession()} only marks the start: the previous session is dropped when the
+ * new one records its first entry, so tapping the hover key over nothing keeps the last
+ * real session undoable.
+ */
+public final class TransferJournal {
+    public static final int CAPACITY = 256;
+
+    private final int[] sources = new int[CAPACITY];
+    private final int[] targets = new int[CAPACITY];
+    private final int[] keys = new int[CAPACITY];
+    private final int[] counts = new int[CAPACITY];
+    private int size = 0;
+    private boolean truncated = false;
+    private boolean sessionPending = false;
+
+    // Simulated menu contents while planning an undo, and which destinations are handled
+    private int[] slotKeys = new int[0];
+    private int[] slotCounts = new int[0];
+    private int[] slotMaxCounts = new int[0];
+    private boolean[] handled = new boolean[0];
+    private int skipped = 0;
+
+    /**
+     * Marks the start of a new session.
+     */
+    public void beginSession() {
+        sessionPending = true;
+    }
+
+    /**
+     * Records that {@code count} items of {@code key} moved from {@code sourceSlot} into
+     * {@code targetSlot}.
+     */
+    public void record(int sourceSlot, int targetSlot, int key, int count) {
+        if (sessionPending) {
+            size = 0;
+            truncated = false;
+            sessionPending = false;
+        }
+        if (size == CAPACITY) {
+            truncated = true;
+            return;
+        }
+        sources[size] = sourceSlot;
+        targets[size] = targetSlot;
+        keys[size] = key;
+        counts[size] = count;
+        size++;
+    }
+
+    /**
+     * Drops all entries (screen closed, session undone).
+     */
+    public void clear() {
+        size = 0;
+        truncated = false;
+        sessionPending = false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the session moved more stacks than the journal holds.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Number of destination stacks the last {@link #planUndo} could not move back.
+     */
+    public int skipped() {
+        return skipped;
+    }
+
+    /**
+     * Plans the clicks that move the journaled stacks back into their source slots, into
+     * {@code out} (cleared first), and returns the number of steps.
+     *
+     * Each destination slot becomes one step: pick the stack up, put it down on its source
+     * slots newest entry first (an empty source takes a full stack, a partial one tops up),
+     * and put what is left back. A destination is skipped when it no longer holds the item,
+     * or holds more than the session put there: it was merged into a stack the player
+     * already had, and moving part of a stack back would take a click per item. A source
+     * now holding a different item is passed over, since placing onto it would swap.
+     *
+     * @param slotKeys      item key per menu slot, 0 for empty
+     * @param slotCounts    stack size per menu slot
+     * @param slotMaxCounts max stack size of the stack in each menu slot
+     */
+    public int planUndo(int slotCount, int[] slotKeys, int[] slotCounts, int[] slotMaxCounts, ClickPlan out) {
+        out.clear();
+        if (this.slotKeys.length < slotCount) {
+            this.slotKeys = new int[slotCount];
+            this.slotCounts = new int[slotCount];
+            this.slotMaxCounts = new int[slotCount];
+            this.handled = new boolean[slotCount];
+        }
+        System.arraycopy(slotKeys, 0, this.slotKeys, 0, slotCount);
+        System.arraycopy(slotCounts, 0, this.slotCounts, 0, slotCount);
+        System.arraycopy(slotMaxCounts, 0, this.slotMaxCounts, 0, slotCount);
+        Arrays.fill(handled, false);
+        skipped = 0;
+
+        int steps = 0;
+        // Newest first, so stacks go back in the reverse of the order they came
+        for (int i = size - 1; i >= 0; i--) {
+            int target = targets[i];
+            if (target < 0 || target >= slotCount || handled[target]) continue;
+            handled[target] = true;
+            int key = keys[i];
+
+            int moved = 0;
+            for (int j = i; j >= 0; j--) {
+                if (targets[j] == target && keys[j] == key) moved += counts[j];
+            }
+            if (this.slotKeys[target] != key || this.slotCounts[target] > moved || !hasRoom(i, target, key, slotCount)) {
+                skipped++;
+                continue;
+            }
+            returnStack(i, target, key, slotCount, out);
+            steps++;
+        }
+        return steps;
+    }
+
+    /**
+     * Sends the stack in {@code target} back to the sources of entries {@code newest} and
+     * older that moved {@code key} there, as one step.
+     */
+    private void returnStack(int newest, int target, int key, int slotCount, ClickPlan out) {
+        int carried = slotCounts[target];
+        int maxCount = slotMaxCounts[target];
+        int firstSource = -1;
+        out.click(target, 0, ClickAction.PICKUP);
+        for (int j = newest; j >= 0 && carried > 0; j--) {
+            int source = sources[j];
+            if (targets[j] != target || keys[j] != key || source < 0 || source >= slotCount) continue;
+            int room = room(source, key, maxCount);
+            if (room <= 0) continue;
+            int placed = Math.min(carried, room);
+            out.click(source, 0, ClickAction.PICKUP);
+            if (slotKeys[source] == 0) {
+                slotKeys[source] = key;
+                slotMaxCounts[source] = maxCount;
+            }
+            slotCounts[source] += placed;
+            carried -= placed;
+            if (firstSource < 0) firstSource = source;
+        }
+        if (carried > 0) {
+            // Sources filled up since: put the rest back where it was
+            out.click(target, 0, ClickAction.PICKUP);
+        }
+        slotCounts[target] = carried;
+        if (carried == 0) slotKeys[target] = 0;
+        out.endStep(target, firstSource);
+    }
+
+    /**
+     * Checks that at least one source of the entries moving {@code key} into {@code target}
+     * can take part of the stack back.
+     */
+    private boolean hasRoom(int newest, int target, int key, int slotCount) {
+        for (int j = newest; j >= 0; j--) {
+            int source = sources[j];
+            if (targets[j] == target && keys[j] == key && source >= 0 && source < slotCount
+                    && room(source, key, slotMaxCounts[target]) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int room(int slotId, int key, int maxCount) {
+        if (slotKeys[slotId] == 0) return maxCount;
+        return slotKeys[slotId] == key ? slotMaxCounts[slotId] - slotCounts[slotId] : 0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.simpleloot.engine;
+
+/**
+ * What a dispatched transfer did, as reported to {@link HoverListener#onTransfer}.
+ */
+public enum TransferKind {
+    // Dropped the stack on the ground
+    DROP,
+    // Shift-click between container and player inventory
+    QUICK_MOVE,
+    // Armor from the inventory into an empty armor slot
+    ARMOR_EQUIP,
+    // Armor from the inventory swapped with worn armor
+    ARMOR_SWAP,
+    // Worn armor back into the inventory
+    ARMOR_UNEQUIP,
+    // Crafting result into the inventory
+    CRAFT_OUTPUT,
+    // Crafting grid input back into the inventory
+    CRAFT_RETURN,
+    // Inventory stack into a free crafting grid slot
+    CRAFT_INSERT,
+    // Crafting grid full, nothing sent
+    CRAFT_FULL,
+    // One step of a click plan (loadout restock, session undo)
+    RESTOCK
+}
@@ -0,0 +1,75 @@
+package com.simpleloot.engine;
+
+import java.util.Arrays;
+
+/**
+ * Rate limiting for dispatched transfers.
+ *
+ * Tracks the time of the last transfer (for {@code transferDelayMs}) and, per slot, the
+ * time of the last armor swap (for {@code armorSwapDelayMs}) so the cursor resting on a
+ * slot cannot swap armor back and forth every tick.
+ */
+public final class TransferScheduler {
+    // Transfers per tick when transferDelayMs is 0 (instant mode)
+    public static final int INSTANT_TRANSFERS_PER_TICK = 20;
+
+    private long lastTransferTime = 0;
+
+    // Last armor swap time per slot id, 0 = none
+    private long[] armorSwapTimes = new long[64];
+
+    /**
+     * Checks if the transfer delay has passed and the next transfer may be sent.
+     */
+    public boolean isReady(long nowMs, int transferDelayMs) {
+        return transferDelayMs <= 0 || nowMs - lastTransferTime >= transferDelayMs;
+    }
+
+    /**
+     * Returns how many transfers may be sent in one tick. With a delay, one per delay period;
+     * without, a batch per tick for instant transfer.
+     */
+    public int transfersPerTick(int transferDelayMs) {
+        return transferDelayMs == 0 ? INSTANT_TRANSFERS_PER_TICK : 1;
+    }
+
+    public void recordTransfer(long nowMs) {
+        lastTransferTime = nowMs;
+    }
+
+    /**
+     * Checks if the slot was part of an armor swap less than {@code armorSwapDelayMs} ago.
+     */
+    public boolean isArmorSwapCoolingDown(int slotId, long nowMs, int armorSwapDelayMs) {
+        long last = lastArmorSwap(slotId);
+        return last != 0 && armorSwapDelayMs > 0 && nowMs - last < armorSwapDelayMs;
+    }
+
+    /**
+     * Returns the time of the slot's last armor swap, or 0 if none is tracked.
+     */
+    public long lastArmorSwap(int slotId) {
+        return slotId >= 0 && slotId < armorSwapTimes.length ? armorSwapTimes[slotId] : 0;
+    }
+
+    public void recordArmorSwap(int slotId, long nowMs) {
+        if (slotId < 0) return;
+        if (slotId >= armorSwapTimes.length) {
+            armorSwapTimes = Arrays.copyOf(armorSwapTimes, Math.max(armorSwapTimes.length << 1, slotId + 1));
+        }
+        armorSwapTimes[slotId] = nowMs;
+    }
+
+    public void clearArmorSwap(int slotId) {
+        if (slotId >= 0 && slotId < armorSwapTimes.length) {
+            armorSwapTimes[slotId] = 0;
+        }
+    }
+
+    /**
+     * Forgets all armor swap times (hover loot released or screen changed).
+     */
+    public void clearArmorSwaps() {
+        Arrays.fill(armorSwapTimes, 0L);
+    }
+}
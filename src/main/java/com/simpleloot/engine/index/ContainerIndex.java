@@ -0,0 +1,239 @@
+package com.simpleloot.engine.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index of the containers the player has looked into: for each container, how
+ * many of each item it held when last seen, and for each item, which containers hold it.
+ *
+ * Items are plain int ids (the registry id in the mod). A container's contents are given
+ * as its raw slot list and stored aggregated per item in two sorted primitive arrays.
+ * Updating a container only touches the item-to-container entries of items that appeared
+ * or disappeared, so re-syncing an open container after every change is cheap.
+ *
+ * The index is bounded by an estimated memory budget. Containers are kept in order of
+ * their last update, and the least recently updated ones are evicted when the budget is
+ * exceeded. Not thread-safe; the mod uses it from the client thread only.
+ */
+public final class ContainerIndex {
+    // Rough heap cost of one indexed container (map entries, snapshot object, key, array headers)
+    static final int CONTAINER_BYTES = 160;
+    // Per distinct item in a container: the two array elements plus its item-to-container entry
+    static final int ITEM_BYTES = 8 + 40;
+
+    /**
+     * One container's contents, aggregated per item.
+     */
+    public record Snapshot(ContainerKey key, int[] items, int[] counts, long observedMs) {
+        /**
+         * Count of the given item in this container, or 0.
+         */
+        public int count(int itemId) {
+            int i = Arrays.binarySearch(items, itemId);
+            return i >= 0 ? counts[i] : 0;
+        }
+
+        /**
+         * Total number of items in this container.
+         */
+        public int totalCount() {
+            int total = 0;
+            for (int count : counts) total += count;
+            return total;
+        }
+
+        long bytes() {
+            return CONTAINER_BYTES + (long) items.length * ITEM_BYTES;
+        }
+    }
+
+    /**
+     * A container holding a searched item.
+     */
+    public record Match(ContainerKey key, int count, long observedMs) {}
+
+    // Insertion order = update order (entries are re-inserted on update), oldest first
+    private final LinkedHashMap<ContainerKey, Snapshot> containers = new LinkedHashMap<>();
+    private final Map<Integer, Set<ContainerKey>> byItem = new HashMap<>();
+    private long budgetBytes;
+    private long bytes = 0;
+
+    // Scratch buffer for aggregating slot lists
+    private int[] sortScratch = new int[64];
+
+    public ContainerIndex(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Changes the memory budget, evicting containers if the index is now over it.
+     */
+    public void setBudget(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        evict();
+    }
+
+    /**
+     * Records the current contents of a container. {@code slotItems[i]} is the item id in
+     * slot i (negative or a count of 0 for an empty slot). Returns the stored snapshot.
+     */
+    public Snapshot update(ContainerKey key, int[] slotItems, int[] slotCounts, int slotCount, long nowMs) {
+        Snapshot previous = containers.remove(key);
+        Snapshot next = aggregate(key, slotItems, slotCounts, slotCount, nowMs);
+
+        int[] oldItems = previous != null ? previous.items : new int[0];
+        int[] newItems = next.items;
+        // Both arrays are sorted: walk them together to find items that came or went
+        int i = 0;
+        int j = 0;
+        while (i < oldItems.length || j < newItems.length) {
+            if (j == newItems.length || (i < oldItems.length && oldItems[i] < newItems[j])) {
+                unlink(oldItems[i++], key);
+            } else if (i == oldItems.length || newItems[j] < oldItems[i]) {
+                byItem.computeIfAbsent(newItems[j++], id -> new HashSet<>()).add(key);
+            } else {
+                i++;
+                j++;
+            }
+        }
+
+        if (previous != null) bytes -= previous.bytes();
+        containers.put(key, next);
+        bytes += next.bytes();
+        evict();
+        return next;
+    }
+
+    /**
+     * Forgets a container (e.g. it was broken).
+     */
+    public void remove(ContainerKey key) {
+        Snapshot previous = containers.remove(key);
+        if (previous == null) return;
+        for (int item : previous.items) {
+            unlink(item, key);
+        }
+        bytes -= previous.bytes();
+    }
+
+    /**
+     * Returns the last known contents of a container, or null.
+     */
+    public Snapshot get(ContainerKey key) {
+        return containers.get(key);
+    }
+
+    /**
+     * Returns up to {@code limit} containers holding the given item, most first.
+     */
+    public List<Match> find(int itemId, int limit) {
+        Set<ContainerKey> keys = byItem.get(itemId);
+        if (keys == null) return List.of();
+        List<Match> matches = new ArrayList<>(keys.size());
+        for (ContainerKey key : keys) {
+            Snapshot snapshot = containers.get(key);
+            matches.add(new Match(key, snapshot.count(itemId), snapshot.observedMs));
+        }
+        matches.sort((a, b) -> a.count != b.count ? Integer.compare(b.count, a.count)
+                : Long.compare(b.observedMs, a.observedMs));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    /**
+     * Total count of the given item over all indexed containers.
+     */
+    public long totalCount(int itemId) {
+        Set<ContainerKey> keys = byItem.get(itemId);
+        if (keys == null) return 0;
+        long total = 0;
+        for (ContainerKey key : keys) {
+            total += containers.get(key).count(itemId);
+        }
+        return total;
+    }
+
+    /**
+     * Visits all indexed containers, least recently updated first.
+     */
+    public void forEach(Consumer<Snapshot> action) {
+        containers.values().forEach(action);
+    }
+
+    public int size() {
+        return containers.size();
+    }
+
+    /**
+     * Estimated heap use in bytes.
+     */
+    public long bytes() {
+        return bytes;
+    }
+
+    public void clear() {
+        containers.clear();
+        byItem.clear();
+        bytes = 0;
+    }
+
+    private void unlink(int itemId, ContainerKey key) {
+        Set<ContainerKey> keys = byItem.get(itemId);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            byItem.remove(itemId);
+        }
+    }
+
+    private void evict() {
+        Iterator<Snapshot> oldest = containers.values().iterator();
+        while (bytes > budgetBytes && oldest.hasNext()) {
+            Snapshot snapshot = oldest.next();
+            oldest.remove();
+            for (int item : snapshot.items) {
+                unlink(item, snapshot.key);
+            }
+            bytes -= snapshot.bytes();
+        }
+    }
+
+    /**
+     * Sums the slot list per item into sorted item/count arrays.
+     */
+    private Snapshot aggregate(ContainerKey key, int[] slotItems, int[] slotCounts, int slotCount, long nowMs) {
+        if (sortScratch.length < slotCount) {
+            sortScratch = new int[Math.max(slotCount, sortScratch.length * 2)];
+        }
+        int filled = 0;
+        for (int i = 0; i < slotCount; i++) {
+            if (slotItems[i] >= 0 && slotCounts[i] > 0) {
+                sortScratch[filled++] = slotItems[i];
+            }
+        }
+        Arrays.sort(sortScratch, 0, filled);
+
+        int distinct = 0;
+        for (int i = 0; i < filled; i++) {
+            if (i == 0 || sortScratch[i] != sortScratch[i - 1]) distinct++;
+        }
+        int[] items = new int[distinct];
+        int[] counts = new int[distinct];
+        int n = 0;
+        for (int i = 0; i < filled; i++) {
+            if (i == 0 || sortScratch[i] != sortScratch[i - 1]) items[n++] = sortScratch[i];
+        }
+        for (int i = 0; i < slotCount; i++) {
+            if (slotItems[i] >= 0 && slotCounts[i] > 0) {
+                counts[Arrays.binarySearch(items, slotItems[i])] += slotCounts[i];
+            }
+        }
+        return new Snapshot(key, items, counts, nowMs);
+    }
+}
@@ -0,0 +1,8 @@
+package com.simpleloot.engine.index;
+
+/**
+ * Location of a container block: dimension id (e.g. {@code minecraft:overworld}) and the
+ * block position packed into a long (Minecraft's {@code BlockPos.asLong()} layout).
+ */
+public record ContainerKey(String dimension, long pos) {
+}
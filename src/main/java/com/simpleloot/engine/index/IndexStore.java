@@ -0,0 +1,437 @@
+package com.simpleloot.engine.index;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Append-only file of container snapshots, so the {@link ContainerIndex} survives restarts.
+ *
+ * Layout: a 5-byte header ({@code SLIX} + version), then length-prefixed records:
+ * <pre>
+ *   varint length, byte type, payload
+ *   NAME       utf-8 string; gets the next palette index
+ *   CONTAINER  varint dimension name, varlong zigzag position, varlong observed time,
+ *              varint item count, then per item: varint item name, varint count
+ * </pre>
+ * Dimension and item ids are written once to the palette and referenced by index, so a
+ * container record is a few bytes per distinct item. Item names (not registry ids) are
+ * stored because registry ids change between game sessions and mod sets.
+ *
+ * Opening reads the whole file into memory and decodes it in one pass, eagerly: every
+ * container is returned by {@link #takeLoaded()}, so the caller should open the store off
+ * the client thread. The file is not memory-mapped, because it may be truncated or
+ * replaced right after the scan, and Windows refuses both while a mapping is alive (which
+ * Java only releases on garbage collection). Later records for the same container replace
+ * earlier ones, and a record cut short by a crash ends the scan and is truncated away.
+ *
+ * When superseded records make up most of the file, it is compacted: the palette and the
+ * latest record per container are copied verbatim into a new file that replaces the old
+ * one. A compaction that fails leaves the old file in use and is not retried until the
+ * file has grown by another {@link #COMPACT_RATIO} times.
+ *
+ * Not thread-safe; the mod uses one store from its writer thread.
+ */
+public final class IndexStore implements Closeable {
+    private static final int MAGIC = 0x534C4958; // "SLIX"
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 5;
+
+    private static final byte TYPE_NAME = 1;
+    private static final byte TYPE_CONTAINER = 2;
+
+    // Compact when the file is this many times larger than its live records...
+    private static final int COMPACT_RATIO = 2;
+    // ...and at least this large
+    private static final long COMPACT_MIN_BYTES = 64 * 1024;
+
+    /**
+     * A container as stored. Items whose names are unknown to the current game are dropped.
+     */
+    public record Entry(ContainerKey key, int[] items, int[] counts, long observedMs) {}
+
+    private final Path file;
+    private FileChannel out;
+    private long fileBytes;
+    // Size the file has to reach before the next compaction attempt
+    private long compactAfterBytes = COMPACT_MIN_BYTES;
+
+    // Palette: index -> name, and name -> index
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIndex = new HashMap<>();
+    // Bytes of the palette's NAME records
+    private long paletteBytes = 0;
+
+    // Latest record per container: {file offset, record length}
+    private final Map<ContainerKey, long[]> latest = new HashMap<>();
+    private long liveBytes = 0;
+
+    private final Encoder encoder = new Encoder();
+    private final Encoder payload = new Encoder();
+    private List<Entry> loaded = List.of();
+
+    private IndexStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens (or creates) the store at the given path and decodes its contents.
+     * {@code itemIds} maps stored item names to current item ids (negative if unknown).
+     * Read the decoded containers with {@link #takeLoaded()}.
+     */
+    public static IndexStore open(Path file, ToIntFunction<String> itemIds) throws IOException {
+        IndexStore store = new IndexStore(file);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        long validEnd = Files.exists(file) ? store.scan(itemIds) : 0;
+
+        if (validEnd < HEADER_BYTES) {
+            // New, unreadable or from another format version: start over
+            store.resetState();
+            Files.write(file, header());
+            validEnd = HEADER_BYTES;
+        } else if (validEnd < Files.size(file)) {
+            // Drop a record cut short by a crash
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(validEnd);
+            }
+        }
+        store.fileBytes = validEnd;
+        store.compactIfNeeded();
+        // Opened last, so nothing after it can fail and leak the channel
+        store.out = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return store;
+    }
+
+    /**
+     * Returns the containers decoded by {@link #open}, oldest observation first, and
+     * releases them.
+     */
+    public List<Entry> takeLoaded() {
+        List<Entry> entries = loaded;
+        loaded = List.of();
+        return entries;
+    }
+
+    /**
+     * Appends a container's current contents. {@code itemNames} maps item ids to the
+     * names stored in the palette.
+     */
+    public void append(ContainerIndex.Snapshot snapshot, IntFunction<String> itemNames) throws IOException {
+        if (out == null) throw new IOException("Index store is closed");
+        encoder.reset();
+        int dimension = name(snapshot.key().dimension());
+        int[] items = new int[snapshot.items().length];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = name(itemNames.apply(snapshot.items()[i]));
+        }
+
+        // Any NAME records written by name() come first in the buffer
+        int recordStart = encoder.length;
+        payload.reset();
+        payload.writeByte(TYPE_CONTAINER);
+        payload.writeVarInt(dimension);
+        payload.writeVarLong(zigzag(snapshot.key().pos()));
+        payload.writeVarLong(snapshot.observedMs());
+        payload.writeVarInt(items.length);
+        for (int i = 0; i < items.length; i++) {
+            payload.writeVarInt(items[i]);
+            payload.writeVarInt(snapshot.counts()[i]);
+        }
+        encoder.writeVarInt(payload.length);
+        encoder.writeBytes(payload.bytes, payload.length);
+
+        long offset = fileBytes + recordStart;
+        long length = encoder.length - recordStart;
+        writeFully(out, ByteBuffer.wrap(encoder.bytes, 0, encoder.length));
+        fileBytes += encoder.length;
+
+        long[] previous = latest.put(snapshot.key(), new long[]{offset, length});
+        if (previous != null) liveBytes -= previous[1];
+        liveBytes += length;
+        compactIfNeeded();
+    }
+
+    /**
+     * Current file size in bytes.
+     */
+    public long fileBytes() {
+        return fileBytes;
+    }
+
+    /**
+     * Number of containers stored.
+     */
+    public int size() {
+        return latest.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    /**
+     * Reads the file into memory and decodes it. Returns the end of the last complete
+     * record, or 0 if the file is not a readable store.
+     */
+    private long scan(ToIntFunction<String> itemIds) throws IOException {
+        Map<ContainerKey, Entry> entries = new HashMap<>();
+        int[] paletteItemIds = new int[64];
+        long end = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) return 0;
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Read until full or end of file
+            }
+            buffer.flip();
+            if (buffer.remaining() < HEADER_BYTES) return 0;
+            if (buffer.getInt() != MAGIC || buffer.get() != VERSION) return 0;
+
+            end = HEADER_BYTES;
+            while (buffer.hasRemaining()) {
+                int start = buffer.position();
+                int length = readVarInt(buffer);
+                if (length <= 0 || length > buffer.remaining()) break;
+                int payloadStart = buffer.position();
+                byte type = buffer.get();
+                if (type == TYPE_NAME) {
+                    byte[] utf8 = new byte[length - 1];
+                    buffer.get(utf8);
+                    String name = new String(utf8, StandardCharsets.UTF_8);
+                    if (names.size() == paletteItemIds.length) {
+                        paletteItemIds = Arrays.copyOf(paletteItemIds, names.size() * 2);
+                    }
+                    // Resolved lazily, most names are never looked up as items
+                    paletteItemIds[names.size()] = Integer.MIN_VALUE;
+                    nameIndex.put(name, names.size());
+                    names.add(name);
+                    paletteBytes += buffer.position() - start;
+                } else if (type == TYPE_CONTAINER) {
+                    ContainerKey key = new ContainerKey(names.get(readVarInt(buffer)), unzigzag(readVarLong(buffer)));
+                    long observedMs = readVarLong(buffer);
+                    int count = readVarInt(buffer);
+                    int[] items = new int[count];
+                    int[] counts = new int[count];
+                    int kept = 0;
+                    for (int i = 0; i < count; i++) {
+                        int nameId = readVarInt(buffer);
+                        int itemCount = readVarInt(buffer);
+                        if (paletteItemIds[nameId] == Integer.MIN_VALUE) {
+                            paletteItemIds[nameId] = itemIds.applyAsInt(names.get(nameId));
+                        }
+                        if (paletteItemIds[nameId] >= 0) {
+                            items[kept] = paletteItemIds[nameId];
+                            counts[kept] = itemCount;
+                            kept++;
+                        }
+                    }
+                    entries.put(key, new Entry(key, Arrays.copyOf(items, kept), Arrays.copyOf(counts, kept), observedMs));
+                    long[] previous = latest.put(key, new long[]{start, buffer.position() - start});
+                    if (previous != null) liveBytes -= previous[1];
+                    liveBytes += buffer.position() - start;
+                }
+                // Unknown record types are skipped, so newer writers can add some
+                buffer.position(payloadStart + length);
+                end = buffer.position();
+            }
+        } catch (RuntimeException e) {
+            // Corrupt record (bad palette index, overlong varint): keep what was read before it
+            if (end == 0) return 0;
+        }
+
+        List<Entry> sorted = new ArrayList<>(entries.values());
+        sorted.sort(Comparator.comparingLong(Entry::observedMs));
+        loaded = sorted;
+        return end;
+    }
+
+    private void compactIfNeeded() {
+        if (fileBytes < compactAfterBytes || fileBytes <= (HEADER_BYTES + paletteBytes + liveBytes) * COMPACT_RATIO) {
+            return;
+        }
+        try {
+            compact();
+            compactAfterBytes = COMPACT_MIN_BYTES;
+        } catch (IOException e) {
+            // The records are already on disk, so keep appending to the old file rather than
+            // failing the write, and back off instead of copying the file again on every append
+            compactAfterBytes = fileBytes * COMPACT_RATIO;
+        }
+    }
+
+    /**
+     * Rewrites the file with only the palette and the latest record per container. The
+     * append channel is closed while the new file replaces the old one and reopened after,
+     * if it was open.
+     */
+    private void compact() throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        boolean appending = out != null;
+        try {
+            Map<ContainerKey, long[]> moved = new HashMap<>();
+            long size;
+            try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ);
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                         StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(target, ByteBuffer.wrap(header()));
+                encoder.reset();
+                for (String name : names) {
+                    writeName(encoder, name);
+                }
+                writeFully(target, ByteBuffer.wrap(encoder.bytes, 0, encoder.length));
+
+                // Container records reference the palette by index, so they can be copied as they are
+                for (Map.Entry<ContainerKey, long[]> record : latest.entrySet()) {
+                    long offset = record.getValue()[0];
+                    long length = record.getValue()[1];
+                    moved.put(record.getKey(), new long[]{target.position(), length});
+                    long copied = 0;
+                    while (copied < length) {
+                        long transferred = source.transferTo(offset + copied, length - copied, target);
+                        if (transferred <= 0) throw new IOException("Index store shrank while compacting");
+                        copied += transferred;
+                    }
+                }
+                size = target.position();
+            }
+
+            close();
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            latest.clear();
+            latest.putAll(moved);
+            fileBytes = size;
+            paletteBytes = size - HEADER_BYTES - liveBytes;
+        } finally {
+            // On failure (e.g. another process has the file open on Windows) keep appending to it
+            Files.deleteIfExists(temp);
+            if (appending && out == null) {
+                out = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+        }
+    }
+
+    /**
+     * Returns the palette index of a name, writing a NAME record into the encoder if new.
+     */
+    private int name(String name) {
+        Integer index = nameIndex.get(name);
+        if (index != null) return index;
+        int before = encoder.length;
+        writeName(encoder, name);
+        paletteBytes += encoder.length - before;
+        nameIndex.put(name, names.size());
+        names.add(name);
+        return names.size() - 1;
+    }
+
+    private void resetState() {
+        names.clear();
+        nameIndex.clear();
+        latest.clear();
+        paletteBytes = 0;
+        liveBytes = 0;
+        loaded = List.of();
+    }
+
+    private static void writeName(Encoder encoder, String name) {
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        encoder.writeVarInt(utf8.length + 1);
+        encoder.writeByte(TYPE_NAME);
+        encoder.writeBytes(utf8, utf8.length);
+    }
+
+    private static byte[] header() {
+        return new byte[]{'S', 'L', 'I', 'X', VERSION};
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        return (int) readVarLong(buffer);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalStateException("varint too long");
+    }
+
+    /**
+     * Growable byte buffer with varint writers.
+     */
+    private static final class Encoder {
+        byte[] bytes = new byte[256];
+        int length = 0;
+
+        void reset() {
+            length = 0;
+        }
+
+        void writeByte(int value) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, length * 2);
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void writeBytes(byte[] source, int count) {
+            if (length + count > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(length + count, length * 2));
+            }
+            System.arraycopy(source, 0, bytes, length, count);
+            length += count;
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.simpleloot.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The engine ran out of its per-tick time budget and left work for the next tick.
+ */
+@Name("simpleloot.BudgetExhausted")
+@Label("Hover Tick Budget Exhausted")
+@Category("SimpleLoot")
+@Description("The hover engine ran out of its per-tick time budget")
+@Enabled(false)
+@StackTrace(false)
+public final class BudgetExhaustedEvent extends Event {
+    @Label("Phase")
+    @Description("Work that was cut short: PATH or DISPATCH")
+    public String phase;
+
+    @Label("Deferred")
+    @Description("Path waypoints or queued slots left for the next tick")
+    public int deferred;
+}
@@ -0,0 +1,31 @@
+package com.simpleloot.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Time spent in the hover loot handler during one client tick.
+ */
+@Name("simpleloot.HandlerTick")
+@Label("Hover Handler Tick")
+@Category("SimpleLoot")
+@Description("Time spent in the hover loot handler during one client tick")
+@Enabled(false)
+@StackTrace(false)
+public final class HandlerTickEvent extends Event {
+    @Label("Screen Type")
+    public String screenType;
+
+    @Label("Queue Depth")
+    @Description("Slots still queued after the tick")
+    public int queueDepth;
+
+    @Label("Clicks")
+    @Description("Container clicks sent during the tick")
+    public int clicks;
+}
@@ -0,0 +1,36 @@
+package com.simpleloot.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One container screen session, from opening the screen to closing it.
+ */
+@Name("simpleloot.HoverSession")
+@Label("Hover Session")
+@Category("SimpleLoot")
+@Description("A container screen session with hover loot available, from opening to closing")
+@Enabled(false)
+@StackTrace(false)
+public final class HoverSessionEvent extends Event {
+    @Label("Screen Type")
+    public String screenType;
+
+    @Label("Slots")
+    public int slotCount;
+
+    @Label("Slots Queued")
+    public int queued;
+
+    @Label("Transfers")
+    public int transfers;
+
+    @Label("Clicks")
+    @Description("Container clicks sent to the server")
+    public int clicks;
+}
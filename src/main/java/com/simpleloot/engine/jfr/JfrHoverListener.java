@@ -0,0 +1,100 @@
+package com.simpleloot.engine.jfr;
+
+import com.simpleloot.engine.HoverListener;
+import com.simpleloot.engine.ScreenType;
+import com.simpleloot.engine.TransferKind;
+import jdk.jfr.EventType;
+
+/**
+ * Emits SimpleLoot's JFR events from engine callbacks.
+ *
+ * All event types are disabled by default; enable them in a recording with e.g.
+ * {@code jfr configure +simpleloot.Transfer#enabled=true} or a custom {@code .jfc}.
+ * Each callback checks its event type first and only allocates an event while a
+ * recording has that type enabled, so callbacks on the hot path allocate nothing
+ * otherwise.
+ *
+ * Session counters are kept regardless of whether events are enabled, since they are
+ * plain increments.
+ */
+public final class JfrHoverListener implements HoverListener {
+    private static final EventType SESSION = EventType.getEventType(HoverSessionEvent.class);
+    private static final EventType TRANSFER = EventType.getEventType(TransferEvent.class);
+    private static final EventType QUEUE_SATURATION = EventType.getEventType(QueueSaturationEvent.class);
+    private static final EventType BUDGET_EXHAUSTED = EventType.getEventType(BudgetExhaustedEvent.class);
+
+    // Open session event, or null if sessions were not being recorded when it began
+    private HoverSessionEvent session = null;
+    private int queued = 0;
+    private int transfers = 0;
+
+    /**
+     * Starts a session for a newly opened screen. Ends any open session first.
+     */
+    public void beginSession(ScreenType screenType, int slotCount) {
+        endSession(0);
+        queued = 0;
+        transfers = 0;
+        if (SESSION.isEnabled()) {
+            HoverSessionEvent event = new HoverSessionEvent();
+            event.screenType = screenType.name();
+            event.slotCount = slotCount;
+            event.begin();
+            session = event;
+        }
+    }
+
+    /**
+     * Ends the open session, if any, with the number of clicks sent during it.
+     */
+    public void endSession(int clicks) {
+        HoverSessionEvent event = session;
+        if (event == null) return;
+        session = null;
+        event.end();
+        if (event.shouldCommit()) {
+            event.queued = queued;
+            event.transfers = transfers;
+            event.clicks = clicks;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onQueued(int slotId) {
+        queued++;
+    }
+
+    @Override
+    public void onTransfer(int slotId, TransferKind kind, int targetSlotId) {
+        transfers++;
+        if (TRANSFER.isEnabled()) {
+            TransferEvent event = new TransferEvent();
+            event.kind = kind.name();
+            event.slotId = slotId;
+            event.targetSlotId = targetSlotId;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onQueueProcessed(int processed, int remaining) {
+        if (remaining == 0) return;
+        if (QUEUE_SATURATION.isEnabled()) {
+            QueueSaturationEvent event = new QueueSaturationEvent();
+            event.processed = processed;
+            event.remaining = remaining;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onBudgetExhausted(WorkPhase phase, int deferred) {
+        if (BUDGET_EXHAUSTED.isEnabled()) {
+            BudgetExhaustedEvent event = new BudgetExhaustedEvent();
+            event.phase = phase.name();
+            event.deferred = deferred;
+            event.commit();
+        }
+    }
+}
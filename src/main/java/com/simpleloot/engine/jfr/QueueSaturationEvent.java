@@ -0,0 +1,29 @@
+package com.simpleloot.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Queue processing stopped for the tick with slots still waiting: the per-tick transfer
+ * limit was reached, or an armor swap cooldown held up the head of the queue.
+ */
+@Name("simpleloot.QueueSaturation")
+@Label("Hover Queue Saturation")
+@Category("SimpleLoot")
+@Description("Queue processing stopped for the tick with slots still waiting")
+@Enabled(false)
+@StackTrace(false)
+public final class QueueSaturationEvent extends Event {
+    @Label("Processed")
+    @Description("Slots dispatched this tick")
+    public int processed;
+
+    @Label("Remaining")
+    @Description("Slots still queued")
+    public int remaining;
+}
@@ -0,0 +1,30 @@
+package com.simpleloot.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A queued slot was dispatched.
+ */
+@Name("simpleloot.Transfer")
+@Label("Hover Transfer")
+@Category("SimpleLoot")
+@Description("A queued slot was dispatched to the server")
+@Enabled(false)
+@StackTrace(false)
+public final class TransferEvent extends Event {
+    @Label("Kind")
+    public String kind;
+
+    @Label("Slot")
+    public int slotId;
+
+    @Label("Target Slot")
+    @Description("Armor or crafting slot involved, or -1")
+    public int targetSlotId;
+}
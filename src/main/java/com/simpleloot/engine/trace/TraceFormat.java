@@ -0,0 +1,107 @@
+package com.simpleloot.engine.trace;
+
+import com.simpleloot.engine.HoverSettings;
+import com.simpleloot.engine.ItemFacts;
+
+/**
+ * Constants and encoding helpers for SimpleLoot trace files ({@code .sltrace}).
+ *
+ * A trace holds one hover session (one open screen) as a stream of tagged records.
+ * Integers are unsigned LEB128 varints; signed values are zigzag encoded first. Mouse
+ * positions are fixed point (1/256 GUI pixel) and, like time, delta encoded against the
+ * previous tick (the first tick carries the absolute time), so an idle tick costs a
+ * handful of bytes.
+ *
+ * Layout:
+ * <pre>
+ * "SLTR" version
+ * SESSION  screenType slotCount (x y)*slotCount settings
+ * then per tick, in order:
+ *   SLOT*    slotId facts itemId count      - slots whose contents changed since the last tick
+ *   SETTINGS settings                       - only when the config changed
+ *   TICK     dTime flags dMouseX dMouseY    - engine input; the engine runs here
+ *   CLICK*   slotId button action           - clicks the engine sent this tick
+ * END
+ * </pre>
+ */
+public final class TraceFormat {
+    private TraceFormat() {}
+
+    public static final byte[] MAGIC = {'S', 'L', 'T', 'R'};
+    public static final int VERSION = 1;
+    public static final String EXTENSION = ".sltrace";
+
+    // Record tags
+    public static final int END = 0;
+    public static final int SESSION = 1;
+    public static final int SETTINGS = 2;
+    public static final int SLOT = 3;
+    public static final int TICK = 4;
+    public static final int CLICK = 5;
+
+    // Mouse positions are stored in 1/256 GUI pixels
+    public static final double MOUSE_SCALE = 256.0;
+
+    // TICK input flags
+    public static final int INPUT_HOVER_ACTIVE = 1;
+    public static final int INPUT_DROP_KEY = 1 << 1;
+    public static final int INPUT_CTRL = 1 << 2;
+    public static final int INPUT_SHIFT = 1 << 3;
+    public static final int INPUT_CREATIVE_SURVIVAL_TAB = 1 << 4;
+    public static final int INPUT_ALT = 1 << 5;
+    public static final int INPUT_TAKE_KEY = 1 << 6;
+    public static final int INPUT_DEPOSIT_KEY = 1 << 7;
+
+    // SLOT facts flags (armor type is stored as type + 1 in 3 bits, 0 = not armor)
+    public static final int FACT_HAS_ITEM = 1;
+    public static final int FACT_EQUIPPABLE_ARMOR = 1 << 1;
+    public static final int FACT_ARMOR_TYPE_SHIFT = 2;
+    public static final int FACT_ARMOR_TYPE_MASK = 0b111 << FACT_ARMOR_TYPE_SHIFT;
+    public static final int FACT_ENCHANTING_INPUT = 1 << 5;
+    public static final int FACT_BEACON_PAYMENT = 1 << 6;
+    public static final int FACT_PASSES_LOOT_FILTER = 1 << 7;
+    public static final int FACT_PASSES_DROP_FILTER = 1 << 8;
+
+    // SETTINGS flags
+    public static final int SETTING_ENABLED = 1;
+    public static final int SETTING_HOTBAR_PROTECTION = 1 << 1;
+    public static final int SETTING_ALLOW_HOVER_DROP = 1 << 2;
+    public static final int SETTING_ALLOW_CRAFTING_GRID = 1 << 3;
+    public static final int SETTING_ALLOW_ARMOR_EQUIP = 1 << 4;
+
+    /**
+     * Packs everything the engine can ask about a slot into a flags word.
+     */
+    public static int factsOf(ItemFacts facts, int slotId) {
+        if (!facts.hasItem(slotId)) return 0;
+        int flags = FACT_HAS_ITEM;
+        if (facts.isEquippableArmor(slotId)) flags |= FACT_EQUIPPABLE_ARMOR;
+        flags |= (facts.armorType(slotId) + 1) << FACT_ARMOR_TYPE_SHIFT & FACT_ARMOR_TYPE_MASK;
+        if (facts.isEnchantingInput(slotId)) flags |= FACT_ENCHANTING_INPUT;
+        if (facts.isBeaconPayment(slotId)) flags |= FACT_BEACON_PAYMENT;
+        if (facts.passesFilter(slotId, false)) flags |= FACT_PASSES_LOOT_FILTER;
+        if (facts.passesFilter(slotId, true)) flags |= FACT_PASSES_DROP_FILTER;
+        return flags;
+    }
+
+    /**
+     * Packs the boolean settings into a flags word.
+     */
+    public static int settingsFlags(HoverSettings settings) {
+        int flags = 0;
+        if (settings.enabled()) flags |= SETTING_ENABLED;
+        if (settings.hotbarProtection()) flags |= SETTING_HOTBAR_PROTECTION;
+        if (settings.allowHoverDrop()) flags |= SETTING_ALLOW_HOVER_DROP;
+        if (settings.allowCraftingGrid()) flags |= SETTING_ALLOW_CRAFTING_GRID;
+        if (settings.allowArmorEquip()) flags |= SETTING_ALLOW_ARMOR_EQUIP;
+        return flags;
+    }
+
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
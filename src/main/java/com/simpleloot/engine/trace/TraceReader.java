@@ -0,0 +1,206 @@
+package com.simpleloot.engine.trace;
+
+import com.simpleloot.engine.ClickAction;
+import com.simpleloot.engine.HoverInput;
+import com.simpleloot.engine.RectSlotLayout;
+import com.simpleloot.engine.ScreenType;
+
+import java.io.IOException;
+
+import static com.simpleloot.engine.trace.TraceFormat.*;
+
+/**
+ * Decodes a trace written by {@link TraceWriter}.
+ *
+ * The session header is read on construction; {@link #next()} then steps through the
+ * records, exposing the fields of the current record through the accessors.
+ */
+public final class TraceReader {
+    private final byte[] data;
+    private int position = 0;
+
+    // Session header
+    private final ScreenType screenType;
+    private final RectSlotLayout layout;
+
+    // Current settings (updated by SETTINGS records)
+    private int settingsFlags;
+    private int transferDelayMs;
+    private int armorSwapDelayMs;
+
+    // Current SLOT record
+    private int slotId;
+    private int slotFacts;
+    private int slotItemId;
+    private int slotCount;
+
+    // Current TICK record (decoded into absolute values)
+    private long timeMs = 0;
+    private int mouseX = 0;
+    private int mouseY = 0;
+    private int inputFlags;
+
+    // Current CLICK record
+    private int clickSlotId;
+    private int clickButton;
+    private ClickAction clickAction;
+
+    public TraceReader(byte[] data) throws IOException {
+        this.data = data;
+        for (byte b : MAGIC) {
+            if (readByte() != b) throw new IOException("Not a SimpleLoot trace");
+        }
+        int version = readVarInt();
+        if (version != VERSION) throw new IOException("Unsupported trace version " + version);
+        if (readByte() != SESSION) throw new IOException("Trace has no session header");
+
+        ScreenType[] types = ScreenType.values();
+        int typeOrdinal = readVarInt();
+        screenType = typeOrdinal < types.length ? types[typeOrdinal] : ScreenType.UNSUPPORTED;
+
+        int slots = readVarInt();
+        int[] xs = new int[slots];
+        int[] ys = new int[slots];
+        for (int i = 0; i < slots; i++) {
+            xs[i] = unzigzag(readVarInt());
+            ys[i] = unzigzag(readVarInt());
+        }
+        layout = new RectSlotLayout(xs, ys);
+        readSettingsBody();
+    }
+
+    /**
+     * Advances to the next record and returns its tag ({@link TraceFormat#END} at the end).
+     */
+    public int next() throws IOException {
+        if (position >= data.length) return END;
+        int tag = readByte();
+        switch (tag) {
+            case END -> position = data.length;
+            case SETTINGS -> readSettingsBody();
+            case SLOT -> {
+                slotId = readVarInt();
+                slotFacts = readVarInt();
+                slotItemId = readVarInt();
+                slotCount = readVarInt();
+            }
+            case TICK -> {
+                timeMs += readVarLong();
+                inputFlags = readVarInt();
+                mouseX += unzigzag(readVarInt());
+                mouseY += unzigzag(readVarInt());
+            }
+            case CLICK -> {
+                clickSlotId = unzigzag(readVarInt());
+                clickButton = readVarInt();
+                int actionOrdinal = readVarInt();
+                ClickAction[] actions = ClickAction.values();
+                if (actionOrdinal >= actions.length) throw new IOException("Unknown click action " + actionOrdinal);
+                clickAction = actions[actionOrdinal];
+            }
+            default -> throw new IOException("Unknown trace record " + tag + " at byte " + (position - 1));
+        }
+        return tag;
+    }
+
+    /**
+     * Writes the current TICK record into an engine input.
+     */
+    public void readInput(HoverInput input) {
+        input.screenType = screenType;
+        input.timeMs = timeMs;
+        input.mouseX = mouseX / MOUSE_SCALE;
+        input.mouseY = mouseY / MOUSE_SCALE;
+        input.hoverActive = (inputFlags & INPUT_HOVER_ACTIVE) != 0;
+        input.dropKeyHeld = (inputFlags & INPUT_DROP_KEY) != 0;
+        input.takeKeyHeld = (inputFlags & INPUT_TAKE_KEY) != 0;
+        input.depositKeyHeld = (inputFlags & INPUT_DEPOSIT_KEY) != 0;
+        input.ctrlHeld = (inputFlags & INPUT_CTRL) != 0;
+        input.shiftHeld = (inputFlags & INPUT_SHIFT) != 0;
+        input.altHeld = (inputFlags & INPUT_ALT) != 0;
+        input.creativeSurvivalTab = (inputFlags & INPUT_CREATIVE_SURVIVAL_TAB) != 0;
+    }
+
+    public ScreenType screenType() {
+        return screenType;
+    }
+
+    public RectSlotLayout layout() {
+        return layout;
+    }
+
+    public int settingsFlags() {
+        return settingsFlags;
+    }
+
+    public int transferDelayMs() {
+        return transferDelayMs;
+    }
+
+    public int armorSwapDelayMs() {
+        return armorSwapDelayMs;
+    }
+
+    public int slotId() {
+        return slotId;
+    }
+
+    public int slotFacts() {
+        return slotFacts;
+    }
+
+    public int slotItemId() {
+        return slotItemId;
+    }
+
+    public int slotCount() {
+        return slotCount;
+    }
+
+    public long timeMs() {
+        return timeMs;
+    }
+
+    public int clickSlotId() {
+        return clickSlotId;
+    }
+
+    public int clickButton() {
+        return clickButton;
+    }
+
+    public ClickAction clickAction() {
+        return clickAction;
+    }
+
+    private void readSettingsBody() throws IOException {
+        settingsFlags = readVarInt();
+        transferDelayMs = readVarInt();
+        armorSwapDelayMs = readVarInt();
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint at byte " + position);
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint at byte " + position);
+    }
+
+    private int readByte() throws IOException {
+        if (position >= data.length) throw new IOException("Unexpected end of trace");
+        return data[position++] & 0xFF;
+    }
+}
@@ -0,0 +1,257 @@
+package com.simpleloot.engine.trace;
+
+import com.simpleloot.engine.ClickAction;
+import com.simpleloot.engine.ClickSink;
+import com.simpleloot.engine.HoverEngine;
+import com.simpleloot.engine.HoverInput;
+import com.simpleloot.engine.HoverSettings;
+import com.simpleloot.engine.ItemFacts;
+import com.simpleloot.engine.ScreenType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.simpleloot.engine.trace.TraceFormat.*;
+
+/**
+ * Feeds a recorded trace through a fresh {@link HoverEngine} headlessly and compares the
+ * resulting click stream with the one recorded in the client.
+ *
+ * Slot contents come from the trace. Within a tick, the replay predicts what the client
+ * would: a quick-moved or thrown slot is empty for the rest of that tick. At the next tick
+ * the recorded contents take over again, so a prediction never outlives the tick.
+ *
+ * Run from the command line (only the engine classes are needed on the classpath):
+ * <pre>
+ * java -cp simple-loot.jar com.simpleloot.engine.trace.TraceReplayer trace.sltrace [--clicks]
+ * </pre>
+ * or through Gradle with {@code ./gradlew replayTrace -Ptrace=<file>}.
+ */
+public final class TraceReplayer {
+    private TraceReplayer() {}
+
+    /**
+     * One click, tagged with the tick (0-based) it was sent in.
+     */
+    public record Click(int tick, int slotId, int button, ClickAction action) {
+        @Override
+        public String toString() {
+            return "tick " + tick + ": " + action + " slot " + slotId + " button " + button;
+        }
+    }
+
+    /**
+     * Outcome of a replay.
+     */
+    public record Result(ScreenType screenType, int slotCount, int ticks, List<Click> recorded,
+            List<Click> replayed, long[] tickNanos) {
+        /**
+         * Returns the index of the first click that differs between recording and replay,
+         * or -1 if the streams match.
+         */
+        public int firstDivergence() {
+            int common = Math.min(recorded.size(), replayed.size());
+            for (int i = 0; i < common; i++) {
+                if (!recorded.get(i).equals(replayed.get(i))) return i;
+            }
+            return recorded.size() == replayed.size() ? -1 : common;
+        }
+    }
+
+    /**
+     * Replays a trace and returns the recorded and replayed click streams with per-tick
+     * engine timings.
+     */
+    public static Result replay(byte[] trace) throws IOException {
+        TraceReader reader = new TraceReader(trace);
+        int slotCount = reader.layout().slotCount();
+
+        int[] recordedFacts = new int[slotCount];
+        int[] liveFacts = new int[slotCount];
+        // Registry item id per slot, standing in for the item key (components are not recorded)
+        int[] recordedItems = new int[slotCount];
+        int[] liveItems = new int[slotCount];
+        List<Click> recorded = new ArrayList<>();
+        List<Click> replayed = new ArrayList<>();
+        long[] tickNanos = new long[64];
+        int[] tick = {-1};
+
+        ItemFacts facts = new RecordedFacts(liveFacts, liveItems);
+        HoverSettings settings = new RecordedSettings(reader);
+        ClickSink sink = (slotId, button, action) -> {
+            replayed.add(new Click(tick[0], slotId, button, action));
+            // Client-side prediction: the stack leaves the slot
+            if ((action == ClickAction.QUICK_MOVE || action == ClickAction.THROW) && slotId >= 0 && slotId < slotCount) {
+                liveFacts[slotId] = 0;
+                liveItems[slotId] = 0;
+            }
+        };
+
+        HoverEngine engine = new HoverEngine();
+        HoverInput input = new HoverInput();
+
+        int tag;
+        while ((tag = reader.next()) != END) {
+            switch (tag) {
+                case SLOT -> {
+                    if (reader.slotId() < slotCount) {
+                        recordedFacts[reader.slotId()] = reader.slotFacts();
+                        recordedItems[reader.slotId()] = reader.slotItemId();
+                    }
+                }
+                case TICK -> {
+                    tick[0]++;
+                    System.arraycopy(recordedFacts, 0, liveFacts, 0, slotCount);
+                    System.arraycopy(recordedItems, 0, liveItems, 0, slotCount);
+                    reader.readInput(input);
+
+                    long start = System.nanoTime();
+                    engine.tick(input, settings, reader.layout(), facts, sink);
+                    long elapsed = System.nanoTime() - start;
+
+                    if (tick[0] == tickNanos.length) {
+                        tickNanos = Arrays.copyOf(tickNanos, tickNanos.length << 1);
+                    }
+                    tickNanos[tick[0]] = elapsed;
+                }
+                case CLICK -> recorded.add(new Click(tick[0], reader.clickSlotId(), reader.clickButton(), reader.clickAction()));
+                default -> {
+                    // SETTINGS are read live by RecordedSettings
+                }
+            }
+        }
+
+        int ticks = tick[0] + 1;
+        return new Result(reader.screenType(), slotCount, ticks, recorded, replayed, Arrays.copyOf(tickNanos, ticks));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: TraceReplayer <trace" + EXTENSION + "> [--clicks]");
+            System.exit(2);
+        }
+        boolean printClicks = Arrays.asList(args).contains("--clicks");
+
+        Result result = replay(Files.readAllBytes(Path.of(args[0])));
+        System.out.printf("Screen: %s, %d slots, %d ticks%n", result.screenType(), result.slotCount(), result.ticks());
+        System.out.printf("Clicks: %d recorded, %d replayed%n", result.recorded().size(), result.replayed().size());
+
+        int divergence = result.firstDivergence();
+        if (divergence < 0) {
+            System.out.println("Click streams match");
+        } else {
+            System.out.println("Click streams diverge at click #" + divergence);
+            System.out.println("  recorded: " + (divergence < result.recorded().size() ? result.recorded().get(divergence) : "<none>"));
+            System.out.println("  replayed: " + (divergence < result.replayed().size() ? result.replayed().get(divergence) : "<none>"));
+        }
+
+        long[] sorted = result.tickNanos().clone();
+        Arrays.sort(sorted);
+        if (sorted.length > 0) {
+            long total = 0;
+            for (long nanos : sorted) total += nanos;
+            System.out.printf("Engine time per tick: avg %.1f us, p50 %.1f us, p99 %.1f us, max %.1f us (total %.2f ms)%n",
+                    total / 1000.0 / sorted.length,
+                    sorted[sorted.length / 2] / 1000.0,
+                    sorted[Math.min(sorted.length - 1, (int) (sorted.length * 0.99))] / 1000.0,
+                    sorted[sorted.length - 1] / 1000.0,
+                    total / 1_000_000.0);
+        }
+
+        if (printClicks) {
+            System.out.println("Replayed clicks:");
+            for (Click click : result.replayed()) {
+                System.out.println("  " + click);
+            }
+        }
+        System.exit(divergence < 0 ? 0 : 1);
+    }
+
+    /**
+     * Item facts decoded from recorded flags.
+     */
+    private record RecordedFacts(int[] flags, int[] items) implements ItemFacts {
+        private int get(int slotId) {
+            return slotId >= 0 && slotId < flags.length ? flags[slotId] : 0;
+        }
+
+        @Override
+        public boolean hasItem(int slotId) {
+            return (get(slotId) & FACT_HAS_ITEM) != 0;
+        }
+
+        @Override
+        public boolean isEquippableArmor(int slotId) {
+            return (get(slotId) & FACT_EQUIPPABLE_ARMOR) != 0;
+        }
+
+        @Override
+        public int armorType(int slotId) {
+            return ((get(slotId) & FACT_ARMOR_TYPE_MASK) >> FACT_ARMOR_TYPE_SHIFT) - 1;
+        }
+
+        @Override
+        public boolean isEnchantingInput(int slotId) {
+            return (get(slotId) & FACT_ENCHANTING_INPUT) != 0;
+        }
+
+        @Override
+        public boolean isBeaconPayment(int slotId) {
+            return (get(slotId) & FACT_BEACON_PAYMENT) != 0;
+        }
+
+        @Override
+        public boolean passesFilter(int slotId, boolean dropMode) {
+            return (get(slotId) & (dropMode ? FACT_PASSES_DROP_FILTER : FACT_PASSES_LOOT_FILTER)) != 0;
+        }
+
+        @Override
+        public int itemKey(int slotId) {
+            return hasItem(slotId) ? items[slotId] : 0;
+        }
+    }
+
+    /**
+     * Settings as last recorded.
+     */
+    private record RecordedSettings(TraceReader reader) implements HoverSettings {
+        @Override
+        public boolean enabled() {
+            return (reader.settingsFlags() & SETTING_ENABLED) != 0;
+        }
+
+        @Override
+        public boolean hotbarProtection() {
+            return (reader.settingsFlags() & SETTING_HOTBAR_PROTECTION) != 0;
+        }
+
+        @Override
+        public int transferDelayMs() {
+            return reader.transferDelayMs();
+        }
+
+        @Override
+        public boolean allowHoverDrop() {
+            return (reader.settingsFlags() & SETTING_ALLOW_HOVER_DROP) != 0;
+        }
+
+        @Override
+        public boolean allowCraftingGrid() {
+            return (reader.settingsFlags() & SETTING_ALLOW_CRAFTING_GRID) != 0;
+        }
+
+        @Override
+        public boolean allowArmorEquip() {
+            return (reader.settingsFlags() & SETTING_ALLOW_ARMOR_EQUIP) != 0;
+        }
+
+        @Override
+        public int armorSwapDelayMs() {
+            return reader.armorSwapDelayMs();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.simpleloot.engine.trace;
+
+import com.simpleloot.engine.ClickAction;
+import com.simpleloot.engine.HoverInput;
+import com.simpleloot.engine.HoverSettings;
+import com.simpleloot.engine.RectSlotLayout;
+import com.simpleloot.engine.ScreenType;
+
+import java.util.Arrays;
+
+import static com.simpleloot.engine.trace.TraceFormat.*;
+
+/**
+ * Encodes one hover session into an in-memory trace (see {@link TraceFormat}).
+ *
+ * Writing only appends to a growable byte array, so recording costs little on the tick
+ * thread; the caller decides where and when the finished bytes go.
+ */
+public final class TraceWriter {
+    private byte[] buffer = new byte[4096];
+    private int length = 0;
+
+    private long lastTimeMs = 0;
+    private int lastMouseX = 0;
+    private int lastMouseY = 0;
+    private int lastSettingsFlags = -1;
+    private int lastTransferDelayMs = -1;
+    private int lastArmorSwapDelayMs = -1;
+
+    private int ticks = 0;
+    private int clicks = 0;
+    private boolean finished = false;
+
+    /**
+     * Starts a trace with the session header: screen type, slot geometry and settings.
+     */
+    public TraceWriter(ScreenType screenType, RectSlotLayout layout, HoverSettings settings) {
+        for (byte b : MAGIC) writeByte(b);
+        writeVarInt(VERSION);
+
+        writeByte(SESSION);
+        writeVarInt(screenType.ordinal());
+        writeVarInt(layout.slotCount());
+        for (int i = 0; i < layout.slotCount(); i++) {
+            writeVarInt(zigzag(layout.slotX(i)));
+            writeVarInt(zigzag(layout.slotY(i)));
+        }
+        writeSettingsBody(settings);
+    }
+
+    /**
+     * Records the settings if they changed since the last call.
+     */
+    public void settings(HoverSettings settings) {
+        if (TraceFormat.settingsFlags(settings) != lastSettingsFlags
+                || settings.transferDelayMs() != lastTransferDelayMs
+                || settings.armorSwapDelayMs() != lastArmorSwapDelayMs) {
+            writeByte(SETTINGS);
+            writeSettingsBody(settings);
+        }
+    }
+
+    /**
+     * Records a slot's contents. Call for slots that changed, before {@link #tick}.
+     */
+    public void slot(int slotId, int facts, int itemId, int count) {
+        writeByte(SLOT);
+        writeVarInt(slotId);
+        writeVarInt(facts);
+        writeVarInt(itemId);
+        writeVarInt(count);
+    }
+
+    /**
+     * Records the engine input of a tick.
+     */
+    public void tick(HoverInput input) {
+        int mouseX = (int) Math.round(input.mouseX * MOUSE_SCALE);
+        int mouseY = (int) Math.round(input.mouseY * MOUSE_SCALE);
+        // The first tick stores the absolute time, later ticks the delta
+        writeByte(TICK);
+        writeVarLong(Math.max(0, input.timeMs - lastTimeMs));
+        writeVarInt(inputFlags(input));
+        writeVarInt(zigzag(mouseX - lastMouseX));
+        writeVarInt(zigzag(mouseY - lastMouseY));
+
+        lastTimeMs = input.timeMs;
+        lastMouseX = mouseX;
+        lastMouseY = mouseY;
+        ticks++;
+    }
+
+    /**
+     * Records a click sent by the engine during the current tick.
+     */
+    public void click(int slotId, int button, ClickAction action) {
+        writeByte(CLICK);
+        writeVarInt(zigzag(slotId));
+        writeVarInt(button);
+        writeVarInt(action.ordinal());
+        clicks++;
+    }
+
+    /**
+     * Ends the trace and returns its bytes. The writer cannot be used afterwards.
+     */
+    public byte[] finish() {
+        if (!finished) {
+            writeByte(END);
+            finished = true;
+        }
+        return Arrays.copyOf(buffer, length);
+    }
+
+    public int ticks() {
+        return ticks;
+    }
+
+    public int clicks() {
+        return clicks;
+    }
+
+    public int size() {
+        return length;
+    }
+
+    private static int inputFlags(HoverInput input) {
+        int flags = 0;
+        if (input.hoverActive) flags |= INPUT_HOVER_ACTIVE;
+        if (input.dropKeyHeld) flags |= INPUT_DROP_KEY;
+        if (input.takeKeyHeld) flags |= INPUT_TAKE_KEY;
+        if (input.depositKeyHeld) flags |= INPUT_DEPOSIT_KEY;
+        if (input.ctrlHeld) flags |= INPUT_CTRL;
+        if (input.shiftHeld) flags |= INPUT_SHIFT;
+        if (input.altHeld) flags |= INPUT_ALT;
+        if (input.creativeSurvivalTab) flags |= INPUT_CREATIVE_SURVIVAL_TAB;
+        return flags;
+    }
+
+    private void writeSettingsBody(HoverSettings settings) {
+        lastSettingsFlags = TraceFormat.settingsFlags(settings);
+        lastTransferDelayMs = settings.transferDelayMs();
+        lastArmorSwapDelayMs = settings.armorSwapDelayMs();
+        writeVarInt(lastSettingsFlags);
+        writeVarInt(lastTransferDelayMs);
+        writeVarInt(lastArmorSwapDelayMs);
+    }
+
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    private void writeByte(int value) {
+        if (finished) {
+            throw new IllegalStateException("Trace already finished");
+        }
+        if (length == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length << 1);
+        }
+        buffer[length++] = (byte) value;
+    }
+}
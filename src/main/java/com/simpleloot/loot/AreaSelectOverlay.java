@@ -0,0 +1,59 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.engine.HoverEngine;
+import com.simpleloot.engine.SlotLayout;
+//? if >=26.1 {
+import net.minecraft.client.gui.GuiGraphicsExtractor;
+//?} else {
+/*import net.minecraft.client.gui.GuiGraphics;*/
+//?}
+import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
+
+/**
+ * Draws the rectangle and the slots an area selection (hover key + Alt drag) will queue.
+ *
+ * The slots come from the same layout lookup the engine uses on release, so the highlight
+ * is exactly what gets queued (before eligibility checks). Everything is drawn as plain
+ * fills, back to back in one pass, which the GUI renderer batches into a single draw; nothing
+ * is drawn when no selection is being dragged.
+ */
+public final class AreaSelectOverlay {
+    private AreaSelectOverlay() {}
+
+    private static final int FILL = 0x503399FF;
+    private static final int BORDER = 0xC03399FF;
+
+    private static int[] slots = new int[64];
+
+    /**
+     * Draws the selection. Called from the container screen render mixin.
+     */
+    //? if >=26.1 {
+    public static void render(AbstractContainerScreen<?> screen, GuiGraphicsExtractor context, int mouseX, int mouseY) {
+    //?} else {
+    /*public static void render(AbstractContainerScreen<?> screen, GuiGraphics context, int mouseX, int mouseY) {*/
+    //?}
+        HoverEngine engine = HoverLootHandler.engineFor(screen);
+        if (engine == null || !engine.isAreaSelecting()) return;
+
+        ScreenSlotLayout layout = HoverLootHandler.slotLayout();
+        if (slots.length < layout.slotCount()) {
+            slots = new int[layout.slotCount()];
+        }
+        int count = layout.slotsIn(engine.areaX(), engine.areaY(), mouseX, mouseY, slots);
+        for (int i = 0; i < count; i++) {
+            int x = layout.slotX(slots[i]);
+            int y = layout.slotY(slots[i]);
+            context.fill(x, y, x + SlotLayout.SLOT_SIZE, y + SlotLayout.SLOT_SIZE, FILL);
+        }
+
+        int left = (int) Math.min(engine.areaX(), mouseX);
+        int top = (int) Math.min(engine.areaY(), mouseY);
+        int right = (int) Math.max(engine.areaX(), mouseX);
+        int bottom = (int) Math.max(engine.areaY(), mouseY);
+        context.fill(left, top, right + 1, top + 1, BORDER);
+        context.fill(left, bottom, right + 1, bottom + 1, BORDER);
+        context.fill(left, top + 1, left + 1, bottom, BORDER);
+        context.fill(right, top + 1, right + 1, bottom, BORDER);
+    }
+}
@@ -0,0 +1,56 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.config.ConfigSnapshot;
+import com.simpleloot.config.SimpleLootConfig;
+import com.simpleloot.engine.ScreenType;
+import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
+import net.minecraft.client.player.LocalPlayer;
+import net.minecraft.network.chat.Component;
+
+/**
+ * Shared parts of the container screen key actions: search, deposit matching, loadout
+ * restock and undo.
+ *
+ * Each action has a {@code keyPressed(screen, event)} that the container screen input
+ * mixin calls before vanilla handles the key; it returns true if it consumed the key.
+ * Whether an action may run on a screen is decided here, so the actions cannot drift apart.
+ */
+final class ContainerKeyActions {
+    private ContainerKeyActions() {}
+
+    /**
+     * Returns the screen's type if SimpleLoot is enabled for it and it has container slots,
+     * else null. The creative inventory is excluded; it has its own search.
+     */
+    static ScreenType containerType(AbstractContainerScreen<?> screen) {
+        ConfigSnapshot config = SimpleLootConfig.snapshot();
+        ScreenType type = ScreenClassifier.of(screen);
+        if (!config.enabled || type == ScreenType.INVENTORY || type == ScreenType.CREATIVE_INVENTORY
+                || type == ScreenType.UNSUPPORTED || !config.allows(type)) {
+            return null;
+        }
+        return type;
+    }
+
+    /**
+     * Returns the screen's type if SimpleLoot is enabled for it and it is a storage
+     * container, else null. Actions that pick container slots by item use this: on other
+     * screens a container slot may be a result slot (clicking it performs the craft) and a
+     * shift-click routes by item rather than into a matching stack.
+     */
+    static ScreenType storageType(AbstractContainerScreen<?> screen) {
+        ScreenType type = containerType(screen);
+        return type != null && type.isStorage() ? type : null;
+    }
+
+    /**
+     * Shows a short message above the hotbar.
+     */
+    static void message(LocalPlayer player, String text) {
+        //? if >=26.1 {
+        player.sendOverlayMessage(Component.literal(text));
+        //?} else {
+        /*player.displayClientMessage(Component.literal(text), true);*/
+        //?}
+    }
+}
@@ -0,0 +1,157 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.SimpleLootClient;
+import com.simpleloot.engine.SlotLayout;
+import com.simpleloot.mixin.ScreenMixin;
+import net.minecraft.client.Minecraft;
+//? if >=26.1 {
+import net.minecraft.client.gui.GuiGraphicsExtractor;
+//?} else {
+/*import net.minecraft.client.gui.GuiGraphics;*/
+//?}
+import net.minecraft.client.gui.components.EditBox;
+import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
+import net.minecraft.client.input.KeyEvent;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.inventory.Slot;
+import org.lwjgl.glfw.GLFW;
+
+/**
+ * Search-and-pull: a search field over container screens that moves every matching
+ * container slot to the player inventory in one batch.
+ *
+ * The search keybind opens a text field above the container. Matching slots are
+ * highlighted while typing (name or id substring, or {@code #tag}); Enter queues them all
+ * through the hover loot transfer queue, so the usual transfer delay and tick budget apply.
+ * Escape closes the field. While the field has focus it takes every key, so typing does
+ * not trigger inventory or hotbar keys.
+ */
+public final class ContainerSearch {
+    private ContainerSearch() {}
+
+    private static final int FIELD_HEIGHT = 12;
+    private static final int FIELD_GAP = 2;
+    private static final int HIGHLIGHT = 0x6033CC33;
+
+    private static final SearchIndex index = new SearchIndex();
+    private static int[] matched = new int[64];
+
+    // Screen the field is open on, or null
+    private static AbstractContainerScreen<?> screen = null;
+    private static EditBox field = null;
+
+    /**
+     * Key handler (see {@link ContainerKeyActions}); while the field has focus it takes every key.
+     */
+    public static boolean keyPressed(AbstractContainerScreen<?> target, KeyEvent event) {
+        if (screen != target || field == null) {
+            if (SimpleLootClient.searchKeyBinding.matches(event) && ContainerKeyActions.containerType(target) != null) {
+                open(target, "");
+                return true;
+            }
+            return false;
+        }
+        if (!field.isFocused()) {
+            // Clicked away from the field: the search key focuses it again
+            if (SimpleLootClient.searchKeyBinding.matches(event)) {
+                target.setFocused(field);
+                return true;
+            }
+            return false;
+        }
+
+        int key = event.key();
+        if (key == GLFW.GLFW_KEY_ESCAPE) {
+            close();
+        } else if (key == GLFW.GLFW_KEY_ENTER || key == GLFW.GLFW_KEY_KP_ENTER) {
+            pull();
+        } else {
+            field.keyPressed(event);
+        }
+        return true;
+    }
+
+    /**
+     * Re-creates the field after the screen rebuilt its widgets (e.g. on resize).
+     */
+    public static void onInit(AbstractContainerScreen<?> target) {
+        if (screen == target && field != null) {
+            open(target, field.getValue());
+        }
+    }
+
+    /**
+     * Highlights the matching slots. Called from the container screen render mixin.
+     */
+    //? if >=26.1 {
+    public static void render(AbstractContainerScreen<?> target, GuiGraphicsExtractor context) {
+    //?} else {
+    /*public static void render(AbstractContainerScreen<?> target, GuiGraphics context) {*/
+    //?}
+        if (screen != target || field == null) return;
+        index.refresh();
+        int left = HandledScreenAccessor.getLeftPos(target);
+        int top = HandledScreenAccessor.getTopPos(target);
+        for (int slotId = 0; slotId < index.slotCount(); slotId++) {
+            if (index.matches(slotId)) {
+                Slot slot = target.getMenu().slots.get(slotId);
+                context.fill(left + slot.x, top + slot.y, left + slot.x + SlotLayout.SLOT_SIZE,
+                        top + slot.y + SlotLayout.SLOT_SIZE, HIGHLIGHT);
+            }
+        }
+    }
+
+    /**
+     * Closes the field, if open.
+     */
+    static void close() {
+        if (screen != null && field != null) {
+            ((ScreenMixin) screen).invokeRemoveWidget(field);
+        }
+        screen = null;
+        field = null;
+    }
+
+    private static void open(AbstractContainerScreen<?> target, String text) {
+        if (screen != null && field != null) {
+            ((ScreenMixin) screen).invokeRemoveWidget(field);
+        }
+        Minecraft client = Minecraft.getInstance();
+        int left = HandledScreenAccessor.getLeftPos(target);
+        int top = HandledScreenAccessor.getTopPos(target);
+        int width = HandledScreenAccessor.getImageWidth(target);
+        EditBox box = new EditBox(client.font, left, top - FIELD_HEIGHT - FIELD_GAP, width, FIELD_HEIGHT,
+                Component.translatable("simpleloot.search"));
+        box.setMaxLength(64);
+        box.setHint(Component.translatable("simpleloot.search.hint"));
+        box.setValue(text);
+        box.setResponder(ContainerSearch::onQueryChanged);
+
+        screen = target;
+        field = box;
+        index.bind(target.getMenu());
+        index.refresh();
+        onQueryChanged(text);
+        ((ScreenMixin) target).invokeAddRenderableWidget(box);
+        target.setFocused(box);
+    }
+
+    private static void onQueryChanged(String query) {
+        index.refresh();
+        index.match(query, matched);
+    }
+
+    /**
+     * Queues every matching slot for transfer, grouped by item.
+     */
+    private static void pull() {
+        index.refresh();
+        if (matched.length < index.slotCount()) {
+            matched = new int[index.slotCount()];
+        }
+        int count = index.match(field.getValue(), matched);
+        if (count > 0) {
+            HoverLootHandler.enqueue(matched, count);
+        }
+    }
+}
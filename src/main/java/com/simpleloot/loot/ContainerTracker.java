@@ -0,0 +1,260 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.config.ConfigSnapshot;
+import com.simpleloot.config.SimpleLootConfig;
+import com.simpleloot.engine.ScreenType;
+import com.simpleloot.engine.index.ContainerIndex;
+import com.simpleloot.engine.index.ContainerKey;
+import com.simpleloot.engine.index.IndexStore;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.event.player.UseBlockCallback;
+import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.InteractionResult;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.ChestBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.ChestType;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Feeds the {@link ContainerIndex} from the container screens the player opens.
+ *
+ * A container is identified by the block the player last right-clicked: if a storage
+ * screen opens shortly after, its contents are indexed under that block's dimension and
+ * position (both halves of a double chest map to one key). Screens opened any other way
+ * (entities, commands) are not indexed.
+ *
+ * While the screen is open the index is re-synced whenever the contents may have changed:
+ * the initial content packet, single slot updates from the server, ticks in which
+ * SimpleLoot sent clicks, and once more when the screen closes (which also picks up items
+ * the player moved by hand). Each sync compares the container slots with the last synced
+ * state and only updates the index if something differs.
+ *
+ * With persistence on, the index of each world or server is loaded in the background on
+ * join and a container's final contents are appended to disk when its screen closes
+ * (see {@link IndexPersistence}).
+ */
+public final class ContainerTracker {
+    private ContainerTracker() {}
+
+    // How long after a block click a screen opening is still attributed to that block
+    private static final long USE_TO_OPEN_MS = 2000;
+
+    private static final ContainerIndex INDEX = new ContainerIndex(0);
+
+    // Last right-clicked block, until a screen claims it
+    private static ContainerKey pendingKey = null;
+    private static long pendingMs = 0;
+
+    // Open container being tracked, or null
+    private static ContainerKey currentKey = null;
+    private static AbstractContainerMenu menu = null;
+    private static boolean contentReceived = false;
+    private static int lastContentContainerId = -1;
+    // Whether the open container's index entry changed since it was opened
+    private static boolean dirty = false;
+
+    // Container slot contents as of the last sync (item id, count)
+    private static int[] slotItems = new int[54];
+    private static int[] slotCounts = new int[54];
+    private static int slotCount = -1;
+
+    /**
+     * Registers the block-use hook, and swaps the index when joining or leaving a world.
+     */
+    static void init() {
+        UseBlockCallback.EVENT.register((player, world, hand, hitResult) -> {
+            if (world.isClientSide()) {
+                pendingKey = keyOf(world, hitResult.getBlockPos());
+                pendingMs = System.currentTimeMillis();
+            }
+            return InteractionResult.PASS;
+        });
+        // Positions are only meaningful within one world or server
+        ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> {
+            clear();
+            ConfigSnapshot config = SimpleLootConfig.snapshot();
+            if (config.containerIndexKb > 0 && config.persistContainerIndex) {
+                IndexPersistence.open(client);
+            }
+        });
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+            end();
+            clear();
+            IndexPersistence.close();
+        });
+    }
+
+    /**
+     * Adds containers loaded from disk. Containers already seen in this session are newer
+     * and kept as they are.
+     */
+    static void restore(int generation, List<IndexStore.Entry> entries) {
+        if (generation != IndexPersistence.generation()) return;
+        INDEX.setBudget(SimpleLootConfig.snapshot().containerIndexKb * 1024L);
+        // Oldest first, so the budget evicts old containers rather than recent ones
+        for (IndexStore.Entry entry : entries) {
+            if (INDEX.get(entry.key()) == null) {
+                INDEX.update(entry.key(), entry.items(), entry.counts(), entry.items().length, entry.observedMs());
+            }
+        }
+    }
+
+    /**
+     * Writes any queued index changes to disk. Called on client shutdown.
+     */
+    public static void flush() {
+        end();
+        IndexPersistence.flush();
+    }
+
+    /**
+     * Starts tracking a newly opened screen if it belongs to a recently clicked storage block.
+     */
+    static void begin(AbstractContainerScreen<?> screen, ScreenType screenType, ConfigSnapshot config) {
+        end();
+        INDEX.setBudget(config.containerIndexKb * 1024L);
+        ContainerKey key = pendingKey;
+        pendingKey = null;
+        if (key == null || config.containerIndexKb == 0 || !screenType.isStorage()
+                || System.currentTimeMillis() - pendingMs > USE_TO_OPEN_MS) {
+            return;
+        }
+
+        currentKey = key;
+        menu = screen.getMenu();
+        slotCount = -1;
+        dirty = false;
+        // The contents may have arrived before the screen was first ticked
+        contentReceived = lastContentContainerId == menu.containerId;
+        if (contentReceived) sync();
+    }
+
+    /**
+     * The server sent the full contents of a container.
+     */
+    static void onContainerContent(int containerId) {
+        lastContentContainerId = containerId;
+        if (menu != null && containerId == menu.containerId) {
+            contentReceived = true;
+            sync();
+        }
+    }
+
+    /**
+     * The server changed a single slot of a container.
+     */
+    static void onContainerSlot(int containerId) {
+        if (menu != null && containerId == menu.containerId && contentReceived) {
+            sync();
+        }
+    }
+
+    /**
+     * Re-reads the open container and updates the index if its contents changed.
+     */
+    static void sync() {
+        if (menu == null || !contentReceived) return;
+
+        int count = 0;
+        for (Slot slot : menu.slots) {
+            if (slot.container instanceof Inventory) continue;
+            if (count == slotItems.length) {
+                slotItems = Arrays.copyOf(slotItems, count * 2);
+                slotCounts = Arrays.copyOf(slotCounts, count * 2);
+            }
+            ItemStack stack = slot.getItem();
+            int item = stack.isEmpty() ? -1 : BuiltInRegistries.ITEM.getId(stack.getItem());
+            int itemCount = stack.isEmpty() ? 0 : stack.getCount();
+            // Keep comparing until the first difference, then just copy the rest
+            if (slotCount >= 0 && (slotItems[count] != item || slotCounts[count] != itemCount)) {
+                slotCount = -1;
+            }
+            slotItems[count] = item;
+            slotCounts[count] = itemCount;
+            count++;
+        }
+        if (count == slotCount) return;
+
+        slotCount = count;
+        INDEX.update(currentKey, slotItems, slotCounts, count, System.currentTimeMillis());
+        dirty = true;
+    }
+
+    /**
+     * Stops tracking the open container, recording its final contents.
+     */
+    static void end() {
+        sync();
+        if (dirty && SimpleLootConfig.snapshot().persistContainerIndex) {
+            ContainerIndex.Snapshot snapshot = INDEX.get(currentKey);
+            // Null if the budget is too small to hold even this container
+            if (snapshot != null) IndexPersistence.append(snapshot);
+        }
+        dirty = false;
+        currentKey = null;
+        menu = null;
+        contentReceived = false;
+    }
+
+    /**
+     * Returns up to {@code limit} indexed containers holding the given item, most first.
+     */
+    public static List<ContainerIndex.Match> find(Item item, int limit) {
+        return INDEX.find(BuiltInRegistries.ITEM.getId(item), limit);
+    }
+
+    /**
+     * Total count of the given item over all indexed containers.
+     */
+    public static long totalCount(Item item) {
+        return INDEX.totalCount(BuiltInRegistries.ITEM.getId(item));
+    }
+
+    public static int size() {
+        return INDEX.size();
+    }
+
+    /**
+     * Returns the dimension id used in index keys for the given level.
+     */
+    public static String dimensionId(Level level) {
+        //? if >=1.21.11 {
+        return level.dimension().identifier().toString();
+        //?} else {
+        /*return level.dimension().location().toString();*/
+        //?}
+    }
+
+    private static void clear() {
+        INDEX.clear();
+        pendingKey = null;
+        currentKey = null;
+        menu = null;
+        contentReceived = false;
+        lastContentContainerId = -1;
+    }
+
+    /**
+     * Index key of the container block at the given position. Both halves of a double
+     * chest map to the half with the lower packed position.
+     */
+    private static ContainerKey keyOf(Level level, BlockPos pos) {
+        long packed = pos.asLong();
+        BlockState state = level.getBlockState(pos);
+        if (state.getBlock() instanceof ChestBlock && state.getValue(ChestBlock.TYPE) != ChestType.SINGLE) {
+            long other = pos.relative(ChestBlock.getConnectedDirection(state)).asLong();
+            packed = Math.min(packed, other);
+        }
+        return new ContainerKey(dimensionId(level), packed);
+    }
+}
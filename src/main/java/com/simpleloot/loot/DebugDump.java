@@ -0,0 +1,134 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.SimpleLootClient;
+import com.simpleloot.engine.ClickAction;
+import com.simpleloot.engine.DebugLog;
+import com.simpleloot.engine.HoverListener;
+import com.simpleloot.engine.ScreenType;
+import com.simpleloot.engine.TransferKind;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.core.registries.BuiltInRegistries;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Owns the debug ring buffer and writes it to {@code <game dir>/simpleloot/debug} as text.
+ *
+ * Dumps happen on request (keybind or {@code /simpleloot debug dump}) or automatically
+ * when the handler notices an anomaly, at most once per {@link #AUTO_DUMP_INTERVAL_MS}.
+ * The buffer is copied and formatted on a virtual thread; item ids are resolved to
+ * registry names only here.
+ */
+public final class DebugDump {
+    private DebugDump() {}
+
+    // Anomaly codes (DebugLog.ANOMALY, argument a)
+    static final int ANOMALY_STUCK_CARRIED = 1;   // Cursor holds an item after our clicks; b = item id, c = clicks sent this tick
+
+    private static final int CAPACITY = 4096;
+    private static final long AUTO_DUMP_INTERVAL_MS = 60_000;
+    private static final Path DEBUG_DIR = FabricLoader.getInstance().getGameDir().resolve("simpleloot").resolve("debug");
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    static final DebugLog LOG = new DebugLog(CAPACITY);
+
+    private static volatile long lastAutoDumpMs = 0;
+
+    /**
+     * Writes the current buffer to a new file. Completes with the file path, or null if
+     * the buffer is empty or the write failed.
+     */
+    public static CompletableFuture<Path> dump(String reason) {
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        Thread.ofVirtual().name("SimpleLoot debug dump").start(() -> future.complete(write(reason)));
+        return future;
+    }
+
+    /**
+     * Records an anomaly and dumps the buffer unless an automatic dump happened recently.
+     */
+    static void anomaly(int code, int b, int c, String reason) {
+        LOG.record(DebugLog.ANOMALY, code, b, c);
+        long now = System.currentTimeMillis();
+        if (now - lastAutoDumpMs < AUTO_DUMP_INTERVAL_MS) return;
+        lastAutoDumpMs = now;
+        SimpleLootClient.LOGGER.warn("SimpleLoot detected an anomaly ({}), dumping debug log", reason);
+        dump(reason);
+    }
+
+    private static Path write(String reason) {
+        if (LOG.recorded() == 0) {
+            SimpleLootClient.LOGGER.info("SimpleLoot debug log is empty (is debug mode on?)");
+            return null;
+        }
+
+        StringBuilder out = new StringBuilder(CAPACITY * 48);
+        out.append("# SimpleLoot debug log - ").append(reason).append('\n');
+        out.append("# ").append(LocalDateTime.now()).append(", ").append(LOG.recorded())
+                .append(" events recorded, last ").append(LOG.capacity()).append(" kept\n");
+        long[] firstNanos = {Long.MIN_VALUE};
+        int count = LOG.forEach((seq, nanoTime, type, a, b, c) -> {
+            if (firstNanos[0] == Long.MIN_VALUE) firstNanos[0] = nanoTime;
+            out.append(String.format("%8d %+12.3fms  ", seq, (nanoTime - firstNanos[0]) / 1_000_000.0));
+            describe(out, type, a, b, c);
+            out.append('\n');
+        });
+
+        try {
+            Files.createDirectories(DEBUG_DIR);
+            Path file = DEBUG_DIR.resolve(LocalDateTime.now().format(FILE_TIME) + "-" + reason + ".log");
+            Files.writeString(file, out);
+            SimpleLootClient.LOGGER.info("SimpleLoot debug log ({} events) written to {}", count, file);
+            return file;
+        } catch (IOException e) {
+            SimpleLootClient.LOGGER.error("Failed to write SimpleLoot debug log", e);
+            return null;
+        }
+    }
+
+    private static void describe(StringBuilder out, int type, int a, int b, int c) {
+        switch (type) {
+            case DebugLog.SCREEN_OPEN -> out.append("SCREEN_OPEN ").append(name(ScreenType.values(), a))
+                    .append(" slots=").append(b).append(" container=").append(c);
+            case DebugLog.SCREEN_CLOSE -> out.append("SCREEN_CLOSE");
+            case DebugLog.DEACTIVATED -> out.append("DEACTIVATED (slots can be re-selected)");
+            case DebugLog.DROP_MODE -> out.append("DROP_MODE entered mid-hover");
+            case DebugLog.PATH -> out.append("PATH distance=").append(a / 10.0)
+                    .append(" samples=").append(b).append(" slots=").append(c);
+            case DebugLog.SKIPPED -> out.append("SKIPPED slot=").append(a)
+                    .append(" reason=").append(name(HoverListener.SkipReason.values(), b)).append(" item=").append(item(c));
+            case DebugLog.QUEUED -> out.append("QUEUED slot=").append(a).append(" item=").append(item(b)).append(" x").append(c);
+            case DebugLog.TRANSFER -> out.append("TRANSFER slot=").append(a)
+                    .append(" kind=").append(name(TransferKind.values(), b)).append(" target=").append(c);
+            case DebugLog.CLICK -> out.append("CLICK slot=").append(a).append(" button=").append(b)
+                    .append(" action=").append(name(ClickAction.values(), c));
+            case DebugLog.QUEUE_PROCESSED -> out.append("QUEUE_PROCESSED processed=").append(a).append(" remaining=").append(b);
+            case DebugLog.CREATIVE_TAB -> out.append("CREATIVE_TAB survival=").append(a != 0);
+            case DebugLog.BUDGET -> out.append("BUDGET exhausted in ").append(name(HoverListener.WorkPhase.values(), a))
+                    .append(", deferred=").append(b);
+            case DebugLog.NO_GAME_MODE -> out.append("NO_GAME_MODE click on slot ").append(a).append(" dropped");
+            case DebugLog.ANOMALY -> {
+                out.append("ANOMALY ");
+                if (a == ANOMALY_STUCK_CARRIED) {
+                    out.append("cursor holds ").append(item(b)).append(" after ").append(c).append(" clicks");
+                } else {
+                    out.append("code=").append(a).append(' ').append(b).append(' ').append(c);
+                }
+            }
+            default -> out.append("type=").append(type).append(' ').append(a).append(' ').append(b).append(' ').append(c);
+        }
+    }
+
+    private static String item(int id) {
+        return BuiltInRegistries.ITEM.getKey(BuiltInRegistries.ITEM.byId(id)).toString();
+    }
+
+    private static <E extends Enum<E>> String name(E[] values, int ordinal) {
+        return ordinal >= 0 && ordinal < values.length ? values[ordinal].name() : Integer.toString(ordinal);
+    }
+}
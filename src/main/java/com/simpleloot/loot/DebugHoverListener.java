@@ -0,0 +1,78 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.engine.DebugLog;
+import com.simpleloot.engine.HoverListener;
+import com.simpleloot.engine.TransferKind;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.inventory.Slot;
+
+/**
+ * Records engine activity into the debug ring buffer when debug mode is on.
+ *
+ * Items are recorded by registry id; names are only resolved when the log is dumped
+ * (see {@link DebugDump}).
+ */
+final class DebugHoverListener implements HoverListener {
+    private final DebugLog log;
+    private ScreenSlotLayout layout;
+
+    DebugHoverListener(DebugLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Points this listener at the given screen layout (for item ids). Returns this for chaining.
+     */
+    DebugHoverListener bind(ScreenSlotLayout layout) {
+        this.layout = layout;
+        return this;
+    }
+
+    @Override
+    public void onDeactivated() {
+        log.record(DebugLog.DEACTIVATED);
+    }
+
+    @Override
+    public void onDropModeEntered() {
+        log.record(DebugLog.DROP_MODE);
+    }
+
+    @Override
+    public void onPathResolved(double distance, int samples, int slotsFound) {
+        if (distance > 10) {
+            log.record(DebugLog.PATH, (int) (distance * 10), samples, slotsFound);
+        }
+    }
+
+    @Override
+    public void onSkipped(int slotId, SkipReason reason) {
+        log.record(DebugLog.SKIPPED, slotId, reason.ordinal(), itemId(slotId));
+    }
+
+    @Override
+    public void onQueued(int slotId) {
+        Slot slot = layout.slot(slotId);
+        log.record(DebugLog.QUEUED, slotId, itemId(slotId), slot != null ? slot.getItem().getCount() : 0);
+    }
+
+    @Override
+    public void onTransfer(int slotId, TransferKind kind, int targetSlotId) {
+        log.record(DebugLog.TRANSFER, slotId, kind.ordinal(), targetSlotId);
+    }
+
+    @Override
+    public void onQueueProcessed(int processed, int remaining) {
+        log.record(DebugLog.QUEUE_PROCESSED, processed, remaining);
+    }
+
+    @Override
+    public void onBudgetExhausted(WorkPhase phase, int deferred) {
+        log.record(DebugLog.BUDGET, phase.ordinal(), deferred);
+    }
+
+    private int itemId(int slotId) {
+        Slot slot = layout.slot(slotId);
+        return slot != null ? BuiltInRegistries.ITEM.getId(slot.getItem().getItem()) : 0;
+    }
+}
@@ -0,0 +1,99 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.SimpleLootClient;
+import com.simpleloot.config.SimpleLootConfig;
+import com.simpleloot.engine.ScreenType;
+import com.simpleloot.engine.SlotRole;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
+import net.minecraft.client.input.KeyEvent;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Deposit matching: moves every player inventory stack whose item (with components) is
+ * already in the open container into it, with one key press.
+ *
+ * The container's stacks are collected by {@link ItemKeys} key into a set once per press
+ * (O(container slots)), then each player slot is one int lookup. Stacks of items that
+ * still have room in a partial container stack are queued first, so they merge before the
+ * rest takes up empty slots; in a nearly full container that deposits as much as possible.
+ * Only storage containers take part ({@link ContainerKeyActions#storageType}). Slots go through the hover loot transfer queue
+ * and its checks (filter, anti-bounce); hotbar slots are also left out up front.
+ */
+public final class DepositMatching {
+    private DepositMatching() {}
+
+    // Item key of a container stack -> free room in its partial stacks; reused between presses
+    private static final Int2IntOpenHashMap room = new Int2IntOpenHashMap();
+    private static SlotRole[] roles = new SlotRole[0];
+    private static int[] queued = new int[64];
+    private static int[] later = new int[64];
+
+    static {
+        room.defaultReturnValue(-1);
+    }
+
+    /**
+     * Key handler, see {@link ContainerKeyActions}.
+     */
+    public static boolean keyPressed(AbstractContainerScreen<?> screen, KeyEvent event) {
+        if (!SimpleLootClient.depositMatchingKeyBinding.matches(event)) return false;
+        ScreenType type = ContainerKeyActions.storageType(screen);
+        if (type == null) return false;
+
+        int count = plan(screen.getMenu(), type, SimpleLootConfig.snapshot().hotbarProtection);
+        if (count > 0) {
+            HoverLootHandler.enqueue(queued, count);
+        }
+        return true;
+    }
+
+    /**
+     * Fills {@link #queued} with the player slots to deposit, in order. Returns their number.
+     */
+    private static int plan(AbstractContainerMenu menu, ScreenType type, boolean hotbarProtection) {
+        int slotCount = menu.slots.size();
+        if (roles.length < slotCount) {
+            roles = new SlotRole[slotCount];
+            queued = new int[slotCount];
+            later = new int[slotCount];
+        }
+        SlotRole.assign(type, slotCount, roles);
+
+        // One pass over the container: which stacks it holds and how much they can still take
+        room.clear();
+        for (int slotId = 0; slotId < slotCount; slotId++) {
+            if (roles[slotId] != SlotRole.CONTAINER) continue;
+            Slot slot = menu.slots.get(slotId);
+            ItemStack stack = slot.getItem();
+            if (stack.isEmpty()) continue;
+            int key = ItemKeys.of(stack);
+            int free = Math.max(0, slot.getMaxStackSize(stack) - stack.getCount());
+            room.put(key, Math.max(0, room.get(key)) + free);
+        }
+        if (room.isEmpty()) return 0;
+
+        // One pass over the player inventory: stacks that fit into partial stacks first
+        int first = 0;
+        int rest = 0;
+        for (int slotId = 0; slotId < slotCount; slotId++) {
+            SlotRole role = roles[slotId];
+            if (!role.isPlayerInventory() || hotbarProtection && role == SlotRole.HOTBAR) continue;
+            ItemStack stack = menu.slots.get(slotId).getItem();
+            if (stack.isEmpty()) continue;
+            int key = ItemKeys.of(stack);
+            int free = room.get(key);
+            if (free < 0) continue;
+            if (free > 0) {
+                queued[first++] = slotId;
+                room.put(key, Math.max(0, free - stack.getCount()));
+            } else {
+                later[rest++] = slotId;
+            }
+        }
+        System.arraycopy(later, 0, queued, first, rest);
+        return first + rest;
+    }
+}
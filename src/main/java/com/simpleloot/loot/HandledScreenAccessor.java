@@ -5,11 +5,26 @@ import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
 import net.minecraft.world.inventory.Slot;
 
 // Accessor for AbstractContainerScreen private methods.
-// Provides access to the getHoveredSlot method through our mixin.
+// Provides access to the getHoveredSlot method and the screen origin through our mixin.
 public class HandledScreenAccessor {
     
     // Gets the slot at the given screen coordinates.
     public static Slot getSlotAt(AbstractContainerScreen<?> screen, double x, double y) {
         return ((HandledScreenMixin) screen).invokeGetSlotAt(x, y);
     }
+    
+    // Gets the left edge of the container background.
+    public static int getLeftPos(AbstractContainerScreen<?> screen) {
+        return ((HandledScreenMixin) screen).getLeftPos();
+    }
+    
+    // Gets the top edge of the container background.
+    public static int getTopPos(AbstractContainerScreen<?> screen) {
+        return ((HandledScreenMixin) screen).getTopPos();
+    }
+    
+    // Gets the width of the container background.
+    public static int getImageWidth(AbstractContainerScreen<?> screen) {
+        return ((HandledScreenMixin) screen).getImageWidth();
+    }
 }
@@ -0,0 +1,88 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.config.SimpleLootConfig;
+import com.simpleloot.engine.HoverStats;
+import net.minecraft.client.Minecraft;
+//? if >=26.1 {
+import net.minecraft.client.gui.GuiGraphicsExtractor;
+//?} else {
+/*import net.minecraft.client.gui.GuiGraphics;*/
+//?}
+import net.minecraft.client.multiplayer.ClientPacketListener;
+import net.minecraft.client.multiplayer.PlayerInfo;
+
+/**
+ * Performance overlay drawn in the top-left corner of container screens when
+ * {@code showHud} is enabled.
+ *
+ * The numbers come from {@link HoverStats}. Lines are only re-formatted when the stats
+ * recorded a new tick, so rendering a frame is a few fills and text draws.
+ */
+public final class HoverHud {
+    private HoverHud() {}
+
+    private static final int MARGIN = 4;
+    private static final int PADDING = 3;
+    private static final int LINE_HEIGHT = 10;
+    private static final int BACKGROUND = 0xA0000000;
+    private static final int TEXT = 0xFFE0E0E0;
+
+    private static final String[] lines = new String[7];
+    private static int linesVersion = -1;
+    private static int width = 0;
+
+    /**
+     * Draws the overlay. Called from the container screen render mixin.
+     */
+    //? if >=26.1 {
+    public static void render(GuiGraphicsExtractor context) {
+    //?} else {
+    /*public static void render(GuiGraphics context) {*/
+    //?}
+        if (!SimpleLootConfig.snapshot().showHud) return;
+
+        Minecraft client = Minecraft.getInstance();
+        HoverStats stats = HoverLootHandler.stats();
+        if (stats.version() != linesVersion) {
+            format(client, stats);
+        }
+
+        int height = lines.length * LINE_HEIGHT + PADDING * 2 - 2;
+        context.fill(MARGIN, MARGIN, MARGIN + width + PADDING * 2, MARGIN + height, BACKGROUND);
+        for (int i = 0; i < lines.length; i++) {
+            int y = MARGIN + PADDING + i * LINE_HEIGHT;
+            //? if >=26.1 {
+            context.text(client.font, lines[i], MARGIN + PADDING, y, TEXT);
+            //?} else {
+            /*context.drawString(client.font, lines[i], MARGIN + PADDING, y, TEXT);*/
+            //?}
+        }
+    }
+
+    private static void format(Minecraft client, HoverStats stats) {
+        long now = System.currentTimeMillis();
+        lines[0] = "Queue: " + stats.queueDepth();
+        lines[1] = "Transfers/s: " + stats.transfersPerSecond(now);
+        lines[2] = "Clicks/s: " + stats.clicksPerSecond(now);
+        lines[3] = "In flight: ~" + stats.inFlightClicks(now, roundTripMs(client));
+        lines[4] = "Tick: " + stats.lastTickMicros() + " µs (avg " + stats.avgTickMicros() + ", max " + stats.maxTickMicros() + ")";
+        lines[5] = "Over budget: " + stats.overBudgetTicksPerSecond(now) + " ticks/s (" + stats.sessionOverBudgetTicks() + " total)";
+        lines[6] = "Session: " + stats.sessionTransfers() + " transfers, " + stats.sessionClicks() + " clicks";
+
+        width = 0;
+        for (String line : lines) {
+            width = Math.max(width, client.font.width(line));
+        }
+        linesVersion = stats.version();
+    }
+
+    /**
+     * Returns the server-reported latency of the local player, or 0 if unknown (singleplayer).
+     */
+    private static int roundTripMs(Minecraft client) {
+        ClientPacketListener connection = client.getConnection();
+        if (connection == null || client.player == null) return 0;
+        PlayerInfo info = connection.getPlayerInfo(client.player.getUUID());
+        return info != null ? info.getLatency() : 0;
+    }
+}
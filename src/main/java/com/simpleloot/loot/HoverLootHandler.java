@@ -1,40 +1,38 @@
 package com.simpleloot.loot;
 
 import com.simpleloot.SimpleLootClient;
+import com.simpleloot.config.ConfigSnapshot;
 import com.simpleloot.config.SimpleLootConfig;
-import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import com.simpleloot.engine.ClickAccounting;
+import com.simpleloot.engine.ClickPlan;
+import com.simpleloot.engine.ClickSink;
+import com.simpleloot.engine.DebugLog;
+import com.simpleloot.engine.HoverEngine;
+import com.simpleloot.engine.HoverInput;
+import com.simpleloot.engine.HoverListener;
+import com.simpleloot.engine.HoverListenerChain;
+import com.simpleloot.engine.HoverStats;
+import com.simpleloot.engine.jfr.HandlerTickEvent;
+import com.simpleloot.engine.jfr.JfrHoverListener;
+import com.simpleloot.engine.ScreenType;
+import com.simpleloot.engine.TransferJournal;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
 //? if >=26.1 {
 import net.fabricmc.fabric.api.client.creativetab.v1.FabricCreativeModeInventoryScreen;
 //?} else {
 /*import net.fabricmc.fabric.api.client.itemgroup.v1.FabricCreativeInventoryScreen;*/
 //?}
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.screens.Screen;
 import com.simpleloot.compat.ScreenCompat;
 import net.minecraft.client.gui.screens.inventory.*;
-import net.minecraft.client.multiplayer.MultiPlayerGameMode;
-import net.minecraft.core.component.DataComponents;
-import net.minecraft.world.item.equipment.Equippable;
-import net.minecraft.world.entity.EquipmentSlot;
 import net.minecraft.world.item.CreativeModeTab;
 import net.minecraft.world.item.CreativeModeTabs;
-import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.item.Items;
 import net.minecraft.core.registries.BuiltInRegistries;
-import net.minecraft.world.inventory.Slot;
-//? if >=26.1 {
-import net.minecraft.world.inventory.ContainerInput;
-//?} else {
-/*import net.minecraft.world.inventory.ClickType;*/
-//?}
+import jdk.jfr.EventType;
 import org.lwjgl.glfw.GLFW;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Queue;
-import java.util.Set;
-
 /**
  * Core handler for the hover loot functionality.
  * 
@@ -43,1223 +41,383 @@ import java.util.Set;
  * 
  * Like Rust's hover loot: items stay queued until the container is closed,
  * even if you release the key.
+ * 
+ * The decision logic lives in the Minecraft-independent {@link HoverEngine}; this class
+ * reads input and config once per tick and binds the engine to the open screen through
+ * small adapters ({@link ScreenSlotLayout}, {@link MenuItemFacts}, {@link MenuClickSink}).
  */
 public class HoverLootHandler {
     
-    // Version-aware constants for container input types
-    //? if >=26.1 {
-    private static final ContainerInput SLOT_PICKUP = ContainerInput.PICKUP;
-    private static final ContainerInput SLOT_QUICK_MOVE = ContainerInput.QUICK_MOVE;
-    private static final ContainerInput SLOT_THROW = ContainerInput.THROW;
-    //?} else {
-    /*private static final ClickType SLOT_PICKUP = ClickType.PICKUP;
-    private static final ClickType SLOT_QUICK_MOVE = ClickType.QUICK_MOVE;
-    private static final ClickType SLOT_THROW = ClickType.THROW;*/
-    //?}
-    
-    // Track which slots are currently in the pending queue
-    // This prevents adding the same slot multiple times during one key-hold session
-    private static final Set<Integer> currentlyQueued = new HashSet<>();
-    
-    // Queue of slots waiting to be transferred
-    private static final Queue<Integer> pendingSlots = new LinkedList<>();
-    
-    // For creative mode: store slot indices (not Slot references as they become stale)
-    // Store the actualSlotId found during hover detection
-    private static final Set<Integer> creativeQueuedSlotIds = new HashSet<>();
-    private static final Queue<Integer> creativePendingSlotIds = new LinkedList<>();
+    // Session state (queue, timing, mode) lives in the engine
+    private static final HoverEngine engine = new HoverEngine();
+    
+    // Reused per-tick input and adapters (no per-tick allocation)
+    private static final HoverInput input = new HoverInput();
+    private static final ScreenSlotLayout slotLayout = new ScreenSlotLayout();
+    private static final MenuItemFacts itemFacts = new MenuItemFacts();
+    private static final ClickAccounting accounting = new ClickAccounting();
+    private static final MenuClickSink clickSink = new MenuClickSink(accounting);
+    private static final DebugHoverListener debugListener = new DebugHoverListener(DebugDump.LOG);
+    private static final TraceRecorder traceRecorder = new TraceRecorder();
+    private static final TransferJournal journal = new TransferJournal();
+    private static final JournalRecorder journalRecorder = new JournalRecorder(journal);
+    private static final HoverStats stats = new HoverStats();
+    private static final JfrHoverListener jfrListener = new JfrHoverListener();
+    private static final EventType TICK_EVENT = EventType.getEventType(HandlerTickEvent.class);
+    
+    // Click counter value when the current screen session began
+    private static long sessionClicksStart = 0;
+    
+    // Listener chain for the current debug/HUD settings, rebuilt only when they change
+    private static HoverListener listener = jfrListener;
+    private static int listenerMask = 0;
     
     // Track the last screen we were in
     private static AbstractContainerScreen<?> lastScreen = null;
     
-    // Track last mouse position for interpolation
-    private static double lastMouseX = -1;
-    private static double lastMouseY = -1;
-    
-    // Track if key was pressed last tick (for detecting release)
-    private static boolean wasKeyPressed = false;
+    // What the last tick saw, for the idle fast exit in tick()
+    private static Screen idleScreen = null;
+    private static ConfigSnapshot idleConfig = null;
+    private static double idleMouseX = Double.NaN;
+    private static double idleMouseY = Double.NaN;
     
-    // Track if we're in drop mode (Ctrl held when hover loot started)
-    private static boolean isDropMode = false;
-    
-    // Last time an item was transferred (for rate limiting / visual delay)
-    private static long lastTransferTime = 0;
-    
-    // Track armor swap times per slot to prevent rapid re-swapping
-    // Maps slotId -> timestamp of last swap for that slot
-    private static final java.util.Map<Integer, Long> armorSwapTimes = new java.util.HashMap<>();
+    // Last creative tab state written to the debug log (only changes are recorded)
+    private static boolean lastCreativeSurvivalTab = false;
     
     /**
-     * Initializes the hover loot handler and registers tick-based hover detection.
+     * Initializes the hover loot handler. Ticks arrive through {@link #tick}, called from
+     * the client's tick dispatcher.
      */
     public static void init() {
-        // Use client tick events to check for hover loot every tick
-        ClientTickEvents.END_CLIENT_TICK.register(client -> {
-            if (ScreenCompat.current(client) instanceof AbstractContainerScreen<?> handledScreen) {
-                if (isSupportedScreen(ScreenCompat.current(client))) {
-                    // Reset state if screen changed (new container opened)
-                    if (lastScreen != handledScreen) {
-                        currentlyQueued.clear();
-                        pendingSlots.clear();
-                        creativeQueuedSlotIds.clear();
-                        creativePendingSlotIds.clear();
-                        armorSwapTimes.clear();
-                        lastMouseX = -1;
-                        lastMouseY = -1;
-                        wasKeyPressed = false;
-                        isDropMode = false;
-                        lastScreen = handledScreen;
-                    }
-                    
-                    // Get current mouse position
-                    double mouseX = client.mouseHandler.xpos() * client.getWindow().getGuiScaledWidth() / client.getWindow().getWidth();
-                    double mouseY = client.mouseHandler.ypos() * client.getWindow().getGuiScaledHeight() / client.getWindow().getHeight();
-                    
-                    handleHoverLoot(client, handledScreen, mouseX, mouseY);
-                    
-                    // Update last mouse position
-                    lastMouseX = mouseX;
-                    lastMouseY = mouseY;
-                }
-            } else {
-                // Screen closed, reset ALL state
-                if (lastScreen != null) {
-                    currentlyQueued.clear();
-                    pendingSlots.clear();
-                    armorSwapTimes.clear();
-                    lastMouseX = -1;
-                    lastMouseY = -1;
-                    wasKeyPressed = false;
-                    isDropMode = false;
-                    lastScreen = null;
-                }
-            }
-        });
+        // Per-item caches depend on registry contents - drop them on tag reload / world join
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> onRegistriesReloaded());
+        ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> onRegistriesReloaded());
+        
+        // Remember container contents for /simpleloot find
+        ContainerTracker.init();
         
         SimpleLootClient.LOGGER.info("HoverLootHandler initialized");
     }
     
     /**
-     * Checks if the given screen is a supported container screen.
-     * Supports:
-     * - All container types (chests, barrels, etc.)
-     * - InventoryScreen for crafting grid transfers and drop mode
-     * - CreativeModeInventoryScreen for drop mode
-     * - CraftingScreen (crafting table) for crafting grid transfers
+     * Runs hover loot for the open container screen, or resets when none is open.
      */
-    private static boolean isSupportedScreen(net.minecraft.client.gui.screens.Screen screen) {
-        if (!(screen instanceof AbstractContainerScreen<?>)) {
-            return false;
-        }
-        
-        SimpleLootConfig config = SimpleLootConfig.getInstance();
-        
-        // InventoryScreen - always allow for crafting grid transfers (if enabled) or drop mode
-        if (screen instanceof InventoryScreen) {
-            return config.allowHoverDrop || config.allowCraftingGrid;
-        }
-        
-        // CreativeModeInventoryScreen - only for drop mode
-        if (screen instanceof CreativeModeInventoryScreen) {
-            return config.allowHoverDrop;
-        }
-        
-        // CraftingScreen (crafting table) - allow for crafting grid transfers
-        if (screen instanceof CraftingScreen) {
-            return config.allowCraftingGrid;
-        }
-        
-        // Check each container type against config
-        if (screen instanceof ContainerScreen) {
-            ContainerScreen containerScreen = (ContainerScreen) screen;
-            int rows = containerScreen.getMenu().getRowCount();
-            // Single chest = 3 rows, Double chest = 6 rows
-            if (rows <= 3 && !config.allowChests) return false;
-            if (rows > 3 && !config.allowDoubleChests) return false;
-            return true;
-        }
-        
-        if (screen instanceof ShulkerBoxScreen) {
-            return config.allowShulkerBoxes;
-        }
-        
-        if (screen instanceof DispenserScreen) {
-            // This handles dispensers and droppers
-            return config.allowDispensers || config.allowDroppers;
-        }
-        
-        if (screen instanceof HopperScreen) {
-            return config.allowHoppers;
-        }
-        
-        // Processing screens (furnaces, etc.)
-        if (screen instanceof FurnaceScreen) {
-            return config.allowFurnaces;
-        }
-        
-        if (screen instanceof BlastFurnaceScreen) {
-            return config.allowBlastFurnaces;
-        }
-        
-        if (screen instanceof SmokerScreen) {
-            return config.allowSmokers;
-        }
-        
-        if (screen instanceof BrewingStandScreen) {
-            return config.allowBrewingStands;
-        }
-        
-        // Workstation screens
-        if (screen instanceof AnvilScreen) {
-            return config.allowAnvils;
-        }
-        
-        if (screen instanceof SmithingScreen) {
-            return config.allowSmithingTables;
-        }
-        
-        if (screen instanceof GrindstoneScreen) {
-            return config.allowGrindstones;
-        }
-        
-        if (screen instanceof StonecutterScreen) {
-            return config.allowStonecutters;
-        }
-        
-        if (screen instanceof LoomScreen) {
-            return config.allowLooms;
-        }
-        
-        if (screen instanceof EnchantmentScreen) {
-            return config.allowEnchantingTables;
-        }
-        
-        if (screen instanceof BeaconScreen) {
-            return config.allowBeacons;
-        }
-        
-        if (screen instanceof CrafterScreen) {
-            return config.allowCrafters;
-        }
-        
-        if (screen instanceof CartographyTableScreen) {
-            return config.allowCartographyTables;
-        }
-        
-        // Ender chest uses ContainerScreen, but we can check by title or other means
-        // For now, ContainerScreen covers ender chests as well
-        
-        // Barrel also uses ContainerScreen (3 rows)
-        
-        return false;
-    }
-    
-    /**
-     * Handles hover loot detection and queue processing.
-     * 
-     * Key behavior (like Rust):
-     * - Hold key OR toggle mode active + hover over slots = add to queue
-     * - Queue keeps processing even after releasing key
-     * - Releasing and re-pressing key allows re-selecting slots
-     * - Only closing the container clears the queue completely
-     * 
-     * Modes:
-     * - Normal: Quick move items (shift-click equivalent)
-     * - Drop (Ctrl + hover OR hover drop key): Drop items on ground
-     * - Shift + hover: Quick move in inventory/crafting screens
-     * - Crafting grid: Send items to/from crafting grid slots
-     */
-    private static void handleHoverLoot(Minecraft client, AbstractContainerScreen<?> screen, double mouseX, double mouseY) {
-        SimpleLootConfig config = SimpleLootConfig.getInstance();
-        boolean DEBUG = config.debugMode;
-        
-        // Check if mod is enabled
-        if (!config.enabled) {
-            return;
-        }
-        
-        // Check if hover loot is active (either key held OR toggle mode)
-        boolean hoverLootActive = SimpleLootClient.isHoverLootActive();
-        
-        // Detect deactivation - clear the "currently queued" set so slots can be re-selected
-        if (wasKeyPressed && !hoverLootActive) {
-            // Hover loot was just deactivated - allow all slots to be queued again on next activation
-            currentlyQueued.clear();
-            creativeQueuedSlotIds.clear();
-            armorSwapTimes.clear();
-            isDropMode = false;
-            if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Hover loot deactivated, slots can now be re-selected");
-        }
-        
-        // Check modifier keys
-        boolean hoverDropKeyHeld = SimpleLootClient.isHoverDropKeyHeld();
-        long windowHandle = client.getWindow().handle();
-        boolean ctrlHeld = GLFW.glfwGetKey(windowHandle, GLFW.GLFW_KEY_LEFT_CONTROL) == GLFW.GLFW_PRESS ||
-                           GLFW.glfwGetKey(windowHandle, GLFW.GLFW_KEY_RIGHT_CONTROL) == GLFW.GLFW_PRESS;
-        boolean shiftHeld = GLFW.glfwGetKey(windowHandle, GLFW.GLFW_KEY_LEFT_SHIFT) == GLFW.GLFW_PRESS ||
-                            GLFW.glfwGetKey(windowHandle, GLFW.GLFW_KEY_RIGHT_SHIFT) == GLFW.GLFW_PRESS;
-        
-        // Determine the operation mode
-        // Drop mode: Ctrl + hover OR dedicated hover drop key
-        boolean shouldBeDropMode = (ctrlHeld || hoverDropKeyHeld) && config.allowHoverDrop;
-        
-        // If switching from transfer to drop mode mid-hover, log it
-        if (DEBUG && !isDropMode && shouldBeDropMode && hoverLootActive) {
-            SimpleLootClient.LOGGER.info("[DEBUG] Switched to DROP mode mid-hover");
-        }
-        
-        isDropMode = shouldBeDropMode;
-        
-        // Also activate hover loot if hover drop key is held (can be pressed anytime)
-        if (hoverDropKeyHeld && config.allowHoverDrop) {
-            hoverLootActive = true; // Treat hover drop key as activating hover loot
-        }
-        
-        wasKeyPressed = hoverLootActive;
-        
-        // Determine screen type and allowed operations
-        boolean isInventoryScreen = screen instanceof InventoryScreen;
-        boolean isCreativeInventory = screen instanceof CreativeModeInventoryScreen;
-        
-        // Check if creative inventory is on the survival inventory tab (the only tab where drop should work)
-        boolean isCreativeSurvivalTab = false;
-        if (isCreativeInventory) {
-            CreativeModeInventoryScreen creativeScreen = (CreativeModeInventoryScreen) screen;
-            // Use Fabric API to get the currently selected item group
-            // The survival inventory tab is identified by getting its registry key and comparing to CreativeModeTabs.INVENTORY
-            //? if >=26.1 {
-            if (creativeScreen instanceof FabricCreativeModeInventoryScreen fabricScreen) {
-                CreativeModeTab selectedGroup = fabricScreen.getSelectedTab();
-            //?} else {
-            /*if (creativeScreen instanceof FabricCreativeInventoryScreen fabricScreen) {
-                CreativeModeTab selectedGroup = fabricScreen.getSelectedItemGroup();*/
-            //?}
-                // Get the registry key of the selected group and compare to INVENTORY key
-                if (selectedGroup != null) {
-                    var selectedKey = BuiltInRegistries.CREATIVE_MODE_TAB.getResourceKey(selectedGroup);
-                    isCreativeSurvivalTab = selectedKey.isPresent() && selectedKey.get().equals(CreativeModeTabs.INVENTORY);
-                }
-                
-                if (DEBUG && hoverLootActive) {
-                    String groupName = selectedGroup != null ? selectedGroup.getDisplayName().getString() : "null";
-                    SimpleLootClient.LOGGER.info("[DEBUG] Creative selected tab: '{}', isSurvivalTab={}", 
-                            groupName, isCreativeSurvivalTab);
-                }
-            }
-        }
-        
-        if (DEBUG && isCreativeInventory && hoverLootActive) {
-            SimpleLootClient.LOGGER.info("[DEBUG] Creative inventory detected. isDropMode={}, hoverLootActive={}, hoverDropKeyHeld={}, ctrlHeld={}, isCreativeSurvivalTab={}", 
-                    isDropMode, hoverLootActive, hoverDropKeyHeld, ctrlHeld, isCreativeSurvivalTab);
-        }
-        
-        // For creative inventory, only drop mode is allowed AND only on the survival inventory tab
-        // But always process pending queue items even if drop mode was turned off
-        if (isCreativeInventory && (!isDropMode || !isCreativeSurvivalTab) && creativePendingSlotIds.isEmpty()) {
+    public static void tick(Minecraft client) {
+        // Read the config snapshot once per tick and pass it down
+        ConfigSnapshot config = SimpleLootConfig.snapshot();
+        Screen screen = ScreenCompat.current(client);
+        
+        // Nothing to do if nothing changed since the last tick: same screen and config,
+        // no key held, mouse still, and the engine has no queue or active hover
+        if (screen == idleScreen && config == idleConfig && isIdle(client, config)) {
             return;
         }
-        
-        // For player inventory without modifiers:
-        // - If just hover loot key: try to send to crafting grid (if enabled)
-        // - If shift + hover: quick move within inventory
-        // - If ctrl + hover / drop key: drop items
-        if (isInventoryScreen && !isDropMode && !shiftHeld) {
-            // Plain hover in inventory - check if we should send to crafting grid
-            if (!config.allowCraftingGrid) {
-                return; // No crafting grid support, nothing to do
-            }
-            // Allow crafting grid mode - handled in processQueue
-        }
-        
-        if (hoverLootActive && (isDropMode || !isCreativeInventory)) {
-            // Hover loot is active - detect slots and add to queue
-            // Use interpolation to catch slots we moved over quickly
-            List<Slot> slotsToQueue = getSlotsAlongPath(screen, lastMouseX, lastMouseY, mouseX, mouseY);
-            
-            for (Slot slot : slotsToQueue) {
-                if (slot != null && slot.hasItem()) {
-                    // Check hotbar protection (only for non-crafting operations)
-                    if (config.hotbarProtection && !isCraftingSlot(screen, slot) && isHotbarSlot(screen.getMenu(), slot)) {
-                        continue;
-                    }
-                    
-                    // For creative inventory survival tab, use the creative queue
-                    // We queue items and process them one at a time to ensure proper game state updates
-                    if (isCreativeInventory && isDropMode && isCreativeSurvivalTab) {
-                        // Find the actual slot ID
-                        int actualSlotId = findActualSlotId(screen, slot);
-                        if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Creative slot detection: slot.index={}, actualSlotId={}, item={}, alreadyQueued={}", 
-                                slot.index, actualSlotId, slot.getItem().getHoverName().getString(), creativeQueuedSlotIds.contains(actualSlotId));
-                        if (actualSlotId >= 0 && !creativeQueuedSlotIds.contains(actualSlotId)) {
-                            // Add to queue for processing
-                            creativePendingSlotIds.add(actualSlotId);
-                            creativeQueuedSlotIds.add(actualSlotId);
-                            if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Queued creative survival slot actualId={} with item: {}", 
-                                    actualSlotId, slot.getItem().getHoverName().getString());
-                        }
-                    } else if (isCreativeInventory) {
-                        // Non-survival tab creative - queue for later (though this shouldn't happen due to earlier checks)
-                        int actualSlotId = findActualSlotId(screen, slot);
-                        if (actualSlotId >= 0 && !creativeQueuedSlotIds.contains(actualSlotId)) {
-                            creativePendingSlotIds.add(actualSlotId);
-                            creativeQueuedSlotIds.add(actualSlotId);
-                            if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Queued creative slot actualId={} with item: {}", 
-                                    actualSlotId, slot.getItem().getHoverName().getString());
-                        }
-                    } else {
-                        int slotId = slot.index;
-                        // Add to queue if not already queued in THIS session
-                        // (prevents adding same slot multiple times while active)
-                        if (!currentlyQueued.contains(slotId)) {
-                            // For armor equippable items, check if this slot was recently involved in an armor swap
-                            // This prevents rapid re-swapping when the cursor stays on the same slot
-                            if (isEquippableArmor(slot.getItem())) {
-                                Long lastSwapTime = armorSwapTimes.get(slotId);
-                                if (lastSwapTime != null) {
-                                    long timeSinceLastSwap = System.currentTimeMillis() - lastSwapTime;
-                                    if (config.armorSwapDelayMs > 0 && timeSinceLastSwap < config.armorSwapDelayMs) {
-                                        // Still within delay period for this slot, skip queueing
-                                        continue;
-                                    }
-                                    // Delay has passed, remove from tracking
-                                    armorSwapTimes.remove(slotId);
-                                }
-                            }
-                            
-                            // Validate item for specific screen types
-                            if (!isValidSlotTransfer(screen, slot, slot.getItem(), isPlayerInventorySlotGeneric(screen, slot))) {
-                                if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Skipped slot {} - item {} not valid for this screen type", 
-                                        slotId, slot.getItem().getHoverName().getString());
-                                continue;
-                            }
-                            
-                            pendingSlots.add(slotId);
-                            currentlyQueued.add(slotId);
-                            if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Queued slot {} with item: {}", 
-                                    slotId, slot.getItem().getHoverName().getString());
-                        }
-                        // For armor: slot stays in currentlyQueued to prevent re-queueing until key is released
-                        // This prevents rapid swapping when hovering over same slot after armor swap returns different armor
+        idleScreen = screen;
+        idleConfig = config;
+        
+        if (screen instanceof AbstractContainerScreen<?> handledScreen) {
+            ScreenType screenType = ScreenClassifier.of(handledScreen);
+            if (config.allows(screenType)) {
+                // Reset state if screen changed (new container opened)
+                if (lastScreen != handledScreen) {
+                    engine.reset();
+                    traceRecorder.end();
+                    stats.resetSession();
+                    jfrListener.endSession((int) (clickSink.sent() - sessionClicksStart));
+                    jfrListener.beginSession(screenType, handledScreen.getMenu().slots.size());
+                    sessionClicksStart = clickSink.sent();
+                    endAccountingSession(config);
+                    accounting.begin(screenType, handledScreen.getMenu().containerId, System.currentTimeMillis());
+                    ContainerTracker.begin(handledScreen, screenType, config);
+                    ContainerSearch.close();
+                    journal.clear();
+                    if (config.debugMode) {
+                        DebugDump.LOG.record(DebugLog.SCREEN_OPEN, screenType.ordinal(),
+                                handledScreen.getMenu().slots.size(), handledScreen.getMenu().containerId);
                     }
+                    lastScreen = handledScreen;
                 }
+                
+                // Get current mouse position
+                double mouseX = client.mouseHandler.xpos() * client.getWindow().getGuiScaledWidth() / client.getWindow().getWidth();
+                double mouseY = client.mouseHandler.ypos() * client.getWindow().getGuiScaledHeight() / client.getWindow().getHeight();
+                
+                handleHoverLoot(client, handledScreen, screenType, config, mouseX, mouseY);
             }
-        }
-        
-        // ALWAYS process the queue (even if key is released - like Rust!)
-        // Only closing the container stops the queue
-        if (!pendingSlots.isEmpty() || !creativePendingSlotIds.isEmpty()) {
-            processQueue(client, screen, config, DEBUG);
-        }
-    }
-    
-    /**
-     * Finds the actual slot ID for a given slot in the screen handler.
-     * This is needed for creative inventory where slot.index is unreliable.
-     */
-    private static int findActualSlotId(AbstractContainerScreen<?> screen, Slot slot) {
-        var slots = screen.getMenu().slots;
-        for (int i = 0; i < slots.size(); i++) {
-            if (slots.get(i) == slot) {
-                return i;
-            }
-        }
-        return -1;
-    }
-    
-    /**
-     * Checks if a slot is in the player's hotbar.
-     */
-    private static boolean isHotbarSlot(net.minecraft.world.inventory.AbstractContainerMenu handler, Slot slot) {
-        int containerSlotCount = handler.slots.size() - 36;
-        int playerSlotIndex = slot.index - containerSlotCount;
-        // Hotbar is the last 9 slots of player inventory (indices 27-35)
-        return playerSlotIndex >= 27 && playerSlotIndex < 36;
-    }
-    
-    /**
-     * Checks if a slot is a crafting input slot (2x2 in inventory, 3x3 in crafting table).
-     */
-    private static boolean isCraftingSlot(AbstractContainerScreen<?> screen, Slot slot) {
-        if (screen instanceof InventoryScreen) {
-            // Player inventory crafting grid: slots 1-4 (slot 0 is output)
-            return slot.index >= 1 && slot.index <= 4;
-        }
-        if (screen instanceof CraftingScreen) {
-            // Crafting table: slots 1-9 (slot 0 is output)
-            return slot.index >= 1 && slot.index <= 9;
-        }
-        return false;
-    }
-    
-    /**
-     * Checks if a slot is the crafting output slot.
-     */
-    private static boolean isCraftingOutputSlot(AbstractContainerScreen<?> screen, Slot slot) {
-        if (screen instanceof InventoryScreen || screen instanceof CraftingScreen) {
-            // Output is always slot 0 in crafting screens
-            return slot.index == 0;
-        }
-        return false;
-    }
-    
-    /**
-     * Gets the first available crafting input slot index.
-     * Returns -1 if all slots are full.
-     */
-    private static int getAvailableCraftingSlot(AbstractContainerScreen<?> screen) {
-        var handler = screen.getMenu();
-        int startSlot = 1; // Skip output slot
-        int endSlot;
-        
-        if (screen instanceof InventoryScreen) {
-            endSlot = 4; // 2x2 grid
-        } else if (screen instanceof CraftingScreen) {
-            endSlot = 9; // 3x3 grid
         } else {
-            return -1;
-        }
-        
-        for (int i = startSlot; i <= endSlot; i++) {
-            Slot slot = handler.slots.get(i);
-            if (!slot.hasItem()) {
-                return i;
+            // Screen closed, reset ALL state
+            if (lastScreen != null) {
+                reset();
             }
         }
-        return -1; // All slots full
     }
     
     /**
-     * Checks if a slot is a player inventory slot (not crafting, not armor, not offhand).
-     * In player inventory screen, main inventory is slots 9-35 (excluding armor 5-8 and offhand 45).
+     * Checks the cheap conditions under which a tick cannot do anything. Reads the raw
+     * mouse position (no GUI scaling) and only polls the hover keys when they are bound.
+     * The HUD keeps every tick so its rates decay while idle.
      */
-    private static boolean isPlayerInventorySlot(AbstractContainerScreen<?> screen, Slot slot) {
-        if (screen instanceof InventoryScreen) {
-            // Player inventory: main inventory is 9-35, hotbar would be 36-44 but in this screen
-            // Layout: 0=output, 1-4=crafting, 5-8=armor, 9-35=main inventory, 36-44=hotbar, 45=offhand
-            return slot.index >= 9 && slot.index <= 44;
-        }
-        if (screen instanceof CraftingScreen) {
-            // Crafting table: 0=output, 1-9=crafting grid, 10-36=main inventory, 37-45=hotbar
-            return slot.index >= 10 && slot.index <= 45;
-        }
-        return false;
+    private static boolean isIdle(Minecraft client, ConfigSnapshot config) {
+        double rawMouseX = client.mouseHandler.xpos();
+        double rawMouseY = client.mouseHandler.ypos();
+        boolean mouseMoved = rawMouseX != idleMouseX || rawMouseY != idleMouseY;
+        idleMouseX = rawMouseX;
+        idleMouseY = rawMouseY;
+        
+        return !mouseMoved
+                && !config.showHud
+                && !engine.isActive()
+                && engine.pendingCount() == 0
+                && !SimpleLootClient.isHoverLootKeyHeld()
+                && !SimpleLootClient.isHoverDropKeyHeld()
+                && !SimpleLootClient.isHoverTakeKeyHeld()
+                && !SimpleLootClient.isHoverDepositKeyHeld();
     }
     
     /**
-     * Gets all slots along the mouse path from last position to current position.
-     * This catches slots we might have "skipped over" when moving fast.
+     * Invalidates everything derived from item registry or tag contents.
      */
-    private static List<Slot> getSlotsAlongPath(AbstractContainerScreen<?> screen, double fromX, double fromY, double toX, double toY) {
-        List<Slot> slots = new ArrayList<>();
-        boolean DEBUG = SimpleLootConfig.getInstance().debugMode;
-        
-        // If no previous position, just get current slot
-        if (fromX < 0 || fromY < 0) {
-            Slot currentSlot = getSlotAt(screen, toX, toY);
-            if (currentSlot != null) {
-                slots.add(currentSlot);
-            }
-            return slots;
-        }
-        
-        // Calculate distance and number of samples needed
-        double dx = toX - fromX;
-        double dy = toY - fromY;
-        double distance = Math.sqrt(dx * dx + dy * dy);
-        
-        // Sample every ~2 pixels along the path (slot size is ~16-18 pixels)
-        // More frequent sampling helps catch fast mouse movements
-        int samples = Math.max(1, (int) (distance / 2));
-        
-        if (DEBUG && distance > 10) {
-            SimpleLootClient.LOGGER.info("[DEBUG] getSlotsAlongPath: distance={}, samples={}", String.format("%.1f", distance), samples);
-        }
-        
-        Set<Integer> foundSlotIds = new HashSet<>();
-        
-        for (int i = 0; i <= samples; i++) {
-            double t = (double) i / samples;
-            double x = fromX + dx * t;
-            double y = fromY + dy * t;
-            
-            Slot slot = getSlotAt(screen, x, y);
-            if (slot != null) {
-                // For creative inventory, use actualSlotId for deduplication to match queue logic
-                int slotIdForDedup = slot.index;
-                if (screen instanceof CreativeModeInventoryScreen) {
-                    int actualId = findActualSlotId(screen, slot);
-                    if (actualId >= 0) {
-                        slotIdForDedup = actualId;
-                    }
-                }
-                
-                if (!foundSlotIds.contains(slotIdForDedup)) {
-                    slots.add(slot);
-                    foundSlotIds.add(slotIdForDedup);
-                    if (DEBUG && screen instanceof CreativeModeInventoryScreen) {
-                        SimpleLootClient.LOGGER.info("[DEBUG] Path found slot: slot.index={}, actualId={}, hasStack={}, item={}", 
-                                slot.index, slotIdForDedup, slot.hasItem(), slot.hasItem() ? slot.getItem().getHoverName().getString() : "empty");
-                    }
-                }
-            }
-        }
-        
-        return slots;
+    private static void onRegistriesReloaded() {
+        ItemPredicateCache.invalidate();
+        ItemKeys.invalidate();
+        journal.clear();
+        // Recompile item filter tag rules against the new tags
+        SimpleLootConfig.republish();
     }
     
     /**
-     * Processes the pending transfer queue.
-     * Respects the transfer delay setting for visual effect.
+     * Gathers this tick's input and runs the engine against the open screen.
      * 
-     * Handles different modes:
-     * - Drop mode: Drop items on ground
-     * - Armor equip: Equip armor from inventory
-     * - Crafting mode: Send items to/from crafting grid
-     * - Normal mode: Quick move items between containers
+     * Modes:
+     * - Normal: Quick move items (shift-click equivalent)
+     * - Drop (Ctrl + hover OR hover drop key): Drop items on ground
+     * - Shift + hover: Quick move in inventory/crafting screens
+     * - Crafting grid: Send items to/from crafting grid slots
      */
-    private static void processQueue(Minecraft client, AbstractContainerScreen<?> screen, SimpleLootConfig config, boolean DEBUG) {
-        long currentTime = System.currentTimeMillis();
+    private static void handleHoverLoot(Minecraft client, AbstractContainerScreen<?> screen, ScreenType screenType,
+            ConfigSnapshot config, double mouseX, double mouseY) {
+        boolean DEBUG = config.debugMode;
+        boolean HUD = config.showHud;
+        long startNanos = HUD ? System.nanoTime() : 0;
+        long sentBefore = clickSink.sent();
+        // Only allocated while a JFR recording has the event enabled
+        HandlerTickEvent tickEvent = TICK_EVENT.isEnabled() ? new HandlerTickEvent() : null;
+        if (tickEvent != null) tickEvent.begin();
         
-        // Check if we need to wait for the delay
-        if (config.transferDelayMs > 0) {
-            if (currentTime - lastTransferTime < config.transferDelayMs) {
-                // Still waiting for delay, don't process yet
-                return;
+        // Check modifier keys
+        long windowHandle = client.getWindow().handle();
+        input.screenType = screenType;
+        input.mouseX = mouseX;
+        input.mouseY = mouseY;
+        input.hoverActive = SimpleLootClient.isHoverLootActive();
+        input.dropKeyHeld = SimpleLootClient.isHoverDropKeyHeld();
+        input.takeKeyHeld = SimpleLootClient.isHoverTakeKeyHeld();
+        input.depositKeyHeld = SimpleLootClient.isHoverDepositKeyHeld();
+        input.ctrlHeld = GLFW.glfwGetKey(windowHandle, GLFW.GLFW_KEY_LEFT_CONTROL) == GLFW.GLFW_PRESS ||
+                         GLFW.glfwGetKey(windowHandle, GLFW.GLFW_KEY_RIGHT_CONTROL) == GLFW.GLFW_PRESS;
+        input.shiftHeld = GLFW.glfwGetKey(windowHandle, GLFW.GLFW_KEY_LEFT_SHIFT) == GLFW.GLFW_PRESS ||
+                          GLFW.glfwGetKey(windowHandle, GLFW.GLFW_KEY_RIGHT_SHIFT) == GLFW.GLFW_PRESS;
+        input.altHeld = GLFW.glfwGetKey(windowHandle, GLFW.GLFW_KEY_LEFT_ALT) == GLFW.GLFW_PRESS ||
+                        GLFW.glfwGetKey(windowHandle, GLFW.GLFW_KEY_RIGHT_ALT) == GLFW.GLFW_PRESS;
+        input.creativeSurvivalTab = screenType == ScreenType.CREATIVE_INVENTORY
+                && isCreativeSurvivalTab((CreativeModeInventoryScreen) screen);
+        input.timeMs = System.currentTimeMillis();
+        if (HUD) stats.beginTick(input.timeMs);
+        
+        if (DEBUG && screenType == ScreenType.CREATIVE_INVENTORY && input.creativeSurvivalTab != lastCreativeSurvivalTab) {
+            DebugDump.LOG.record(DebugLog.CREATIVE_TAB, input.creativeSurvivalTab ? 1 : 0);
+        }
+        lastCreativeSurvivalTab = input.creativeSurvivalTab;
+        
+        slotLayout.bind(screen);
+        itemFacts.bind(slotLayout, config);
+        engine.setListener(listenerFor(DEBUG, HUD));
+        
+        // Trace recording follows the config; a session covers one open screen
+        if (config.recordTraces != traceRecorder.isRecording()) {
+            if (config.recordTraces) {
+                traceRecorder.begin(screenType, slotLayout, config);
+            } else {
+                traceRecorder.end();
             }
         }
         
-        // Determine screen type for specialized handling
-        boolean isInventoryScreen = screen instanceof InventoryScreen;
-        boolean isCreativeInventory = screen instanceof CreativeModeInventoryScreen;
-        boolean isCraftingTable = screen instanceof CraftingScreen;
-        boolean hasCraftingGrid = isInventoryScreen || isCraftingTable;
-        
-        // Process items - if delay is 0, process many per tick for instant transfer
-        // If delay > 0, process just one per delay period for visual effect
-        int maxPerTick = (config.transferDelayMs == 0) ? 20 : 1;
-        int processedThisTick = 0;
+        boolean carriedBefore = !screen.getMenu().getCarried().isEmpty();
         
-        // For creative inventory, use the creative-specific queue (integer slot IDs)
-        // IMPORTANT: Creative drops require two network actions (pickup + throw), so
-        // we must process only ONE item per tick to ensure game state updates properly
-        if (isCreativeInventory) {
-            if (!creativePendingSlotIds.isEmpty()) {
-                Integer actualSlotId = creativePendingSlotIds.peek();
-                if (actualSlotId != null) {
-                    // Find the slot at this ID
-                    Slot slotToTransfer = findSlotById(screen, actualSlotId);
-                    
-                    if (slotToTransfer != null && slotToTransfer.hasItem()) {
-                        if (isDropMode) {
-                            // Drop mode: Drop items on ground using the actual slot ID
-                            performThrowById(client, screen, actualSlotId, slotToTransfer.getItem());
-                            if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Dropped creative slot actualId={} with item: {}", 
-                                    actualSlotId, slotToTransfer.getItem().getHoverName().getString());
-                        }
-                        // Creative mode only supports drop for now
-                        
-                        processedThisTick = 1;
-                        lastTransferTime = System.currentTimeMillis();
-                    }
-                    
-                    // Always remove from queued set and pending queue
-                    creativeQueuedSlotIds.remove(actualSlotId);
-                    creativePendingSlotIds.poll();
-                }
+        ClickSink sink = clickSink.bind(client, screen, DEBUG);
+        // Shift-click transfers are journaled for undo only while the undo key is bound;
+        // a session starts when the hover key goes down
+        if (!SimpleLootClient.undoSessionKeyBinding.isUnbound()) {
+            if ((input.hoverActive || input.takeKeyHeld || input.depositKeyHeld) && !engine.isActive()) {
+                journal.beginSession();
             }
-            
-            if (DEBUG && processedThisTick > 0) {
-                SimpleLootClient.LOGGER.info("[DEBUG] Processed {} creative items this tick, {} still pending", 
-                        processedThisTick, creativePendingSlotIds.size());
-            }
-            return;
+            sink = journalRecorder.wrap(screen.getMenu(), sink);
+        }
+        if (traceRecorder.isRecording()) {
+            traceRecorder.beforeTick(input, slotLayout, itemFacts, config);
+            sink = traceRecorder.wrap(sink);
         }
+        engine.tick(input, config, slotLayout, itemFacts, sink);
         
-        // Standard processing for non-creative inventories
-        while (!pendingSlots.isEmpty() && processedThisTick < maxPerTick) {
-            Integer nextSlotId = pendingSlots.peek();
-            if (nextSlotId == null) break;
-            
-            // Find the slot by ID
-            Slot slotToTransfer = findSlotById(screen, nextSlotId);
-            
-            if (slotToTransfer != null && slotToTransfer.hasItem()) {
-                boolean handled = false;
-                ItemStack stack = slotToTransfer.getItem();
-                
-                // Determine the action to perform
-                if (isDropMode) {
-                    // Drop mode: Drop items on ground
-                    performThrow(client, screen, slotToTransfer);
-                    handled = true;
-                    if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Dropped slot {}", nextSlotId);
-                } else if (isInventoryScreen && config.allowArmorEquip && isEquippableArmor(stack)) {
-                    // Check armor swap delay for this specific slot
-                    Long lastSwapTime = armorSwapTimes.get(nextSlotId);
-                    if (lastSwapTime != null && config.armorSwapDelayMs > 0) {
-                        long armorTimeSinceLastSwap = currentTime - lastSwapTime;
-                        if (armorTimeSinceLastSwap < config.armorSwapDelayMs) {
-                            // Still waiting for armor swap delay, skip this tick but don't remove from queue
-                            break;
-                        }
-                    }
-                    
-                    // Check if hovering over armor in player inventory - try to equip/swap it
-                    if (isPlayerInventorySlot(screen, slotToTransfer)) {
-                        // Get the armor slot type for this item
-                        EquipmentSlot armorType = getArmorSlotType(stack);
-                        if (armorType != null) {
-                            int targetArmorSlotId = getArmorSlotId(armorType);
-                            Slot targetArmorSlot = findSlotById(screen, targetArmorSlotId);
-                            
-                            if (targetArmorSlot != null && targetArmorSlot.hasItem()) {
-                                // Armor slot has something - need to SWAP
-                                // Use pickup on source, then pickup on target (swaps), then pickup to place back
-                                performArmorSwap(client, screen, slotToTransfer, targetArmorSlot);
-                                handled = true;
-                                armorSwapTimes.put(nextSlotId, System.currentTimeMillis()); // Track swap time for this slot
-                                if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Swapped armor from slot {} to slot {}: {}", 
-                                        nextSlotId, targetArmorSlotId, stack.getHoverName().getString());
-                            } else {
-                                // Armor slot is empty - use quick move (shift-click) to equip
-                                performQuickMove(client, screen, slotToTransfer);
-                                handled = true;
-                                armorSwapTimes.put(nextSlotId, System.currentTimeMillis()); // Track swap time for this slot
-                                if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Equipped armor from slot {}: {}", nextSlotId, stack.getHoverName().getString());
-                            }
-                        }
-                    } else if (isArmorSlot(screen, slotToTransfer)) {
-                        // Hovering over worn armor - unequip it
-                        performQuickMove(client, screen, slotToTransfer);
-                        handled = true;
-                        armorSwapTimes.put(nextSlotId, System.currentTimeMillis()); // Track swap time for this armor slot
-                        if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Unequipped armor from slot {}: {}", nextSlotId, stack.getHoverName().getString());
-                    }
-                } else if (hasCraftingGrid && config.allowCraftingGrid) {
-                    // Crafting grid handling
-                    if (isCraftingOutputSlot(screen, slotToTransfer)) {
-                        // Output slot: Quick move the result to inventory
-                        performQuickMove(client, screen, slotToTransfer);
-                        handled = true;
-                        if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Took crafting output from slot {}", nextSlotId);
-                    } else if (isCraftingSlot(screen, slotToTransfer)) {
-                        // Crafting input slot: Move back to inventory
-                        performQuickMove(client, screen, slotToTransfer);
-                        handled = true;
-                        if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Moved crafting input back to inventory from slot {}", nextSlotId);
-                    } else if (isPlayerInventorySlot(screen, slotToTransfer)) {
-                        // Player inventory slot: Try to send to crafting grid
-                        int targetSlot = getAvailableCraftingSlot(screen);
-                        if (targetSlot != -1) {
-                            performCraftingTransfer(client, screen, slotToTransfer, targetSlot);
-                            handled = true;
-                            if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Sent item to crafting slot {} from slot {}", targetSlot, nextSlotId);
-                        } else {
-                            if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Crafting grid full, cannot send item from slot {}", nextSlotId);
-                            // Still mark as handled so we don't retry
-                            handled = true;
-                        }
-                    }
-                }
-                
-                // Fallback to normal quick move for container screens
-                if (!handled) {
-                    performQuickMove(client, screen, slotToTransfer);
-                    if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Quick-moved slot {}", nextSlotId);
-                }
-                
-                processedThisTick++;
-                lastTransferTime = System.currentTimeMillis();
-                
-                // For armor swaps, keep the slot in currentlyQueued to prevent immediate re-queueing
-                // The armor swap delay check will handle when it can be re-queued
-                // For other operations, remove from currentlyQueued so the slot can be re-selected
-                boolean wasArmorSwap = isInventoryScreen && config.allowArmorEquip && isEquippableArmor(stack) && handled;
-                if (!wasArmorSwap) {
-                    currentlyQueued.remove(nextSlotId);
-                }
-                // Note: For armor swaps, currentlyQueued.remove happens in the queueing logic
-                // when the delay has passed
-                
-                // If using delay, break after one item to respect the delay
-                if (config.transferDelayMs > 0) {
-                    pendingSlots.poll();
-                    break;
-                }
-            }
-            
-            // Remove from pending
-            pendingSlots.poll();
+        int clicks = (int) (clickSink.sent() - sentBefore);
+        if (engine.isBudgetExhausted()) {
+            accounting.recordOverBudgetTick();
+        }
+        if (clicks > 0) {
+            ContainerTracker.sync();
         }
         
-        if (DEBUG && processedThisTick > 0) {
-            SimpleLootClient.LOGGER.info("[DEBUG] Processed {} items this tick, {} still pending", 
-                    processedThisTick, pendingSlots.size());
+        // Every click sequence we send ends with an empty cursor; anything else means the
+        // client and server disagree about the slot contents
+        if (DEBUG && clicks > 0 && !carriedBefore && !screen.getMenu().getCarried().isEmpty()) {
+            DebugDump.anomaly(DebugDump.ANOMALY_STUCK_CARRIED,
+                    BuiltInRegistries.ITEM.getId(screen.getMenu().getCarried().getItem()), clicks, "stuck-carried");
         }
-    }
-    
-    /**
-     * Checks if an item is equippable armor (helmet, chestplate, leggings, boots, or elytra).
-     */
-    private static boolean isEquippableArmor(ItemStack stack) {
-        if (stack.isEmpty()) return false;
         
-        // Check for equippable component (1.21+ method)
-        Equippable equippable = stack.get(DataComponents.EQUIPPABLE);
-        if (equippable != null) {
-            EquipmentSlot slot = equippable.slot();
-            // Only armor slots (HEAD, CHEST, LEGS, FEET), not MAINHAND or OFFHAND
-            return slot == EquipmentSlot.HEAD || slot == EquipmentSlot.CHEST || 
-                   slot == EquipmentSlot.LEGS || slot == EquipmentSlot.FEET;
+        if (HUD) {
+            stats.endTick(clicks, System.nanoTime() - startNanos, engine.pendingCount());
         }
-        return false;
-    }
-    
-    /**
-     * Gets the equipment slot type for an armor item.
-     * Returns null if the item is not equippable armor.
-     */
-    private static EquipmentSlot getArmorSlotType(ItemStack stack) {
-        if (stack.isEmpty()) return null;
         
-        Equippable equippable = stack.get(DataComponents.EQUIPPABLE);
-        if (equippable != null) {
-            EquipmentSlot slot = equippable.slot();
-            if (slot == EquipmentSlot.HEAD || slot == EquipmentSlot.CHEST || 
-                slot == EquipmentSlot.LEGS || slot == EquipmentSlot.FEET) {
-                return slot;
-            }
+        if (tickEvent != null) {
+            tickEvent.end();
+        }
+        if (tickEvent != null && tickEvent.shouldCommit()) {
+            tickEvent.screenType = screenType.name();
+            tickEvent.queueDepth = engine.pendingCount();
+            tickEvent.clicks = clicks;
+            tickEvent.commit();
         }
-        return null;
     }
     
     /**
-     * Gets the inventory slot ID for a given equipment slot.
-     * In InventoryScreen: 5=helmet, 6=chest, 7=legs, 8=boots
+     * Returns the engine listener for the given debug/HUD settings (JFR events are always attached).
      */
-    private static int getArmorSlotId(EquipmentSlot equipSlot) {
-        return switch (equipSlot) {
-            case HEAD -> 5;
-            case CHEST -> 6;
-            case LEGS -> 7;
-            case FEET -> 8;
-            default -> -1;
-        };
+    private static HoverListener listenerFor(boolean debug, boolean hud) {
+        int mask = (debug ? 1 : 0) | (hud ? 2 : 0);
+        if (mask != listenerMask) {
+            listener = HoverListenerChain.of(
+                    debug ? debugListener.bind(slotLayout) : HoverListener.NONE,
+                    hud ? stats : HoverListener.NONE,
+                    jfrListener);
+            listenerMask = mask;
+        }
+        return listener;
     }
     
     /**
-     * Checks if a slot is an armor slot in the inventory screen.
-     * In InventoryScreen: slots 5-8 are armor (5=helmet, 6=chest, 7=legs, 8=boots)
+     * Ends the click accounting session and queues its CSV summary if it sent anything.
      */
-    private static boolean isArmorSlot(AbstractContainerScreen<?> screen, Slot slot) {
-        if (screen instanceof InventoryScreen) {
-            return slot.index >= 5 && slot.index <= 8;
+    private static void endAccountingSession(ConfigSnapshot config) {
+        if (!accounting.isActive()) return;
+        if (config.logSessionStats && accounting.totalClicks() > 0) {
+            SessionCsvLog.append(accounting, System.currentTimeMillis());
         }
-        return false;
+        accounting.end();
     }
     
     /**
-     * Finds a slot by its ID in the screen handler.
+     * Called when the server replaces the whole contents of a container (full resync).
      */
-    private static Slot findSlotById(AbstractContainerScreen<?> screen, int slotId) {
-        var slots = screen.getMenu().slots;
-        if (slotId >= 0 && slotId < slots.size()) {
-            return slots.get(slotId);
-        }
-        return null;
+    public static void onContainerContent(int containerId) {
+        accounting.recordResync(containerId);
+        ContainerTracker.onContainerContent(containerId);
     }
     
     /**
-     * Gets the slot at the given screen coordinates.
-     * Uses the AbstractContainerScreen's slot detection.
+     * Called when the server changes a single slot of a container.
      */
-    private static Slot getSlotAt(AbstractContainerScreen<?> screen, double mouseX, double mouseY) {
-        // Access the slot at coordinates through the HandledScreenAccessor mixin
-        return HandledScreenAccessor.getSlotAt(screen, mouseX, mouseY);
+    public static void onContainerSlot(int containerId) {
+        ContainerTracker.onContainerSlot(containerId);
     }
     
     /**
-     * Version-aware wrapper for container slot interaction.
-     * In 26.1+, the method was renamed and ClickType became ContainerInput.
+     * Queues container slots for transfer outside of hover (container search, deposit
+     * matching) as a new undo session. The slots are checked like hovered ones, against the
+     * current config. Returns the number of slots added.
      */
-    private static void containerInput(MultiPlayerGameMode gameMode, int containerId, int slotId, int button,
-            //? if >=26.1 {
-            ContainerInput action,
-            //?} else {
-            /*ClickType action,*/
-            //?}
-            net.minecraft.world.entity.player.Player player) {
-        //? if >=26.1 {
-        gameMode.handleContainerInput(containerId, slotId, button, action, player);
-        //?} else {
-        /*gameMode.handleInventoryMouseClick(containerId, slotId, button, action, player);*/
-        //?}
+    static int enqueue(int[] slotIds, int count) {
+        if (lastScreen == null) return 0;
+        ConfigSnapshot config = SimpleLootConfig.snapshot();
+        input.timeMs = System.currentTimeMillis();
+        journal.beginSession();
+        return engine.enqueue(slotIds, count, input, config, itemFacts.bind(slotLayout, config));
     }
     
     /**
-     * Performs a quick-move (shift-click) on the given slot.
-     * This naturally handles bidirectional transfer:
-     * - Container slot → Player inventory
-     * - Player inventory slot → Container
+     * Queues a precomputed click plan (loadout restock, undo) as a new undo session.
+     * Returns the number of steps queued.
      */
-    private static void performQuickMove(Minecraft client, AbstractContainerScreen<?> screen, Slot slot) {
-        boolean DEBUG = SimpleLootConfig.getInstance().debugMode;
-        
-        if (client.gameMode == null || client.player == null) {
-            if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] interactionManager or player is null");
-            return;
-        }
-        
-        MultiPlayerGameMode interactionManager = client.gameMode;
-        
-        if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Performing QUICK_MOVE on slot {} with item {}", 
-                slot.index, slot.getItem().getHoverName().getString());
-        
-        // Perform shift-click (quick move) on the slot
-        containerInput(interactionManager,
-                screen.getMenu().containerId,
-                slot.index,
-                0, // Button (0 = left click)
-                SLOT_QUICK_MOVE,
-                client.player
-        );
-        
-        SimpleLootClient.LOGGER.debug("Quick-moved item from slot {}", slot.index);
+    static int enqueue(ClickPlan plan) {
+        if (lastScreen == null) return 0;
+        journal.beginSession();
+        return engine.enqueue(plan);
     }
     
     /**
-     * Performs an armor swap between an inventory slot and an armor slot.
-     * This picks up the inventory armor, clicks on the armor slot (which swaps), 
-     * then places the old armor back in the inventory.
+     * Returns the journal of the last hover session on the open screen.
      */
-    private static void performArmorSwap(Minecraft client, AbstractContainerScreen<?> screen, Slot sourceSlot, Slot armorSlot) {
-        boolean DEBUG = SimpleLootConfig.getInstance().debugMode;
-        
-        if (client.gameMode == null || client.player == null) {
-            if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] interactionManager or player is null");
-            return;
-        }
-        
-        MultiPlayerGameMode interactionManager = client.gameMode;
-        int syncId = screen.getMenu().containerId;
-        
-        if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Performing armor swap: inventory slot {} <-> armor slot {}", 
-                sourceSlot.index, armorSlot.index);
-        
-        // Step 1: Pick up the armor from inventory slot (left-click)
-        containerInput(interactionManager,
-                syncId,
-                sourceSlot.index,
-                0, // Button (0 = left click = pick up)
-                SLOT_PICKUP,
-                client.player
-        );
-        
-        // Step 2: Click on the armor slot - this will swap the held item with the worn armor
-        containerInput(interactionManager,
-                syncId,
-                armorSlot.index,
-                0, // Button (0 = left click = swap/place)
-                SLOT_PICKUP,
-                client.player
-        );
-        
-        // Step 3: Put the old armor back into the original inventory slot
-        containerInput(interactionManager,
-                syncId,
-                sourceSlot.index,
-                0, // Button (0 = left click = place)
-                SLOT_PICKUP,
-                client.player
-        );
-        
-        SimpleLootClient.LOGGER.debug("Swapped armor between slot {} and armor slot {}", sourceSlot.index, armorSlot.index);
+    static TransferJournal journal() {
+        return journal;
     }
     
     /**
-     * Performs a transfer from a player inventory slot to a specific crafting grid slot.
-     * This picks up the item and places it in the target crafting slot.
+     * Returns the rolling session stats shown by the HUD.
      */
-    private static void performCraftingTransfer(Minecraft client, AbstractContainerScreen<?> screen, Slot sourceSlot, int targetSlotId) {
-        boolean DEBUG = SimpleLootConfig.getInstance().debugMode;
-        
-        if (client.gameMode == null || client.player == null) {
-            if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] interactionManager or player is null");
-            return;
-        }
-        
-        MultiPlayerGameMode interactionManager = client.gameMode;
-        int syncId = screen.getMenu().containerId;
-        
-        if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Performing crafting transfer: slot {} -> crafting slot {}", 
-                sourceSlot.index, targetSlotId);
-        
-        // Step 1: Pick up the entire stack from the source slot (left-click)
-        containerInput(interactionManager,
-                syncId,
-                sourceSlot.index,
-                0, // Button (0 = left click = pick up full stack)
-                SLOT_PICKUP,
-                client.player
-        );
-        
-        // Step 2: Place the stack in the target crafting slot
-        containerInput(interactionManager,
-                syncId,
-                targetSlotId,
-                0, // Button (0 = left click = place all held items)
-                SLOT_PICKUP,
-                client.player
-        );
-        
-        SimpleLootClient.LOGGER.debug("Transferred item to crafting slot {} from slot {}", targetSlotId, sourceSlot.index);
+    static HoverStats stats() {
+        return stats;
     }
     
     /**
-     * Performs a throw (Ctrl+Q style drop) on the given slot.
-     * This drops the entire stack on the ground.
-     * Works in both survival and creative mode.
+     * Returns the engine if it is running against the given screen, else null.
      */
-    private static void performThrow(Minecraft client, AbstractContainerScreen<?> screen, Slot slot) {
-        boolean DEBUG = SimpleLootConfig.getInstance().debugMode;
-        
-        if (client.gameMode == null || client.player == null) {
-            if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] interactionManager or player is null");
-            return;
-        }
-        
-        MultiPlayerGameMode interactionManager = client.gameMode;
-        
-        // Creative mode inventory (CreativeModeInventoryScreen) needs special handling
-        // Regular containers in creative mode work with normal THROW
-        boolean isCreativeInventory = screen instanceof CreativeModeInventoryScreen;
-        
-        // For creative inventory, slot.index is unreliable (always 0).
-        // We need to find the slot's actual index in the screen handler.
-        int actualSlotId = slot.index;
-        if (isCreativeInventory) {
-            // Search for this slot in the screen handler's slot list
-            var slots = screen.getMenu().slots;
-            for (int i = 0; i < slots.size(); i++) {
-                if (slots.get(i) == slot) {
-                    actualSlotId = i;
-                    break;
-                }
-            }
-        }
-        
-        if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Performing THROW on slot {} (actualId={}) with item {}, creative={}, isCreativeInventory={}, screenClass={}", 
-                slot.index, actualSlotId, slot.getItem().getHoverName().getString(), client.player.isCreative(), isCreativeInventory, screen.getClass().getSimpleName());
-        
-        if (isCreativeInventory) {
-            // In creative inventory, we need to pick up and drop outside
-            // The creative inventory uses a special screen handler
-            // Step 1: Pick up the entire stack (left click)
-            containerInput(interactionManager,
-                    screen.getMenu().containerId,
-                    actualSlotId,
-                    0, // Button (0 = left click to pick up)
-                    SLOT_PICKUP,
-                    client.player
-            );
-            
-            // Step 2: Click outside the inventory to drop (-999 is the "outside" slot)
-            containerInput(interactionManager,
-                    screen.getMenu().containerId,
-                    -999, // -999 = click outside inventory = drop held item
-                    0, // Button (0 = left click to drop all)
-                    SLOT_PICKUP,
-                    client.player
-            );
-            
-            if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Used PICKUP method for creative inventory (actualSlotId={})", actualSlotId);
-        } else {
-            // For all other screens (including containers in creative mode), use THROW
-            containerInput(interactionManager,
-                    screen.getMenu().containerId,
-                    actualSlotId,
-                    1, // Button (1 = Ctrl modifier for THROW action = throw entire stack)
-                    SLOT_THROW,
-                    client.player
-            );
-            
-            if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Used THROW method");
-        }
-        
-        SimpleLootClient.LOGGER.debug("Threw item stack from slot {}", actualSlotId);
+    static HoverEngine engineFor(AbstractContainerScreen<?> screen) {
+        return lastScreen == screen ? engine : null;
     }
     
     /**
-     * Performs a throw using a pre-computed slot ID.
-     * Used for creative inventory where we've already computed the actual slot ID.
+     * Returns the slot layout of the screen the engine runs against.
      */
-    private static void performThrowById(Minecraft client, AbstractContainerScreen<?> screen, int actualSlotId, ItemStack stack) {
-        boolean DEBUG = SimpleLootConfig.getInstance().debugMode;
-        
-        if (client.gameMode == null || client.player == null) {
-            if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] interactionManager or player is null");
-            return;
-        }
-        
-        MultiPlayerGameMode interactionManager = client.gameMode;
-        
-        if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Performing THROW by ID on actualSlotId={} with item {}", 
-                actualSlotId, stack.getHoverName().getString());
-        
-        // In creative inventory, we need to pick up and drop outside
-        // Step 1: Pick up the entire stack (left click)
-        containerInput(interactionManager,
-                screen.getMenu().containerId,
-                actualSlotId,
-                0, // Button (0 = left click to pick up)
-                SLOT_PICKUP,
-                client.player
-        );
-        
-        // Step 2: Click outside the inventory to drop (-999 is the "outside" slot)
-        containerInput(interactionManager,
-                screen.getMenu().containerId,
-                -999, // -999 = click outside inventory = drop held item
-                0, // Button (0 = left click to drop all)
-                SLOT_PICKUP,
-                client.player
-        );
-        
-        if (DEBUG) SimpleLootClient.LOGGER.info("[DEBUG] Used PICKUP method for creative inventory (actualSlotId={})", actualSlotId);
+    static ScreenSlotLayout slotLayout() {
+        return slotLayout;
     }
     
     /**
-     * Checks if a slot is a player inventory slot in any screen type.
-     * This is a generic check that works for all container screens.
+     * Checks if creative inventory is on the survival inventory tab (the only tab where drop should work).
      */
-    private static boolean isPlayerInventorySlotGeneric(AbstractContainerScreen<?> screen, Slot slot) {
-        // Most container screens have the player inventory in the last 36 slots
-        // The container slots come first, then player inventory (27 main + 9 hotbar)
-        var handler = screen.getMenu();
-        int totalSlots = handler.slots.size();
-        
-        // Player inventory is typically the last 36 slots
-        // Slot IDs: totalSlots - 36 to totalSlots - 1
-        int playerInvStart = totalSlots - 36;
-        return slot.index >= playerInvStart;
-    }
-    
-    /**
-     * Checks if an item can be used as fuel in a furnace.
-     * Note: We rely on Minecraft's quick-move behavior which already validates items.
-     * The fuel slot in furnaces accepts any valid fuel - this method is kept for future use.
-     */
-    @SuppressWarnings("unused")
-    private static boolean isFuelItem(ItemStack stack) {
-        if (stack.isEmpty()) return false;
-        // For now, we let Minecraft's quick-move handle fuel validation
-        // The slot's canInsert() method properly validates fuel items
-        // This is a placeholder for more detailed validation if needed
-        return true;
-    }
-    
-    /**
-     * Checks if an item is enchantable (can be placed in enchanting table slot).
-     * Items that are enchantable:
-     * - Items with durability (tools, weapons, armor)
-     * - Books (for enchanted books)
-     * - Items that already have the ENCHANTABLE component
-     */
-    private static boolean isEnchantableItem(ItemStack stack) {
-        if (stack.isEmpty()) return false;
-        
-        // Check if item is a book (can become enchanted book)
-        if (stack.is(Items.BOOK)) {
-            return true;
-        }
-        
-        // Check if item has max damage (durability) - this covers tools, weapons, armor
-        if (stack.getMaxDamage() > 0) {
-            return true;
-        }
-        
-        // Check for enchantable component (some items may be enchantable without durability)
-        // This handles edge cases like fishing rods, flint and steel, shears, etc.
-        if (stack.has(DataComponents.ENCHANTABLE)) {
-            return true;
-        }
-        
-        // Check for items that can already have enchantments
-        if (stack.has(DataComponents.ENCHANTMENTS)) {
-            return true;
-        }
-        
-        return false;
-    }
-    
-    /**
-     * Checks if a slot transfer should be allowed based on the screen type and slot position.
-     * This validates that items are appropriate for specific slots in specialized screens.
-     * 
-     * @param screen The current screen
-     * @param slot The slot being hovered
-     * @param stack The item stack in the slot
-     * @param isFromPlayerInventory True if the slot is in player inventory (transferring TO container)
-     * @return True if the transfer should be allowed
-     */
-    private static boolean isValidSlotTransfer(AbstractContainerScreen<?> screen, Slot slot, ItemStack stack, boolean isFromPlayerInventory) {
-        // For furnace-type screens, all transfers are allowed
-        // Minecraft's quick-move handles putting items in the correct slots automatically
-        if (screen instanceof FurnaceScreen || screen instanceof BlastFurnaceScreen || screen instanceof SmokerScreen) {
-            // All transfers allowed - Minecraft will put items in correct slots
-            return true;
-        }
-        
-        // For enchanting table, validate that only enchantable items or lapis can be transferred
-        if (screen instanceof EnchantmentScreen) {
-            if (isFromPlayerInventory) {
-                // Transferring FROM player inventory TO enchanting table
-                // Only allow enchantable items or lapis lazuli
-                if (!isEnchantableItem(stack) && !stack.is(Items.LAPIS_LAZULI)) {
-                    return false;
-                }
-            }
-            // Transferring FROM enchanting table slots to inventory is always allowed
-            return true;
-        }
-        
-        // For beacon, validate payment items
-        if (screen instanceof BeaconScreen) {
-            if (isFromPlayerInventory) {
-                // Beacon accepts specific payment items: iron/gold/emerald/diamond/netherite ingot
-                if (!isBeaconPaymentItem(stack)) {
-                    return false;
-                }
+    private static boolean isCreativeSurvivalTab(CreativeModeInventoryScreen creativeScreen) {
+        boolean isCreativeSurvivalTab = false;
+        // Use Fabric API to get the currently selected item group
+        // The survival inventory tab is identified by getting its registry key and comparing to CreativeModeTabs.INVENTORY
+        //? if >=26.1 {
+        if (creativeScreen instanceof FabricCreativeModeInventoryScreen fabricScreen) {
+            CreativeModeTab selectedGroup = fabricScreen.getSelectedTab();
+        //?} else {
+        /*if (creativeScreen instanceof FabricCreativeInventoryScreen fabricScreen) {
+            CreativeModeTab selectedGroup = fabricScreen.getSelectedItemGroup();*/
+        //?}
+            // Get the registry key of the selected group and compare to INVENTORY key
+            if (selectedGroup != null) {
+                var selectedKey = BuiltInRegistries.CREATIVE_MODE_TAB.getResourceKey(selectedGroup);
+                isCreativeSurvivalTab = selectedKey.isPresent() && selectedKey.get().equals(CreativeModeTabs.INVENTORY);
             }
-            return true;
         }
-        
-        // All other screens - allow transfers
-        return true;
-    }
-    
-    /**
-     * Checks if an item is valid for beacon payment slot.
-     */
-    private static boolean isBeaconPaymentItem(ItemStack stack) {
-        if (stack.isEmpty()) return false;
-        return stack.is(Items.IRON_INGOT) || 
-               stack.is(Items.GOLD_INGOT) || 
-               stack.is(Items.EMERALD) || 
-               stack.is(Items.DIAMOND) || 
-               stack.is(Items.NETHERITE_INGOT);
+        return isCreativeSurvivalTab;
     }
     
     /**
      * Resets the handler state (called when the player closes a container).
      */
     public static void reset() {
-        currentlyQueued.clear();
-        pendingSlots.clear();
-        lastMouseX = -1;
-        lastMouseY = -1;
-        wasKeyPressed = false;
-        isDropMode = false;
+        if (lastScreen != null && SimpleLootConfig.snapshot().debugMode) {
+            DebugDump.LOG.record(DebugLog.SCREEN_CLOSE);
+        }
+        engine.reset();
+        traceRecorder.end();
+        jfrListener.endSession((int) (clickSink.sent() - sessionClicksStart));
+        endAccountingSession(SimpleLootConfig.snapshot());
+        ContainerTracker.end();
+        ContainerSearch.close();
+        journal.clear();
         lastScreen = null;
     }
 }
@@ -0,0 +1,170 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.SimpleLootClient;
+import com.simpleloot.engine.index.ContainerIndex;
+import com.simpleloot.engine.index.IndexStore;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ServerData;
+import net.minecraft.core.registries.BuiltInRegistries;
+//? if >=1.21.11 {
+import net.minecraft.resources.Identifier;
+//?} else {
+/*import net.minecraft.resources.ResourceLocation;*/
+//?}
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.storage.LevelResource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the container index on disk, one {@link IndexStore} file per world or server in
+ * {@code <game dir>/simpleloot/index}.
+ *
+ * All file work (opening and decoding the store, appends, compaction) runs as queued
+ * operations on a virtual thread that exits once the queue is empty, so joining a world
+ * never waits for the disk. Decoded containers are handed back to the client thread.
+ * {@link #flush()} runs any queued operations on the calling thread and is called on
+ * client shutdown.
+ */
+final class IndexPersistence {
+    private IndexPersistence() {}
+
+    private static final Path INDEX_DIR = FabricLoader.getInstance().getGameDir().resolve("simpleloot").resolve("index");
+
+    private static final ConcurrentLinkedQueue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean writerScheduled = new AtomicBoolean(false);
+    // Serializes operations between the writer thread and flush(); guards store
+    private static final Object writeLock = new Object();
+
+    private static IndexStore store = null;
+
+    // Bumped on every world change, so a load that finishes after leaving its world is dropped
+    private static volatile int generation = 0;
+
+    /**
+     * Opens the store for the world the client just joined and loads it in the background.
+     * Returns the generation {@link ContainerTracker#restore} is called with.
+     */
+    static int open(Minecraft client) {
+        int loadGeneration = ++generation;
+        Path file = INDEX_DIR.resolve(worldName(client) + ".slidx");
+        submit(() -> {
+            closeStore();
+            try {
+                long startNanos = System.nanoTime();
+                store = IndexStore.open(file, IndexPersistence::itemId);
+                List<IndexStore.Entry> entries = store.takeLoaded();
+                SimpleLootClient.LOGGER.debug("SimpleLoot container index loaded: {} containers from {} in {} ms",
+                        entries.size(), file.getFileName(), (System.nanoTime() - startNanos) / 1_000_000);
+                client.execute(() -> ContainerTracker.restore(loadGeneration, entries));
+            } catch (IOException e) {
+                SimpleLootClient.LOGGER.error("Failed to open SimpleLoot container index {}", file, e);
+                store = null;
+            }
+        });
+        return loadGeneration;
+    }
+
+    /**
+     * Queues a container's contents to be appended to the open store.
+     */
+    static void append(ContainerIndex.Snapshot snapshot) {
+        submit(() -> {
+            if (store == null) return;
+            try {
+                store.append(snapshot, IndexPersistence::itemName);
+            } catch (IOException e) {
+                SimpleLootClient.LOGGER.error("Failed to write SimpleLoot container index", e);
+                closeStore();
+            }
+        });
+    }
+
+    /**
+     * Closes the store after any queued writes (e.g. on disconnect).
+     */
+    static void close() {
+        generation++;
+        submit(IndexPersistence::closeStore);
+    }
+
+    static int generation() {
+        return generation;
+    }
+
+    /**
+     * Runs any queued operations on the calling thread. Safe to call at any time.
+     */
+    static void flush() {
+        synchronized (writeLock) {
+            Runnable operation;
+            while ((operation = pending.poll()) != null) {
+                operation.run();
+            }
+        }
+    }
+
+    private static void submit(Runnable operation) {
+        pending.add(operation);
+        if (writerScheduled.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("SimpleLoot index writer").start(IndexPersistence::runWriter);
+        }
+    }
+
+    private static void runWriter() {
+        while (true) {
+            flush();
+            writerScheduled.set(false);
+            // An operation may have arrived after the last poll but before the flag was cleared
+            if (pending.isEmpty() || !writerScheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private static void closeStore() {
+        if (store == null) return;
+        try {
+            store.close();
+        } catch (IOException e) {
+            SimpleLootClient.LOGGER.warn("Failed to close SimpleLoot container index", e);
+        }
+        store = null;
+    }
+
+    /**
+     * File name for the current world: the save folder in singleplayer, the address otherwise.
+     */
+    private static String worldName(Minecraft client) {
+        MinecraftServer server = client.getSingleplayerServer();
+        ServerData serverData = client.getCurrentServer();
+        String name;
+        if (server != null) {
+            name = "sp-" + server.getWorldPath(LevelResource.ROOT).toAbsolutePath().normalize().getFileName();
+        } else if (serverData != null) {
+            name = "mp-" + serverData.ip;
+        } else {
+            name = "unknown";
+        }
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private static int itemId(String name) {
+        //? if >=1.21.11 {
+        Identifier id = Identifier.tryParse(name);
+        //?} else {
+        /*ResourceLocation id = ResourceLocation.tryParse(name);*/
+        //?}
+        if (id == null) return -1;
+        return BuiltInRegistries.ITEM.getOptional(id).map(BuiltInRegistries.ITEM::getId).orElse(-1);
+    }
+
+    private static String itemName(int id) {
+        return BuiltInRegistries.ITEM.getKey(BuiltInRegistries.ITEM.byId(id)).toString();
+    }
+}
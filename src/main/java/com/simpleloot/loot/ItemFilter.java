@@ -0,0 +1,238 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.SimpleLootClient;
+import net.minecraft.core.Holder;
+import net.minecraft.core.component.DataComponentType;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+//? if >=1.21.11 {
+import net.minecraft.resources.Identifier;
+//?} else {
+/*import net.minecraft.resources.ResourceLocation;*/
+//?}
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.enchantment.ItemEnchantments;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled allow/deny item filter for hover loot and hover drop.
+ *
+ * Rules come from the config as plain strings:
+ * - {@code minecraft:dirt} - an item id
+ * - {@code #minecraft:logs} - an item tag
+ * - {@code +minecraft:custom_name} - the stack has the given data component
+ * - {@code enchantments>=2} - enchantment count threshold (stored enchantments count too)
+ * - {@code durability<=25%} - remaining durability threshold (damageable items only)
+ *
+ * Id and tag rules are resolved once into a bitset indexed by item registry id, so they
+ * cost a single bit test per stack. Component and threshold rules depend on the stack
+ * itself and are kept as a short list of residual predicates.
+ *
+ * A stack passes when it matches no deny rule and, if any allow rules compiled, matches
+ * at least one of them. Invalid rules (and tags with no items) are skipped, so an allow
+ * list of only those does not block every stack. Filters with no rules at all
+ * short-circuit to "pass".
+ *
+ * Filters are compiled as part of each {@link com.simpleloot.config.ConfigSnapshot}; the
+ * snapshot is republished when tags reload so tag rules stay current.
+ */
+public final class ItemFilter {
+    // Shared "no rules" instance
+    private static final ItemFilter PASS_ALL = new ItemFilter(new long[0], new long[0], false,
+            emptyPredicates(), emptyPredicates());
+
+    private static final Pattern THRESHOLD_RULE = Pattern.compile("^(enchantments|durability)(>=|<=|>|<|=)(\\d+)%?$");
+
+    private final long[] allowIds;
+    private final long[] denyIds;
+    private final boolean hasAllowRules;
+    private final Predicate<ItemStack>[] allowResidual;
+    private final Predicate<ItemStack>[] denyResidual;
+
+    private ItemFilter(long[] allowIds, long[] denyIds, boolean hasAllowRules,
+            Predicate<ItemStack>[] allowResidual, Predicate<ItemStack>[] denyResidual) {
+        this.allowIds = allowIds;
+        this.denyIds = denyIds;
+        this.hasAllowRules = hasAllowRules;
+        this.allowResidual = allowResidual;
+        this.denyResidual = denyResidual;
+    }
+
+    /**
+     * Checks if a stack passes this filter.
+     */
+    public boolean test(ItemStack stack) {
+        if (this == PASS_ALL) return true;
+
+        int id = BuiltInRegistries.ITEM.getId(stack.getItem());
+        if (hasBit(denyIds, id)) return false;
+        for (Predicate<ItemStack> rule : denyResidual) {
+            if (rule.test(stack)) return false;
+        }
+
+        if (!hasAllowRules) return true;
+        if (hasBit(allowIds, id)) return true;
+        for (Predicate<ItemStack> rule : allowResidual) {
+            if (rule.test(stack)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Compiles allow and deny rule lists into a filter.
+     * Unparseable rules are logged and skipped.
+     */
+    public static ItemFilter compile(List<String> allow, List<String> deny) {
+        boolean noAllow = allow == null || allow.isEmpty();
+        boolean noDeny = deny == null || deny.isEmpty();
+        if (noAllow && noDeny) {
+            return PASS_ALL;
+        }
+
+        int itemCount = BuiltInRegistries.ITEM.size();
+        long[] allowIds = new long[(itemCount + 63) >>> 6];
+        long[] denyIds = new long[(itemCount + 63) >>> 6];
+        List<Predicate<ItemStack>> allowResidual = new ArrayList<>();
+        List<Predicate<ItemStack>> denyResidual = new ArrayList<>();
+
+        boolean hasAllowRules = false;
+        boolean hasDenyRules = false;
+        if (!noAllow) {
+            for (String rule : allow) hasAllowRules |= compileRule(rule, allowIds, allowResidual);
+        }
+        if (!noDeny) {
+            for (String rule : deny) hasDenyRules |= compileRule(rule, denyIds, denyResidual);
+        }
+        if (!noAllow && !hasAllowRules) {
+            SimpleLootClient.LOGGER.warn("No SimpleLoot allow rule matches any item, allowing all items");
+        }
+        if (!hasAllowRules && !hasDenyRules) {
+            return PASS_ALL;
+        }
+
+        return new ItemFilter(allowIds, denyIds, hasAllowRules,
+                allowResidual.toArray(emptyPredicates()), denyResidual.toArray(emptyPredicates()));
+    }
+
+    /**
+     * Compiles a single rule into either the id bitset or the residual predicate list.
+     * Returns false if the rule was skipped or matches no item.
+     */
+    private static boolean compileRule(String rawRule, long[] ids, List<Predicate<ItemStack>> residual) {
+        String rule = rawRule == null ? "" : rawRule.trim();
+        if (rule.isEmpty()) return false;
+
+        // Item tag: set a bit for every item currently in the tag
+        if (rule.startsWith("#")) {
+            var tagId = parseId(rule.substring(1));
+            if (tagId == null) {
+                warnInvalid(rawRule);
+                return false;
+            }
+            TagKey<Item> tag = TagKey.create(Registries.ITEM, tagId);
+            boolean any = false;
+            for (Holder<Item> holder : BuiltInRegistries.ITEM.getTagOrEmpty(tag)) {
+                setBit(ids, BuiltInRegistries.ITEM.getId(holder.value()));
+                any = true;
+            }
+            // Unknown or empty tag (tags may also not be loaded yet; they are recompiled on reload)
+            return any;
+        }
+
+        // Component presence: residual, since any stack's patch can add or remove it
+        if (rule.startsWith("+")) {
+            var componentId = parseId(rule.substring(1));
+            DataComponentType<?> type = componentId == null ? null : BuiltInRegistries.DATA_COMPONENT_TYPE.getValue(componentId);
+            if (type == null) {
+                warnInvalid(rawRule);
+                return false;
+            }
+            residual.add(stack -> stack.has(type));
+            return true;
+        }
+
+        // Enchantment / durability thresholds: residual
+        Matcher matcher = THRESHOLD_RULE.matcher(rule);
+        if (matcher.matches()) {
+            IntPredicate compare = comparison(matcher.group(2), Integer.parseInt(matcher.group(3)));
+            if (matcher.group(1).equals("enchantments")) {
+                residual.add(stack -> compare.test(enchantmentCount(stack)));
+            } else {
+                residual.add(stack -> stack.isDamageableItem() && compare.test(remainingDurabilityPercent(stack)));
+            }
+            return true;
+        }
+
+        // Plain item id
+        var itemId = parseId(rule);
+        var item = itemId == null ? null : BuiltInRegistries.ITEM.getOptional(itemId).orElse(null);
+        if (item == null) {
+            warnInvalid(rawRule);
+            return false;
+        }
+        setBit(ids, BuiltInRegistries.ITEM.getId(item));
+        return true;
+    }
+
+    private static int enchantmentCount(ItemStack stack) {
+        return stack.getEnchantments().size()
+                + stack.getOrDefault(DataComponents.STORED_ENCHANTMENTS, ItemEnchantments.EMPTY).size();
+    }
+
+    private static int remainingDurabilityPercent(ItemStack stack) {
+        int max = stack.getMaxDamage();
+        return max <= 0 ? 100 : (max - stack.getDamageValue()) * 100 / max;
+    }
+
+    /**
+     * Resolves a threshold operator once, so testing a stack is a plain int compare.
+     */
+    private static IntPredicate comparison(String op, int threshold) {
+        return switch (op) {
+            case ">=" -> value -> value >= threshold;
+            case "<=" -> value -> value <= threshold;
+            case ">" -> value -> value > threshold;
+            case "<" -> value -> value < threshold;
+            default -> value -> value == threshold;
+        };
+    }
+
+    //? if >=1.21.11 {
+    private static Identifier parseId(String id) {
+        return Identifier.tryParse(id);
+    }
+    //?} else {
+    /*private static ResourceLocation parseId(String id) {
+        return ResourceLocation.tryParse(id);
+    }*/
+    //?}
+
+    private static void warnInvalid(String rule) {
+        SimpleLootClient.LOGGER.warn("Ignoring invalid SimpleLoot item filter rule '{}'", rule);
+    }
+
+    private static boolean hasBit(long[] bits, int index) {
+        int word = index >>> 6;
+        return index >= 0 && word < bits.length && (bits[word] & (1L << index)) != 0;
+    }
+
+    private static void setBit(long[] bits, int index) {
+        if (index >= 0 && (index >>> 6) < bits.length) {
+            bits[index >>> 6] |= 1L << index;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate<ItemStack>[] emptyPredicates() {
+        return (Predicate<ItemStack>[]) new Predicate[0];
+    }
+}
@@ -0,0 +1,104 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.SimpleLootClient;
+import net.minecraft.core.component.DataComponentPatch;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Interned item keys: a small int per distinct item + component patch, so "same item,
+ * same components" (the rule vanilla merges stacks by) is an int compare.
+ *
+ * Most stacks carry no component patch; their key is read from an array indexed by the
+ * item's registry id. Patched stacks (enchanted gear, named items, potions, ...) are looked
+ * up in an access-ordered table of at most {@link #CAPACITY} entries whose keys carry a
+ * precomputed hash, so the patch is hashed once per lookup and compared only on a hash hit.
+ *
+ * Ids are never reused. A patched key evicted from the table gets a new id when it is seen
+ * again, so two stacks interned on either side of an eviction compare as different; that
+ * only costs a missed grouping, never a wrong one. The table is cleared whenever tags are
+ * reloaded or the client joins a world, like {@link ItemPredicateCache}.
+ */
+public final class ItemKeys {
+    private ItemKeys() {}
+
+    /** Key of the empty stack. */
+    public static final int EMPTY = 0;
+
+    private static final int CAPACITY = 4096;
+
+    // Key per unpatched item, indexed by BuiltInRegistries.ITEM raw id; 0 = not interned yet
+    private static int[] plainById = new int[0];
+
+    private static final Map<PatchedKey, Integer> patched = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PatchedKey, Integer> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    private static int nextId = EMPTY + 1;
+
+    /**
+     * Returns the key of a stack: equal for stacks with the same item and components,
+     * {@link #EMPTY} for an empty stack.
+     */
+    public static int of(ItemStack stack) {
+        if (stack.isEmpty()) return EMPTY;
+        Item item = stack.getItem();
+
+        if (stack.isComponentsPatchEmpty()) {
+            int id = BuiltInRegistries.ITEM.getId(item);
+            if (id >= 0) {
+                if (id >= plainById.length) {
+                    plainById = Arrays.copyOf(plainById, Math.max(id + 1, BuiltInRegistries.ITEM.size()));
+                }
+                int key = plainById[id];
+                if (key == EMPTY) {
+                    key = nextId++;
+                    plainById[id] = key;
+                }
+                return key;
+            }
+        }
+
+        DataComponentPatch patch = stack.getComponentsPatch();
+        PatchedKey lookup = new PatchedKey(item, patch, 31 * item.hashCode() + patch.hashCode());
+        Integer key = patched.get(lookup);
+        if (key == null) {
+            key = nextId++;
+            patched.put(lookup, key);
+        }
+        return key;
+    }
+
+    /**
+     * Drops every interned key. Keys handed out before are not reissued.
+     * Called by {@link HoverLootHandler} when tags are reloaded or a world is joined.
+     */
+    public static void invalidate() {
+        Arrays.fill(plainById, EMPTY);
+        patched.clear();
+        SimpleLootClient.LOGGER.debug("Item keys invalidated");
+    }
+
+    /**
+     * Item + component patch with its hash computed once.
+     */
+    private record PatchedKey(Item item, DataComponentPatch patch, int hash) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof PatchedKey other && hash == other.hash && item == other.item && patch.equals(other.patch);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
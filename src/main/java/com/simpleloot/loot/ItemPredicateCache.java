@@ -0,0 +1,163 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.SimpleLootClient;
+import net.minecraft.core.component.DataComponentMap;
+import net.minecraft.core.component.DataComponentPatch;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.equipment.Equippable;
+
+import java.util.Arrays;
+
+/**
+ * Memoized item classification used by the hover loot hot path.
+ *
+ * Every predicate the handler asks about a hovered stack (is it armor, which armor slot,
+ * is it enchantable, is it a beacon payment) depends almost entirely on the stack's
+ * {@link Item} and its default components. Those answers are computed once per item and
+ * stored as a bitset in an array indexed by the item's registry id, so classifying a
+ * stack costs one array lookup in the common case.
+ *
+ * Stacks whose component patch overrides one of the components the predicates read
+ * (equippable, enchantable, enchantments, max damage) are classified directly, since
+ * their answer can differ from the item default.
+ *
+ * The cache is cleared whenever tags are reloaded or the client joins a world, because
+ * both can change the registry contents the flags were computed from.
+ */
+public final class ItemPredicateCache {
+    private ItemPredicateCache() {}
+
+    // Bit layout of a cached entry. COMPUTED distinguishes "no flags" from "not cached yet".
+    private static final int COMPUTED = 1;
+    private static final int ARMOR_HEAD = 1 << 1;
+    private static final int ARMOR_CHEST = 1 << 2;
+    private static final int ARMOR_LEGS = 1 << 3;
+    private static final int ARMOR_FEET = 1 << 4;
+    private static final int ENCHANTABLE = 1 << 5;
+    private static final int BEACON_PAYMENT = 1 << 6;
+    private static final int ARMOR_MASK = ARMOR_HEAD | ARMOR_CHEST | ARMOR_LEGS | ARMOR_FEET;
+
+    // Flags per item, indexed by BuiltInRegistries.ITEM raw id; grown lazily
+    private static int[] flagsById = new int[0];
+
+    /**
+     * Drops every cached entry. Entries are recomputed on the next lookup.
+     * Called by {@link HoverLootHandler} when tags are reloaded or a world is joined.
+     */
+    public static void invalidate() {
+        Arrays.fill(flagsById, 0);
+        SimpleLootClient.LOGGER.debug("Item predicate cache invalidated");
+    }
+
+    /**
+     * Checks if an item is equippable armor (helmet, chestplate, leggings, boots, or elytra).
+     */
+    public static boolean isEquippableArmor(ItemStack stack) {
+        return (flags(stack) & ARMOR_MASK) != 0;
+    }
+
+    /**
+     * Gets the armor slot type for a stack, or null if it is not equippable armor.
+     */
+    public static EquipmentSlot getArmorSlotType(ItemStack stack) {
+        int flags = flags(stack);
+        if ((flags & ARMOR_HEAD) != 0) return EquipmentSlot.HEAD;
+        if ((flags & ARMOR_CHEST) != 0) return EquipmentSlot.CHEST;
+        if ((flags & ARMOR_LEGS) != 0) return EquipmentSlot.LEGS;
+        if ((flags & ARMOR_FEET) != 0) return EquipmentSlot.FEET;
+        return null;
+    }
+
+    /**
+     * Checks if a stack can be placed in the enchanting table's item slot.
+     */
+    public static boolean isEnchantableItem(ItemStack stack) {
+        return (flags(stack) & ENCHANTABLE) != 0;
+    }
+
+    /**
+     * Checks if a stack is valid for the beacon payment slot.
+     */
+    public static boolean isBeaconPaymentItem(ItemStack stack) {
+        return (flags(stack) & BEACON_PAYMENT) != 0;
+    }
+
+    /**
+     * Returns the flag bits for a stack, using the per-item cache unless the stack's
+     * component patch overrides something the flags depend on.
+     */
+    private static int flags(ItemStack stack) {
+        if (stack.isEmpty()) return 0;
+        Item item = stack.getItem();
+
+        if (!stack.isComponentsPatchEmpty() && patchAffectsFlags(stack.getComponentsPatch())) {
+            return compute(item, stack.getComponents());
+        }
+
+        int id = BuiltInRegistries.ITEM.getId(item);
+        if (id < 0) {
+            return compute(item, item.components());
+        }
+        if (id >= flagsById.length) {
+            flagsById = Arrays.copyOf(flagsById, Math.max(id + 1, BuiltInRegistries.ITEM.size()));
+        }
+
+        int cached = flagsById[id];
+        if (cached == 0) {
+            cached = compute(item, item.components());
+            flagsById[id] = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Checks if a component patch touches any of the components the flags are derived from.
+     */
+    private static boolean patchAffectsFlags(DataComponentPatch patch) {
+        return patch.get(DataComponents.EQUIPPABLE) != null
+                || patch.get(DataComponents.ENCHANTABLE) != null
+                || patch.get(DataComponents.ENCHANTMENTS) != null
+                || patch.get(DataComponents.MAX_DAMAGE) != null;
+    }
+
+    /**
+     * Computes the flag bits from an item and the effective component map.
+     * Mirrors the original per-stack checks in {@link HoverLootHandler}.
+     */
+    private static int compute(Item item, DataComponentMap components) {
+        int flags = COMPUTED;
+
+        // Armor: only HEAD, CHEST, LEGS, FEET count, not MAINHAND or OFFHAND
+        Equippable equippable = components.get(DataComponents.EQUIPPABLE);
+        if (equippable != null) {
+            switch (equippable.slot()) {
+                case HEAD -> flags |= ARMOR_HEAD;
+                case CHEST -> flags |= ARMOR_CHEST;
+                case LEGS -> flags |= ARMOR_LEGS;
+                case FEET -> flags |= ARMOR_FEET;
+                default -> { }
+            }
+        }
+
+        // Enchantable: books, items with durability, or items carrying enchantment components
+        if (item == Items.BOOK
+                || components.getOrDefault(DataComponents.MAX_DAMAGE, 0) > 0
+                || components.has(DataComponents.ENCHANTABLE)
+                || components.has(DataComponents.ENCHANTMENTS)) {
+            flags |= ENCHANTABLE;
+        }
+
+        // Beacon payment: iron/gold/emerald/diamond/netherite
+        if (item == Items.IRON_INGOT || item == Items.GOLD_INGOT || item == Items.EMERALD
+                || item == Items.DIAMOND || item == Items.NETHERITE_INGOT) {
+            flags |= BEACON_PAYMENT;
+        }
+
+        return flags;
+    }
+}
@@ -0,0 +1,89 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.engine.ClickAction;
+import com.simpleloot.engine.ClickSink;
+import com.simpleloot.engine.TransferJournal;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * {@link ClickSink} wrapper that journals where shift-clicked stacks land, for undo.
+ *
+ * The game mode applies a click to the client menu before it returns, so the destination
+ * of a shift-click is read from the slot updates it caused: every other slot whose count of
+ * the moved item went up. Item and count per slot are kept from the previous click and only
+ * read in full on the first click of a tick (or after a click of another kind), so ticks
+ * that send nothing cost nothing. Sources the player could not place back into (crafting
+ * and furnace outputs) are not journaled.
+ */
+final class JournalRecorder implements ClickSink {
+    private final TransferJournal journal;
+
+    private AbstractContainerMenu menu = null;
+    private ClickSink target = null;
+
+    // Item and count per slot id after the last click; stale until read in the current tick
+    private Item[] items = new Item[0];
+    private int[] counts = new int[0];
+    private boolean stale = true;
+
+    JournalRecorder(TransferJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Wraps the given sink for the coming tick so clicks sent through it are journaled.
+     * Returns this.
+     */
+    ClickSink wrap(AbstractContainerMenu menu, ClickSink target) {
+        this.menu = menu;
+        this.target = target;
+        this.stale = true;
+        return this;
+    }
+
+    @Override
+    public void click(int slotId, int button, ClickAction action) {
+        Slot source = action == ClickAction.QUICK_MOVE && slotId >= 0 && slotId < menu.slots.size()
+                ? menu.slots.get(slotId) : null;
+        if (source == null || !source.hasItem() || !source.mayPlace(source.getItem())) {
+            target.click(slotId, button, action);
+            stale = true;
+            return;
+        }
+
+        if (stale) read();
+        Item item = source.getItem().getItem();
+        int key = ItemKeys.of(source.getItem());
+        target.click(slotId, button, action);
+
+        int slotCount = Math.min(menu.slots.size(), counts.length);
+        for (int i = 0; i < slotCount; i++) {
+            ItemStack stack = menu.slots.get(i).getItem();
+            Item now = stack.getItem();
+            int count = stack.getCount();
+            if (i != slotId && now == item) {
+                int before = items[i] == item ? counts[i] : 0;
+                if (count > before) journal.record(slotId, i, key, count - before);
+            }
+            items[i] = now;
+            counts[i] = count;
+        }
+    }
+
+    private void read() {
+        int slotCount = menu.slots.size();
+        if (counts.length != slotCount) {
+            items = new Item[slotCount];
+            counts = new int[slotCount];
+        }
+        for (int i = 0; i < slotCount; i++) {
+            ItemStack stack = menu.slots.get(i).getItem();
+            items[i] = stack.getItem();
+            counts[i] = stack.getCount();
+        }
+        stale = false;
+    }
+}
@@ -0,0 +1,242 @@
+package com.simpleloot.loot;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.mojang.serialization.DynamicOps;
+import com.mojang.serialization.JsonOps;
+import com.simpleloot.SimpleLootClient;
+import com.simpleloot.config.ConfigPersistence;
+import com.simpleloot.engine.ClickPlan;
+import com.simpleloot.engine.HoverEngine;
+import com.simpleloot.engine.LoadoutPlanner;
+import com.simpleloot.engine.ScreenType;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
+import net.minecraft.client.input.KeyEvent;
+import net.minecraft.client.player.LocalPlayer;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.item.ItemStack;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Saved loadout templates and the restock action.
+ *
+ * A template records, per player inventory index (hotbar, main, armor, offhand), the item
+ * with its components and the stack size. Templates are saved with
+ * {@code /simpleloot loadout save <name>}; the Restock Loadout keybind, pressed in an open
+ * container, plans the clicks that fill the inventory back up from the container with
+ * {@link LoadoutPlanner} and queues them through the hover loot transfer queue.
+ *
+ * Templates live in {@code config/simpleloot-loadouts.json}, read on first use and written
+ * in the background. Items are stored with the vanilla item stack codec, so enchanted or
+ * named items are restocked only from matching stacks.
+ */
+public final class Loadouts {
+    private Loadouts() {}
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Path PATH = FabricLoader.getInstance().getConfigDir().resolve("simpleloot-loadouts.json");
+    private static final ConfigPersistence PERSISTENCE = new ConfigPersistence(PATH);
+
+    // One template slot: inventory index, stack size and the encoded item (count 1)
+    private record Entry(int slot, int count, JsonElement item) {}
+
+    private static final Map<String, List<Entry>> loadouts = new TreeMap<>();
+    private static String selected = null;
+    private static boolean loaded = false;
+
+    private static final LoadoutPlanner planner = new LoadoutPlanner();
+    private static final ClickPlan plan = new ClickPlan();
+    private static final int[] targetKeys = new int[LoadoutPlanner.INVENTORY_SIZE];
+    private static final int[] targetCounts = new int[LoadoutPlanner.INVENTORY_SIZE];
+    private static final MenuKeys menuKeys = new MenuKeys();
+
+    /**
+     * Saves the player's current inventory as a template and selects it. Returns the
+     * number of non-empty slots saved.
+     */
+    public static int save(String name, LocalPlayer player) {
+        load();
+        DynamicOps<JsonElement> ops = player.registryAccess().createSerializationContext(JsonOps.INSTANCE);
+        Inventory inventory = player.getInventory();
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < LoadoutPlanner.INVENTORY_SIZE; i++) {
+            ItemStack stack = inventory.getItem(i);
+            if (stack.isEmpty()) continue;
+            JsonElement item = ItemStack.CODEC.encodeStart(ops, stack.copyWithCount(1)).result().orElse(null);
+            if (item != null) {
+                entries.add(new Entry(i, stack.getCount(), item));
+            }
+        }
+        loadouts.put(name, entries);
+        selected = name;
+        requestSave();
+        return entries.size();
+    }
+
+    /**
+     * Selects the template the Restock Loadout key uses. Returns false if there is none
+     * with that name.
+     */
+    public static boolean select(String name) {
+        load();
+        if (!loadouts.containsKey(name)) return false;
+        selected = name;
+        requestSave();
+        return true;
+    }
+
+    /**
+     * Deletes a template. Returns false if there is none with that name.
+     */
+    public static boolean delete(String name) {
+        load();
+        if (loadouts.remove(name) == null) return false;
+        if (name.equals(selected)) selected = null;
+        requestSave();
+        return true;
+    }
+
+    /**
+     * Returns the template names in alphabetical order.
+     */
+    public static List<String> names() {
+        load();
+        return List.copyOf(loadouts.keySet());
+    }
+
+    /**
+     * Returns the selected template name, or null.
+     */
+    public static String selected() {
+        load();
+        return selected;
+    }
+
+    /**
+     * Writes pending changes on the calling thread. Called on client shutdown.
+     */
+    public static void flush() {
+        PERSISTENCE.flush();
+    }
+
+    /**
+     * Key handler, see {@link ContainerKeyActions}.
+     */
+    public static boolean keyPressed(AbstractContainerScreen<?> screen, KeyEvent event) {
+        if (!SimpleLootClient.restockLoadoutKeyBinding.matches(event)) return false;
+        ScreenType type = ContainerKeyActions.storageType(screen);
+        if (type == null) return false;
+
+        Minecraft client = Minecraft.getInstance();
+        LocalPlayer player = client.player;
+        HoverEngine engine = HoverLootHandler.engineFor(screen);
+        String name = selected();
+        List<Entry> entries = name != null ? loadouts.get(name) : null;
+        if (player == null || engine == null) return true;
+        if (entries == null) {
+            ContainerKeyActions.message(player, "No loadout selected - save one with /simpleloot loadout save <name>");
+            return true;
+        }
+        // The plan is made against the current contents from an empty cursor, so earlier
+        // transfers have to be done moving
+        if (engine.pendingCount() > 0 || !screen.getMenu().getCarried().isEmpty()) {
+            ContainerKeyActions.message(player, "Loadout " + name + ": wait for the transfers to finish");
+            return true;
+        }
+
+        resolveTargets(entries, player);
+        int steps = plan(screen.getMenu(), type, player);
+        if (steps == 0) {
+            ContainerKeyActions.message(player, "Loadout " + name + ": nothing to restock");
+            return true;
+        }
+        int clicks = plan.remainingClicks();
+        HoverLootHandler.enqueue(plan);
+        ContainerKeyActions.message(player, "Loadout " + name + ": restocking " + steps + " stacks in " + clicks + " clicks");
+        return true;
+    }
+
+    /**
+     * Decodes a template into item keys and counts per inventory index.
+     */
+    private static void resolveTargets(List<Entry> entries, LocalPlayer player) {
+        Arrays.fill(targetKeys, ItemKeys.EMPTY);
+        Arrays.fill(targetCounts, 0);
+        DynamicOps<JsonElement> ops = player.registryAccess().createSerializationContext(JsonOps.INSTANCE);
+        for (Entry entry : entries) {
+            if (entry.slot() < 0 || entry.slot() >= LoadoutPlanner.INVENTORY_SIZE) continue;
+            // Items that no longer exist (removed mod, renamed id) decode to nothing and are skipped
+            ItemStack stack = ItemStack.CODEC.parse(ops, entry.item()).result().orElse(ItemStack.EMPTY);
+            targetKeys[entry.slot()] = ItemKeys.of(stack);
+            targetCounts[entry.slot()] = entry.count();
+        }
+    }
+
+    /**
+     * Reads the open menu into item key arrays and plans the restock. Returns the step count.
+     */
+    private static int plan(AbstractContainerMenu menu, ScreenType type, LocalPlayer player) {
+        int slotCount = menuKeys.read(menu);
+        return planner.plan(type, slotCount, menuKeys.keys, menuKeys.counts, menuKeys.maxCounts,
+                ItemKeys.of(player.getOffhandItem()), targetKeys, targetCounts, plan);
+    }
+
+    private static void load() {
+        if (loaded) return;
+        loaded = true;
+        if (!Files.exists(PATH)) return;
+        try {
+            JsonObject root = GSON.fromJson(Files.readString(PATH), JsonObject.class);
+            JsonObject all = root.getAsJsonObject("loadouts");
+            if (all != null) {
+                for (Map.Entry<String, JsonElement> loadout : all.entrySet()) {
+                    List<Entry> entries = new ArrayList<>();
+                    for (JsonElement element : loadout.getValue().getAsJsonArray()) {
+                        JsonObject entry = element.getAsJsonObject();
+                        entries.add(new Entry(entry.get("slot").getAsInt(), entry.get("count").getAsInt(), entry.get("item")));
+                    }
+                    loadouts.put(loadout.getKey(), entries);
+                }
+            }
+            if (root.has("selected") && loadouts.containsKey(root.get("selected").getAsString())) {
+                selected = root.get("selected").getAsString();
+            }
+        } catch (IOException | JsonParseException | IllegalStateException | NullPointerException e) {
+            SimpleLootClient.LOGGER.error("Failed to read SimpleLoot loadouts from {}", PATH, e);
+        }
+    }
+
+    private static void requestSave() {
+        JsonObject root = new JsonObject();
+        if (selected != null) root.addProperty("selected", selected);
+        JsonObject all = new JsonObject();
+        for (Map.Entry<String, List<Entry>> loadout : loadouts.entrySet()) {
+            JsonArray entries = new JsonArray();
+            for (Entry entry : loadout.getValue()) {
+                JsonObject json = new JsonObject();
+                json.addProperty("slot", entry.slot());
+                json.addProperty("count", entry.count());
+                json.add("item", entry.item());
+                entries.add(json);
+            }
+            all.add(loadout.getKey(), entries);
+        }
+        root.add("loadouts", all);
+        PERSISTENCE.requestSave(GSON.toJson(root));
+    }
+}
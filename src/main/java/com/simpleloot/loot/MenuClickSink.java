@@ -0,0 +1,110 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.engine.ClickAccounting;
+import com.simpleloot.engine.ClickAction;
+import com.simpleloot.engine.ClickSink;
+import com.simpleloot.engine.DebugLog;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
+import net.minecraft.client.multiplayer.MultiPlayerGameMode;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.Item;
+//? if >=26.1 {
+import net.minecraft.world.inventory.ContainerInput;
+//?} else {
+/*import net.minecraft.world.inventory.ClickType;*/
+//?}
+
+/**
+ * {@link ClickSink} that sends engine clicks to the server through the game mode.
+ */
+final class MenuClickSink implements ClickSink {
+    // Version-aware constants for container input types
+    //? if >=26.1 {
+    private static final ContainerInput SLOT_PICKUP = ContainerInput.PICKUP;
+    private static final ContainerInput SLOT_QUICK_MOVE = ContainerInput.QUICK_MOVE;
+    private static final ContainerInput SLOT_THROW = ContainerInput.THROW;
+    private static final ContainerInput SLOT_SWAP = ContainerInput.SWAP;
+    //?} else {
+    /*private static final ClickType SLOT_PICKUP = ClickType.PICKUP;
+    private static final ClickType SLOT_QUICK_MOVE = ClickType.QUICK_MOVE;
+    private static final ClickType SLOT_THROW = ClickType.THROW;
+    private static final ClickType SLOT_SWAP = ClickType.SWAP;*/
+    //?}
+
+    private final ClickAccounting accounting;
+
+    private Minecraft client;
+    private AbstractContainerMenu menu;
+    private int containerId;
+    private boolean debug;
+
+    // Clicks actually handed to the game mode since startup (read as deltas by the HUD stats)
+    private long sent = 0;
+
+    MenuClickSink(ClickAccounting accounting) {
+        this.accounting = accounting;
+    }
+
+    /**
+     * Points this sink at the given screen's menu. Returns this for chaining.
+     */
+    MenuClickSink bind(Minecraft client, AbstractContainerScreen<?> screen, boolean debug) {
+        this.client = client;
+        this.menu = screen.getMenu();
+        this.containerId = menu.containerId;
+        this.debug = debug;
+        return this;
+    }
+
+    @Override
+    public void click(int slotId, int button, ClickAction action) {
+        MultiPlayerGameMode gameMode = client.gameMode;
+        if (gameMode == null || client.player == null) {
+            if (debug) DebugDump.LOG.record(DebugLog.NO_GAME_MODE, slotId);
+            return;
+        }
+
+        //? if >=26.1 {
+        ContainerInput input = switch (action) {
+        //?} else {
+        /*ClickType input = switch (action) {*/
+        //?}
+            case PICKUP -> SLOT_PICKUP;
+            case QUICK_MOVE -> SLOT_QUICK_MOVE;
+            case THROW -> SLOT_THROW;
+            case SWAP -> SLOT_SWAP;
+        };
+
+        // Remember the slot and cursor so a click that changed nothing can be recognized
+        Slot slot = slotId >= 0 && slotId < menu.slots.size() ? menu.slots.get(slotId) : null;
+        Item slotItem = slot != null ? slot.getItem().getItem() : null;
+        int slotCount = slot != null ? slot.getItem().getCount() : 0;
+        Item carriedItem = menu.getCarried().getItem();
+        int carriedCount = menu.getCarried().getCount();
+
+        // In 26.1+, the method was renamed and ClickType became ContainerInput
+        //? if >=26.1 {
+        gameMode.handleContainerInput(containerId, slotId, button, input, client.player);
+        //?} else {
+        /*gameMode.handleInventoryMouseClick(containerId, slotId, button, input, client.player);*/
+        //?}
+        sent++;
+
+        // The game mode applies the click to the client menu right away, so unchanged
+        // contents mean the server will not change anything either (e.g. destination full)
+        boolean noOp = slot != null
+                && slot.getItem().getItem() == slotItem && slot.getItem().getCount() == slotCount
+                && menu.getCarried().getItem() == carriedItem && menu.getCarried().getCount() == carriedCount;
+        accounting.recordClick(action, noOp);
+        if (debug) DebugDump.LOG.record(DebugLog.CLICK, slotId, button, action.ordinal());
+    }
+
+    /**
+     * Returns the number of clicks sent so far.
+     */
+    long sent() {
+        return sent;
+    }
+}
@@ -0,0 +1,81 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.config.ConfigSnapshot;
+import com.simpleloot.engine.ItemFacts;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.inventory.Slot;
+
+/**
+ * {@link ItemFacts} over the slots of the open menu.
+ *
+ * Item classification goes through {@link ItemPredicateCache}; filter checks use the
+ * compiled filters of the current config snapshot.
+ */
+final class MenuItemFacts implements ItemFacts {
+    private ScreenSlotLayout layout;
+    private ConfigSnapshot config;
+
+    /**
+     * Points these facts at the given screen layout and config. Returns this for chaining.
+     */
+    MenuItemFacts bind(ScreenSlotLayout layout, ConfigSnapshot config) {
+        this.layout = layout;
+        this.config = config;
+        return this;
+    }
+
+    @Override
+    public boolean hasItem(int slotId) {
+        Slot slot = layout.slot(slotId);
+        return slot != null && slot.hasItem();
+    }
+
+    @Override
+    public boolean isEquippableArmor(int slotId) {
+        return ItemPredicateCache.isEquippableArmor(stack(slotId));
+    }
+
+    @Override
+    public int armorType(int slotId) {
+        EquipmentSlot equipSlot = ItemPredicateCache.getArmorSlotType(stack(slotId));
+        if (equipSlot == null) return -1;
+        return switch (equipSlot) {
+            case HEAD -> 0;
+            case CHEST -> 1;
+            case LEGS -> 2;
+            case FEET -> 3;
+            default -> -1;
+        };
+    }
+
+    @Override
+    public boolean isEnchantingInput(int slotId) {
+        ItemStack stack = stack(slotId);
+        return ItemPredicateCache.isEnchantableItem(stack) || stack.is(Items.LAPIS_LAZULI);
+    }
+
+    @Override
+    public boolean isBeaconPayment(int slotId) {
+        return ItemPredicateCache.isBeaconPaymentItem(stack(slotId));
+    }
+
+    @Override
+    public boolean passesFilter(int slotId, boolean dropMode) {
+        return config.filter(dropMode).test(stack(slotId));
+    }
+
+    @Override
+    public int itemKey(int slotId) {
+        return ItemKeys.of(stack(slotId));
+    }
+
+    /**
+     * Returns the stack in a slot, or the empty stack.
+     */
+    ItemStack stack(int slotId) {
+        Slot slot = layout.slot(slotId);
+        return slot == null ? ItemStack.EMPTY : slot.getItem();
+    }
+}
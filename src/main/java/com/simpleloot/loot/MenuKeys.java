@@ -0,0 +1,35 @@
+package com.simpleloot.loot;
+
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Item key, count and max stack size of every slot of a menu, read into reusable arrays
+ * for the engine's click planners.
+ */
+final class MenuKeys {
+    int[] keys = new int[64];
+    int[] counts = new int[64];
+    int[] maxCounts = new int[64];
+
+    /**
+     * Reads the menu's slots and returns their number.
+     */
+    int read(AbstractContainerMenu menu) {
+        int slotCount = menu.slots.size();
+        if (keys.length < slotCount) {
+            keys = new int[slotCount];
+            counts = new int[slotCount];
+            maxCounts = new int[slotCount];
+        }
+        for (int i = 0; i < slotCount; i++) {
+            Slot slot = menu.slots.get(i);
+            ItemStack stack = slot.getItem();
+            keys[i] = ItemKeys.of(stack);
+            counts[i] = stack.getCount();
+            maxCounts[i] = stack.isEmpty() ? 0 : slot.getMaxStackSize(stack);
+        }
+        return slotCount;
+    }
+}
@@ -0,0 +1,79 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.engine.ScreenType;
+import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.client.gui.screens.inventory.*;
+
+import static com.simpleloot.engine.ScreenType.*;
+
+/**
+ * Maps live screens to their {@link ScreenType}.
+ *
+ * The class-to-type mapping is resolved once per screen class through a {@link ClassValue},
+ * so classifying the open screen every tick is a single lookup instead of a chain of
+ * {@code instanceof} checks. Chests are the only type that also depends on the instance
+ * (single vs double chest by row count).
+ */
+public final class ScreenClassifier {
+    private ScreenClassifier() {}
+
+    private static final ClassValue<ScreenType> BY_CLASS = new ClassValue<>() {
+        @Override
+        protected ScreenType computeValue(Class<?> type) {
+            return classify(type);
+        }
+    };
+
+    /**
+     * Returns the type of the given screen, or {@link ScreenType#UNSUPPORTED} for anything
+     * that is not a known container screen (including null).
+     */
+    public static ScreenType of(Screen screen) {
+        if (screen == null) return UNSUPPORTED;
+        ScreenType type = BY_CLASS.get(screen.getClass());
+        if (type == CHEST && ((ContainerScreen) screen).getMenu().getRowCount() > 3) {
+            // Single chest = 3 rows, Double chest = 6 rows
+            return DOUBLE_CHEST;
+        }
+        return type;
+    }
+
+    /**
+     * Returns the cached class-level type for a screen class. Chest screens report
+     * {@link ScreenType#CHEST} regardless of row count.
+     */
+    public static ScreenType ofClass(Class<?> screenClass) {
+        return BY_CLASS.get(screenClass);
+    }
+
+    /**
+     * Maps a screen class to its type. Order matters: subclasses are checked before
+     * their parents, matching the original instanceof chain in HoverLootHandler.
+     */
+    private static ScreenType classify(Class<?> type) {
+        if (!AbstractContainerScreen.class.isAssignableFrom(type)) return UNSUPPORTED;
+        if (InventoryScreen.class.isAssignableFrom(type)) return INVENTORY;
+        if (CreativeModeInventoryScreen.class.isAssignableFrom(type)) return CREATIVE_INVENTORY;
+        if (CraftingScreen.class.isAssignableFrom(type)) return CRAFTING_TABLE;
+        // ContainerScreen covers chests, barrels and ender chests
+        if (ContainerScreen.class.isAssignableFrom(type)) return CHEST;
+        if (ShulkerBoxScreen.class.isAssignableFrom(type)) return SHULKER_BOX;
+        // DispenserScreen handles dispensers and droppers
+        if (DispenserScreen.class.isAssignableFrom(type)) return DISPENSER;
+        if (HopperScreen.class.isAssignableFrom(type)) return HOPPER;
+        if (FurnaceScreen.class.isAssignableFrom(type)) return FURNACE;
+        if (BlastFurnaceScreen.class.isAssignableFrom(type)) return BLAST_FURNACE;
+        if (SmokerScreen.class.isAssignableFrom(type)) return SMOKER;
+        if (BrewingStandScreen.class.isAssignableFrom(type)) return BREWING_STAND;
+        if (AnvilScreen.class.isAssignableFrom(type)) return ANVIL;
+        if (SmithingScreen.class.isAssignableFrom(type)) return SMITHING_TABLE;
+        if (GrindstoneScreen.class.isAssignableFrom(type)) return GRINDSTONE;
+        if (StonecutterScreen.class.isAssignableFrom(type)) return STONECUTTER;
+        if (LoomScreen.class.isAssignableFrom(type)) return LOOM;
+        if (EnchantmentScreen.class.isAssignableFrom(type)) return ENCHANTING_TABLE;
+        if (BeaconScreen.class.isAssignableFrom(type)) return BEACON;
+        if (CrafterScreen.class.isAssignableFrom(type)) return CRAFTER;
+        if (CartographyTableScreen.class.isAssignableFrom(type)) return CARTOGRAPHY_TABLE;
+        return UNSUPPORTED;
+    }
+}
@@ -0,0 +1,88 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.engine.RectSlotLayout;
+import com.simpleloot.engine.SlotLayout;
+import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
+import net.minecraft.client.gui.screens.inventory.CreativeModeInventoryScreen;
+import net.minecraft.world.inventory.Slot;
+
+import java.util.List;
+
+/**
+ * {@link SlotLayout} over a live {@link AbstractContainerScreen}.
+ *
+ * One instance is reused and rebound whenever the open screen changes.
+ */
+final class ScreenSlotLayout implements SlotLayout {
+    private AbstractContainerScreen<?> screen = null;
+    private boolean creative = false;
+
+    /**
+     * Points this layout at the given screen. Returns this for chaining.
+     */
+    ScreenSlotLayout bind(AbstractContainerScreen<?> screen) {
+        if (this.screen != screen) {
+            this.screen = screen;
+            this.creative = screen instanceof CreativeModeInventoryScreen;
+        }
+        return this;
+    }
+
+    @Override
+    public int slotCount() {
+        return screen.getMenu().slots.size();
+    }
+
+    @Override
+    public int slotAt(double x, double y) {
+        Slot slot = HandledScreenAccessor.getSlotAt(screen, x, y);
+        if (slot == null) return -1;
+        // For creative inventory, slot.index is unreliable - use the slot's position in the menu
+        return creative ? indexOf(slot) : slot.index;
+    }
+
+    @Override
+    public int slotX(int slotId) {
+        return HandledScreenAccessor.getLeftPos(screen) + screen.getMenu().slots.get(slotId).x;
+    }
+
+    @Override
+    public int slotY(int slotId) {
+        return HandledScreenAccessor.getTopPos(screen) + screen.getMenu().slots.get(slotId).y;
+    }
+
+    /**
+     * Returns the slot with the given id, or null if out of range.
+     */
+    Slot slot(int slotId) {
+        List<Slot> slots = screen.getMenu().slots;
+        return slotId >= 0 && slotId < slots.size() ? slots.get(slotId) : null;
+    }
+
+    /**
+     * Copies the current slot positions (in GUI coordinates) into a detached layout.
+     */
+    RectSlotLayout snapshot() {
+        List<Slot> slots = screen.getMenu().slots;
+        int left = HandledScreenAccessor.getLeftPos(screen);
+        int top = HandledScreenAccessor.getTopPos(screen);
+        int[] xs = new int[slots.size()];
+        int[] ys = new int[slots.size()];
+        for (int i = 0; i < xs.length; i++) {
+            Slot slot = slots.get(i);
+            xs[i] = left + slot.x;
+            ys[i] = top + slot.y;
+        }
+        return new RectSlotLayout(xs, ys);
+    }
+
+    private int indexOf(Slot slot) {
+        List<Slot> slots = screen.getMenu().slots;
+        for (int i = 0; i < slots.size(); i++) {
+            if (slots.get(i) == slot) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
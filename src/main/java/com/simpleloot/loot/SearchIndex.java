@@ -0,0 +1,163 @@
+package com.simpleloot.loot;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.ItemStack;
+
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Search index over the container slots of one open screen.
+ *
+ * Every distinct stack (same name, id and tags) becomes a key with its searchable text
+ * built once: display name, item id and tag ids, lower-cased. Stacks are mapped to keys
+ * through their {@link ItemKeys} key, so the text is only built for stacks not seen before. A query is tested against
+ * the keys, not the slots, and a query that extends the previous one (the usual case while
+ * typing) only re-tests the keys that matched before. Slots are re-indexed only when
+ * their stack object changed since the last refresh.
+ */
+final class SearchIndex {
+    private AbstractContainerMenu menu = null;
+
+    // Per menu slot: stack last indexed (by identity) and its key, or -1 for empty/player slots
+    private ItemStack[] slotStacks = new ItemStack[0];
+    private int[] slotKeys = new int[0];
+
+    // Item key -> key, then key text -> key, and per key: name + id (plain queries) and tags (#queries)
+    private final Int2IntOpenHashMap keysByItemKey = new Int2IntOpenHashMap();
+    private final Map<String, Integer> keysByText = new HashMap<>();
+    private final List<String> keyNames = new ArrayList<>();
+    private final List<String> keyTags = new ArrayList<>();
+
+    // Keys matching lastQuery
+    private final BitSet matches = new BitSet();
+    private String lastQuery = null;
+    private int lastKeyCount = 0;
+
+    private long[] sortScratch = new long[0];
+
+    /**
+     * Points the index at a menu, discarding everything if it is a different one.
+     */
+    void bind(AbstractContainerMenu menu) {
+        if (this.menu == menu) return;
+        this.menu = menu;
+        slotStacks = new ItemStack[menu.slots.size()];
+        slotKeys = new int[menu.slots.size()];
+        Arrays.fill(slotKeys, -1);
+        keysByItemKey.clear();
+        keysByText.clear();
+        keyNames.clear();
+        keyTags.clear();
+        matches.clear();
+        lastQuery = null;
+    }
+
+    /**
+     * Re-indexes container slots whose stack changed since the last call.
+     */
+    void refresh() {
+        for (int i = 0; i < slotStacks.length && i < menu.slots.size(); i++) {
+            Slot slot = menu.slots.get(i);
+            ItemStack stack = slot.getItem();
+            if (stack == slotStacks[i]) continue;
+            slotStacks[i] = stack;
+            slotKeys[i] = slot.container instanceof Inventory || stack.isEmpty() ? -1 : keyOf(stack);
+        }
+    }
+
+    /**
+     * Writes the ids of the container slots matching the query into {@code out}, grouped
+     * by key (so equal stacks are moved one after another) and in slot order within a key.
+     * Returns the number of slots written. An empty query matches nothing.
+     */
+    int match(String query, int[] out) {
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty() || normalized.equals("#")) {
+            lastQuery = null;
+            return 0;
+        }
+        updateMatches(normalized);
+
+        // Sort the matching slots by (key, slot) packed into one long
+        int count = 0;
+        if (sortScratch.length < slotKeys.length) {
+            sortScratch = new long[slotKeys.length];
+        }
+        for (int slotId = 0; slotId < slotKeys.length; slotId++) {
+            int key = slotKeys[slotId];
+            if (key >= 0 && matches.get(key)) {
+                sortScratch[count++] = ((long) key << 32) | slotId;
+            }
+        }
+        Arrays.sort(sortScratch, 0, count);
+        count = Math.min(count, out.length);
+        for (int i = 0; i < count; i++) {
+            out[i] = (int) sortScratch[i];
+        }
+        return count;
+    }
+
+    /**
+     * Returns whether the given slot matched the last query.
+     */
+    boolean matches(int slotId) {
+        return lastQuery != null && slotId < slotKeys.length && slotKeys[slotId] >= 0 && matches.get(slotKeys[slotId]);
+    }
+
+    int slotCount() {
+        return slotKeys.length;
+    }
+
+    private void updateMatches(String query) {
+        int keyCount = keyNames.size();
+        boolean narrowing = lastQuery != null && query.startsWith(lastQuery) && lastQuery.startsWith("#") == query.startsWith("#");
+        if (!narrowing) {
+            matches.set(0, keyCount);
+        } else if (keyCount > lastKeyCount) {
+            // Keys added since the last query have not been tested yet
+            matches.set(lastKeyCount, keyCount);
+        }
+
+        boolean tagQuery = query.startsWith("#");
+        String needle = tagQuery ? query.substring(1) : query;
+        for (int key = matches.nextSetBit(0); key >= 0; key = matches.nextSetBit(key + 1)) {
+            String text = tagQuery ? keyTags.get(key) : keyNames.get(key);
+            if (!text.contains(needle)) {
+                matches.clear(key);
+            }
+        }
+        lastQuery = query;
+        lastKeyCount = keyCount;
+    }
+
+    private int keyOf(ItemStack stack) {
+        int itemKey = ItemKeys.of(stack);
+        if (keysByItemKey.containsKey(itemKey)) return keysByItemKey.get(itemKey);
+
+        String name = stack.getHoverName().getString().toLowerCase(Locale.ROOT) + "\n"
+                + BuiltInRegistries.ITEM.getKey(stack.getItem());
+        StringBuilder tags = new StringBuilder();
+        stack.getTags().forEach(tag -> tags.append(tag.location()).append('\n'));
+        String text = name + "\n#" + tags;
+        Integer key = keysByText.get(text);
+        if (key == null) {
+            key = keyNames.size();
+            keysByText.put(text, key);
+            keyNames.add(name);
+            keyTags.add(tags.toString());
+        }
+        keysByItemKey.put(itemKey, (int) key);
+        return key;
+    }
+}
@@ -0,0 +1,103 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.SimpleLootClient;
+import com.simpleloot.engine.ClickAccounting;
+import com.simpleloot.engine.ClickAction;
+import net.fabricmc.loader.api.FabricLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Appends one CSV row per container session to {@code <game dir>/simpleloot/metrics/sessions.csv}.
+ *
+ * Rows are queued on the client thread and written by a virtual thread that exits once the
+ * queue is empty. When the file grows past {@link #MAX_FILE_BYTES} it is rotated to
+ * {@code sessions.1.csv} (older files shift up, keeping {@link #MAX_ROTATED}).
+ */
+final class SessionCsvLog {
+    private SessionCsvLog() {}
+
+    private static final Path METRICS_DIR = FabricLoader.getInstance().getGameDir().resolve("simpleloot").resolve("metrics");
+    private static final Path CSV_PATH = METRICS_DIR.resolve("sessions.csv");
+    private static final long MAX_FILE_BYTES = 1024 * 1024;
+    private static final int MAX_ROTATED = 5;
+    private static final String HEADER = "end_time,screen_type,duration_ms,clicks,quick_move,pickup,throw,bytes_est,resyncs,no_op_clicks,over_budget_ticks,swap\n";
+
+    private static final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean writerScheduled = new AtomicBoolean(false);
+
+    /**
+     * Queues a summary row for the given session. Returns immediately.
+     */
+    static void append(ClickAccounting session, long endMs) {
+        pending.add(Instant.ofEpochMilli(endMs) + "," +
+                session.screenType().name() + "," +
+                (endMs - session.startMs()) + "," +
+                session.totalClicks() + "," +
+                session.clicks(ClickAction.QUICK_MOVE) + "," +
+                session.clicks(ClickAction.PICKUP) + "," +
+                session.clicks(ClickAction.THROW) + "," +
+                session.bytes() + "," +
+                session.resyncs() + "," +
+                session.noOps() + "," +
+                session.overBudgetTicks() + "," +
+                session.clicks(ClickAction.SWAP) + "\n");
+        if (writerScheduled.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("SimpleLoot metrics writer").start(SessionCsvLog::runWriter);
+        }
+    }
+
+    private static void runWriter() {
+        while (true) {
+            StringBuilder rows = new StringBuilder();
+            String row;
+            while ((row = pending.poll()) != null) {
+                rows.append(row);
+            }
+            if (!rows.isEmpty()) {
+                write(rows.toString());
+            }
+            writerScheduled.set(false);
+            // A row may have arrived after the last poll but before the flag was cleared
+            if (pending.isEmpty() || !writerScheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private static void write(String rows) {
+        try {
+            Files.createDirectories(METRICS_DIR);
+            if (Files.exists(CSV_PATH) && Files.size(CSV_PATH) > MAX_FILE_BYTES) {
+                rotate();
+            }
+            if (!Files.exists(CSV_PATH)) {
+                Files.writeString(CSV_PATH, HEADER);
+            }
+            Files.writeString(CSV_PATH, rows, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            SimpleLootClient.LOGGER.error("Failed to write SimpleLoot session metrics", e);
+        }
+    }
+
+    private static void rotate() throws IOException {
+        Files.deleteIfExists(rotated(MAX_ROTATED));
+        for (int i = MAX_ROTATED - 1; i >= 1; i--) {
+            if (Files.exists(rotated(i))) {
+                Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(CSV_PATH, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Path rotated(int index) {
+        return METRICS_DIR.resolve("sessions." + index + ".csv");
+    }
+}
@@ -0,0 +1,63 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.SimpleLootClient;
+import com.simpleloot.engine.ClickPlan;
+import com.simpleloot.engine.HoverEngine;
+import com.simpleloot.engine.TransferJournal;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
+import net.minecraft.client.input.KeyEvent;
+import net.minecraft.client.player.LocalPlayer;
+
+/**
+ * Undo Last Session: moves the stacks of the last hover session (or search pull, deposit)
+ * back where they came from, in one batch through the hover loot transfer queue.
+ *
+ * The session is read from the {@link TransferJournal} the handler fills while the undo key
+ * is bound; it is cleared when the screen closes, so undo only works on the screen the
+ * session ran on. Stacks that were merged into stacks the player already had stay where
+ * they are (see {@link TransferJournal#planUndo}).
+ */
+public final class SessionUndo {
+    private SessionUndo() {}
+
+    private static final ClickPlan plan = new ClickPlan();
+    private static final MenuKeys menuKeys = new MenuKeys();
+
+    /**
+     * Key handler, see {@link ContainerKeyActions}.
+     */
+    public static boolean keyPressed(AbstractContainerScreen<?> screen, KeyEvent event) {
+        if (!SimpleLootClient.undoSessionKeyBinding.matches(event)) return false;
+        if (ContainerKeyActions.containerType(screen) == null) return false;
+
+        LocalPlayer player = Minecraft.getInstance().player;
+        HoverEngine engine = HoverLootHandler.engineFor(screen);
+        TransferJournal journal = HoverLootHandler.journal();
+        if (player == null || engine == null) return true;
+        if (journal.size() == 0) {
+            ContainerKeyActions.message(player, "Nothing to undo");
+            return true;
+        }
+        // The plan is made against the current contents, so the session has to be done moving
+        if (engine.pendingCount() > 0 || !screen.getMenu().getCarried().isEmpty()) {
+            ContainerKeyActions.message(player, "Undo: wait for the transfers to finish");
+            return true;
+        }
+
+        int slotCount = menuKeys.read(screen.getMenu());
+        int steps = journal.planUndo(slotCount, menuKeys.keys, menuKeys.counts, menuKeys.maxCounts, plan);
+        int skipped = journal.skipped();
+        boolean truncated = journal.isTruncated();
+        if (steps > 0) {
+            HoverLootHandler.enqueue(plan);
+        }
+        journal.clear();
+
+        StringBuilder text = new StringBuilder("Undo: moving back ").append(steps).append(" stacks");
+        if (skipped > 0) text.append(", ").append(skipped).append(" merged or moved since");
+        if (truncated) text.append(" (session too long, first ").append(TransferJournal.CAPACITY).append(" only)");
+        ContainerKeyActions.message(player, text.toString());
+        return true;
+    }
+}
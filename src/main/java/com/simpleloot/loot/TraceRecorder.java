@@ -0,0 +1,166 @@
+package com.simpleloot.loot;
+
+import com.simpleloot.SimpleLootClient;
+import com.simpleloot.config.ConfigSnapshot;
+import com.simpleloot.engine.ClickAction;
+import com.simpleloot.engine.ClickSink;
+import com.simpleloot.engine.HoverInput;
+import com.simpleloot.engine.ItemFacts;
+import com.simpleloot.engine.RectSlotLayout;
+import com.simpleloot.engine.ScreenType;
+import com.simpleloot.engine.trace.TraceFormat;
+import com.simpleloot.engine.trace.TraceWriter;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.inventory.Slot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Records hover sessions into {@code .sltrace} files when {@code recordTraces} is enabled.
+ *
+ * A session runs from opening a container screen to closing it. Every tick records the
+ * slots whose contents changed, the engine input, and the clicks the engine sent, so the
+ * session can be replayed offline with {@link com.simpleloot.engine.trace.TraceReplayer}.
+ * Sessions without any hover activity are discarded. Files are written on a virtual
+ * thread to {@code <game dir>/simpleloot/traces}; only the newest {@link #MAX_TRACES} are kept.
+ */
+final class TraceRecorder implements ClickSink {
+    private static final Path TRACE_DIR = FabricLoader.getInstance().getGameDir().resolve("simpleloot").resolve("traces");
+    private static final int MAX_TRACES = 50;
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private TraceWriter writer = null;
+    private ScreenType screenType = null;
+    private boolean active = false;
+
+    // Last recorded contents per slot id (facts, registry item id, count)
+    private int[] lastFacts = new int[0];
+    private int[] lastItem = new int[0];
+    private int[] lastCount = new int[0];
+
+    // Sink the recorded clicks are forwarded to
+    private ClickSink target = null;
+
+    /**
+     * Returns true while a session is being recorded.
+     */
+    boolean isRecording() {
+        return writer != null;
+    }
+
+    /**
+     * Starts recording a session on the given screen. Any session in progress is ended first.
+     */
+    void begin(ScreenType screenType, ScreenSlotLayout layout, ConfigSnapshot config) {
+        end();
+        RectSlotLayout geometry = layout.snapshot();
+        this.writer = new TraceWriter(screenType, geometry, config);
+        this.screenType = screenType;
+        this.active = false;
+        int slots = geometry.slotCount();
+        lastFacts = new int[slots];
+        lastItem = new int[slots];
+        lastCount = new int[slots];
+        // Force every slot to be written on the first tick
+        Arrays.fill(lastFacts, -1);
+    }
+
+    /**
+     * Records the slot changes, settings and input of the coming tick.
+     * Call right before the engine runs.
+     */
+    void beforeTick(HoverInput input, ScreenSlotLayout layout, ItemFacts facts, ConfigSnapshot config) {
+        if (writer == null) return;
+        if (layout.slotCount() != lastFacts.length) {
+            // The menu was rebuilt under the same screen (e.g. creative tab change): start over
+            begin(screenType, layout, config);
+        }
+
+        for (int slotId = 0; slotId < lastFacts.length; slotId++) {
+            Slot slot = layout.slot(slotId);
+            int itemId = slot != null && slot.hasItem() ? BuiltInRegistries.ITEM.getId(slot.getItem().getItem()) : 0;
+            int count = slot != null ? slot.getItem().getCount() : 0;
+            int slotFacts = TraceFormat.factsOf(facts, slotId);
+            if (slotFacts != lastFacts[slotId] || itemId != lastItem[slotId] || count != lastCount[slotId]) {
+                writer.slot(slotId, slotFacts, itemId, count);
+                lastFacts[slotId] = slotFacts;
+                lastItem[slotId] = itemId;
+                lastCount[slotId] = count;
+            }
+        }
+        writer.settings(config);
+        writer.tick(input);
+        active |= input.hoverActive || input.dropKeyHeld || input.takeKeyHeld || input.depositKeyHeld;
+    }
+
+    /**
+     * Wraps the given sink so clicks sent through it are recorded. Returns this.
+     */
+    ClickSink wrap(ClickSink target) {
+        this.target = target;
+        return this;
+    }
+
+    @Override
+    public void click(int slotId, int button, ClickAction action) {
+        if (writer != null) {
+            writer.click(slotId, button, action);
+        }
+        target.click(slotId, button, action);
+    }
+
+    /**
+     * Ends the current session and writes it out if anything happened in it.
+     */
+    void end() {
+        if (writer == null) return;
+        TraceWriter finished = writer;
+        ScreenType type = screenType;
+        boolean keep = active || finished.clicks() > 0;
+        writer = null;
+        screenType = null;
+        if (!keep) return;
+
+        byte[] bytes = finished.finish();
+        String name = LocalDateTime.now().format(FILE_TIME) + "-" + type.name().toLowerCase(Locale.ROOT) + TraceFormat.EXTENSION;
+        Thread.ofVirtual().name("SimpleLoot trace writer").start(() -> write(name, bytes, finished.ticks(), finished.clicks()));
+    }
+
+    private static void write(String name, byte[] bytes, int ticks, int clicks) {
+        try {
+            Files.createDirectories(TRACE_DIR);
+            Path file = TRACE_DIR.resolve(name);
+            Files.write(file, bytes);
+            SimpleLootClient.LOGGER.info("SimpleLoot trace saved to {} ({} ticks, {} clicks, {} bytes)",
+                    file, ticks, clicks, bytes.length);
+            prune();
+        } catch (IOException e) {
+            SimpleLootClient.LOGGER.error("Failed to save SimpleLoot trace", e);
+        }
+    }
+
+    /**
+     * Deletes the oldest traces beyond {@link #MAX_TRACES}. File names sort by time.
+     */
+    private static synchronized void prune() throws IOException {
+        List<Path> traces;
+        try (Stream<Path> files = Files.list(TRACE_DIR)) {
+            traces = files.filter(path -> path.getFileName().toString().endsWith(TraceFormat.EXTENSION))
+                    .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .toList();
+        }
+        for (int i = 0; i < traces.size() - MAX_TRACES; i++) {
+            Files.deleteIfExists(traces.get(i));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.simpleloot.mixin;
+
+import com.simpleloot.loot.HoverLootHandler;
+import net.minecraft.client.multiplayer.ClientPacketListener;
+import net.minecraft.network.protocol.game.ClientboundContainerSetContentPacket;
+import net.minecraft.network.protocol.game.ClientboundContainerSetSlotPacket;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+// Observes container content packets so SimpleLoot can count server resyncs and keep its
+// container index up to date.
+@Mixin(ClientPacketListener.class)
+public abstract class ClientPacketListenerMixin {
+
+    // TAIL: the handler first re-schedules itself onto the client thread, only that run gets here.
+    @Inject(method = "handleContainerContent", at = @At("TAIL"))
+    private void simpleloot$onContainerContent(ClientboundContainerSetContentPacket packet, CallbackInfo ci) {
+        HoverLootHandler.onContainerContent(packet.containerId());
+    }
+
+    @Inject(method = "handleContainerSetSlot", at = @At("TAIL"))
+    private void simpleloot$onContainerSlot(ClientboundContainerSetSlotPacket packet, CallbackInfo ci) {
+        HoverLootHandler.onContainerSlot(packet.containerId());
+    }
+}
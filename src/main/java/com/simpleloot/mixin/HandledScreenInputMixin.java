@@ -0,0 +1,35 @@
+package com.simpleloot.mixin;
+
+import com.simpleloot.loot.ContainerSearch;
+import com.simpleloot.loot.DepositMatching;
+import com.simpleloot.loot.Loadouts;
+import com.simpleloot.loot.SessionUndo;
+import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
+import net.minecraft.client.input.KeyEvent;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+// Routes container screen keys to the container search field and the deposit matching, restock
+// loadout and undo keys before vanilla sees them, so typing a search does not close the screen
+// or trigger hotbar swaps.
+@Mixin(AbstractContainerScreen.class)
+public abstract class HandledScreenInputMixin {
+
+    @Inject(method = "keyPressed", at = @At("HEAD"), cancellable = true)
+    private void simpleloot$keyPressed(KeyEvent event, CallbackInfoReturnable<Boolean> cir) {
+        AbstractContainerScreen<?> screen = (AbstractContainerScreen<?>) (Object) this;
+        if (ContainerSearch.keyPressed(screen, event) || DepositMatching.keyPressed(screen, event)
+                || Loadouts.keyPressed(screen, event) || SessionUndo.keyPressed(screen, event)) {
+            cir.setReturnValue(true);
+        }
+    }
+
+    // init() runs again on resize and clears the widget list; put the search field back.
+    @Inject(method = "init", at = @At("TAIL"))
+    private void simpleloot$init(CallbackInfo ci) {
+        ContainerSearch.onInit((AbstractContainerScreen<?>) (Object) this);
+    }
+}
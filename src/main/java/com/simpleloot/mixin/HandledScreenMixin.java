@@ -3,14 +3,28 @@ package com.simpleloot.mixin;
 import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
 import net.minecraft.world.inventory.Slot;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
 import org.spongepowered.asm.mixin.gen.Invoker;
 
 // Mixin to access private methods in AbstractContainerScreen.
-// Specifically provides access to getHoveredSlot for hover detection.
+// Provides access to getHoveredSlot for hover detection and to the screen origin
+// (slot positions are relative to it) and width.
 @Mixin(AbstractContainerScreen.class)
 public interface HandledScreenMixin {
     
     // Invokes the private getHoveredSlot method.
     @Invoker("getHoveredSlot")
     Slot invokeGetSlotAt(double x, double y);
+    
+    // Left edge of the container background in GUI coordinates.
+    @Accessor("leftPos")
+    int getLeftPos();
+    
+    // Top edge of the container background in GUI coordinates.
+    @Accessor("topPos")
+    int getTopPos();
+    
+    // Width of the container background.
+    @Accessor("imageWidth")
+    int getImageWidth();
 }
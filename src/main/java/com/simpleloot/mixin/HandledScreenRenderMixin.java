@@ -0,0 +1,39 @@
+package com.simpleloot.mixin;
+
+import com.simpleloot.loot.AreaSelectOverlay;
+import com.simpleloot.loot.ContainerSearch;
+import com.simpleloot.loot.HoverHud;
+//? if >=26.1 {
+import net.minecraft.client.gui.GuiGraphicsExtractor;
+//?} else {
+/*import net.minecraft.client.gui.GuiGraphics;*/
+//?}
+import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+// Draws the container search highlights, the area selection and the SimpleLoot
+// performance HUD on top of container screens.
+@Mixin(AbstractContainerScreen.class)
+public abstract class HandledScreenRenderMixin {
+
+    //? if >=26.1 {
+    @Inject(method = "extractRenderState", at = @At("TAIL"))
+    private void simpleloot$renderHud(GuiGraphicsExtractor context, int mouseX, int mouseY, float delta, CallbackInfo ci) {
+        AbstractContainerScreen<?> screen = (AbstractContainerScreen<?>) (Object) this;
+        ContainerSearch.render(screen, context);
+        AreaSelectOverlay.render(screen, context, mouseX, mouseY);
+        HoverHud.render(context);
+    }
+    //?} else {
+    /*@Inject(method = "render", at = @At("TAIL"))
+    private void simpleloot$renderHud(GuiGraphics context, int mouseX, int mouseY, float delta, CallbackInfo ci) {
+        AbstractContainerScreen<?> screen = (AbstractContainerScreen<?>) (Object) this;
+        ContainerSearch.render(screen, context);
+        AreaSelectOverlay.render(screen, context, mouseX, mouseY);
+        HoverHud.render(context);
+    }*/
+    //?}
+}
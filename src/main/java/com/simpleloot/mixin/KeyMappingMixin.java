@@ -0,0 +1,16 @@
+package com.simpleloot.mixin;
+
+import com.mojang.blaze3d.platform.InputConstants;
+import net.minecraft.client.KeyMapping;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+// Mixin to read the key a KeyMapping is currently bound to.
+// Avoids re-parsing saveString() every tick to find out which key to poll.
+@Mixin(KeyMapping.class)
+public interface KeyMappingMixin {
+    
+    // The bound key (InputConstants.UNKNOWN when unbound).
+    @Accessor("key")
+    InputConstants.Key getBoundKey();
+}
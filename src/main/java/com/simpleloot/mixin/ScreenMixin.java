@@ -0,0 +1,22 @@
+package com.simpleloot.mixin;
+
+import net.minecraft.client.gui.components.Renderable;
+import net.minecraft.client.gui.components.events.GuiEventListener;
+import net.minecraft.client.gui.narration.NarratableEntry;
+import net.minecraft.client.gui.screens.Screen;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+// Mixin to add and remove widgets on screens SimpleLoot does not own.
+// Used by the container search field.
+@Mixin(Screen.class)
+public interface ScreenMixin {
+    
+    // Adds a widget that is drawn and receives input.
+    @Invoker("addRenderableWidget")
+    <T extends GuiEventListener & Renderable & NarratableEntry> T invokeAddRenderableWidget(T widget);
+    
+    // Removes a widget added before.
+    @Invoker("removeWidget")
+    void invokeRemoveWidget(GuiEventListener widget);
+}
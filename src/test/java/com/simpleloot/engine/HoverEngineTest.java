@@ -0,0 +1,315 @@
+package com.simpleloot.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Whole engine ticks against a double chest, headless: a swipe goes in through
+ * {@link HoverInput}, clicks come out through a recording {@link ClickSink}.
+ */
+class HoverEngineTest {
+    // Double chest: 54 container slots, 27 main inventory, 9 hotbar
+    private static final int FIRST_MAIN = 54;
+    private static final int FIRST_HOTBAR = 81;
+
+    private final RectSlotLayout layout = RectSlotLayout.containerGrid(6);
+    private final HoverEngine engine = new HoverEngine();
+    private final HoverInput input = new HoverInput();
+    private final boolean[] filled = new boolean[layout.slotCount()];
+    private final int[] itemKeys = new int[layout.slotCount()];
+    private final List<Integer> clicked = new ArrayList<>();
+    private final List<ClickAction> actions = new ArrayList<>();
+    private final List<HoverListener.SkipReason> skips = new ArrayList<>();
+    private long time = 0;
+
+    private boolean enabled = true;
+    private boolean hotbarProtection = true;
+    private int transferDelayMs = 0;
+
+    private final ItemFacts facts = new ItemFacts() {
+        @Override public boolean hasItem(int slotId) { return slotId >= 0 && slotId < filled.length && filled[slotId]; }
+        @Override public boolean isEquippableArmor(int slotId) { return false; }
+        @Override public int armorType(int slotId) { return -1; }
+        @Override public boolean isEnchantingInput(int slotId) { return true; }
+        @Override public boolean isBeaconPayment(int slotId) { return true; }
+        @Override public boolean passesFilter(int slotId, boolean dropMode) { return true; }
+        @Override public int itemKey(int slotId) { return hasItem(slotId) ? itemKeys[slotId] : 0; }
+    };
+
+    private final HoverSettings settings = new HoverSettings() {
+        @Override public boolean enabled() { return enabled; }
+        @Override public boolean hotbarProtection() { return hotbarProtection; }
+        @Override public int transferDelayMs() { return transferDelayMs; }
+        @Override public boolean allowHoverDrop() { return true; }
+        @Override public boolean allowCraftingGrid() { return true; }
+        @Override public boolean allowArmorEquip() { return true; }
+        @Override public int armorSwapDelayMs() { return 70; }
+    };
+
+    // Moving a stack empties its slot, like the client-side prediction does
+    private final ClickSink sink = (slotId, button, action) -> {
+        clicked.add(slotId);
+        actions.add(action);
+        if (slotId >= 0) filled[slotId] = false;
+    };
+
+    // Which key swipe() and press() hold
+    private enum Key { HOVER, TAKE, DEPOSIT }
+    private Key key = Key.HOVER;
+
+    HoverEngineTest() {
+        input.screenType = ScreenType.DOUBLE_CHEST;
+        // Every slot holds a different item unless a test says otherwise
+        for (int slotId = 0; slotId < itemKeys.length; slotId++) {
+            itemKeys[slotId] = slotId + 1;
+        }
+        engine.setListener(new HoverListener() {
+            @Override
+            public void onSkipped(int slotId, SkipReason reason) {
+                skips.add(reason);
+            }
+        });
+    }
+
+    @Test
+    void swipeQuickMovesEachSlotOfTheRowInOrder() {
+        Arrays.fill(filled, 0, 9, true);
+        swipe(0, 8);
+        drain();
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8), clicked);
+        assertTrue(actions.stream().allMatch(action -> action == ClickAction.QUICK_MOVE));
+    }
+
+    @Test
+    void emptySlotsAreNotQueued() {
+        filled[2] = true;
+        filled[6] = true;
+        swipe(0, 8);
+        drain();
+
+        assertEquals(List.of(2, 6), clicked);
+    }
+
+    @Test
+    void disabledEngineSendsNothing() {
+        enabled = false;
+        Arrays.fill(filled, 0, 9, true);
+        swipe(0, 8);
+        drain();
+
+        assertEquals(List.of(), clicked);
+    }
+
+    @Test
+    void hotbarProtectionKeepsTheHotbar() {
+        Arrays.fill(filled, FIRST_HOTBAR, FIRST_HOTBAR + 9, true);
+        swipe(FIRST_HOTBAR, FIRST_HOTBAR + 8);
+        drain();
+        assertEquals(List.of(), clicked);
+
+        hotbarProtection = false;
+        swipe(FIRST_HOTBAR, FIRST_HOTBAR + 8);
+        drain();
+        assertEquals(9, clicked.size());
+    }
+
+    @Test
+    void delayedQueueKeepsRunningAfterTheKeyIsReleased() {
+        transferDelayMs = 50;
+        Arrays.fill(filled, FIRST_MAIN, FIRST_MAIN + 9, true);
+        swipe(FIRST_MAIN, FIRST_MAIN + 8);
+        // The swipe took three ticks, and a delay allows one transfer per tick
+        assertTrue(clicked.size() <= 3, "sent " + clicked.size() + " transfers in 3 ticks");
+
+        int ticks = drain();
+        assertEquals(9, clicked.size());
+        assertEquals(9 - 3, ticks);
+    }
+
+    @Test
+    void releasingTheKeyAllowsReselectingASlot() {
+        filled[0] = true;
+        swipe(0, 0);
+        drain();
+        filled[0] = true;
+        swipe(0, 0);
+        drain();
+
+        assertEquals(List.of(0, 0), clicked);
+    }
+
+    @Test
+    void takeKeyOnlyMovesContainerSlots() {
+        key = Key.TAKE;
+        filled[0] = true;
+        filled[1] = true;
+        Arrays.fill(filled, FIRST_MAIN, FIRST_MAIN + 2, true);
+        swipe(0, 1);
+        swipe(FIRST_MAIN, FIRST_MAIN + 1);
+        drain();
+
+        assertEquals(List.of(0, 1), clicked);
+        assertEquals(Set.of(HoverListener.SkipReason.WRONG_DIRECTION), Set.copyOf(skips));
+    }
+
+    @Test
+    void depositKeyOnlyMovesPlayerSlots() {
+        key = Key.DEPOSIT;
+        filled[0] = true;
+        filled[1] = true;
+        Arrays.fill(filled, FIRST_MAIN, FIRST_MAIN + 2, true);
+        swipe(0, 1);
+        swipe(FIRST_MAIN, FIRST_MAIN + 1);
+        drain();
+
+        assertEquals(List.of(FIRST_MAIN, FIRST_MAIN + 1), clicked);
+        assertEquals(Set.of(HoverListener.SkipReason.WRONG_DIRECTION), Set.copyOf(skips));
+    }
+
+    @Test
+    void itemTakenOutIsNotSentBackInTheSameHold() {
+        land(0, 100);
+        press(0);
+        drain();
+        // The stack lands in the inventory, under the path the mouse takes next
+        land(FIRST_MAIN, 100);
+        moveTo(FIRST_MAIN);
+        drain();
+
+        assertEquals(List.of(0), clicked);
+        assertEquals(List.of(HoverListener.SkipReason.BOUNCE), skips);
+        assertTrue(filled[FIRST_MAIN]);
+
+        // A new hold may move it back
+        release();
+        swipe(FIRST_MAIN, FIRST_MAIN);
+        drain();
+        assertEquals(List.of(0, FIRST_MAIN), clicked);
+    }
+
+    @Test
+    void dropModeIsExemptFromAntiBounce() {
+        land(0, 100);
+        press(0);
+        drain();
+        land(FIRST_MAIN, 100);
+        // Ctrl held: drop mode, which throws the stack instead of moving it back
+        input.ctrlHeld = true;
+        moveTo(FIRST_MAIN);
+        drain();
+
+        assertEquals(List.of(0, FIRST_MAIN), clicked);
+        assertEquals(ClickAction.THROW, actions.get(1));
+        assertEquals(List.of(), skips);
+    }
+
+    @Test
+    void batchDoesNotBlockTheNextSession() {
+        // Deposit a stack as a batch (as deposit matching does), between hover sessions
+        land(FIRST_MAIN, 100);
+        tick();
+        assertEquals(1, engine.enqueue(new int[]{FIRST_MAIN}, 1, input, settings, facts));
+        drain();
+
+        // The next session takes the same item back out of the container
+        land(0, 100);
+        swipe(0, 0);
+        drain();
+
+        assertEquals(List.of(FIRST_MAIN, 0), clicked);
+        assertEquals(List.of(), skips);
+    }
+
+    @Test
+    void hoveringIsPausedWhileAPlanRuns() {
+        transferDelayMs = 50;
+        ClickPlan restock = new ClickPlan();
+        for (int slotId = 10; slotId < 14; slotId++) {
+            restock.click(slotId, 0, ClickAction.SWAP);
+            restock.endStep(slotId, -1);
+        }
+        tick();
+        engine.enqueue(restock);
+
+        filled[0] = true;
+        swipe(0, 0);
+        drain();
+
+        // The plan's steps went out one per tick and the slot hovered meanwhile was not queued
+        assertEquals(List.of(10, 11, 12, 13), clicked);
+        assertEquals(ClickAction.SWAP, actions.get(0));
+
+        swipe(0, 0);
+        drain();
+        assertEquals(List.of(10, 11, 12, 13, 0), clicked);
+    }
+
+    /**
+     * Holds {@link #key} while moving from the center of one slot to the center of
+     * another on the same row, then releases it.
+     */
+    private void swipe(int fromSlot, int toSlot) {
+        press(fromSlot);
+        moveTo(toSlot);
+        release();
+    }
+
+    /**
+     * Puts the mouse on a slot and presses {@link #key} there.
+     */
+    private void press(int slotId) {
+        input.hoverActive = key == Key.HOVER;
+        input.takeKeyHeld = key == Key.TAKE;
+        input.depositKeyHeld = key == Key.DEPOSIT;
+        moveTo(slotId);
+    }
+
+    /**
+     * Moves the mouse to the center of a slot, keeping the keys as they are, for one tick.
+     */
+    private void moveTo(int slotId) {
+        input.mouseX = layout.slotX(slotId) + 8;
+        input.mouseY = layout.slotY(slotId) + 8;
+        tick();
+    }
+
+    private void release() {
+        input.hoverActive = false;
+        input.takeKeyHeld = false;
+        input.depositKeyHeld = false;
+        tick();
+    }
+
+    /**
+     * Puts a stack of the given item into a slot, as a transfer landing there would.
+     */
+    private void land(int slotId, int itemKey) {
+        filled[slotId] = true;
+        itemKeys[slotId] = itemKey;
+    }
+
+    /**
+     * Ticks until the queue is empty. Returns the number of ticks.
+     */
+    private int drain() {
+        int ticks = 0;
+        while (engine.pendingCount() > 0 && ticks < 1000) {
+            tick();
+            ticks++;
+        }
+        return ticks;
+    }
+
+    private void tick() {
+        input.timeMs = time += 50;
+        engine.tick(input, settings, layout, facts, sink);
+    }
+}
@@ -0,0 +1,99 @@
+package com.simpleloot.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LaneQueueTest {
+    private final LaneQueue queue = new LaneQueue();
+
+    @Test
+    void emptyQueueHasNoNextLane() {
+        assertNull(queue.next());
+        assertEquals(-1, queue.peek());
+        assertEquals(-1, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void normalAndBulkShareThreeToOne() {
+        fill(LaneQueue.Lane.NORMAL, 0, 8);
+        fill(LaneQueue.Lane.BULK, 40, 4);
+
+        assertArrayEquals(new int[]{0, 1, 2, 40, 3, 4, 5, 41, 6, 7, 42, 43}, drain(12));
+    }
+
+    @Test
+    void interactiveAlwaysGoesFirst() {
+        fill(LaneQueue.Lane.NORMAL, 0, 4);
+        fill(LaneQueue.Lane.BULK, 40, 2);
+        queue.poll();
+        queue.add(90, LaneQueue.Lane.INTERACTIVE);
+        queue.add(91, LaneQueue.Lane.INTERACTIVE);
+
+        assertEquals(LaneQueue.Lane.INTERACTIVE, queue.next());
+        // The interactive slots do not use up the normal lane's share
+        assertArrayEquals(new int[]{90, 91, 1, 2, 40, 3, 41}, drain(7));
+    }
+
+    @Test
+    void laneWithoutWorkGivesItsShareAway() {
+        fill(LaneQueue.Lane.BULK, 40, 5);
+        assertArrayEquals(new int[]{40, 41, 42}, drain(3));
+
+        // Normal work arriving mid-batch starts a fresh run of three
+        fill(LaneQueue.Lane.NORMAL, 0, 4);
+        assertArrayEquals(new int[]{0, 1, 2, 43, 3, 44}, drain(6));
+    }
+
+    @Test
+    void peekAndNextDoNotAdvanceTheShare() {
+        fill(LaneQueue.Lane.NORMAL, 0, 3);
+        fill(LaneQueue.Lane.BULK, 40, 1);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(LaneQueue.Lane.NORMAL, queue.next());
+            assertEquals(i, queue.peek());
+            assertEquals(i, queue.peek());
+            assertEquals(i, queue.poll());
+        }
+        assertEquals(LaneQueue.Lane.BULK, queue.next());
+        assertEquals(40, queue.poll());
+    }
+
+    @Test
+    void sizesAndClear() {
+        fill(LaneQueue.Lane.INTERACTIVE, 90, 1);
+        fill(LaneQueue.Lane.NORMAL, 0, 2);
+        fill(LaneQueue.Lane.BULK, 40, 3);
+        assertEquals(1, queue.size(LaneQueue.Lane.INTERACTIVE));
+        assertEquals(2, queue.size(LaneQueue.Lane.NORMAL));
+        assertEquals(3, queue.size(LaneQueue.Lane.BULK));
+        assertEquals(6, queue.size());
+
+        // Clearing also resets the share, so the next run starts with three normal slots
+        queue.poll();
+        queue.poll();
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        fill(LaneQueue.Lane.NORMAL, 0, 4);
+        fill(LaneQueue.Lane.BULK, 40, 1);
+        assertArrayEquals(new int[]{0, 1, 2, 40, 3}, drain(5));
+    }
+
+    private void fill(LaneQueue.Lane lane, int firstSlot, int count) {
+        for (int i = 0; i < count; i++) {
+            queue.add(firstSlot + i, lane);
+        }
+    }
+
+    private int[] drain(int count) {
+        int[] polled = new int[count];
+        for (int i = 0; i < count; i++) {
+            polled[i] = queue.poll();
+        }
+        return polled;
+    }
+}
@@ -0,0 +1,213 @@
+package com.simpleloot.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Restock plans against a single chest: container slots 0-26, main inventory 27-53,
+ * hotbar 54-62.
+ */
+class LoadoutPlannerTest {
+    private static final int SLOTS = 63;
+    private static final int FIRST_MAIN = 27;
+    private static final int FIRST_HOTBAR = 54;
+
+    private static final int ARROW = 5;
+    private static final int BREAD = 6;
+    private static final int TORCH = 7;
+    private static final int SHIELD = 8;
+
+    private final LoadoutPlanner planner = new LoadoutPlanner();
+    private final ClickPlan plan = new ClickPlan();
+    private final int[] keys = new int[SLOTS];
+    private final int[] counts = new int[SLOTS];
+    private final int[] maxCounts = new int[SLOTS];
+    private final int[] targetKeys = new int[LoadoutPlanner.INVENTORY_SIZE];
+    private final int[] targetCounts = new int[LoadoutPlanner.INVENTORY_SIZE];
+    private int offhandKey = 0;
+
+    LoadoutPlannerTest() {
+        Arrays.fill(maxCounts, 64);
+    }
+
+    @Test
+    void emptyHotbarSlotIsFilledWithOneSwap() {
+        put(3, ARROW, 64);
+        target(0, ARROW, 64);
+
+        assertEquals(1, plan());
+        assertEquals(List.of("SWAP 3 0"), clicks());
+    }
+
+    @Test
+    void emptyMainSlotTakesAPickupPair() {
+        put(3, BREAD, 32);
+        target(LoadoutPlanner.HOTBAR_SIZE + 4, BREAD, 32);
+
+        assertEquals(1, plan());
+        assertEquals(List.of("PICKUP 3 0", "PICKUP " + (FIRST_MAIN + 4) + " 0"), clicks());
+    }
+
+    @Test
+    void partialStackIsToppedUpWithAShiftClick() {
+        put(FIRST_HOTBAR, ARROW, 10);
+        put(2, ARROW, 20);
+        target(0, ARROW, 64);
+
+        // 30 of 64 after the only source is used up
+        assertEquals(1, plan());
+        assertEquals(List.of("QUICK_MOVE 2 0"), clicks());
+    }
+
+    @Test
+    void shiftClickIsAvoidedWhenAnotherStackWouldTakeTheItems() {
+        put(FIRST_HOTBAR, ARROW, 10);
+        put(FIRST_MAIN, ARROW, 5);
+        put(2, ARROW, 20);
+        target(0, ARROW, 64);
+
+        assertEquals(1, plan());
+        assertEquals(List.of("PICKUP 2 0", "PICKUP " + FIRST_HOTBAR + " 0"), clicks());
+    }
+
+    @Test
+    void whatDoesNotFitIsPutBack() {
+        put(FIRST_HOTBAR, ARROW, 60);
+        put(2, ARROW, 20);
+        target(0, ARROW, 64);
+
+        assertEquals(1, plan());
+        assertEquals(List.of("PICKUP 2 0", "PICKUP " + FIRST_HOTBAR + " 0", "PICKUP 2 0"), clicks());
+    }
+
+    @Test
+    void sourceCoveringTheNeedWithLeastLeftOverIsTaken() {
+        put(0, TORCH, 64);
+        put(1, TORCH, 20);
+        put(2, TORCH, 10);
+        target(0, TORCH, 16);
+
+        assertEquals(1, plan());
+        assertEquals(List.of("SWAP 1 0"), clicks());
+    }
+
+    @Test
+    void severalSmallStacksFillOneSlot() {
+        put(FIRST_HOTBAR, ARROW, 1);
+        put(4, ARROW, 10);
+        put(5, ARROW, 12);
+        target(0, ARROW, 20);
+
+        // Neither covers the 19 missing, so the largest goes first, then the one that covers the rest
+        assertEquals(2, plan());
+        assertEquals(List.of("QUICK_MOVE 5 0", "QUICK_MOVE 4 0"), clicks());
+    }
+
+    @Test
+    void slotHoldingAnotherItemIsLeftAlone() {
+        put(FIRST_HOTBAR, BREAD, 5);
+        put(3, ARROW, 64);
+        target(0, ARROW, 64);
+
+        assertEquals(0, plan());
+        assertEquals(List.of(), clicks());
+    }
+
+    @Test
+    void emptyOffhandIsFilledWithAnOffhandSwap() {
+        put(8, SHIELD, 1);
+        maxCounts[8] = 1;
+        target(LoadoutPlanner.OFFHAND, SHIELD, 1);
+
+        assertEquals(1, plan());
+        assertEquals(List.of("SWAP 8 40"), clicks());
+
+        offhandKey = BREAD;
+        assertEquals(0, plan());
+    }
+
+    @Test
+    void armorIsNotRestocked() {
+        put(3, SHIELD, 1);
+        target(LoadoutPlanner.FIRST_ARMOR, SHIELD, 1);
+
+        assertEquals(0, plan());
+    }
+
+    @Test
+    void nonStorageScreenIsNotPlanned() {
+        // Anvil: inputs 0-1, result 2, then the player inventory; taking the result would
+        // perform the repair and cost XP
+        put(2, ARROW, 64);
+        target(0, ARROW, 64);
+
+        assertEquals(0, planner.plan(ScreenType.ANVIL, 39, keys, counts, maxCounts, offhandKey,
+                targetKeys, targetCounts, plan));
+        assertEquals(List.of(), clicks());
+    }
+
+    @Test
+    void fullTemplateClickCount() {
+        // Hotbar: arrows (empty), bread (partial, shift-click), torches (nearly full, with put-back)
+        put(0, ARROW, 64);
+        target(0, ARROW, 64);
+        put(FIRST_HOTBAR + 1, BREAD, 8);
+        put(1, BREAD, 16);
+        target(1, BREAD, 64);
+        put(FIRST_HOTBAR + 2, TORCH, 60);
+        put(2, TORCH, 64);
+        target(2, TORCH, 64);
+        // Offhand shield
+        put(3, SHIELD, 1);
+        maxCounts[3] = 1;
+        target(LoadoutPlanner.OFFHAND, SHIELD, 1);
+        // Main inventory: two empty slots of arrows from two chest stacks
+        put(4, ARROW, 64);
+        put(5, ARROW, 64);
+        target(LoadoutPlanner.HOTBAR_SIZE, ARROW, 64);
+        target(LoadoutPlanner.HOTBAR_SIZE + 1, ARROW, 64);
+
+        // 1 swap + 1 shift-click + 3 pickups + 1 offhand swap + 2 pickup pairs
+        assertEquals(6, plan());
+        assertEquals(1 + 1 + 3 + 1 + 2 + 2, plan.remainingClicks());
+        // Every chest source is used exactly once
+        assertEquals(List.of(
+                "SWAP 0 0",
+                "QUICK_MOVE 1 0",
+                "PICKUP 2 0", "PICKUP " + (FIRST_HOTBAR + 2) + " 0", "PICKUP 2 0",
+                "SWAP 3 40",
+                "PICKUP 4 0", "PICKUP " + FIRST_MAIN + " 0",
+                "PICKUP 5 0", "PICKUP " + (FIRST_MAIN + 1) + " 0"), clicks());
+    }
+
+    private void put(int slotId, int key, int count) {
+        keys[slotId] = key;
+        counts[slotId] = count;
+    }
+
+    private void target(int inventoryIndex, int key, int count) {
+        targetKeys[inventoryIndex] = key;
+        targetCounts[inventoryIndex] = count;
+    }
+
+    private int plan() {
+        return planner.plan(ScreenType.CHEST, SLOTS, keys, counts, maxCounts, offhandKey, targetKeys, targetCounts, plan);
+    }
+
+    /**
+     * Sends the plan and returns its clicks as "ACTION slot button".
+     */
+    private List<String> clicks() {
+        List<String> clicks = new ArrayList<>();
+        ClickSink sink = (slotId, button, action) -> clicks.add(action + " " + slotId + " " + button);
+        while (!plan.isEmpty()) {
+            plan.sendNext(sink, HoverListener.NONE, TransferKind.RESTOCK);
+        }
+        return clicks;
+    }
+}
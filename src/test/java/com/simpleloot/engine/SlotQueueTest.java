@@ -0,0 +1,76 @@
+package com.simpleloot.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotQueueTest {
+    @Test
+    void emptyQueueReturnsMinusOne() {
+        SlotQueue queue = new SlotQueue();
+        assertTrue(queue.isEmpty());
+        assertEquals(-1, queue.peek());
+        assertEquals(-1, queue.poll());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void pollsInInsertionOrder() {
+        SlotQueue queue = new SlotQueue();
+        for (int slotId = 10; slotId < 20; slotId++) {
+            queue.add(slotId);
+        }
+        assertEquals(10, queue.size());
+        for (int slotId = 10; slotId < 20; slotId++) {
+            assertEquals(slotId, queue.peek());
+            assertEquals(slotId, queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void growingKeepsOrderWhenTheRingHasWrapped() {
+        SlotQueue queue = new SlotQueue(4);
+        // Move the head forward so the next adds wrap around the end of the ring
+        for (int i = 0; i < 3; i++) {
+            queue.add(i);
+            queue.poll();
+        }
+        for (int slotId = 0; slotId < 100; slotId++) {
+            queue.add(slotId);
+        }
+        assertEquals(100, queue.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, queue.get(i));
+        }
+        for (int slotId = 0; slotId < 100; slotId++) {
+            assertEquals(slotId, queue.poll());
+        }
+    }
+
+    @Test
+    void clearEmptiesAndStaysUsable() {
+        SlotQueue queue = new SlotQueue();
+        queue.add(1);
+        queue.add(2);
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertEquals(-1, queue.peek());
+
+        queue.add(3);
+        assertFalse(queue.isEmpty());
+        assertEquals(3, queue.poll());
+    }
+
+    @Test
+    void toStringListsHeadFirst() {
+        SlotQueue queue = new SlotQueue(4);
+        queue.add(7);
+        queue.add(8);
+        queue.poll();
+        queue.add(9);
+        assertEquals("[8, 9]", queue.toString());
+    }
+}
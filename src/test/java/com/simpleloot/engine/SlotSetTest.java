@@ -0,0 +1,70 @@
+package com.simpleloot.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotSetTest {
+    @Test
+    void addReportsWhetherTheSlotWasNew() {
+        SlotSet set = new SlotSet();
+        assertTrue(set.add(5));
+        assertFalse(set.add(5));
+        assertTrue(set.contains(5));
+        assertFalse(set.contains(4));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void negativeSlotsAreNeverMembers() {
+        SlotSet set = new SlotSet();
+        assertFalse(set.add(-1));
+        assertFalse(set.contains(-1));
+        assertFalse(set.remove(-1));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    void growsPastTheInitialWords() {
+        SlotSet set = new SlotSet();
+        // Word boundaries, and ids far beyond the initial 128 bits
+        int[] slotIds = {0, 63, 64, 127, 128, 1000, 4095};
+        for (int slotId : slotIds) {
+            assertTrue(set.add(slotId));
+        }
+        for (int slotId : slotIds) {
+            assertTrue(set.contains(slotId), "contains " + slotId);
+        }
+        assertFalse(set.contains(62));
+        assertFalse(set.contains(129));
+        assertFalse(set.contains(100_000));
+        assertEquals(slotIds.length, set.size());
+    }
+
+    @Test
+    void removeOnlyTouchesItsOwnBit() {
+        SlotSet set = new SlotSet();
+        set.add(63);
+        set.add(64);
+        assertTrue(set.remove(63));
+        assertFalse(set.remove(63));
+        assertFalse(set.remove(500));
+        assertFalse(set.contains(63));
+        assertTrue(set.contains(64));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void clearEmptiesTheSet() {
+        SlotSet set = new SlotSet();
+        set.add(3);
+        set.add(300);
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(3));
+        assertFalse(set.contains(300));
+        assertTrue(set.add(3));
+    }
+}
@@ -0,0 +1,208 @@
+package com.simpleloot.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Undo plans against a simulated single chest (container 0-26, player inventory 27-62):
+ * a session is applied to the menu and journaled, the undo plan is sent through a sink
+ * that plays left clicks on the same menu, and the result is compared with the start.
+ */
+class TransferJournalTest {
+    private static final int SLOTS = 63;
+    private static final int ARROW = 5;
+    private static final int BREAD = 6;
+
+    private final TransferJournal journal = new TransferJournal();
+    private final ClickPlan plan = new ClickPlan();
+    private final int[] keys = new int[SLOTS];
+    private final int[] counts = new int[SLOTS];
+    private final int[] maxCounts = new int[SLOTS];
+    private int carriedKey = 0;
+    private int carriedCount = 0;
+    private int clicks = 0;
+
+    TransferJournalTest() {
+        Arrays.fill(maxCounts, 64);
+    }
+
+    @Test
+    void singleMoveRoundTrips() {
+        put(3, ARROW, 64);
+        put(4, BREAD, 10);
+        int[] keysBefore = keys.clone();
+        int[] countsBefore = counts.clone();
+
+        journal.beginSession();
+        move(3, 30, 64);
+        move(4, 31, 10);
+
+        assertEquals(2, undo());
+        assertEquals(0, journal.skipped());
+        assertEquals(4, clicks);
+        assertArrayEquals(keysBefore, keys);
+        assertArrayEquals(countsBefore, counts);
+        assertEquals(0, carriedCount);
+    }
+
+    @Test
+    void stacksGoBackNewestFirst() {
+        put(3, ARROW, 64);
+        put(4, BREAD, 10);
+        journal.beginSession();
+        move(3, 30, 64);
+        move(4, 31, 10);
+
+        journal.planUndo(SLOTS, keys, counts, maxCounts, plan);
+        int[] order = new int[4];
+        int[] sent = {0};
+        ClickSink sink = (slotId, button, action) -> order[sent[0]++] = slotId;
+        while (!plan.isEmpty()) {
+            plan.sendNext(sink, HoverListener.NONE, TransferKind.QUICK_MOVE);
+        }
+        assertArrayEquals(new int[]{31, 4, 30, 3}, order);
+    }
+
+    @Test
+    void stackMergedIntoAnExistingOneStaysPut() {
+        // A shift-click of 64 arrows tops up a stack of 50 (14) and fills an empty slot (50)
+        put(3, ARROW, 64);
+        put(30, ARROW, 50);
+        journal.beginSession();
+        move(3, 30, 14);
+        move(3, 31, 50);
+
+        assertEquals(1, undo());
+        assertEquals(1, journal.skipped());
+        // The new stack went back; the merged part would take a click per item
+        assertEquals(50, counts[3]);
+        assertEquals(64, counts[30]);
+        assertEquals(0, keys[31]);
+    }
+
+    @Test
+    void restThatNoLongerFitsIsPutBack() {
+        put(3, ARROW, 64);
+        journal.beginSession();
+        move(3, 30, 64);
+        // The player puts 40 other arrows into the source slot by hand
+        put(3, ARROW, 40);
+
+        assertEquals(1, undo());
+        // Pick up, place 24 on the source, put the other 40 back
+        assertEquals(3, clicks);
+        assertEquals(64, counts[3]);
+        assertEquals(40, counts[30]);
+        assertEquals(0, carriedCount);
+    }
+
+    @Test
+    void destinationHoldingSomethingElseIsSkipped() {
+        put(3, ARROW, 64);
+        journal.beginSession();
+        move(3, 30, 64);
+        put(30, BREAD, 64);
+
+        assertEquals(0, undo());
+        assertEquals(1, journal.skipped());
+        assertEquals(0, clicks);
+    }
+
+    @Test
+    void sourceHoldingSomethingElseIsPassedOver() {
+        put(3, ARROW, 64);
+        journal.beginSession();
+        move(3, 30, 64);
+        put(3, BREAD, 1);
+
+        assertEquals(0, undo());
+        assertEquals(1, journal.skipped());
+        assertEquals(BREAD, keys[3]);
+    }
+
+    @Test
+    void newSessionReplacesTheOldOneOnItsFirstRecord() {
+        journal.beginSession();
+        journal.record(3, 30, ARROW, 64);
+        // A session that moves nothing keeps the last one undoable
+        journal.beginSession();
+        assertEquals(1, journal.size());
+
+        journal.record(4, 31, BREAD, 10);
+        assertEquals(1, journal.size());
+
+        journal.clear();
+        assertEquals(0, journal.size());
+    }
+
+    @Test
+    void longSessionKeepsItsFirstEntries() {
+        journal.beginSession();
+        for (int i = 0; i <= TransferJournal.CAPACITY; i++) {
+            journal.record(i % 27, 27 + i % 36, ARROW, 1);
+        }
+        assertEquals(TransferJournal.CAPACITY, journal.size());
+        assertTrue(journal.isTruncated());
+
+        journal.beginSession();
+        journal.record(0, 30, ARROW, 1);
+        assertFalse(journal.isTruncated());
+    }
+
+    private void put(int slotId, int key, int count) {
+        keys[slotId] = key;
+        counts[slotId] = count;
+    }
+
+    /**
+     * Moves items between slots as a shift-click would, and journals it.
+     */
+    private void move(int source, int target, int count) {
+        int key = keys[source];
+        keys[target] = key;
+        counts[target] += count;
+        counts[source] -= count;
+        if (counts[source] == 0) keys[source] = 0;
+        journal.record(source, target, key, count);
+    }
+
+    /**
+     * Plans the undo and plays it on the menu. Returns the number of steps.
+     */
+    private int undo() {
+        int steps = journal.planUndo(SLOTS, keys, counts, maxCounts, plan);
+        while (!plan.isEmpty()) {
+            plan.sendNext(this::leftClick, HoverListener.NONE, TransferKind.QUICK_MOVE);
+        }
+        return steps;
+    }
+
+    /**
+     * A vanilla left click: take the stack, place the carried one, merge or swap.
+     */
+    private void leftClick(int slotId, int button, ClickAction action) {
+        assertEquals(ClickAction.PICKUP, action);
+        clicks++;
+        if (carriedCount == 0) {
+            carriedKey = keys[slotId];
+            carriedCount = counts[slotId];
+            put(slotId, 0, 0);
+        } else if (keys[slotId] == 0 || keys[slotId] == carriedKey) {
+            int placed = Math.min(carriedCount, maxCounts[slotId] - counts[slotId]);
+            put(slotId, carriedKey, counts[slotId] + placed);
+            carriedCount -= placed;
+        } else {
+            int key = keys[slotId];
+            int count = counts[slotId];
+            put(slotId, carriedKey, carriedCount);
+            carriedKey = key;
+            carriedCount = count;
+        }
+    }
+}
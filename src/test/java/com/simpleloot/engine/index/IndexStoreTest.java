@@ -0,0 +1,180 @@
+package com.simpleloot.engine.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexStoreTest {
+    private static final ContainerKey CHEST = new ContainerKey("minecraft:overworld", 12345L);
+    private static final ContainerKey BARREL = new ContainerKey("minecraft:overworld", -987654321L);
+    private static final ContainerKey NETHER_CHEST = new ContainerKey("minecraft:the_nether", 0L);
+
+    @TempDir
+    Path dir;
+
+    // Item ids are stored as names "item<id>"; "item-1" stands for an item removed since
+    private static int itemId(String name) {
+        return Integer.parseInt(name.substring("item".length()));
+    }
+
+    private static String itemName(int itemId) {
+        return "item" + itemId;
+    }
+
+    private Path file() {
+        return dir.resolve("world.slidx");
+    }
+
+    private IndexStore open() throws IOException {
+        return IndexStore.open(file(), IndexStoreTest::itemId);
+    }
+
+    private static void append(IndexStore store, ContainerKey key, int[] items, int[] counts, long observedMs)
+            throws IOException {
+        store.append(new ContainerIndex.Snapshot(key, items, counts, observedMs), IndexStoreTest::itemName);
+    }
+
+    @Test
+    void newStoreIsJustTheHeader() throws IOException {
+        try (IndexStore store = open()) {
+            assertEquals(List.of(), store.takeLoaded());
+            assertEquals(5, store.fileBytes());
+        }
+        assertEquals(5, Files.size(file()));
+    }
+
+    @Test
+    void reopenReturnsContainersOldestFirst() throws IOException {
+        try (IndexStore store = open()) {
+            append(store, CHEST, new int[]{1, 2}, new int[]{64, 3}, 2000);
+            append(store, BARREL, new int[]{2}, new int[]{10}, 1000);
+            append(store, NETHER_CHEST, new int[]{}, new int[]{}, 3000);
+            assertEquals(3, store.size());
+        }
+
+        try (IndexStore store = open()) {
+            List<IndexStore.Entry> entries = store.takeLoaded();
+            assertEquals(3, entries.size());
+            assertEquals(BARREL, entries.get(0).key());
+            assertEquals(CHEST, entries.get(1).key());
+            assertEquals(NETHER_CHEST, entries.get(2).key());
+
+            IndexStore.Entry chest = entries.get(1);
+            assertArrayEquals(new int[]{1, 2}, chest.items());
+            assertArrayEquals(new int[]{64, 3}, chest.counts());
+            assertEquals(2000, chest.observedMs());
+            assertEquals(0, entries.get(2).items().length);
+
+            // Released after the first call
+            assertEquals(List.of(), store.takeLoaded());
+        }
+    }
+
+    @Test
+    void laterRecordReplacesEarlierOne() throws IOException {
+        try (IndexStore store = open()) {
+            append(store, CHEST, new int[]{1}, new int[]{5}, 1000);
+            append(store, CHEST, new int[]{7}, new int[]{9}, 2000);
+            assertEquals(1, store.size());
+        }
+
+        try (IndexStore store = open()) {
+            List<IndexStore.Entry> entries = store.takeLoaded();
+            assertEquals(1, entries.size());
+            assertArrayEquals(new int[]{7}, entries.get(0).items());
+            assertArrayEquals(new int[]{9}, entries.get(0).counts());
+        }
+    }
+
+    @Test
+    void unknownItemsAreDropped() throws IOException {
+        try (IndexStore store = open()) {
+            append(store, CHEST, new int[]{4, -1, 6}, new int[]{1, 2, 3}, 1000);
+        }
+
+        try (IndexStore store = open()) {
+            IndexStore.Entry entry = store.takeLoaded().get(0);
+            assertArrayEquals(new int[]{4, 6}, entry.items());
+            assertArrayEquals(new int[]{1, 3}, entry.counts());
+        }
+    }
+
+    @Test
+    void recordCutShortIsTruncatedAway() throws IOException {
+        long complete;
+        try (IndexStore store = open()) {
+            append(store, CHEST, new int[]{1}, new int[]{5}, 1000);
+            append(store, BARREL, new int[]{2}, new int[]{6}, 2000);
+            complete = store.fileBytes();
+        }
+        // A container record that claims 50 bytes but was cut off after two, as by a crash
+        try (FileChannel channel = FileChannel.open(file(), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{50, 2, 1}));
+        }
+
+        try (IndexStore store = open()) {
+            assertEquals(2, store.takeLoaded().size());
+            assertEquals(complete, store.fileBytes());
+            assertEquals(complete, Files.size(file()));
+
+            // Appends continue after the last complete record
+            append(store, NETHER_CHEST, new int[]{3}, new int[]{7}, 3000);
+        }
+
+        try (IndexStore store = open()) {
+            List<IndexStore.Entry> entries = store.takeLoaded();
+            assertEquals(3, entries.size());
+            assertEquals(NETHER_CHEST, entries.get(2).key());
+        }
+    }
+
+    @Test
+    void foreignFileStartsOver() throws IOException {
+        Files.write(file(), "{\"not\": \"an index\"}".getBytes());
+
+        try (IndexStore store = open()) {
+            assertEquals(List.of(), store.takeLoaded());
+            assertEquals(5, store.fileBytes());
+            append(store, CHEST, new int[]{1}, new int[]{1}, 1000);
+        }
+
+        try (IndexStore store = open()) {
+            assertEquals(1, store.takeLoaded().size());
+        }
+    }
+
+    @Test
+    void supersededRecordsAreCompacted() throws IOException {
+        ContainerKey[] keys = {CHEST, BARREL, NETHER_CHEST};
+        try (IndexStore store = open()) {
+            for (int i = 0; i < 20_000; i++) {
+                append(store, keys[i % keys.length], new int[]{1, 2, i % 40}, new int[]{64, 64, i % 64 + 1}, i);
+            }
+            assertEquals(3, store.size());
+            // Well over 200 KB of records were written; compaction keeps the file near its live size
+            assertTrue(store.fileBytes() < 2 * 64 * 1024, "file is " + store.fileBytes() + " bytes");
+            assertEquals(store.fileBytes(), Files.size(file()));
+        }
+        assertTrue(Files.notExists(dir.resolve("world.slidx.tmp")));
+
+        try (IndexStore store = open()) {
+            List<IndexStore.Entry> entries = store.takeLoaded();
+            assertEquals(3, entries.size());
+            IndexStore.Entry newest = entries.get(2);
+            assertEquals(19_999, newest.observedMs());
+            assertArrayEquals(new int[]{1, 2, 19_999 % 40}, newest.items());
+            assertArrayEquals(new int[]{64, 64, 19_999 % 64 + 1}, newest.counts());
+        }
+    }
+}